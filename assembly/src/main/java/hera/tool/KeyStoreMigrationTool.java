@@ -0,0 +1,288 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.tool;
+
+import hera.api.model.AccountAddress;
+import hera.api.model.Identity;
+import hera.keystore.AergoKeyStore;
+import hera.keystore.JavaKeyStore;
+import hera.keystore.KeyMigrationListener;
+import hera.keystore.KeyStore;
+import hera.keystore.KeyStoreMigrationResult;
+import hera.keystore.KeyStoreMigrator;
+import hera.keystore.KeyStores;
+import hera.keystore.MigrationCheckpoint;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.Console;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A command line tool migrating keys between keystores in parallel.
+ *
+ * <pre>
+ * java -cp heraj-all.jar hera.tool.KeyStoreMigrationTool \
+ *   --source pkcs12:/path/to/source.p12 --target aergo:/path/to/root [--concurrency N]
+ * </pre>
+ *
+ * <p>A keystore is one of {@code aergo:<root dir>}, {@code pkcs12:<file>} or {@code jks:<file>}.
+ * Passwords are read from {@code HERAJ_SOURCE_PASSWORD} and {@code HERAJ_TARGET_PASSWORD}
+ * environment variables or prompted. A java keystore file is protected by
+ * {@code HERAJ_SOURCE_STORE_PASSWORD} or {@code HERAJ_TARGET_STORE_PASSWORD}, defaulting to a key
+ * password. Run it again with the same arguments to resume an interrupted migration to an aergo
+ * keystore. Verified identities are recorded in {@code <target path>.migrated}; one in a target
+ * but not recorded there is verified again. A java keystore target is written once at the end, so
+ * an interrupted migration to it must start over.</p>
+ */
+public class KeyStoreMigrationTool {
+
+  protected static final String USAGE = "Usage: KeyStoreMigrationTool --source <type>:<path> "
+      + "--target <type>:<path> [--concurrency <n>]\n"
+      + "  type: aergo (root directory), pkcs12 (file), jks (file)";
+
+  protected static final long REPORT_INTERVAL = 5000L;
+
+  protected static final String CHECKPOINT_SUFFIX = ".migrated";
+
+  protected static final Charset CHARSET = Charset.forName("UTF-8");
+
+  protected final PrintStream out;
+
+  public KeyStoreMigrationTool(final PrintStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Run a migration.
+   *
+   * @param args command line arguments
+   * @throws Exception on failure
+   */
+  public static void main(final String[] args) throws Exception {
+    System.exit(new KeyStoreMigrationTool(System.out).run(args));
+  }
+
+  /**
+   * Run a migration with arguments.
+   *
+   * @param args command line arguments
+   * @return an exit code
+   * @throws Exception on failure
+   */
+  public int run(final String[] args) throws Exception {
+    final Map<String, String> options = parse(args);
+    if (null == options || !options.containsKey("source") || !options.containsKey("target")) {
+      out.println(USAGE);
+      return 2;
+    }
+    final String sourcePassword = password("HERAJ_SOURCE_PASSWORD", "Source key password: ");
+    final String targetPassword = password("HERAJ_TARGET_PASSWORD", "Target key password: ");
+    final String sourceStorePassword = env("HERAJ_SOURCE_STORE_PASSWORD", sourcePassword);
+    final String targetStorePassword = env("HERAJ_TARGET_STORE_PASSWORD", targetPassword);
+
+    final String target = options.get("target");
+    final KeyStore sourceKeyStore = open(options.get("source"), sourceStorePassword);
+    final KeyStore targetKeyStore = open(target, targetStorePassword);
+    final KeyStoreMigrator migrator = options.containsKey("concurrency")
+        ? new KeyStoreMigrator(Integer.parseInt(options.get("concurrency")))
+        : new KeyStoreMigrator();
+
+    out.println("Migrate " + sourceKeyStore.listIdentities().size() + " keys from "
+        + options.get("source") + " to " + target);
+    final String targetPath = target.substring(target.indexOf(':') + 1);
+    final ProgressListener listener = new ProgressListener();
+    final KeyStoreMigrationResult result;
+    try (final FileCheckpoint checkpoint =
+        new FileCheckpoint(new File(targetPath + CHECKPOINT_SUFFIX))) {
+      result = migrator.migrate(sourceKeyStore, targetKeyStore,
+          KeyStoreMigrator.withPassword(sourcePassword, targetPassword), listener, checkpoint);
+    }
+
+    // an aergo keystore is written on each save
+    if (targetKeyStore instanceof JavaKeyStore) {
+      targetKeyStore.store(targetPath, targetStorePassword.toCharArray());
+    }
+    if (targetKeyStore instanceof AergoKeyStore) {
+      ((AergoKeyStore) targetKeyStore).close();
+    }
+    if (sourceKeyStore instanceof AergoKeyStore) {
+      ((AergoKeyStore) sourceKeyStore).close();
+    }
+
+    out.println(String.format("Migrated: %d, skipped: %d, failed: %d, elapsed: %d ms, "
+            + "throughput: %.2f keys/s", result.getMigrated(), result.getSkipped(),
+        result.getFailed().size(), result.getElapsedMillis(), result.getThroughput()));
+    for (final Identity failed : result.getFailed()) {
+      out.println("  failed: " + failed.getValue());
+    }
+    return result.getFailed().isEmpty() ? 0 : 1;
+  }
+
+  protected Map<String, String> parse(final String[] args) {
+    final Map<String, String> options = new HashMap<>();
+    for (int i = 0; i < args.length; i += 2) {
+      if (!args[i].startsWith("--") || i + 1 >= args.length) {
+        return null;
+      }
+      options.put(args[i].substring(2), args[i + 1]);
+    }
+    return options;
+  }
+
+  protected KeyStore open(final String spec, final String storePassword) throws Exception {
+    final int index = spec.indexOf(':');
+    if (index < 0) {
+      throw new IllegalArgumentException("Invalid keystore: " + spec);
+    }
+    final String type = spec.substring(0, index);
+    final String path = spec.substring(index + 1);
+    if ("aergo".equals(type)) {
+      return KeyStores.newAergoKeyStore(path);
+    }
+    if ("pkcs12".equals(type) || "jks".equals(type)) {
+      final java.security.KeyStore delegate = java.security.KeyStore
+          .getInstance("pkcs12".equals(type) ? "PKCS12" : "JKS");
+      if (!new File(path).exists()) {
+        delegate.load(null, null);
+      } else {
+        try (final InputStream in = new FileInputStream(path)) {
+          delegate.load(in, storePassword.toCharArray());
+        }
+      }
+      return KeyStores.newJavaKeyStore(delegate);
+    }
+    throw new IllegalArgumentException("Unknown keystore type: " + type);
+  }
+
+  protected String password(final String name, final String prompt) {
+    final String fromEnv = System.getenv(name);
+    if (null != fromEnv) {
+      return fromEnv;
+    }
+    final Console console = System.console();
+    if (null == console) {
+      throw new IllegalStateException("Set " + name + " or run with a console");
+    }
+    return new String(console.readPassword(prompt));
+  }
+
+  protected String env(final String name, final String defaultValue) {
+    final String value = System.getenv(name);
+    return null != value ? value : defaultValue;
+  }
+
+  /**
+   * A checkpoint appending each verified identity to a file as a line.
+   */
+  protected static class FileCheckpoint implements MigrationCheckpoint, Closeable {
+
+    protected final Set<String> verified = Collections.synchronizedSet(new HashSet<String>());
+
+    protected final Writer writer;
+
+    FileCheckpoint(final File file) throws IOException {
+      if (file.exists()) {
+        try (final BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(file), CHARSET))) {
+          String line;
+          while (null != (line = reader.readLine())) {
+            if (!line.isEmpty()) {
+              verified.add(line);
+            }
+          }
+        }
+      }
+      this.writer = new OutputStreamWriter(new FileOutputStream(file, true), CHARSET);
+    }
+
+    @Override
+    public boolean isVerified(final Identity identity) {
+      return verified.contains(identity.getValue());
+    }
+
+    @Override
+    public void verified(final Identity identity) {
+      if (!verified.add(identity.getValue())) {
+        return;
+      }
+      synchronized (writer) {
+        try {
+          // flushed each time to survive an interruption
+          writer.write(identity.getValue());
+          writer.write('\n');
+          writer.flush();
+        } catch (IOException e) {
+          throw new IllegalStateException("Fail to record " + identity.getValue(), e);
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      synchronized (writer) {
+        writer.close();
+      }
+    }
+  }
+
+  protected class ProgressListener implements KeyMigrationListener {
+
+    protected final long start = System.currentTimeMillis();
+    protected final AtomicInteger migrated = new AtomicInteger(0);
+    protected final AtomicInteger skipped = new AtomicInteger(0);
+    protected final AtomicInteger failed = new AtomicInteger(0);
+    protected volatile long lastReport = start;
+
+    @Override
+    public void onMigrated(final Identity identity, final AccountAddress address) {
+      migrated.incrementAndGet();
+      report();
+    }
+
+    @Override
+    public void onSkipped(final Identity identity) {
+      skipped.incrementAndGet();
+    }
+
+    @Override
+    public void onFailed(final Identity identity, final Throwable cause) {
+      failed.incrementAndGet();
+      out.println("Failed " + identity.getValue() + ": " + cause);
+      report();
+    }
+
+    protected void report() {
+      final long now = System.currentTimeMillis();
+      if (now - lastReport < REPORT_INTERVAL) {
+        return;
+      }
+      synchronized (this) {
+        if (now - lastReport < REPORT_INTERVAL) {
+          return;
+        }
+        lastReport = now;
+      }
+      final double elapsedSeconds = (now - start) / 1000.0d;
+      out.println(String.format("migrated: %d, skipped: %d, failed: %d, %.2f keys/s",
+          migrated.get(), skipped.get(), failed.get(), migrated.get() / elapsedSeconds));
+    }
+  }
+
+}
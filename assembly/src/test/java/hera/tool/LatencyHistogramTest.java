@@ -0,0 +1,121 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.tool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void shouldKeepSmallValuesExact() {
+    // given
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    // when
+    for (long micros = 1L; micros <= 100L; ++micros) {
+      histogram.record(micros);
+    }
+
+    // then
+    assertEquals(100L, histogram.getTotalCount());
+    assertEquals(1L, histogram.getPercentile(0.1d));
+    assertEquals(50L, histogram.getPercentile(50.0d));
+    assertEquals(99L, histogram.getPercentile(99.0d));
+    assertEquals(100L, histogram.getPercentile(100.0d));
+    assertEquals(100L, histogram.getMax());
+  }
+
+  @Test
+  public void shouldBoundBucketError() {
+    // given
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    for (long micros = 1L; micros < Long.MAX_VALUE / 4L; micros = micros * 3L / 2L + 1L) {
+      // when
+      final int index = histogram.indexOf(micros);
+      final long upperBound = histogram.upperBoundOf(index);
+
+      // then
+      assertTrue(index < histogram.counts.length);
+      assertTrue(micros <= upperBound);
+      assertTrue((upperBound - micros) / (double) micros < 0.02d);
+      assertEquals(index, histogram.indexOf(upperBound));
+      assertEquals(index + 1, histogram.indexOf(upperBound + 1L));
+    }
+  }
+
+  @Test
+  public void testGetPercentile() {
+    // given
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 990; ++i) {
+      histogram.record(1000L);
+    }
+    for (int i = 0; i < 9; ++i) {
+      histogram.record(50000L);
+    }
+    histogram.record(1000000L);
+
+    // when
+    final long p50 = histogram.getPercentile(50.0d);
+    final long p99 = histogram.getPercentile(99.0d);
+    final long p999 = histogram.getPercentile(99.9d);
+    final long p100 = histogram.getPercentile(100.0d);
+
+    // then
+    assertTrue(1000L <= p50 && p50 < 1020L);
+    assertTrue(1000L <= p99 && p99 < 1020L);
+    assertTrue(50000L <= p999 && p999 < 51000L);
+    assertEquals(1000000L, p100);
+  }
+
+  @Test
+  public void shouldNotExceedMax() {
+    // given
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    // when
+    histogram.record(1000L);
+
+    // then
+    assertEquals(1000L, histogram.getPercentile(50.0d));
+  }
+
+  @Test
+  public void testMerge() {
+    // given
+    final LatencyHistogram left = new LatencyHistogram();
+    final LatencyHistogram right = new LatencyHistogram();
+    left.record(10L);
+    right.record(20L);
+    right.record(-5L);
+
+    // when
+    left.merge(right);
+
+    // then
+    assertEquals(3L, left.getTotalCount());
+    assertEquals(20L, left.getMax());
+    assertEquals(0L, left.getPercentile(1.0d));
+    assertEquals(10L, left.getPercentile(50.0d));
+    assertEquals(20L, left.getPercentile(100.0d));
+  }
+
+  @Test
+  public void shouldReturnZeroWithoutRecord() {
+    // given
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    // when
+    final long percentile = histogram.getPercentile(99.0d);
+
+    // then
+    assertEquals(0L, percentile);
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.tool;
+
+/**
+ * A fixed size histogram of latencies in microseconds with less than 2% error. Values below 128
+ * are exact; larger ones are kept in 64 sub buckets per power of two. Not thread safe; record in a
+ * single thread and {@link #merge(LatencyHistogram)} after.
+ */
+public class LatencyHistogram {
+
+  protected static final int EXACT = 128;
+
+  protected static final int SUB_BUCKETS = 64;
+
+  protected final long[] counts = new long[EXACT + 64 * SUB_BUCKETS];
+
+  protected long totalCount = 0L;
+
+  protected long max = 0L;
+
+  /**
+   * Record a latency.
+   *
+   * @param micros a latency in microseconds
+   */
+  public void record(final long micros) {
+    final long value = Math.max(0L, micros);
+    ++counts[indexOf(value)];
+    ++totalCount;
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Add counts of other histogram.
+   *
+   * @param other other histogram
+   */
+  public void merge(final LatencyHistogram other) {
+    for (int i = 0; i < counts.length; ++i) {
+      counts[i] += other.counts[i];
+    }
+    totalCount += other.totalCount;
+    max = Math.max(max, other.max);
+  }
+
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * Get a latency at a percentile.
+   *
+   * @param percentile a percentile in (0, 100]
+   * @return a latency in microseconds. 0 if nothing recorded
+   */
+  public long getPercentile(final double percentile) {
+    if (0L == totalCount) {
+      return 0L;
+    }
+    final long rank = Math.max(1L, (long) Math.ceil(totalCount * percentile / 100.0d));
+    long seen = 0L;
+    for (int i = 0; i < counts.length; ++i) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(max, upperBoundOf(i));
+      }
+    }
+    return max;
+  }
+
+  protected int indexOf(final long value) {
+    if (value < EXACT) {
+      return (int) value;
+    }
+    // keep 7 significant bits
+    final int shift = 63 - Long.numberOfLeadingZeros(value) - 6;
+    final int top = (int) (value >>> shift);
+    return EXACT + (shift - 1) * SUB_BUCKETS + (top - SUB_BUCKETS);
+  }
+
+  protected long upperBoundOf(final int index) {
+    if (index < EXACT) {
+      return index;
+    }
+    final int shift = (index - EXACT) / SUB_BUCKETS + 1;
+    final long top = (index - EXACT) % SUB_BUCKETS + SUB_BUCKETS;
+    return ((top + 1) << shift) - 1;
+  }
+
+}
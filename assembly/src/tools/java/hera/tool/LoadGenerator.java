@@ -0,0 +1,416 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.tool;
+
+import static java.util.UUID.randomUUID;
+
+import hera.api.model.AccountAddress;
+import hera.api.model.Aer;
+import hera.api.model.Authentication;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractInterface;
+import hera.api.model.ContractInvocation;
+import hera.api.model.Fee;
+import hera.api.model.Identity;
+import hera.client.AergoClient;
+import hera.client.AergoClientBuilder;
+import hera.fixture.FakeAergoNode;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
+import hera.keystore.InMemoryKeyStore;
+import hera.keystore.KeyStore;
+import hera.keystore.KeyStores;
+import hera.wallet.WalletApi;
+import hera.wallet.WalletApiFactory;
+import java.io.Console;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A command line tool generating a load of transfers, contract executions and contract queries
+ * with virtual users and reporting throughput and latency percentiles per operation.
+ *
+ * <pre>
+ * java -cp heraj-tools.jar hera.tool.LoadGenerator \
+ *   (--endpoint host:port --keystore /path/to/aergo/keystore | --fake true) \
+ *   [--users 8] [--rate 0] [--duration 30] [--warmup 5] \
+ *   [--mix transfer:1,execute:0,query:0] [--contract address --function name [--args a,b]]
+ * </pre>
+ *
+ * <p>Each virtual user unlocks its own account from a keystore, whose password is read from
+ * {@code HERAJ_LOAD_PASSWORD} or prompted. With {@code --fake true}, an in-process node with
+ * funded accounts and a contract is used instead. A rate is a target of all users in operations
+ * per second, 0 for as fast as possible. A latency is measured from when an operation was
+ * scheduled, so that a stalled node doesn't hide queued delays.</p>
+ */
+public class LoadGenerator {
+
+  protected static final String USAGE = "Usage: LoadGenerator "
+      + "(--endpoint <host:port> --keystore <aergo keystore dir> | --fake true) "
+      + "[--users <n>] [--rate <ops/s>] [--duration <s>] [--warmup <s>] "
+      + "[--mix <op>:<weight>,...] [--contract <address> --function <name> [--args <a,b,..>]]\n"
+      + "  op: transfer, execute, query";
+
+  protected static final List<String> OPERATIONS = Arrays.asList("transfer", "execute", "query");
+
+  protected static final String FAKE_FUNCTION = "get";
+
+  protected final PrintStream out;
+
+  protected FakeAergoNode fakeNode;
+
+  protected volatile boolean running = true;
+
+  public LoadGenerator(final PrintStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Run a load generation.
+   *
+   * @param args command line arguments
+   * @throws Exception on failure
+   */
+  public static void main(final String[] args) throws Exception {
+    System.exit(new LoadGenerator(System.out).run(args));
+  }
+
+  /**
+   * Run a load generation with arguments.
+   *
+   * @param args command line arguments
+   * @return an exit code
+   * @throws Exception on failure
+   */
+  public int run(final String[] args) throws Exception {
+    final Map<String, String> options = parse(args);
+    final boolean fake = null != options && Boolean.parseBoolean(options.get("fake"));
+    if (null == options || (!fake && (!options.containsKey("endpoint")
+        || !options.containsKey("keystore")))) {
+      out.println(USAGE);
+      return 2;
+    }
+    final int users = Integer.parseInt(option(options, "users", "8"));
+    final double rate = Double.parseDouble(option(options, "rate", "0"));
+    final long duration = Long.parseLong(option(options, "duration", "30")) * 1000L;
+    final long warmup = Long.parseLong(option(options, "warmup", "5")) * 1000L;
+    final int[] weights = parseMix(option(options, "mix", "transfer:1"));
+    if (null == weights || (!fake && (weights[1] > 0 || weights[2] > 0)
+        && !options.containsKey("contract"))) {
+      out.println(USAGE);
+      return 2;
+    }
+
+    final String endpoint;
+    final KeyStore keyStore;
+    final String password;
+    ContractAddress contractAddress = null;
+    String function = options.get("function");
+    if (fake) {
+      password = randomUUID().toString();
+      keyStore = new InMemoryKeyStore();
+      fakeNode = new FakeAergoNode().start();
+      for (int i = 0; i < users; ++i) {
+        final AergoKey key = new AergoKeyGenerator().create();
+        keyStore.save(Authentication.of(key.getAddress(), password), key);
+        fakeNode.setState(key.getAddress(), 0L, Aer.of("1000000", Aer.Unit.AERGO));
+      }
+      contractAddress = new AergoKeyGenerator().create().getAddress()
+          .adapt(ContractAddress.class);
+      function = FAKE_FUNCTION;
+      fakeNode.putContract(contractAddress, "{}", function);
+      endpoint = fakeNode.getEndpoint();
+    } else {
+      password = password("HERAJ_LOAD_PASSWORD", "Keystore password: ");
+      keyStore = KeyStores.newAergoKeyStore(options.get("keystore"));
+      endpoint = options.get("endpoint");
+      if (options.containsKey("contract")) {
+        contractAddress = ContractAddress.of(options.get("contract"));
+      }
+    }
+
+    final AergoClient client = new AergoClientBuilder().withEndpoint(endpoint).build();
+    try {
+      ContractInvocation invocation = null;
+      if (null != contractAddress) {
+        final ContractInterface contractInterface = client.getContractOperation()
+            .getContractInterface(contractAddress);
+        final List<Object> invocationArgs = new ArrayList<>();
+        if (options.containsKey("args")) {
+          invocationArgs.addAll(Arrays.asList((Object[]) options.get("args").split(",")));
+        }
+        invocation = contractInterface.newInvocationBuilder()
+            .function(function)
+            .args(invocationArgs)
+            .build();
+      }
+
+      final List<Identity> identities = keyStore.listIdentities();
+      if (identities.isEmpty()) {
+        out.println("No account in a keystore");
+        return 1;
+      }
+      if (identities.size() < users) {
+        out.println("Warning: " + users + " users share " + identities.size()
+            + " accounts; transfers may retry on nonce conflicts");
+      }
+
+      out.println(String.format("Run %d users against %s for %d s (warmup %d s), target rate: %s",
+          users, endpoint, duration / 1000L, warmup / 1000L,
+          rate > 0.0d ? String.format("%.1f ops/s", rate) : "unlimited"));
+      final long interval = rate > 0.0d ? (long) (1000000000.0d * users / rate) : 0L;
+      final long start = System.nanoTime();
+      final long measureFrom = start + warmup * 1000000L;
+      final long end = measureFrom + duration * 1000000L;
+      final List<VirtualUser> virtualUsers = new ArrayList<>(users);
+      for (int i = 0; i < users; ++i) {
+        final Identity identity = identities.get(i % identities.size());
+        final WalletApi walletApi = new WalletApiFactory().create(keyStore);
+        if (!walletApi.unlock(Authentication.of(identity, password))) {
+          out.println("Cannot unlock " + identity.getValue());
+          return 1;
+        }
+        // spread first operations of users over an interval
+        virtualUsers.add(new VirtualUser(i, client, walletApi, invocation, weights, interval,
+            start + interval * i / users, measureFrom, end));
+      }
+      if (null != fakeNode) {
+        startBlockProducer();
+      }
+      for (final VirtualUser virtualUser : virtualUsers) {
+        virtualUser.start();
+      }
+      for (final VirtualUser virtualUser : virtualUsers) {
+        virtualUser.join();
+      }
+
+      report(virtualUsers, duration / 1000.0d);
+      return 0;
+    } finally {
+      running = false;
+      client.close();
+      if (null != fakeNode) {
+        fakeNode.close();
+      }
+    }
+  }
+
+  /**
+   * Make a block every second not to keep committed transactions of a fake node pending.
+   */
+  protected void startBlockProducer() {
+    final Thread producer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        while (running) {
+          fakeNode.produceBlock();
+          LockSupport.parkNanos(1000000000L);
+        }
+      }
+    }, "block-producer");
+    producer.setDaemon(true);
+    producer.start();
+  }
+
+  protected void report(final List<VirtualUser> virtualUsers, final double seconds) {
+    out.println(String.format("%-10s %10s %8s %12s %10s %10s %10s %10s", "operation", "count",
+        "errors", "ops/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)"));
+    for (int op = 0; op < OPERATIONS.size(); ++op) {
+      final LatencyHistogram histogram = new LatencyHistogram();
+      long errors = 0L;
+      for (final VirtualUser virtualUser : virtualUsers) {
+        histogram.merge(virtualUser.histograms[op]);
+        errors += virtualUser.errors[op];
+      }
+      if (0L == histogram.getTotalCount() && 0L == errors) {
+        continue;
+      }
+      out.println(String.format("%-10s %10d %8d %12.1f %10.3f %10.3f %10.3f %10.3f",
+          OPERATIONS.get(op), histogram.getTotalCount(), errors,
+          histogram.getTotalCount() / seconds, histogram.getPercentile(50.0d) / 1000.0d,
+          histogram.getPercentile(99.0d) / 1000.0d, histogram.getPercentile(99.9d) / 1000.0d,
+          histogram.getMax() / 1000.0d));
+    }
+  }
+
+  protected class VirtualUser extends Thread {
+
+    protected final AergoClient client;
+
+    protected final WalletApi walletApi;
+
+    protected final ContractInvocation invocation;
+
+    protected final int[] weights;
+
+    protected final int totalWeight;
+
+    // 0 for as fast as possible
+    protected final long interval;
+
+    protected final long start;
+
+    protected final long measureFrom;
+
+    protected final long end;
+
+    protected final AccountAddress recipient = new AergoKeyGenerator().create().getAddress();
+
+    protected final Random random;
+
+    protected final LatencyHistogram[] histograms = new LatencyHistogram[OPERATIONS.size()];
+
+    protected final long[] errors = new long[OPERATIONS.size()];
+
+    protected VirtualUser(final int id, final AergoClient client, final WalletApi walletApi,
+        final ContractInvocation invocation, final int[] weights, final long interval,
+        final long start, final long measureFrom, final long end) {
+      super("virtual-user-" + id);
+      setDaemon(true);
+      this.client = client;
+      this.walletApi = walletApi;
+      this.invocation = invocation;
+      this.weights = weights;
+      int sum = 0;
+      for (final int weight : weights) {
+        sum += weight;
+      }
+      this.totalWeight = sum;
+      this.interval = interval;
+      this.start = start;
+      this.measureFrom = measureFrom;
+      this.end = end;
+      this.random = new Random(id);
+      for (int i = 0; i < histograms.length; ++i) {
+        histograms[i] = new LatencyHistogram();
+      }
+    }
+
+    @Override
+    public void run() {
+      long scheduled = start;
+      while (running) {
+        final long now = System.nanoTime();
+        if (now >= end) {
+          return;
+        }
+        if (0L != interval) {
+          if (scheduled > now) {
+            LockSupport.parkNanos(scheduled - now);
+            continue;
+          }
+        } else {
+          scheduled = now;
+        }
+
+        final int op = pick();
+        boolean failed = false;
+        try {
+          execute(op);
+        } catch (Exception e) {
+          failed = true;
+        }
+        final long done = System.nanoTime();
+        if (scheduled >= measureFrom && done < end) {
+          if (failed) {
+            ++errors[op];
+          } else {
+            histograms[op].record((done - scheduled) / 1000L);
+          }
+        }
+        scheduled += interval;
+      }
+    }
+
+    protected int pick() {
+      int value = random.nextInt(totalWeight);
+      for (int i = 0; i < weights.length; ++i) {
+        value -= weights[i];
+        if (value < 0) {
+          return i;
+        }
+      }
+      return 0;
+    }
+
+    protected void execute(final int op) {
+      switch (op) {
+        case 0:
+          walletApi.with(client).transaction().send(recipient, Aer.ONE, Fee.INFINITY);
+          break;
+        case 1:
+          walletApi.with(client).transaction().execute(invocation, Fee.INFINITY);
+          break;
+        default:
+          client.getContractOperation().query(invocation);
+          break;
+      }
+    }
+  }
+
+  protected Map<String, String> parse(final String[] args) {
+    final Map<String, String> options = new HashMap<>();
+    for (int i = 0; i < args.length; i += 2) {
+      if (!args[i].startsWith("--") || i + 1 >= args.length) {
+        return null;
+      }
+      options.put(args[i].substring(2), args[i + 1]);
+    }
+    return options;
+  }
+
+  /**
+   * Parse a mix like {@code transfer:7,query:3} into weights in an order of
+   * {@link #OPERATIONS}.
+   */
+  protected int[] parseMix(final String mix) {
+    final Map<String, Integer> parsed = new LinkedHashMap<>();
+    for (final String entry : mix.split(",")) {
+      final String[] pair = entry.split(":");
+      if (2 != pair.length || !OPERATIONS.contains(pair[0].trim())) {
+        return null;
+      }
+      final int weight = Integer.parseInt(pair[1].trim());
+      if (weight < 0) {
+        return null;
+      }
+      parsed.put(pair[0].trim(), weight);
+    }
+    final int[] weights = new int[OPERATIONS.size()];
+    int total = 0;
+    for (int i = 0; i < weights.length; ++i) {
+      final Integer weight = parsed.get(OPERATIONS.get(i));
+      weights[i] = null == weight ? 0 : weight;
+      total += weights[i];
+    }
+    return 0 < total ? weights : null;
+  }
+
+  protected String option(final Map<String, String> options, final String name,
+      final String defaultValue) {
+    final String value = options.get(name);
+    return null != value ? value : defaultValue;
+  }
+
+  protected String password(final String name, final String prompt) {
+    final String fromEnv = System.getenv(name);
+    if (null != fromEnv) {
+      return fromEnv;
+    }
+    final Console console = System.console();
+    if (null == console) {
+      throw new IllegalStateException("Set " + name + " or run with a console");
+    }
+    return new String(console.readPassword(prompt));
+  }
+
+}
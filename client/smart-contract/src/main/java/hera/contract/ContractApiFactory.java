@@ -95,4 +95,38 @@ public class ContractApiFactory {
     return new ContractApiImpl<>(contractAddress, proxy, handler);
   }
 
+  /**
+   * Create a contract api using a stub generated from an interface annotated with
+   * {@link hera.annotation.ContractStub}. It doesn't use {@link Proxy} or reflection on a call.
+   *
+   * @param <ContractT>     a smart contract interface type
+   * @param contractAddress a contract address
+   * @param stubFactory     a factory of generated stub (eg. {@code TokenStub.FACTORY})
+   * @return a contract api
+   */
+  public <ContractT> ContractApi<ContractT> create(final ContractAddress contractAddress,
+      final ContractStubFactory<ContractT> stubFactory) {
+    return create(contractAddress, stubFactory, DEFAULT_TRY_COUNT_AND_INTERVAL);
+  }
+
+  /**
+   * Create a contract api using a stub generated from an interface annotated with
+   * {@link hera.annotation.ContractStub}. It doesn't use {@link Proxy} or reflection on a call.
+   *
+   * @param <ContractT>         a smart contract interface type
+   * @param contractAddress     a contract address
+   * @param stubFactory         a factory of generated stub (eg. {@code TokenStub.FACTORY})
+   * @param tryCountAndInterval a try count and interval on nonce failure
+   * @return a contract api
+   */
+  public <ContractT> ContractApi<ContractT> create(final ContractAddress contractAddress,
+      final ContractStubFactory<ContractT> stubFactory,
+      final TryCountAndInterval tryCountAndInterval) {
+    logger.debug("Create contract contract address: {}, stub factory: {}", contractAddress,
+        stubFactory);
+    final TxRequester txRequester = new NonceRefreshingTxRequester(tryCountAndInterval,
+        new SimpleNonceProvider());
+    return new ContractStubApi<>(contractAddress, stubFactory, txRequester);
+  }
+
 }
@@ -0,0 +1,51 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.contract;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractFunction;
+import hera.api.model.ContractInterface;
+import hera.client.AergoClient;
+import hera.exception.HerajException;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+
+/**
+ * A function table of a contract. A contract interface is looked up from a client on every call.
+ * A client may cache it in a {@link hera.client.ContractInterfaceRegistry}, so a redeployed one is
+ * picked up once the registry is invalidated.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+class ContractFunctionTable {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  @NonNull
+  protected final ContractAddress contractAddress;
+
+  ContractFunction getFunction(final AergoClient aergoClient, final String functionName) {
+    final ContractFunction function = getContractInterface(aergoClient)
+        .findFunction(functionName);
+    if (null == function) {
+      throw new HerajException(
+          "Cannot find function from interface [name: " + functionName + "]");
+    }
+    return function;
+  }
+
+  ContractInterface getContractInterface(final AergoClient aergoClient) {
+    final ContractInterface contractInterface = aergoClient.getContractOperation()
+        .getContractInterface(contractAddress);
+    if (null == contractInterface) {
+      throw new HerajException("No contract interface for " + contractAddress);
+    }
+    return contractInterface;
+  }
+
+}
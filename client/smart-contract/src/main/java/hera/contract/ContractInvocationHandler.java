@@ -44,9 +44,6 @@ class ContractInvocationHandler implements InvocationHandler, ClientPrepareable,
   @NonNull
   protected final TxRequester txRequester;
 
-  protected final Object lock = new Object();
-  protected volatile ContractInterface cached;
-
   @Override
   public void prepareClient(final AergoClient aergoClient) {
     assertNotNull(aergoClient, "AergoClient must not null");
@@ -118,15 +115,13 @@ class ContractInvocationHandler implements InvocationHandler, ClientPrepareable,
   }
 
   protected ContractInterface getContractInterface() {
-    if (null == this.cached) {
-      synchronized (lock) {
-        if (null == this.cached) {
-          this.cached = getClient().getContractOperation()
-              .getContractInterface(this.contractAddress);
-        }
-      }
+    // not kept here; a client's contract interface registry follows a redeploy
+    final ContractInterface contractInterface = getClient().getContractOperation()
+        .getContractInterface(this.contractAddress);
+    if (null == contractInterface) {
+      throw new HerajException("No contract interface for " + this.contractAddress);
     }
-    return this.cached;
+    return contractInterface;
   }
 
   protected List<Object> filterFee(final Object[] args) {
@@ -0,0 +1,130 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.contract;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static java.util.Arrays.asList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.ContractFunction;
+import hera.api.model.ContractInvocation;
+import hera.api.model.ContractResult;
+import hera.api.model.Fee;
+import hera.api.model.TxHash;
+import hera.client.AergoClient;
+import hera.client.TxRequestFunction;
+import hera.exception.HerajException;
+import hera.key.Signer;
+import org.slf4j.Logger;
+
+/**
+ * A base class of a stub generated from an interface annotated with
+ * {@link hera.annotation.ContractStub}. A stub is bound to a client and a signer on creation, so
+ * it behaves same as a proxy made by {@link ContractApiFactory} without reflection on each call.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public abstract class ContractStub {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ContractStubContext context;
+
+  protected ContractStub(final ContractStubContext context) {
+    assertNotNull(context, "Context must not null");
+    this.context = context;
+  }
+
+  /**
+   * Execute a contract function.
+   *
+   * @param functionName a function name
+   * @param fee          a fee
+   * @param args         function arguments except fee
+   * @return a contract execution tx hash
+   * @throws HerajException on execution failure
+   */
+  protected TxHash execute(final String functionName, final Fee fee, final Object[] args) {
+    try {
+      final ContractFunction function = getFunction(functionName);
+      if (function.isView()) {
+        throw new HerajException(
+            "Unable to execute with function registered with abi.register_view()");
+      }
+      final Signer signer = context.signer;
+      if (null == signer) {
+        throw new HerajException("Prepared signer is null");
+      }
+
+      final AergoClient aergoClient = context.aergoClient;
+      final ContractInvocation contractInvocation = newInvocation(function, args);
+      logger.debug("Contract execution: {}, fee: {}", contractInvocation, fee);
+      return context.txRequester.request(aergoClient, signer, new TxRequestFunction() {
+        @Override
+        public TxHash apply(final Signer signer, final Long nonce) {
+          return aergoClient.getContractOperation()
+              .executeTx(signer, contractInvocation, nonce, fee);
+        }
+      });
+    } catch (HerajException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HerajException(e);
+    }
+  }
+
+  /**
+   * Query a contract function and bind its result to {@code returnType}.
+   *
+   * @param <T>          a return type
+   * @param functionName a function name
+   * @param returnType   a return type. If it's {@link ContractResult}, raw result is returned
+   * @param args         function arguments
+   * @return a query result
+   * @throws HerajException on query failure
+   */
+  @SuppressWarnings("unchecked")
+  protected <T> T query(final String functionName, final Class<T> returnType,
+      final Object[] args) {
+    try {
+      final ContractFunction function = getFunction(functionName);
+      if (!function.isView()) {
+        throw new HerajException("Unable to query with function registered with abi.register()");
+      }
+
+      final ContractInvocation contractInvocation = newInvocation(function, args);
+      logger.debug("Contract query: {}", contractInvocation);
+      final ContractResult result = context.aergoClient.getContractOperation()
+          .query(contractInvocation);
+      return ContractResult.class.equals(returnType) ? (T) result : result.bind(returnType);
+    } catch (HerajException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HerajException(e);
+    }
+  }
+
+  protected ContractFunction getFunction(final String functionName) {
+    return context.functionTable.getFunction(context.aergoClient, functionName);
+  }
+
+  protected ContractInvocation newInvocation(final ContractFunction function,
+      final Object[] args) {
+    return ContractInvocation.newBuilder()
+        .address(context.functionTable.contractAddress)
+        .functionName(function.getName())
+        .args(asList(args))
+        .build();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s(contractAddress=%s)", getClass().getSimpleName(),
+        context.functionTable.contractAddress);
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.contract;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.api.model.ContractAddress;
+import hera.client.AergoClient;
+import hera.client.TxRequester;
+import hera.key.Signer;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A contract api backed by a generated stub. Unlike a proxy one, it doesn't keep a client or a
+ * signer in a thread local. Each stub is bound to them on creation.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+class ContractStubApi<ContractT> implements ContractApi<ContractT> {
+
+  @NonNull
+  protected final ContractAddress contractAddress;
+
+  @NonNull
+  protected final ContractStubFactory<ContractT> stubFactory;
+
+  @NonNull
+  protected final TxRequester txRequester;
+
+  protected final ContractFunctionTable functionTable;
+
+  ContractStubApi(final ContractAddress contractAddress,
+      final ContractStubFactory<ContractT> stubFactory, final TxRequester txRequester) {
+    this(contractAddress, stubFactory, txRequester, new ContractFunctionTable(contractAddress));
+  }
+
+  @Override
+  public PreparedContractApi<ContractT> with(final AergoClient aergoClient) {
+    assertNotNull(aergoClient, "AergoClient must not null");
+    return new PreparedContractApi<ContractT>() {
+
+      @Override
+      public ContractT execution(final Signer signer) {
+        assertNotNull(signer, "Signer must not null");
+        return stubFactory.create(
+            new ContractStubContext(functionTable, txRequester, aergoClient, signer));
+      }
+
+      @Override
+      public ContractT query() {
+        return stubFactory.create(
+            new ContractStubContext(functionTable, txRequester, aergoClient, null));
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ContractStubApi(contractAddress=%s)", contractAddress);
+  }
+
+}
@@ -0,0 +1,35 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.contract;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.client.AergoClient;
+import hera.client.TxRequester;
+import hera.key.Signer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A context of a contract stub. It's created by {@link ContractApi} and can't be created directly.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class ContractStubContext {
+
+  protected final ContractFunctionTable functionTable;
+
+  @ToString.Exclude
+  protected final TxRequester txRequester;
+
+  protected final AergoClient aergoClient;
+
+  // null for query
+  protected final Signer signer;
+
+}
@@ -0,0 +1,27 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.contract;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A factory of a generated contract stub. Generated stub class holds it as {@code FACTORY}.
+ *
+ * @param <ContractT> a smart contract interface type
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface ContractStubFactory<ContractT> {
+
+  /**
+   * Create a contract stub bound to {@code context}.
+   *
+   * @param context a context holding a contract, a client and a signer
+   * @return a contract stub
+   */
+  ContractT create(ContractStubContext context);
+
+}
@@ -0,0 +1,160 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.contract;
+
+import static java.util.Arrays.asList;
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.annotation.ContractStub;
+import hera.api.ContractOperation;
+import hera.api.model.BytesValue;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractFunction;
+import hera.api.model.ContractInterface;
+import hera.api.model.ContractInvocation;
+import hera.api.model.ContractResult;
+import hera.api.model.Fee;
+import hera.api.model.StateVariable;
+import hera.api.model.TxHash;
+import hera.client.AergoClient;
+import hera.client.TxRequestFunction;
+import hera.client.TxRequester;
+import hera.key.AergoKeyGenerator;
+import hera.key.Signer;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class ContractStubTest extends AbstractTestCase {
+
+  private final ContractAddress contractAddress = new AergoKeyGenerator().create().getAddress()
+      .adapt(ContractAddress.class);
+
+  @Test
+  public void testExecute() throws Exception {
+    // given
+    final AergoClient mockClient = mockClient();
+    final TxRequester mockTxRequester = mock(TxRequester.class);
+    final TxHash expected = TxHash.of(BytesValue.of(randomUUID().toString().getBytes()));
+    when(mockTxRequester
+        .request(any(AergoClient.class), any(Signer.class), any(TxRequestFunction.class)))
+        .thenReturn(expected);
+    final Signer signer = new AergoKeyGenerator().create();
+
+    // then
+    final TestContract stub = newStub(mockClient, mockTxRequester, signer);
+    assertEquals(expected, stub.executeWithFee(randomUUID().toString(), Fee.INFINITY));
+    stub.executeVoid();
+  }
+
+  @Test
+  public void testQuery() throws Exception {
+    // given
+    final AergoClient mockClient = mockClient();
+    when(mockClient.getContractOperation().query(any(ContractInvocation.class)))
+        .thenReturn(ContractResult.of(BytesValue.of("10".getBytes())));
+
+    // then
+    final TestContract stub = newStub(mockClient, mock(TxRequester.class), null);
+    assertEquals(10, stub.query());
+    assertEquals(10, stub.query());
+    // looked up on each call; a client's registry keeps it
+    verify(mockClient.getContractOperation(), times(2))
+        .getContractInterface(any(ContractAddress.class));
+  }
+
+  @Test
+  public void shouldThrowErrorOnInvalidCall() throws Exception {
+    // given
+    final AergoClient mockClient = mockClient();
+    final Signer signer = new AergoKeyGenerator().create();
+    final TestContract stub = newStub(mockClient, mock(TxRequester.class), signer);
+
+    try {
+      stub.invalidExecute();
+      fail();
+    } catch (Exception e) {
+      assertTrue(e.getMessage().contains("abi.register()"));
+    }
+
+    try {
+      stub.invalidQuery();
+      fail();
+    } catch (Exception e) {
+      assertTrue(e.getMessage().contains("abi.register_view()"));
+    }
+  }
+
+  @Test
+  public void shouldThrowErrorOnNoSigner() throws Exception {
+    // given
+    final TestContract stub = newStub(mockClient(), mock(TxRequester.class), null);
+
+    try {
+      stub.executeVoid();
+      fail();
+    } catch (Exception e) {
+      assertTrue(e.getMessage().contains("is null"));
+    }
+  }
+
+  protected TestContract newStub(final AergoClient aergoClient, final TxRequester txRequester,
+      final Signer signer) {
+    final ContractStubContext context = new ContractStubContext(
+        new ContractFunctionTable(contractAddress), txRequester, aergoClient, signer);
+    return ContractStubTest_TestContractStub.FACTORY.create(context);
+  }
+
+  protected AergoClient mockClient() {
+    final ContractOperation mockContractOperation = mock(ContractOperation.class);
+    when(mockContractOperation.getContractInterface(any(ContractAddress.class)))
+        .thenReturn(supplyContractInterface());
+    final AergoClient mockClient = mock(AergoClient.class);
+    when(mockClient.getContractOperation()).thenReturn(mockContractOperation);
+    return mockClient;
+  }
+
+  protected ContractInterface supplyContractInterface() {
+    final List<ContractFunction> contractFunctions = asList(
+        new ContractFunction("executeVoid", Collections.<String>emptyList(), false, false, false),
+        new ContractFunction("executeWithFee", asList("arg"), false, false, false),
+        new ContractFunction("query", Collections.<String>emptyList(), false, true, false),
+        new ContractFunction("invalidExecute", Collections.<String>emptyList(), false, false,
+            false),
+        new ContractFunction("invalidQuery", Collections.<String>emptyList(), false, true, false)
+    );
+    return ContractInterface.newBuilder()
+        .address(contractAddress)
+        .version("1.0")
+        .language("lua")
+        .functions(contractFunctions)
+        .stateVariables(Collections.<StateVariable>emptyList())
+        .build();
+  }
+
+  @ContractStub
+  interface TestContract {
+
+    void executeVoid();
+
+    TxHash executeWithFee(String arg, Fee fee);
+
+    int query();
+
+    Object invalidExecute();
+
+    void invalidQuery();
+  }
+
+}
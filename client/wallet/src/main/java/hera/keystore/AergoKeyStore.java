@@ -24,20 +24,43 @@ import hera.key.Signer;
 import hera.model.KeyAlias;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
+/**
+ * A keystore keeping each key as a file under {@code ${root}/keystore}. An identity to file index
+ * is built once on creation and kept current by its own writes, so an operation on an identity
+ * doesn't list a directory. Operations are locked per identity stripe, not globally.
+ *
+ * <p>A file made or removed by other process is found on its first use. Listing identities scans
+ * a directory again unless a directory watcher is on. A watcher is opt-in since it holds a thread
+ * and a watch handle of an os until {@link #close()}.</p>
+ */
 @ApiAudience.Private
 @ApiStability.Unstable
-public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
+public class AergoKeyStore extends AbstractKeyStore implements KeyStore, Closeable {
 
   protected static final String STORAGE_DIR;
   protected static final String FIELD_VERSION;
@@ -55,7 +78,14 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
     STORE_REGEX = Pattern.compile("[a-zA-Z0-9]+__keystore\\.txt$");
   }
 
-  protected final Object lock = new Object();
+  protected static final int LOCK_STRIPES = 64;
+
+  // a file made by other process may be read while it's being written
+  protected static final int READ_RETRY_COUNT = 3;
+  protected static final long READ_RETRY_INTERVAL = 100L;
+
+  protected final Object[] locks = new Object[LOCK_STRIPES];
+  protected final ConcurrentMap<String, File> identity2File = new ConcurrentHashMap<>();
   protected final ObjectMapper mapper = new ObjectMapper();
   protected final FilenameFilter filenameFilter = new AergoKeyStoreFilenameFilter();
 
@@ -63,6 +93,14 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
   protected final String encryptVersion;
   protected final Map<String, KeyCipherStrategy<KeyFormat>> version2Format;
 
+  protected volatile WatchService watchService;
+
+  {
+    for (int i = 0; i < locks.length; ++i) {
+      locks[i] = new Object();
+    }
+  }
+
   /**
    * Create aergo keystore with root directory {@code keyStoreDir}.
    *
@@ -79,6 +117,18 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
    * @param encryptVersion an encryption version
    */
   public AergoKeyStore(final String root, final String encryptVersion) {
+    this(root, encryptVersion, false);
+  }
+
+  /**
+   * Create aergo keystore with root directory {@code keyStoreDir}.
+   *
+   * @param root           a keystore root directory
+   * @param encryptVersion an encryption version
+   * @param watch          whether to watch a directory for files made by other process. Call
+   *                       {@link #close()} to stop it
+   */
+  public AergoKeyStore(final String root, final String encryptVersion, final boolean watch) {
     try {
       assertNotNull(root, "KeyStore rootpath must not null");
       assertNotNull(encryptVersion, "KeyStore keyformat version must not null");
@@ -102,6 +152,11 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
       final Map<String, KeyCipherStrategy<KeyFormat>> version2Format = new HashMap<>();
       version2Format.put("1", new KeyFormatV1Strategy());
       this.version2Format = version2Format;
+
+      rebuildIndex();
+      if (watch) {
+        startWatcher();
+      }
     } catch (Exception e) {
       throw converter.convert(e);
     }
@@ -114,21 +169,27 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
       assertNotNull(key, "Key must not null");
       logger.debug("Save with authentication: {}, key: {}", authentication, key);
 
-      synchronized (lock) {
-        final String identity = authentication.getIdentity().getValue();
+      final String identity = authentication.getIdentity().getValue();
+      synchronized (lockOf(identity)) {
         if (hasIdentity(identity)) {
           throw new InvalidAuthenticationException();
         }
 
-        final String path = this.root.getAbsolutePath() + "/" + deriveFilename(identity);
-        logger.debug("Save key file path: {}", path);
-        try (final OutputStream os = new BufferedOutputStream(new FileOutputStream(path))) {
-          final String password = authentication.getPassword();
-          final KeyCipherStrategy<KeyFormat> strategy = this.version2Format
-              .get(this.encryptVersion);
-          final KeyFormat keyFormat = strategy.encrypt(key, password);
+        final File file = new File(this.root, deriveFilename(identity));
+        logger.debug("Save key file path: {}", file);
+        final String password = authentication.getPassword();
+        final KeyCipherStrategy<KeyFormat> strategy = this.version2Format
+            .get(this.encryptVersion);
+        final KeyFormat keyFormat = strategy.encrypt(key, password);
+        // fails if made by other process after index lookup
+        try (final OutputStream os = new BufferedOutputStream(Files.newOutputStream(
+            file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
           os.write(keyFormat.getBytesValue().getValue());
+        } catch (FileAlreadyExistsException e) {
+          identity2File.put(identity, file);
+          throw new InvalidAuthenticationException();
         }
+        identity2File.put(identity, file);
       }
     } catch (Exception e) {
       throw converter.convert(e);
@@ -141,7 +202,7 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
       assertNotNull(authentication, "Authentication must not null");
       logger.debug("Load with authentication: {}", authentication);
 
-      synchronized (lock) {
+      synchronized (lockOf(authentication.getIdentity().getValue())) {
         return loadAergoKey(authentication);
       }
     } catch (Exception e) {
@@ -155,15 +216,17 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
       assertNotNull(authentication, "Authentication must not null");
       logger.debug("Remove with authentication: {}", authentication);
 
-      synchronized (lock) {
+      final String identity = authentication.getIdentity().getValue();
+      synchronized (lockOf(identity)) {
         final AergoKey loaded = loadAergoKey(authentication);
         // FIXME: refactor not to use loadAergoKey
         if (null != loaded) {
-          final File file = loadKeyFile(authentication.getIdentity().getValue());
+          final File file = loadKeyFile(identity);
           final boolean deleted = file.delete();
           if (!deleted) {
             throw new HerajException("Keystore file not deleted for unknown reason");
           }
+          identity2File.remove(identity);
         }
       }
     } catch (Exception e) {
@@ -193,13 +256,25 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
     }
 
     final File file = loadKeyFile(identity);
-    final KeyFormat keyFormat = KeyFormat.of(new BufferedInputStream(new FileInputStream(file)));
-    logger.trace("Loaded key file: {}", keyFormat);
-
-    final JsonNode jsonNode = mapper.reader().readTree(keyFormat.getBytesValue().getInputStream());
-    final JsonNode jsonVersion = jsonNode.get(FIELD_VERSION);
-    if (null == jsonVersion) {
-      throw new HerajException("No " + FIELD_VERSION + " field");
+    KeyFormat keyFormat = null;
+    JsonNode jsonVersion = null;
+    for (int i = 0; null == jsonVersion; ++i) {
+      try {
+        keyFormat = readKeyFile(file);
+      } catch (FileNotFoundException e) {
+        // removed by other process and not yet noticed
+        identity2File.remove(identity, file);
+        throw new InvalidAuthenticationException();
+      }
+      logger.trace("Loaded key file: {}", keyFormat);
+      jsonVersion = readVersion(keyFormat);
+      if (null == jsonVersion) {
+        if (READ_RETRY_COUNT <= i) {
+          throw new HerajException("No " + FIELD_VERSION + " field");
+        }
+        logger.debug("Key file {} isn't complete; read again", file);
+        Thread.sleep(READ_RETRY_INTERVAL);
+      }
     }
 
     final String version = jsonVersion.asText();
@@ -208,12 +283,45 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
     return strategy.decrypt(keyFormat, authentication.getPassword());
   }
 
+  /**
+   * Read a version field of a key file.
+   *
+   * @param keyFormat a key file
+   * @return a version field. null if a key file isn't complete
+   */
+  protected JsonNode readVersion(final KeyFormat keyFormat) {
+    try {
+      final JsonNode jsonNode = mapper.reader()
+          .readTree(keyFormat.getBytesValue().getInputStream());
+      return null != jsonNode ? jsonNode.get(FIELD_VERSION) : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  protected KeyFormat readKeyFile(final File file) throws IOException {
+    try (final InputStream is = new BufferedInputStream(new FileInputStream(file))) {
+      return KeyFormat.of(is);
+    }
+  }
+
+  protected boolean isComplete(final File file) {
+    try {
+      return null != readVersion(readKeyFile(file));
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
   @Override
   public List<Identity> listIdentities() {
     try {
+      if (null == this.watchService) {
+        // files made or removed by other process are known only by a scan
+        rebuildIndex();
+      }
       final List<Identity> identities = new ArrayList<>();
-      for (final String keyPath : listMatchingFiles()) {
-        final String identity = keyPath.split(KEYSTORE_SPLITER)[0];
+      for (final String identity : identity2File.keySet()) {
         identities.add(KeyAlias.of(identity));
       }
       return identities;
@@ -227,8 +335,114 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
     // do nothing
   }
 
+  /**
+   * Stop watching a keystore directory. An index is still kept current by writes of this
+   * keystore.
+   */
+  @Override
+  public void close() {
+    final WatchService current = this.watchService;
+    if (null == current) {
+      return;
+    }
+    this.watchService = null;
+    try {
+      current.close();
+    } catch (Exception e) {
+      logger.debug("Failed to close keystore watcher: {}", e.toString());
+    }
+  }
+
+  protected Object lockOf(final String identity) {
+    return locks[(identity.hashCode() & Integer.MAX_VALUE) % locks.length];
+  }
+
   protected boolean hasIdentity(final String identity) {
-    return listMatchingFiles().contains(deriveFilename(identity));
+    if (identity2File.containsKey(identity)) {
+      return true;
+    }
+    // an index might not know a file made by other process yet
+    final File file = new File(this.root, deriveFilename(identity));
+    if (file.isFile()) {
+      identity2File.putIfAbsent(identity, file);
+      return true;
+    }
+    return false;
+  }
+
+  protected void rebuildIndex() {
+    final Map<String, File> scanned = new HashMap<>();
+    for (final String filename : listMatchingFiles()) {
+      scanned.put(filename.split(KEYSTORE_SPLITER)[0], new File(this.root, filename));
+    }
+    identity2File.keySet().retainAll(scanned.keySet());
+    identity2File.putAll(scanned);
+    logger.debug("Keystore index built with {} identities", scanned.size());
+  }
+
+  protected void startWatcher() {
+    try {
+      final Path dir = this.root.toPath();
+      final WatchService service = dir.getFileSystem().newWatchService();
+      dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+      this.watchService = service;
+      final Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          watch(service);
+        }
+      }, "aergo-keystore-watcher");
+      thread.setDaemon(true);
+      thread.start();
+    } catch (Exception e) {
+      // an index is still kept current by writes of this keystore
+      logger.info("Unable to watch keystore directory {}: {}", this.root, e.toString());
+    }
+  }
+
+  protected void watch(final WatchService service) {
+    try {
+      while (true) {
+        final WatchKey key = service.take();
+        for (final WatchEvent<?> event : key.pollEvents()) {
+          onWatchEvent(event);
+        }
+        if (!key.reset()) {
+          logger.info("Keystore directory {} is no longer watchable", this.root);
+          return;
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      logger.debug("Keystore watcher closed");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  protected void onWatchEvent(final WatchEvent<?> event) {
+    if (StandardWatchEventKinds.OVERFLOW == event.kind()) {
+      logger.debug("Keystore watch event overflow; rebuild index");
+      rebuildIndex();
+      return;
+    }
+    final String filename = event.context().toString();
+    if (!STORE_REGEX.matcher(filename).matches()) {
+      return;
+    }
+    final String identity = filename.split(KEYSTORE_SPLITER)[0];
+    final File file = new File(this.root, filename);
+    if (StandardWatchEventKinds.ENTRY_CREATE == event.kind()
+        || StandardWatchEventKinds.ENTRY_MODIFY == event.kind()) {
+      // a file being written is indexed on its later modify event
+      if (!identity2File.containsKey(identity) && isComplete(file)) {
+        logger.trace("Key file created: {}", filename);
+        identity2File.putIfAbsent(identity, file);
+      }
+    } else if (StandardWatchEventKinds.ENTRY_DELETE == event.kind() && !file.exists()) {
+      logger.trace("Key file deleted: {}", filename);
+      identity2File.remove(identity);
+    }
   }
 
   protected List<String> listMatchingFiles() {
@@ -243,24 +457,11 @@ public class AergoKeyStore extends AbstractKeyStore implements KeyStore {
   }
 
   protected File loadKeyFile(final String identity) {
-    final String filename = deriveFilename(identity);
-    final File[] files = this.root.listFiles(new FilenameFilter() {
-
-      @Override
-      public boolean accept(final File dir, final String name) {
-        return name.equals(filename);
-      }
-    });
-
-    if (null == files) {
-      throw new HerajException("Unknown error");
-    }
-
-    if (0 == files.length) {
+    final File file = identity2File.get(identity);
+    if (null == file) {
       throw new HerajException("No such identity " + identity);
     }
-
-    return files[0];
+    return file;
   }
 
   protected String deriveFilename(final String identity) {
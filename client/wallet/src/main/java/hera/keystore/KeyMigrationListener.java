@@ -0,0 +1,43 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.keystore;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.Identity;
+
+/**
+ * A listener notified on each identity processed by {@link KeyStoreMigrator}. It's called from
+ * worker threads concurrently.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface KeyMigrationListener {
+
+  /**
+   * Called when a key is migrated and verified.
+   *
+   * @param identity an identity
+   * @param address  an address of a migrated key
+   */
+  void onMigrated(Identity identity, AccountAddress address);
+
+  /**
+   * Called when an identity already exists in a target keystore.
+   *
+   * @param identity an identity
+   */
+  void onSkipped(Identity identity);
+
+  /**
+   * Called when a migration of an identity fails.
+   *
+   * @param identity an identity
+   * @param cause    a cause of failure
+   */
+  void onFailed(Identity identity, Throwable cause);
+
+}
@@ -0,0 +1,50 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.keystore;
+
+import static java.util.Collections.emptyList;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.Identity;
+import java.util.List;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder(builderMethodName = "newBuilder")
+public class KeyStoreMigrationResult {
+
+  @Default
+  protected final int migrated = 0;
+
+  @Default
+  protected final int skipped = 0;
+
+  @NonNull
+  @Default
+  protected final List<Identity> failed = emptyList();
+
+  @Default
+  protected final long elapsedMillis = 0L;
+
+  /**
+   * Get the number of migrated keys per second.
+   *
+   * @return a throughput
+   */
+  public double getThroughput() {
+    return 0L == elapsedMillis ? 0.0d : migrated * 1000.0d / elapsedMillis;
+  }
+
+}
@@ -0,0 +1,333 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.keystore;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.UUID.randomUUID;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.Authentication;
+import hera.api.model.EncryptedPrivateKey;
+import hera.api.model.Identity;
+import hera.exception.HerajException;
+import hera.key.AergoKey;
+import hera.key.Signer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+
+/**
+ * A migrator copying keys from a source keystore to a target keystore in parallel. A key is
+ * loaded with a source authentication, saved with a target authentication and verified by loading
+ * it again from a target and comparing an address. Since loading and saving runs a memory-hard kdf,
+ * the number of workers is bounded by a heap size by default.
+ *
+ * <p>An interrupted migration can be run again to resume. An identity already in a target is
+ * skipped if a {@link MigrationCheckpoint} records it as verified. Otherwise it's verified again
+ * against a source, and saved again if it doesn't match.</p>
+ *
+ * <p>A {@link JavaKeyStore} target serializes its saves by itself while sources are still loaded
+ * in parallel. It's persisted only by a final {@link KeyStore#store(String, char[])}, so an
+ * interrupted migration to it must start over.</p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class KeyStoreMigrator {
+
+  /**
+   * A memory used by a single scrypt run with N = 2^18, r = 8 of {@code KeyFormatV1Strategy}.
+   */
+  public static final long KDF_MEMORY_PER_WORKER = 128L * 8L * (1L << 18);
+
+  protected static final AtomicInteger workerId = new AtomicInteger(0);
+
+  /**
+   * Get the default number of workers. It's the number of processors bounded by a half of the max
+   * heap divided by {@link #KDF_MEMORY_PER_WORKER}.
+   *
+   * @return the default number of workers
+   */
+  public static int defaultConcurrency() {
+    final long memoryBound = Runtime.getRuntime().maxMemory() / 2 / KDF_MEMORY_PER_WORKER;
+    final int processors = Runtime.getRuntime().availableProcessors();
+    return (int) Math.max(1L, Math.min(processors, memoryBound));
+  }
+
+  /**
+   * Make an authenticator using the same password for every identity.
+   *
+   * @param sourcePassword a password of a source keystore
+   * @param targetPassword a password of a target keystore
+   * @return an authenticator
+   */
+  public static MigrationAuthenticator withPassword(final String sourcePassword,
+      final String targetPassword) {
+    assertNotNull(sourcePassword, "Source password must not null");
+    assertNotNull(targetPassword, "Target password must not null");
+    return new MigrationAuthenticator() {
+
+      @Override
+      public Authentication getSourceAuthentication(final Identity identity) {
+        return Authentication.of(identity, sourcePassword);
+      }
+
+      @Override
+      public Authentication getTargetAuthentication(final Identity identity) {
+        return Authentication.of(identity, targetPassword);
+      }
+    };
+  }
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final int concurrency;
+
+  public KeyStoreMigrator() {
+    this(defaultConcurrency());
+  }
+
+  /**
+   * KeyStoreMigrator constructor.
+   *
+   * @param concurrency the number of workers
+   */
+  public KeyStoreMigrator(final int concurrency) {
+    assertTrue(concurrency > 0, "Concurrency must be positive");
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * Migrate every identity of a source keystore to a target keystore.
+   *
+   * @param source        a source keystore
+   * @param target        a target keystore
+   * @param authenticator an authenticator for each identity
+   * @param listener      a listener notified for each identity. Can be null
+   * @return a migration result
+   */
+  public KeyStoreMigrationResult migrate(final KeyStore source, final KeyStore target,
+      final MigrationAuthenticator authenticator, final KeyMigrationListener listener) {
+    assertNotNull(source, "Source keystore must not null");
+    return migrate(source.listIdentities(), source, target, authenticator, listener);
+  }
+
+  /**
+   * Migrate every identity of a source keystore to a target keystore recording verified ones.
+   *
+   * @param source        a source keystore
+   * @param target        a target keystore
+   * @param authenticator an authenticator for each identity
+   * @param listener      a listener notified for each identity. Can be null
+   * @param checkpoint    a record of verified identities. Can be null to verify every identity
+   *                      already in a target again
+   * @return a migration result
+   */
+  public KeyStoreMigrationResult migrate(final KeyStore source, final KeyStore target,
+      final MigrationAuthenticator authenticator, final KeyMigrationListener listener,
+      final MigrationCheckpoint checkpoint) {
+    assertNotNull(source, "Source keystore must not null");
+    return migrate(source.listIdentities(), source, target, authenticator, listener,
+        checkpoint);
+  }
+
+  /**
+   * Migrate identities of a source keystore to a target keystore.
+   *
+   * @param identities    identities to migrate
+   * @param source        a source keystore
+   * @param target        a target keystore
+   * @param authenticator an authenticator for each identity
+   * @param listener      a listener notified for each identity. Can be null
+   * @return a migration result
+   */
+  public KeyStoreMigrationResult migrate(final Iterable<? extends Identity> identities,
+      final KeyStore source, final KeyStore target, final MigrationAuthenticator authenticator,
+      final KeyMigrationListener listener) {
+    return migrate(identities, source, target, authenticator, listener, null);
+  }
+
+  /**
+   * Migrate identities of a source keystore to a target keystore recording verified ones.
+   *
+   * @param identities    identities to migrate
+   * @param source        a source keystore
+   * @param target        a target keystore
+   * @param authenticator an authenticator for each identity
+   * @param listener      a listener notified for each identity. Can be null
+   * @param checkpoint    a record of verified identities. Can be null to verify every identity
+   *                      already in a target again
+   * @return a migration result
+   */
+  public KeyStoreMigrationResult migrate(final Iterable<? extends Identity> identities,
+      final KeyStore source, final KeyStore target, final MigrationAuthenticator authenticator,
+      final KeyMigrationListener listener, final MigrationCheckpoint checkpoint) {
+    assertNotNull(identities, "Identities must not null");
+    assertNotNull(source, "Source keystore must not null");
+    assertNotNull(target, "Target keystore must not null");
+    assertNotNull(authenticator, "Authenticator must not null");
+    // saves to a java keystore are serialized by its lock while loads from a source aren't
+    logger.info("Migrate keys with {} workers", concurrency);
+
+    final long start = System.currentTimeMillis();
+    // compare by value since keystores may list the same identity as different types. an alias
+    // is case-sensitive
+    final Set<String> existing = new HashSet<>();
+    for (final Identity identity : target.listIdentities()) {
+      existing.add(identity.getValue());
+    }
+    final AtomicInteger migrated = new AtomicInteger(0);
+    final AtomicInteger skipped = new AtomicInteger(0);
+    final List<Identity> failed = Collections.synchronizedList(new ArrayList<Identity>());
+
+    final ExecutorService executor = Executors.newFixedThreadPool(concurrency,
+        new ThreadFactory() {
+          @Override
+          public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable,
+                "keystore-migrator-" + workerId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    // keep queued identities bounded for a large keystore
+    final Semaphore inFlight = new Semaphore(2 * concurrency);
+    try {
+      for (final Identity identity : identities) {
+        final boolean exists = existing.contains(identity.getValue());
+        if (exists && null != checkpoint && checkpoint.isVerified(identity)) {
+          logger.debug("Skip verified identity: {}", identity);
+          skipped.incrementAndGet();
+          if (null != listener) {
+            listener.onSkipped(identity);
+          }
+          continue;
+        }
+        inFlight.acquire();
+        executor.execute(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              // saved by an interrupted run but may not be verified
+              if (exists && verifyExisting(identity, source, target, authenticator)) {
+                if (null != checkpoint) {
+                  checkpoint.verified(identity);
+                }
+                skipped.incrementAndGet();
+                if (null != listener) {
+                  listener.onSkipped(identity);
+                }
+                return;
+              }
+              final AccountAddress address = migrateOne(identity, source, target,
+                  authenticator);
+              if (null != checkpoint) {
+                checkpoint.verified(identity);
+              }
+              migrated.incrementAndGet();
+              if (null != listener) {
+                listener.onMigrated(identity, address);
+              }
+            } catch (Throwable e) {
+              logger.info("Migration of {} failed: {}", identity, e.toString());
+              failed.add(identity);
+              if (null != listener) {
+                listener.onFailed(identity, e);
+              }
+            } finally {
+              inFlight.release();
+            }
+          }
+        });
+      }
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HerajException("Migration interrupted", e);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    final KeyStoreMigrationResult result = KeyStoreMigrationResult.newBuilder()
+        .migrated(migrated.get())
+        .skipped(skipped.get())
+        .failed(new ArrayList<>(failed))
+        .elapsedMillis(System.currentTimeMillis() - start)
+        .build();
+    logger.info("Migration done: {}", result);
+    return result;
+  }
+
+  /**
+   * Verify a key already in a target against a source. A mismatched or unloadable one is removed
+   * from a target to be saved again.
+   *
+   * @param identity      an identity
+   * @param source        a source keystore
+   * @param target        a target keystore
+   * @param authenticator an authenticator
+   * @return whether a key in a target is verified or not
+   */
+  protected boolean verifyExisting(final Identity identity, final KeyStore source,
+      final KeyStore target, final MigrationAuthenticator authenticator) {
+    final Authentication sourceAuthentication = authenticator.getSourceAuthentication(identity);
+    final Authentication targetAuthentication = authenticator.getTargetAuthentication(identity);
+    final AccountAddress expected = source.load(sourceAuthentication).getPrincipal();
+    try {
+      final Signer saved = target.load(targetAuthentication);
+      if (expected.equals(saved.getPrincipal())) {
+        logger.debug("Existing identity verified: {}", identity);
+        return true;
+      }
+      logger.info("Existing {} doesn't match a source; save it again", identity);
+    } catch (Exception e) {
+      logger.info("Existing {} can't be loaded ({}); save it again", identity, e.toString());
+    }
+    target.remove(targetAuthentication);
+    return false;
+  }
+
+  protected AccountAddress migrateOne(final Identity identity, final KeyStore source,
+      final KeyStore target, final MigrationAuthenticator authenticator) {
+    final Authentication sourceAuthentication = authenticator.getSourceAuthentication(identity);
+    final Authentication targetAuthentication = authenticator.getTargetAuthentication(identity);
+    final AergoKey key = toAergoKey(source, sourceAuthentication,
+        source.load(sourceAuthentication));
+
+    target.save(targetAuthentication, key);
+    final Signer saved = target.load(targetAuthentication);
+    if (!key.getAddress().equals(saved.getPrincipal())) {
+      target.remove(targetAuthentication);
+      throw new HerajException("Address mismatch after migration (expected: "
+          + key.getAddress() + ", actual: " + saved.getPrincipal() + ")");
+    }
+    return key.getAddress();
+  }
+
+  protected AergoKey toAergoKey(final KeyStore source, final Authentication authentication,
+      final Signer loaded) {
+    if (loaded instanceof AergoKey) {
+      return (AergoKey) loaded;
+    }
+    // a wrapping signer doesn't expose a key; get it by a one-time export
+    final String oneTimePassword = randomUUID().toString();
+    final EncryptedPrivateKey exported = source.export(authentication, oneTimePassword);
+    return AergoKey.of(exported, oneTimePassword);
+  }
+
+}
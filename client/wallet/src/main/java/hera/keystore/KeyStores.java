@@ -6,6 +6,7 @@ package hera.keystore;
 
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
+import java.util.concurrent.TimeUnit;
 
 @ApiAudience.Public
 @ApiStability.Unstable
@@ -40,6 +41,21 @@ public class KeyStores {
     return new JavaKeyStore(delegate);
   }
 
+  /**
+   * Wrap a keystore to cache decrypted signers for a session. A session ends when it's idle for
+   * {@code idleTimeout} or evicted by {@code maxSize}.
+   *
+   * @param delegate    a keystore to load a signer
+   * @param idleTimeout an idle timeout of a session
+   * @param unit        a unit of an idle timeout
+   * @param maxSize     a max number of sessions
+   * @return a session caching keystore
+   */
+  public static SessionCachingKeyStore newSessionCachingKeyStore(final KeyStore delegate,
+      final long idleTimeout, final TimeUnit unit, final int maxSize) {
+    return new SessionCachingKeyStore(delegate, idleTimeout, unit, maxSize);
+  }
+
   private KeyStores() {
 
   }
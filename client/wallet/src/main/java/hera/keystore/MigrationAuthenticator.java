@@ -0,0 +1,35 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.keystore;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.Authentication;
+import hera.api.model.Identity;
+
+/**
+ * A provider of authentications used by {@link KeyStoreMigrator} for each identity.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface MigrationAuthenticator {
+
+  /**
+   * Get an authentication to load a key from a source keystore.
+   *
+   * @param identity an identity in a source keystore
+   * @return an authentication for a source keystore
+   */
+  Authentication getSourceAuthentication(Identity identity);
+
+  /**
+   * Get an authentication to save a key into a target keystore.
+   *
+   * @param identity an identity in a source keystore
+   * @return an authentication for a target keystore
+   */
+  Authentication getTargetAuthentication(Identity identity);
+
+}
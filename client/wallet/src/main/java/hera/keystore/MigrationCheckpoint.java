@@ -0,0 +1,35 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.keystore;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.Identity;
+
+/**
+ * A record of identities verified in a target keystore by {@link KeyStoreMigrator}. An identity
+ * already in a target but not recorded is verified again on resume. It's called from worker
+ * threads concurrently.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface MigrationCheckpoint {
+
+  /**
+   * Check if a key of an identity is verified in a target keystore.
+   *
+   * @param identity an identity
+   * @return whether verified or not
+   */
+  boolean isVerified(Identity identity);
+
+  /**
+   * Record that a key of an identity is verified in a target keystore.
+   *
+   * @param identity an identity
+   */
+  void verified(Identity identity);
+
+}
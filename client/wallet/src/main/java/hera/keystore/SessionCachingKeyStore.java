@@ -0,0 +1,213 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.keystore;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.Authentication;
+import hera.api.model.BytesValue;
+import hera.api.model.EncryptedPrivateKey;
+import hera.api.model.Identity;
+import hera.key.AergoKey;
+import hera.key.Signer;
+import hera.util.Sha256Utils;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A keystore caching decrypted signers of a delegate keystore. A signer loaded with an
+ * authentication is kept for a session and returned without decryption on following loads with
+ * the same authentication. Both a load and a signing refresh a session.
+ *
+ * <p>A session ends when it's idle for a timeout, on {@link #invalidate(Authentication)} or on
+ * {@link #remove(Authentication)}. A signer of an ended session drops its key and fails on
+ * signing. A session evicted by a max size ends too, but a signing in progress on its signer
+ * completes before the key is dropped, so a max size bounds decrypted keys kept. Note that
+ * expired sessions are cleaned up during operations on this keystore, not by a background
+ * thread.</p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class SessionCachingKeyStore extends AbstractKeyStore implements KeyStore {
+
+  protected static final Charset CHARSET = Charset.forName("UTF-8");
+
+  protected static final int SALT_LENGTH = 32;
+
+  protected final KeyStore delegate;
+
+  protected final Cache<BytesValue, SessionSigner> sessions;
+
+  protected final long idleTimeout;
+
+  // makes a session key meaningless outside of this instance
+  protected final byte[] salt = new byte[SALT_LENGTH];
+
+  /**
+   * SessionCachingKeyStore constructor.
+   *
+   * @param delegate    a keystore to load a signer
+   * @param idleTimeout an idle timeout of a session
+   * @param unit        a unit of an idle timeout
+   * @param maxSize     a max number of sessions
+   */
+  public SessionCachingKeyStore(final KeyStore delegate, final long idleTimeout,
+      final TimeUnit unit, final int maxSize) {
+    assertNotNull(delegate, "Delegate keystore must not null");
+    assertNotNull(unit, "Time unit must not null");
+    assertTrue(idleTimeout > 0, "Idle timeout must be positive");
+    assertTrue(maxSize > 0, "Max size must be positive");
+    logger.debug("Create a SessionCachingKeyStore with delegate: {}, idle timeout: {} {}, "
+        + "max size: {}", delegate, idleTimeout, unit, maxSize);
+    this.delegate = delegate;
+    this.idleTimeout = unit.toNanos(idleTimeout);
+    this.sessions = CacheBuilder.newBuilder()
+        .expireAfterAccess(idleTimeout, unit)
+        .maximumSize(maxSize)
+        .removalListener(new RemovalListener<BytesValue, SessionSigner>() {
+          @Override
+          public void onRemoval(
+              final RemovalNotification<BytesValue, SessionSigner> notification) {
+            logger.debug("Session of {} ended by {}", notification.getValue(),
+                notification.getCause());
+            // a signing in progress completes before its key is dropped
+            if (RemovalCause.SIZE == notification.getCause()) {
+              notification.getValue().evict();
+            } else {
+              notification.getValue().destroy();
+            }
+          }
+        })
+        .build();
+    new SecureRandom().nextBytes(this.salt);
+  }
+
+  @Override
+  public void save(final Authentication authentication, final AergoKey key) {
+    try {
+      assertNotNull(authentication, "Authentication must not null");
+      delegate.save(authentication, key);
+      sessions.invalidate(sessionKey(authentication));
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
+  @Override
+  public Signer load(final Authentication authentication) {
+    try {
+      assertNotNull(authentication, "Authentication must not null");
+      logger.debug("Load with authentication: {}", authentication);
+      final BytesValue sessionKey = sessionKey(authentication);
+      while (true) {
+        final SessionSigner session = sessions.get(sessionKey, new Callable<SessionSigner>() {
+          @Override
+          public SessionSigner call() {
+            logger.debug("Start session with authentication: {}", authentication);
+            return new SessionSigner(delegate.load(authentication), idleTimeout,
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    sessions.getIfPresent(sessionKey);
+                  }
+                });
+          }
+        });
+        // evicted right after lookup; start a new one
+        if (!session.isDestroyed()) {
+          session.touched();
+          return session;
+        }
+        sessions.asMap().remove(sessionKey, session);
+      }
+    } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+      throw converter.convert(e.getCause());
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
+  @Override
+  public void remove(final Authentication authentication) {
+    try {
+      assertNotNull(authentication, "Authentication must not null");
+      sessions.invalidate(sessionKey(authentication));
+      delegate.remove(authentication);
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
+  @Override
+  public EncryptedPrivateKey export(final Authentication authentication,
+      final String password) {
+    return delegate.export(authentication, password);
+  }
+
+  @Override
+  public List<Identity> listIdentities() {
+    return delegate.listIdentities();
+  }
+
+  @Override
+  public void store(final String path, final char[] password) {
+    delegate.store(path, password);
+  }
+
+  /**
+   * End a session of an authentication.
+   *
+   * @param authentication an authentication
+   */
+  public void invalidate(final Authentication authentication) {
+    assertNotNull(authentication, "Authentication must not null");
+    sessions.invalidate(sessionKey(authentication));
+  }
+
+  /**
+   * End all the sessions.
+   */
+  public void invalidateAll() {
+    sessions.invalidateAll();
+  }
+
+  /**
+   * Get the number of sessions including expired ones not cleaned up yet.
+   *
+   * @return the number of sessions
+   */
+  public long size() {
+    return sessions.size();
+  }
+
+  protected BytesValue sessionKey(final Authentication authentication) {
+    final byte[] rawIdentity = authentication.getIdentity().getValue().getBytes(CHARSET);
+    final byte[] rawPassword = authentication.getPassword().getBytes(CHARSET);
+    // length prefixed not to make the same key by moving a boundary of identity and password
+    final ByteBuffer plaintext = ByteBuffer
+        .allocate(salt.length + 4 + rawIdentity.length + rawPassword.length)
+        .put(salt)
+        .putInt(rawIdentity.length)
+        .put(rawIdentity)
+        .put(rawPassword);
+    return BytesValue.of(Sha256Utils.digest(plaintext.array()));
+  }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.keystore;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.api.model.AccountAddress;
+import hera.api.model.BytesValue;
+import hera.api.model.Hash;
+import hera.api.model.RawTransaction;
+import hera.api.model.Signature;
+import hera.api.model.Transaction;
+import hera.exception.HerajException;
+import hera.key.Signer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A signer handed out by {@link SessionCachingKeyStore}. Each use refreshes its session. It drops
+ * its decrypted key when it's idle for a timeout or when its session is ended explicitly so that a
+ * key is unreachable from it afterward. An evicted one fails on a new use and drops its key once
+ * uses in progress are done.
+ */
+class SessionSigner implements Signer {
+
+  protected final AccountAddress principal;
+
+  protected final long idleTimeout;
+
+  // refreshes an entry of a session cache. null if none
+  protected final Runnable touch;
+
+  protected volatile Signer delegate;
+
+  protected volatile long lastUsed = System.nanoTime();
+
+  // uses in progress
+  protected final AtomicInteger inUse = new AtomicInteger(0);
+
+  protected volatile boolean evicted = false;
+
+  SessionSigner(final Signer delegate) {
+    this(delegate, Long.MAX_VALUE, null);
+  }
+
+  SessionSigner(final Signer delegate, final long idleTimeout, final Runnable touch) {
+    assertNotNull(delegate, "Signer must not null");
+    this.principal = delegate.getPrincipal();
+    this.delegate = delegate;
+    this.idleTimeout = idleTimeout;
+    this.touch = touch;
+  }
+
+  @Override
+  public AccountAddress getPrincipal() {
+    return this.principal;
+  }
+
+  @Override
+  public Transaction sign(final RawTransaction rawTransaction) {
+    final Signer current = acquire();
+    try {
+      return current.sign(rawTransaction);
+    } finally {
+      release();
+    }
+  }
+
+  @Override
+  public Signature signMessage(final BytesValue message) {
+    final Signer current = acquire();
+    try {
+      return current.signMessage(message);
+    } finally {
+      release();
+    }
+  }
+
+  @Override
+  public Signature signMessage(final Hash hashedMessage) {
+    final Signer current = acquire();
+    try {
+      return current.signMessage(hashedMessage);
+    } finally {
+      release();
+    }
+  }
+
+  boolean isDestroyed() {
+    return null == this.delegate || this.evicted || isIdle(System.nanoTime());
+  }
+
+  /**
+   * Refresh on a load from a session cache.
+   */
+  void touched() {
+    this.lastUsed = System.nanoTime();
+  }
+
+  /**
+   * Drop a key at once if not in use, or on the end of the last use in progress.
+   */
+  void evict() {
+    this.evicted = true;
+    if (0 == inUse.get()) {
+      destroy();
+    }
+  }
+
+  protected boolean isIdle(final long now) {
+    return idleTimeout < now - this.lastUsed;
+  }
+
+  void destroy() {
+    this.delegate = null;
+  }
+
+  protected Signer acquire() {
+    inUse.incrementAndGet();
+    final Signer current = this.delegate;
+    final long now = System.nanoTime();
+    if (null == current || this.evicted || isIdle(now)) {
+      release();
+      destroy();
+      throw new HerajException("Signer session expired; load it again");
+    }
+    this.lastUsed = now;
+    if (null != touch) {
+      touch.run();
+    }
+    return current;
+  }
+
+  protected void release() {
+    // checked after a count so that either this or evict() sees the other
+    if (0 == inUse.decrementAndGet() && this.evicted) {
+      destroy();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SessionSigner(principal=%s, destroyed=%s)", principal, isDestroyed());
+  }
+
+}
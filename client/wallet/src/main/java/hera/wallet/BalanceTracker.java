@@ -0,0 +1,601 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.wallet;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Collections.unmodifiableMap;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.StateBatch;
+import hera.api.model.StateBatchResult;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Transaction;
+import hera.api.model.Transaction.TxType;
+import hera.api.model.TxReceipt;
+import hera.client.AergoClient;
+import hera.exception.HerajException;
+import hera.server.ThreadServer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A background server tracking balances and nonces of watched accounts by following new blocks
+ * instead of polling. States are fetched once on boot and every new block is applied to them.
+ *
+ * <p>A plain transfer to a watched account is credited locally once its receipt shows it
+ * succeeded. Any other account a block touches is fetched again: a sender pays a fee by gas used,
+ * which isn't in a block, and a contract call, a deploy or a governance transaction may change a
+ * balance in a way only a node knows. A coinbase account is fetched again too.</p>
+ *
+ * <p>Accounts to fetch are looked up in chunks, each with a {@link StateBatch} pinned to the best
+ * block of its own. If the best block is ahead of the tracked one, the blocks in between are
+ * applied to the other accounts before the next chunk, so that a {@link Snapshot} is always
+ * consistent to a single block however many accounts are watched. Seeding and a resync work the
+ * same way.</p>
+ *
+ * <p>A transfer made by a contract to a watched account isn't visible in a block. Call
+ * {@link #resync()} to fetch all the watched accounts again if it matters.</p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class BalanceTracker extends ThreadServer {
+
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+  protected static final String RECEIPT_SUCCESS = "SUCCESS";
+
+  /**
+   * A listener notified of a state change of a watched account. It's called in a tracker thread
+   * after a snapshot including the change is published.
+   */
+  public interface ChangeListener {
+
+    /**
+     * Handle a state change.
+     *
+     * @param before a state before. null if the account is newly watched
+     * @param after  a state after
+     * @param blockNumber a block number of a snapshot including the change
+     */
+    void changed(AccountState before, AccountState after, long blockNumber);
+  }
+
+  /**
+   * States of watched accounts on a single block.
+   */
+  @Getter
+  @ToString(exclude = "states")
+  @RequiredArgsConstructor
+  public static class Snapshot {
+
+    protected final long blockNumber;
+
+    protected final BlockHash blockHash;
+
+    protected final Map<AccountAddress, AccountState> states;
+
+    /**
+     * Get a state of an account.
+     *
+     * @param address an account address
+     * @return an account state. null if not watched
+     */
+    public AccountState get(final AccountAddress address) {
+      return states.get(address);
+    }
+  }
+
+  protected final AergoClient client;
+
+  protected final int concurrency;
+
+  protected final int maxRetry;
+
+  protected final int chunkSize;
+
+  protected final Set<AccountAddress> watched =
+      Collections.newSetFromMap(new ConcurrentHashMap<AccountAddress, Boolean>());
+
+  protected final Queue<AccountAddress> watchQueue = new ConcurrentLinkedQueue<>();
+
+  protected final Queue<AccountAddress> unwatchQueue = new ConcurrentLinkedQueue<>();
+
+  protected final AtomicBoolean resyncRequested = new AtomicBoolean(false);
+
+  protected final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+  // blocks from a stream not applied yet
+  protected final ConcurrentSkipListMap<Long, Block> received = new ConcurrentSkipListMap<>();
+
+  protected volatile Snapshot snapshot;
+
+  protected volatile Subscription<Block> subscription;
+
+  protected volatile boolean streamBroken = false;
+
+  /**
+   * BalanceTracker constructor with default concurrency and max retry of {@link StateBatch}.
+   *
+   * @param client    an aergo client
+   * @param addresses accounts to watch
+   */
+  public BalanceTracker(final AergoClient client, final Collection<AccountAddress> addresses) {
+    this(client, addresses, StateBatch.DEFAULT_CONCURRENCY, StateBatch.DEFAULT_MAX_RETRY);
+  }
+
+  /**
+   * BalanceTracker constructor with a default chunk size.
+   *
+   * @param client      an aergo client
+   * @param addresses   accounts to watch
+   * @param concurrency the maximum number of concurrent state lookups
+   * @param maxRetry    a retry count of state lookups when the best block moves meanwhile
+   */
+  public BalanceTracker(final AergoClient client, final Collection<AccountAddress> addresses,
+      final int concurrency, final int maxRetry) {
+    this(client, addresses, concurrency, maxRetry, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * BalanceTracker constructor.
+   *
+   * @param client      an aergo client
+   * @param addresses   accounts to watch
+   * @param concurrency the maximum number of concurrent state lookups
+   * @param maxRetry    a retry count of state lookups when the best block moves meanwhile
+   * @param chunkSize   the maximum number of accounts looked up on a single block
+   */
+  public BalanceTracker(final AergoClient client, final Collection<AccountAddress> addresses,
+      final int concurrency, final int maxRetry, final int chunkSize) {
+    assertNotNull(client, "AergoClient must not null");
+    assertNotNull(addresses, "Addresses must not null");
+    assertTrue(concurrency > 0, "Concurrency must be positive");
+    assertTrue(maxRetry >= 0, "Max retry must not negative");
+    assertTrue(chunkSize > 0, "Chunk size must be positive");
+    this.client = client;
+    this.concurrency = concurrency;
+    this.maxRetry = maxRetry;
+    this.chunkSize = chunkSize;
+    for (final AccountAddress address : addresses) {
+      assertNotNull(address, "Address must not null");
+      this.watched.add(address);
+    }
+  }
+
+  public void addListener(final ChangeListener listener) {
+    this.listeners.add(listener);
+  }
+
+  public void removeListener(final ChangeListener listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * Start watching an account. Its state is fetched on the next round.
+   *
+   * @param address an account address
+   */
+  public void watch(final AccountAddress address) {
+    assertNotNull(address, "Address must not null");
+    if (watched.add(address)) {
+      watchQueue.offer(address);
+      trigger();
+    }
+  }
+
+  /**
+   * Stop watching an account. It's removed from the next snapshot.
+   *
+   * @param address an account address
+   */
+  public void unwatch(final AccountAddress address) {
+    assertNotNull(address, "Address must not null");
+    if (watched.remove(address)) {
+      unwatchQueue.offer(address);
+      trigger();
+    }
+  }
+
+  /**
+   * Fetch all the watched accounts again on the next round.
+   */
+  public void resync() {
+    resyncRequested.set(true);
+    trigger();
+  }
+
+  /**
+   * Get the latest snapshot.
+   *
+   * @return the latest snapshot. null if not booted yet
+   */
+  public Snapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Get a state of an account in the latest snapshot.
+   *
+   * @param address an account address
+   * @return an account state. null if not watched or not booted yet
+   */
+  public AccountState getState(final AccountAddress address) {
+    final Snapshot current = snapshot;
+    return null == current ? null : current.get(address);
+  }
+
+  @Override
+  protected void initialize() throws Exception {
+    received.clear();
+    watchQueue.clear();
+    unwatchQueue.clear();
+    resyncRequested.set(false);
+    // subscribe first not to miss a block made while seeding
+    subscribe();
+    final Round round;
+    try {
+      final List<AccountAddress> addresses = new ArrayList<>(watched);
+      final List<AccountAddress> first =
+          addresses.subList(0, Math.min(chunkSize, addresses.size()));
+      final StateBatchResult seed = fetch(first);
+      // the rest are fetched chunk by chunk on a block of the first one or later
+      round = new Round(new Snapshot(seed.getBlockNumber(), seed.getBlockHash(),
+          Collections.<AccountAddress, AccountState>emptyMap()));
+      round.dirty.addAll(addresses.subList(first.size(), addresses.size()));
+      round.refreshed(first, seed);
+      advance(round, round.blockNumber);
+    } catch (final Exception e) {
+      // terminate() isn't called when pre-process fails
+      unsubscribe();
+      throw e;
+    }
+    snapshot = new Snapshot(round.blockNumber, round.blockHash, unmodifiableMap(round.states));
+    logger.info("{} seeded {} accounts on block {}", this, round.states.size(),
+        round.blockNumber);
+  }
+
+  protected void subscribe() {
+    final Subscription<Block> old = subscription;
+    if (null != old) {
+      old.unsubscribe();
+    }
+    streamBroken = false;
+    subscription = client.getBlockOperation().subscribeNewBlock(new StreamObserver<Block>() {
+      @Override
+      public void onNext(final Block value) {
+        final Snapshot current = snapshot;
+        if (null == current || value.getBlockNumber() > current.getBlockNumber()) {
+          received.put(value.getBlockNumber(), value);
+          trigger();
+        }
+      }
+
+      @Override
+      public void onError(final Throwable t) {
+        logger.info("Block stream of {} broken: {}", BalanceTracker.this, t.toString());
+        streamBroken = true;
+        trigger();
+      }
+
+      @Override
+      public void onCompleted() {
+        streamBroken = true;
+        trigger();
+      }
+    });
+  }
+
+  @Override
+  protected void process() throws Exception {
+    if (streamBroken) {
+      subscribe();
+    }
+
+    final Snapshot base = snapshot;
+    // blocks made while seeding
+    received.headMap(base.getBlockNumber(), true).clear();
+    final Round round = new Round(base);
+    final boolean resync = resyncRequested.getAndSet(false);
+    final List<AccountAddress> added = drain(watchQueue);
+    final List<AccountAddress> removed = drain(unwatchQueue);
+    try {
+      if (resync) {
+        round.dirty.addAll(watched);
+      }
+      for (final AccountAddress address : added) {
+        if (watched.contains(address)) {
+          round.dirty.add(address);
+        }
+      }
+      for (final AccountAddress address : removed) {
+        if (!watched.contains(address)) {
+          round.remove(address);
+        }
+      }
+
+      final long target = received.isEmpty() ? base.getBlockNumber() : received.lastKey();
+      if (target <= base.getBlockNumber() && round.dirty.isEmpty() && !round.copied) {
+        idle();
+        return;
+      }
+      advance(round, target);
+    } catch (final Exception e) {
+      // keep requests for the next round
+      if (resync) {
+        resyncRequested.set(true);
+      }
+      watchQueue.addAll(added);
+      unwatchQueue.addAll(removed);
+      throw e;
+    }
+
+    publish(base, round);
+    received.headMap(round.blockNumber, true).clear();
+  }
+
+  protected List<AccountAddress> drain(final Queue<AccountAddress> queue) {
+    final List<AccountAddress> drained = new ArrayList<>();
+    AccountAddress address = queue.poll();
+    while (null != address) {
+      drained.add(address);
+      address = queue.poll();
+    }
+    return drained;
+  }
+
+  protected void advance(final Round round, final long target) {
+    catchUp(round, target);
+    int attempts = 0;
+    while (!round.dirty.isEmpty()) {
+      final List<AccountAddress> chunk = round.nextChunk(chunkSize);
+      final StateBatchResult result = fetch(chunk);
+      if (result.getBlockNumber() < round.blockNumber) {
+        // a node behind the block stream
+        if (++attempts > maxRetry) {
+          throw new HerajException(String.format(
+              "Best block %d is behind tracked block %d (attempts: %d)",
+              result.getBlockNumber(), round.blockNumber, attempts));
+        }
+        continue;
+      }
+      attempts = 0;
+      round.refreshed(chunk, result);
+      // accounts fetched before are tracked by blocks up to the new one
+      catchUp(round, result.getBlockNumber());
+    }
+  }
+
+  protected StateBatchResult fetch(final Collection<AccountAddress> addresses) {
+    return client.getAccountOperation().getStates(StateBatch.newBuilder()
+        .addAll(addresses)
+        .concurrency(concurrency)
+        .pinToBestBlock(true)
+        .maxRetry(maxRetry)
+        .build());
+  }
+
+  protected void catchUp(final Round round, final long target) {
+    for (long height = round.blockNumber + 1L; height <= target; ++height) {
+      Block block = received.get(height);
+      if (null == block) {
+        block = client.getBlockOperation().getBlock(height);
+      }
+      if (!BlockHash.EMPTY.equals(round.blockHash)
+          && !round.blockHash.equals(block.getPreviousHash())) {
+        logger.info("Block {} doesn't follow tracked one, fetch all the accounts again", height);
+        round.dirty.addAll(watched);
+      }
+      apply(round, block);
+    }
+  }
+
+  protected void apply(final Round round, final Block block) {
+    for (final Transaction transaction : block.getTransactions()) {
+      final AccountAddress sender = transaction.getSender();
+      final AccountAddress recipient = transaction.getRecipient();
+      if (watched.contains(sender)) {
+        round.touch(sender);
+      }
+      if (null == recipient || !watched.contains(recipient)) {
+        continue;
+      }
+      if (isPlainTransfer(transaction) && !recipient.equals(sender)
+          && round.isTracked(recipient) && isSucceeded(transaction)) {
+        round.credit(recipient, transaction);
+      } else {
+        round.touch(recipient);
+      }
+    }
+    final AccountAddress coinbase = block.getCoinbaseAccount();
+    if (watched.contains(coinbase)) {
+      round.touch(coinbase);
+    }
+    round.blockNumber = block.getBlockNumber();
+    round.blockHash = block.getHash();
+  }
+
+  protected boolean isPlainTransfer(final Transaction transaction) {
+    final TxType txType = transaction.getTxType();
+    return TxType.TRANSFER == txType
+        || (TxType.NORMAL == txType && transaction.getPayload().isEmpty());
+  }
+
+  /**
+   * Check if a transaction succeeded. A transaction failed or not known yet is treated as failed
+   * so that its recipient is fetched again.
+   */
+  protected boolean isSucceeded(final Transaction transaction) {
+    try {
+      final TxReceipt receipt =
+          client.getTransactionOperation().getTxReceipt(transaction.getHash());
+      return RECEIPT_SUCCESS.equals(receipt.getStatus());
+    } catch (final Exception e) {
+      logger.debug("Receipt of {} not found: {}", transaction.getHash(), e.toString());
+      return false;
+    }
+  }
+
+  protected void publish(final Snapshot base, final Round round) {
+    final Map<AccountAddress, AccountState> states = round.copied
+        ? unmodifiableMap(round.states) : base.getStates();
+    snapshot = new Snapshot(round.blockNumber, round.blockHash, states);
+    logger.debug("{} moved to block {} ({} accounts changed)", this, round.blockNumber,
+        round.changed.size());
+
+    if (listeners.isEmpty()) {
+      return;
+    }
+    for (final AccountAddress address : round.changed) {
+      final AccountState before = base.get(address);
+      final AccountState after = states.get(address);
+      if (null == after || after.equals(before)) {
+        continue;
+      }
+      for (final ChangeListener listener : listeners) {
+        try {
+          listener.changed(before, after, round.blockNumber);
+        } catch (final Throwable e) {
+          logger.debug("Unexpected exception in listener", e);
+        }
+      }
+    }
+  }
+
+  @Override
+  protected void handleError(final Throwable th) {
+    // a round is applied all or nothing; try again after a backoff
+    idle();
+  }
+
+  @Override
+  protected void terminate() {
+    unsubscribe();
+  }
+
+  protected void unsubscribe() {
+    final Subscription<Block> old = subscription;
+    subscription = null;
+    if (null != old) {
+      old.unsubscribe();
+    }
+    received.clear();
+  }
+
+  /**
+   * Work in progress from a snapshot to the next one. States are copied on the first change.
+   */
+  protected static class Round {
+
+    protected final Map<AccountAddress, AccountState> base;
+
+    protected Map<AccountAddress, AccountState> states;
+
+    protected boolean copied = false;
+
+    protected long blockNumber;
+
+    protected BlockHash blockHash;
+
+    // accounts to fetch again
+    protected Set<AccountAddress> dirty = new HashSet<>();
+
+    // accounts fetched on a block ahead of the tracked one; blocks in between are already in them
+    protected Set<AccountAddress> fresh = Collections.emptySet();
+
+    protected final Set<AccountAddress> changed = new HashSet<>();
+
+    Round(final Snapshot snapshot) {
+      this.base = snapshot.getStates();
+      this.states = this.base;
+      this.blockNumber = snapshot.getBlockNumber();
+      this.blockHash = snapshot.getBlockHash();
+    }
+
+    protected void write() {
+      if (!copied) {
+        states = new HashMap<>(base);
+        copied = true;
+      }
+    }
+
+    protected boolean isTracked(final AccountAddress address) {
+      return !fresh.contains(address) && !dirty.contains(address) && states.containsKey(address);
+    }
+
+    protected List<AccountAddress> nextChunk(final int size) {
+      final List<AccountAddress> chunk = new ArrayList<>(Math.min(size, dirty.size()));
+      for (final AccountAddress address : dirty) {
+        if (chunk.size() >= size) {
+          break;
+        }
+        chunk.add(address);
+      }
+      return chunk;
+    }
+
+    protected void touch(final AccountAddress address) {
+      if (!fresh.contains(address)) {
+        dirty.add(address);
+      }
+    }
+
+    protected void credit(final AccountAddress address, final Transaction transaction) {
+      if (fresh.contains(address) || dirty.contains(address)) {
+        return;
+      }
+      final AccountState state = states.get(address);
+      if (null == state) {
+        dirty.add(address);
+        return;
+      }
+      write();
+      states.put(address, AccountState.newBuilder()
+          .address(address)
+          .nonce(state.getNonce())
+          .balance(state.getBalance().add(transaction.getAmount()))
+          .build());
+      changed.add(address);
+    }
+
+    protected void remove(final AccountAddress address) {
+      if (states.containsKey(address)) {
+        write();
+        states.remove(address);
+      }
+    }
+
+    protected void refreshed(final Collection<AccountAddress> chunk,
+        final StateBatchResult result) {
+      write();
+      states.putAll(result.getStates());
+      changed.addAll(result.getStates().keySet());
+      dirty.removeAll(chunk);
+      fresh = new HashSet<>(chunk);
+    }
+  }
+
+}
@@ -30,11 +30,14 @@ import hera.api.model.Peer;
 import hera.api.model.PeerMetric;
 import hera.api.model.ServerInfo;
 import hera.api.model.StakeInfo;
+import hera.api.model.StateBatch;
+import hera.api.model.StateBatchResult;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -54,6 +57,22 @@ public interface QueryApi {
    */
   AccountState getAccountState(AccountAddress accountAddress);
 
+  /**
+   * Get account states of addresses at once. The result is tagged with the best block observed.
+   *
+   * @param accountAddresses account addresses
+   * @return a state batch result
+   */
+  StateBatchResult getAccountStates(Collection<AccountAddress> accountAddresses);
+
+  /**
+   * Get account states with a batch.
+   *
+   * @param stateBatch a state batch
+   * @return a state batch result
+   */
+  StateBatchResult getAccountStates(StateBatch stateBatch);
+
   /**
    * Get owner of name at current block.
    *
@@ -28,12 +28,15 @@ import hera.api.model.Peer;
 import hera.api.model.PeerMetric;
 import hera.api.model.ServerInfo;
 import hera.api.model.StakeInfo;
+import hera.api.model.StateBatch;
+import hera.api.model.StateBatchResult;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
 import hera.client.AergoClient;
+import java.util.Collection;
 import java.util.List;
 import lombok.AccessLevel;
 import lombok.NonNull;
@@ -54,6 +57,24 @@ class QueryApiImpl extends AbstractApi implements QueryApi {
     }
   }
 
+  @Override
+  public StateBatchResult getAccountStates(final Collection<AccountAddress> accountAddresses) {
+    try {
+      return getClient().getAccountOperation().getStates(accountAddresses);
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
+  @Override
+  public StateBatchResult getAccountStates(final StateBatch stateBatch) {
+    try {
+      return getClient().getAccountOperation().getStates(stateBatch);
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
   @Override
   public AccountAddress getNameOwner(final String name) {
     return getNameOwner(Name.of(name));
@@ -0,0 +1,433 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.wallet;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Aer;
+import hera.api.model.BytesValue;
+import hera.api.model.Fee;
+import hera.api.model.TryCountAndInterval;
+import hera.api.model.TxHash;
+import hera.api.transaction.NonceProvider;
+import hera.client.AergoClient;
+import hera.client.NonceRefreshingTxRequester;
+import hera.client.TxRequestFunction;
+import hera.client.TxRequester;
+import hera.exception.HerajException;
+import hera.key.Signer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A pool of sender accounts spreading transactions over them. Since transactions of an account
+ * are ordered by nonce, they're requested one by one in a lane of the account. A transaction is
+ * handed to the least loaded lane which has enough balance, so that throughput grows with the
+ * number of accounts.
+ *
+ * <p>A balance of each account is estimated by subtracting sent amounts from one fetched by
+ * {@link #refresh()}. An amount is reserved in a lane when it's selected, so concurrent sends
+ * don't pick the same member for more than it has. If a low watermark is set, an account whose
+ * balance falls below it is refilled from the richest one on {@link #rebalance()}, which is also
+ * run in background after each send. Fees are not counted in an estimated balance; call
+ * {@link #refresh()} periodically to correct it.</p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class SenderPool extends AbstractApi {
+
+  @RequiredArgsConstructor
+  protected static class Lane {
+
+    protected final Signer signer;
+
+    // queued and running requests
+    protected final AtomicInteger load = new AtomicInteger(0);
+
+    // held while requesting to keep nonce order
+    protected final Object lock = new Object();
+
+    protected volatile Aer balance = Aer.ZERO;
+
+    // selected and not yet sent. guarded by this
+    protected Aer reserved = Aer.ZERO;
+
+    protected AccountAddress getAddress() {
+      return signer.getPrincipal();
+    }
+
+    protected synchronized Aer available() {
+      return balance.subtract(reserved);
+    }
+
+    /**
+     * Reserve an amount if it's available and the load is still {@code expectedLoad}.
+     */
+    protected synchronized boolean reserve(final Aer amount, final int expectedLoad) {
+      if (load.get() != expectedLoad || available().compareTo(amount) < 0) {
+        return false;
+      }
+      reserved = reserved.add(amount);
+      load.incrementAndGet();
+      return true;
+    }
+
+    /**
+     * Reserve an amount if it's available regardless of the load.
+     */
+    protected synchronized boolean reserve(final Aer amount) {
+      return reserve(amount, load.get());
+    }
+
+    protected synchronized void release(final Aer amount) {
+      reserved = reserved.subtract(amount);
+      load.decrementAndGet();
+    }
+
+    protected void spend(final Aer amount) {
+      synchronized (this) {
+        balance = balance.subtract(amount);
+      }
+    }
+
+    protected void earn(final Aer amount) {
+      synchronized (this) {
+        balance = balance.add(amount);
+      }
+    }
+  }
+
+  protected final AergoClient client;
+
+  protected final NonceProvider nonceProvider;
+
+  protected final TxRequester txRequester;
+
+  protected final List<Lane> lanes;
+
+  protected final Aer lowWatermark;
+
+  protected final Aer refillAmount;
+
+  protected final Fee refillFee;
+
+  // a start of lane selection to spread ties
+  protected final AtomicInteger cursor = new AtomicInteger(0);
+
+  // a single rebalancer at a time not to refill the same member twice
+  protected final ReentrantLock rebalanceLock = new ReentrantLock();
+
+  // runs a rebalance off a send path. its thread ends when idle
+  protected final ThreadPoolExecutor rebalancer = new ThreadPoolExecutor(0, 1, 1L,
+      TimeUnit.MINUTES, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+          final Thread thread = new Thread(runnable, "sender-pool-rebalancer");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+
+  protected final AtomicBoolean rebalanceScheduled = new AtomicBoolean(false);
+
+  /**
+   * SenderPool constructor without rebalancing.
+   *
+   * @param client              an aergo client
+   * @param signers             signers of pool members
+   * @param nonceProvider       a nonce provider shared by pool members
+   * @param tryCountAndInterval a retry count and interval on nonce failure
+   */
+  public SenderPool(final AergoClient client, final List<? extends Signer> signers,
+      final NonceProvider nonceProvider, final TryCountAndInterval tryCountAndInterval) {
+    this(client, signers, nonceProvider, tryCountAndInterval, null, null, Fee.INFINITY);
+  }
+
+  /**
+   * SenderPool constructor.
+   *
+   * @param client              an aergo client
+   * @param signers             signers of pool members
+   * @param nonceProvider       a nonce provider shared by pool members
+   * @param tryCountAndInterval a retry count and interval on nonce failure
+   * @param lowWatermark        a balance below which an account is refilled. Null to disable
+   * @param refillAmount        an amount to refill at once
+   * @param refillFee           a fee of a refilling transaction
+   */
+  public SenderPool(final AergoClient client, final List<? extends Signer> signers,
+      final NonceProvider nonceProvider, final TryCountAndInterval tryCountAndInterval,
+      final Aer lowWatermark, final Aer refillAmount, final Fee refillFee) {
+    assertNotNull(client, "AergoClient must not null");
+    assertNotNull(signers, "Signers must not null");
+    assertTrue(!signers.isEmpty(), "Signers must not empty");
+    assertNotNull(nonceProvider, "NonceProvider must not null");
+    assertNotNull(tryCountAndInterval, "TryCountAndInterval must not null");
+    assertTrue(null == lowWatermark || null != refillAmount,
+        "Refill amount must not null with low watermark");
+    assertNotNull(refillFee, "Refill fee must not null");
+    this.client = client;
+    this.nonceProvider = nonceProvider;
+    this.txRequester = new NonceRefreshingTxRequester(tryCountAndInterval, nonceProvider);
+    final List<Lane> lanes = new ArrayList<>(signers.size());
+    for (final Signer signer : signers) {
+      lanes.add(new Lane(signer));
+    }
+    this.lanes = Collections.unmodifiableList(lanes);
+    this.lowWatermark = lowWatermark;
+    this.refillAmount = refillAmount;
+    this.refillFee = refillFee;
+  }
+
+  /**
+   * Get addresses of pool members.
+   *
+   * @return addresses of pool members
+   */
+  public List<AccountAddress> getMembers() {
+    final List<AccountAddress> members = new ArrayList<>(lanes.size());
+    for (final Lane lane : lanes) {
+      members.add(lane.getAddress());
+    }
+    return members;
+  }
+
+  /**
+   * Get an estimated balance of a pool member.
+   *
+   * @param member an address of a pool member
+   * @return an estimated balance
+   */
+  public Aer getBalance(final AccountAddress member) {
+    return laneOf(member).balance;
+  }
+
+  /**
+   * Fetch states of pool members and bind their nonces and balances.
+   */
+  public void refresh() {
+    try {
+      for (final Lane lane : lanes) {
+        synchronized (lane.lock) {
+          final AccountState state = client.getAccountOperation().getState(lane.getAddress());
+          nonceProvider.bindNonce(state);
+          lane.balance = state.getBalance();
+        }
+      }
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
+  /**
+   * Send aer from the least loaded pool member with enough balance.
+   *
+   * @param recipient a recipient
+   * @param amount    an amount
+   * @param fee       a fee
+   * @return a transaction hash
+   */
+  public TxHash send(final AccountAddress recipient, final Aer amount, final Fee fee) {
+    return send(recipient, amount, fee, BytesValue.EMPTY);
+  }
+
+  /**
+   * Send aer from the least loaded pool member with enough balance.
+   *
+   * @param recipient a recipient
+   * @param amount    an amount
+   * @param fee       a fee
+   * @param payload   a payload
+   * @return a transaction hash
+   */
+  public TxHash send(final AccountAddress recipient, final Aer amount, final Fee fee,
+      final BytesValue payload) {
+    assertNotNull(recipient, "Recipient must not null");
+    assertNotNull(amount, "Amount must not null");
+    assertNotNull(fee, "Fee must not null");
+    assertNotNull(payload, "Payload must not null");
+    final TxHash txHash = request(amount, new TxRequestFunction() {
+      @Override
+      public TxHash apply(final Signer signer, final Long nonce) {
+        return client.getTransactionOperation()
+            .sendTx(signer, recipient, amount, nonce, fee, payload);
+      }
+    });
+    if (null != lowWatermark) {
+      scheduleRebalance();
+    }
+    return txHash;
+  }
+
+  /**
+   * Run a rebalance in background unless one is pending already.
+   */
+  protected void scheduleRebalance() {
+    if (!rebalanceScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    rebalancer.execute(new Runnable() {
+      @Override
+      public void run() {
+        rebalanceScheduled.set(false);
+        try {
+          rebalance();
+        } catch (Throwable e) {
+          logger.info("Rebalance failed: {}", e.toString());
+        }
+      }
+    });
+  }
+
+  /**
+   * Request a transaction from the least loaded pool member with enough balance.
+   *
+   * @param spending        an amount the transaction spends
+   * @param requestFunction a function making a transaction with a signer and a nonce
+   * @return a transaction hash
+   */
+  public TxHash request(final Aer spending, final TxRequestFunction requestFunction) {
+    assertNotNull(spending, "Spending must not null");
+    assertNotNull(requestFunction, "RequestFunction must not null");
+    final Lane lane = select(spending);
+    try {
+      return requestInLane(lane, spending, requestFunction);
+    } finally {
+      lane.release(spending);
+    }
+  }
+
+  /**
+   * Refill pool members whose balance is below a low watermark from the richest one.
+   *
+   * @return the number of refilled members
+   */
+  public int rebalance() {
+    if (null == lowWatermark) {
+      return 0;
+    }
+    rebalanceLock.lock();
+    try {
+      int refilled = 0;
+      for (final Lane poor : lanes) {
+        if (poor.balance.compareTo(lowWatermark) >= 0) {
+          continue;
+        }
+        final Lane donor = richest(poor);
+        // keep the watermark of a donor after a refill
+        if (null == donor || !donor.reserve(refillAmount.add(lowWatermark))) {
+          logger.debug("No pool member can refill {}", poor.getAddress());
+          continue;
+        }
+        logger.debug("Refill {} with {} from {}", poor.getAddress(), refillAmount,
+            donor.getAddress());
+        try {
+          requestInLane(donor, refillAmount, new TxRequestFunction() {
+            @Override
+            public TxHash apply(final Signer signer, final Long nonce) {
+              return client.getTransactionOperation().sendTx(signer, poor.getAddress(),
+                  refillAmount, nonce, refillFee, BytesValue.EMPTY);
+            }
+          });
+          poor.earn(refillAmount);
+          ++refilled;
+        } catch (Exception e) {
+          logger.info("Refilling {} failed: {}", poor.getAddress(), e.toString());
+        } finally {
+          donor.release(refillAmount.add(lowWatermark));
+        }
+      }
+      return refilled;
+    } finally {
+      rebalanceLock.unlock();
+    }
+  }
+
+  protected TxHash requestInLane(final Lane lane, final Aer spending,
+      final TxRequestFunction requestFunction) {
+    try {
+      synchronized (lane.lock) {
+        final TxHash txHash = txRequester.request(client, lane.signer, requestFunction);
+        lane.spend(spending);
+        return txHash;
+      }
+    } catch (Exception e) {
+      throw converter.convert(e);
+    }
+  }
+
+  /**
+   * Select the least loaded lane with enough balance, reserve {@code spending} in it and increase
+   * its load. Release it by {@link Lane#release(Aer)}.
+   */
+  protected Lane select(final Aer spending) {
+    final int size = lanes.size();
+    final int start = (cursor.getAndIncrement() & Integer.MAX_VALUE) % size;
+    while (true) {
+      Lane selected = null;
+      int selectedLoad = Integer.MAX_VALUE;
+      for (int i = 0; i < size; ++i) {
+        final Lane lane = lanes.get((start + i) % size);
+        final int load = lane.load.get();
+        if (load < selectedLoad && lane.available().compareTo(spending) >= 0) {
+          selected = lane;
+          selectedLoad = load;
+        }
+      }
+      if (null == selected) {
+        throw new HerajException("No pool member has balance for " + spending);
+      }
+      // lost a race with another sender; select again
+      if (selected.reserve(spending, selectedLoad)) {
+        return selected;
+      }
+    }
+  }
+
+  protected Lane richest(final Lane except) {
+    Lane richest = null;
+    Aer richestAvailable = null;
+    for (final Lane lane : lanes) {
+      if (lane == except) {
+        continue;
+      }
+      final Aer available = lane.available();
+      if (null == richest || available.compareTo(richestAvailable) > 0) {
+        richest = lane;
+        richestAvailable = available;
+      }
+    }
+    return richest;
+  }
+
+  protected Lane laneOf(final AccountAddress member) {
+    assertNotNull(member, "Member must not null");
+    for (final Lane lane : lanes) {
+      if (member.equals(lane.getAddress())) {
+        return lane;
+      }
+    }
+    throw new HerajException("Not a pool member: " + member);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SenderPool(members=%s)", getMembers());
+  }
+
+}
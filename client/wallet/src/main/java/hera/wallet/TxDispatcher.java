@@ -0,0 +1,465 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.wallet;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.SettableFuture;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Aer;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.Fee;
+import hera.api.model.RawTransaction;
+import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
+import hera.api.model.TxHash;
+import hera.api.transaction.NonceProvider;
+import hera.api.transaction.PlainTransactionBuilder;
+import hera.client.AergoClient;
+import hera.exception.CommitException;
+import hera.exception.CommitException.CommitStatus;
+import hera.exception.HerajException;
+import hera.key.Signer;
+import hera.server.ThreadServer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A background server dispatching transactions. Submitted requests wait in a bounded queue ordered
+ * by priority and are committed in batches by a single dispatching thread, so that callers don't
+ * pay a round trip per transaction.
+ *
+ * <p>A transfer request without a signed transaction is given a nonce from a
+ * {@link NonceProvider} and signed when it's dispatched. On a nonce related failure, a nonce of
+ * its sender is synced with the chain and the request is queued again up to a retry count. A
+ * signed transaction is committed as it is and fails without retry.</p>
+ *
+ * <p>Requests can be submitted before {@link #boot()}. Requests left on {@link #down()} fail.</p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class TxDispatcher extends ThreadServer {
+
+  public static final int DEFAULT_CAPACITY = 10000;
+
+  public static final int DEFAULT_BATCH_SIZE = 100;
+
+  public static final int DEFAULT_RETRY_COUNT = 3;
+
+  protected static final long POLL_INTERVAL = 100L;
+
+  @RequiredArgsConstructor
+  protected static class Request implements Comparable<Request> {
+
+    protected final int priority;
+
+    protected final long sequence;
+
+    protected final long submittedAt = System.nanoTime();
+
+    protected final SettableFuture<TxHash> future = SettableFuture.create();
+
+    // null if signed by a submitter
+    protected final Signer signer;
+
+    protected final AccountAddress recipient;
+
+    protected final Aer amount;
+
+    protected final Fee fee;
+
+    protected final BytesValue payload;
+
+    protected Transaction transaction;
+
+    protected int tryCount = 0;
+
+    @Override
+    public int compareTo(final Request other) {
+      // higher priority first, then first come first served
+      if (priority != other.priority) {
+        return priority > other.priority ? -1 : 1;
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+
+  /**
+   * A snapshot of dispatcher statistics.
+   */
+  @Getter
+  @ToString
+  @RequiredArgsConstructor
+  public static class Stats {
+
+    protected final int queueDepth;
+
+    protected final long submittedCount;
+
+    protected final long committedCount;
+
+    protected final long failedCount;
+
+    protected final long retriedCount;
+
+    // in milliseconds, from submission to commit
+    protected final long averageLatency;
+
+    protected final long maxLatency;
+  }
+
+  protected final AergoClient client;
+
+  protected final NonceProvider nonceProvider;
+
+  protected final int capacity;
+
+  protected final int batchSize;
+
+  protected final int retryCount;
+
+  // null if not limited
+  protected final RateLimiter rateLimiter;
+
+  protected final PriorityBlockingQueue<Request> queue = new PriorityBlockingQueue<>();
+
+  // queued requests including retried ones; the queue itself is unbounded
+  protected final AtomicInteger depth = new AtomicInteger(0);
+
+  protected final AtomicLong sequence = new AtomicLong(0L);
+
+  protected final AtomicLong submittedCount = new AtomicLong(0L);
+
+  protected final AtomicLong committedCount = new AtomicLong(0L);
+
+  protected final AtomicLong failedCount = new AtomicLong(0L);
+
+  protected final AtomicLong retriedCount = new AtomicLong(0L);
+
+  protected final AtomicLong totalLatency = new AtomicLong(0L);
+
+  protected final AtomicLong maxLatency = new AtomicLong(0L);
+
+  protected volatile boolean closed = false;
+
+  protected ChainIdHash chainIdHash;
+
+  // a batch being dispatched; touched only by a dispatching thread
+  protected List<Request> inFlight = Collections.emptyList();
+
+  /**
+   * TxDispatcher constructor with default capacity, batch size and retry count without rate limit.
+   *
+   * @param client        an aergo client
+   * @param nonceProvider a nonce provider for requests to be signed
+   */
+  public TxDispatcher(final AergoClient client, final NonceProvider nonceProvider) {
+    this(client, nonceProvider, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_RETRY_COUNT, 0.0d);
+  }
+
+  /**
+   * TxDispatcher constructor.
+   *
+   * @param client           an aergo client
+   * @param nonceProvider    a nonce provider for requests to be signed
+   * @param capacity         the maximum number of queued requests
+   * @param batchSize        the maximum number of transactions committed at once
+   * @param retryCount       a retry count on a nonce related failure
+   * @param permitsPerSecond the maximum number of transactions committed per second. 0 to disable
+   */
+  public TxDispatcher(final AergoClient client, final NonceProvider nonceProvider,
+      final int capacity, final int batchSize, final int retryCount,
+      final double permitsPerSecond) {
+    assertNotNull(client, "AergoClient must not null");
+    assertNotNull(nonceProvider, "NonceProvider must not null");
+    assertTrue(capacity > 0, "Capacity must be positive");
+    assertTrue(batchSize > 0, "Batch size must be positive");
+    assertTrue(retryCount >= 0, "Retry count must not negative");
+    assertTrue(permitsPerSecond >= 0.0d, "Permits per second must not negative");
+    this.client = client;
+    this.nonceProvider = nonceProvider;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.retryCount = retryCount;
+    this.rateLimiter = permitsPerSecond > 0.0d ? RateLimiter.create(permitsPerSecond) : null;
+  }
+
+  /**
+   * Submit a transfer to be signed by a signer on dispatch.
+   *
+   * @param priority  a priority. A higher one is dispatched first
+   * @param signer    a signer
+   * @param recipient a recipient
+   * @param amount    an amount
+   * @param fee       a fee
+   * @param payload   a payload
+   * @return a future of a transaction hash
+   *
+   * @throws HerajException if a queue is full or a dispatcher is going down
+   */
+  public Future<TxHash> submit(final int priority, final Signer signer,
+      final AccountAddress recipient, final Aer amount, final Fee fee,
+      final BytesValue payload) {
+    assertNotNull(signer, "Signer must not null");
+    assertNotNull(recipient, "Recipient must not null");
+    assertNotNull(amount, "Amount must not null");
+    assertNotNull(fee, "Fee must not null");
+    assertNotNull(payload, "Payload must not null");
+    return enqueue(new Request(priority, sequence.getAndIncrement(), signer, recipient, amount,
+        fee, payload));
+  }
+
+  /**
+   * Submit a signed transaction.
+   *
+   * @param priority    a priority. A higher one is dispatched first
+   * @param transaction a signed transaction
+   * @return a future of a transaction hash
+   *
+   * @throws HerajException if a queue is full or a dispatcher is going down
+   */
+  public Future<TxHash> submit(final int priority, final Transaction transaction) {
+    assertNotNull(transaction, "Transaction must not null");
+    final Request request = new Request(priority, sequence.getAndIncrement(), null, null, null,
+        null, null);
+    request.transaction = transaction;
+    return enqueue(request);
+  }
+
+  /**
+   * Get the number of queued requests.
+   *
+   * @return the number of queued requests
+   */
+  public int getQueueDepth() {
+    return depth.get();
+  }
+
+  /**
+   * Get a snapshot of statistics.
+   *
+   * @return statistics
+   */
+  public Stats getStats() {
+    final long committed = committedCount.get();
+    return new Stats(depth.get(), submittedCount.get(), committed, failedCount.get(),
+        retriedCount.get(), 0L == committed ? 0L : totalLatency.get() / committed,
+        maxLatency.get());
+  }
+
+  protected Future<TxHash> enqueue(final Request request) {
+    if (closed) {
+      throw new HerajException(this + " is going down");
+    }
+    if (depth.incrementAndGet() > capacity) {
+      depth.decrementAndGet();
+      throw new HerajException("Queue is full (capacity: " + capacity + ")");
+    }
+    queue.offer(request);
+    submittedCount.incrementAndGet();
+    // lost a race with down; terminate may have drained the queue already
+    if (closed && queue.remove(request)) {
+      depth.decrementAndGet();
+      fail(request, new HerajException(this + " is going down"));
+    }
+    return request.future;
+  }
+
+  @Override
+  protected void initialize() throws Exception {
+    closed = false;
+    chainIdHash = client.getCachedChainIdHash();
+    if (null == chainIdHash) {
+      chainIdHash = client.getBlockchainOperation().getChainIdHash();
+      client.cacheChainIdHash(chainIdHash);
+    }
+  }
+
+  @Override
+  protected void process() throws Exception {
+    final Request first = queue.poll(POLL_INTERVAL, MILLISECONDS);
+    if (null == first) {
+      return;
+    }
+    final List<Request> batch = new ArrayList<>(batchSize);
+    batch.add(first);
+    queue.drainTo(batch, batchSize - 1);
+    depth.addAndGet(-batch.size());
+    if (null != rateLimiter) {
+      rateLimiter.acquire(batch.size());
+    }
+    inFlight = batch;
+    dispatch(batch);
+    inFlight = Collections.emptyList();
+  }
+
+  protected void dispatch(final List<Request> batch) {
+    final List<Request> ready = new ArrayList<>(batch.size());
+    for (final Request request : batch) {
+      try {
+        if (null != request.signer) {
+          request.transaction = sign(request);
+        }
+        ready.add(request);
+      } catch (Exception e) {
+        rollback(request);
+        fail(request, e);
+      }
+    }
+    if (ready.isEmpty()) {
+      return;
+    }
+
+    final List<Transaction> transactions = new ArrayList<>(ready.size());
+    for (final Request request : ready) {
+      transactions.add(request.transaction);
+    }
+    final List<TxCommitResult> results;
+    try {
+      results = client.getTransactionOperation().commit(transactions);
+    } catch (Exception e) {
+      logger.info("Committing {} transactions failed: {}", ready.size(), e.toString());
+      final Set<AccountAddress> synced = new HashSet<>();
+      for (final Request request : ready) {
+        if (null != request.signer && synced.add(request.signer.getPrincipal())) {
+          rollback(request);
+        }
+        fail(request, e);
+      }
+      return;
+    }
+
+    final Set<AccountAddress> synced = new HashSet<>();
+    for (int i = 0; i < ready.size(); ++i) {
+      final Request request = ready.get(i);
+      final TxCommitResult result = results.get(i);
+      if (result.isSuccess()) {
+        complete(request, result.getTxHash());
+        continue;
+      }
+      final HerajException error = result.getError();
+      if (null != request.signer && synced.add(request.signer.getPrincipal())) {
+        rollback(request);
+      }
+      if (null != request.signer && isNonceRelated(error) && request.tryCount < retryCount) {
+        ++request.tryCount;
+        retriedCount.incrementAndGet();
+        logger.debug("Retry {} of {} on {}", request.transaction.getNonce(),
+            request.signer.getPrincipal(), error.toString());
+        depth.incrementAndGet();
+        queue.offer(request);
+      } else {
+        fail(request, error);
+      }
+    }
+  }
+
+  protected Transaction sign(final Request request) {
+    final long nonce = nonceProvider.incrementAndGetNonce(request.signer.getPrincipal());
+    final RawTransaction rawTransaction = new PlainTransactionBuilder()
+        .chainIdHash(chainIdHash)
+        .from(request.signer.getPrincipal())
+        .to(request.recipient)
+        .amount(request.amount)
+        .nonce(nonce)
+        .fee(request.fee)
+        .payload(request.payload)
+        .build();
+    return request.signer.sign(rawTransaction);
+  }
+
+  protected boolean isNonceRelated(final HerajException error) {
+    if (!(error instanceof CommitException)) {
+      return false;
+    }
+    final CommitStatus commitStatus = ((CommitException) error).getCommitStatus();
+    return CommitStatus.NONCE_TOO_LOW == commitStatus
+        || CommitStatus.TX_HAS_SAME_NONCE == commitStatus;
+  }
+
+  /**
+   * Sync a nonce of a sender of a request with the chain since assigned ones may not be used.
+   */
+  protected void rollback(final Request request) {
+    final AccountAddress address = request.signer.getPrincipal();
+    try {
+      final AccountState state = client.getAccountOperation().getState(address);
+      nonceProvider.bindNonce(state);
+    } catch (Exception e) {
+      // a low nonce can be synced on next failure
+      nonceProvider.releaseNonce(address);
+    }
+  }
+
+  protected void complete(final Request request, final TxHash txHash) {
+    final long latency = (System.nanoTime() - request.submittedAt) / 1000000L;
+    totalLatency.addAndGet(latency);
+    long max = maxLatency.get();
+    while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+      max = maxLatency.get();
+    }
+    committedCount.incrementAndGet();
+    request.future.set(txHash);
+  }
+
+  protected void fail(final Request request, final Throwable error) {
+    failedCount.incrementAndGet();
+    request.future.setException(error);
+  }
+
+  /**
+   * Fail requests of a batch being dispatched which are neither done nor queued again and keep
+   * dispatching. Otherwise an unexpected exception would leave their futures pending forever.
+   */
+  @Override
+  protected void handleError(final Throwable th) {
+    final List<Request> batch = inFlight;
+    inFlight = Collections.emptyList();
+    logger.warn("Dispatching {} request(s) failed unexpectedly: {}", batch.size(), th.toString());
+    final Set<AccountAddress> synced = new HashSet<>();
+    for (final Request request : batch) {
+      if (request.future.isDone() || queue.contains(request)) {
+        continue;
+      }
+      if (null != request.signer && synced.add(request.signer.getPrincipal())) {
+        rollback(request);
+      }
+      fail(request, th);
+    }
+  }
+
+  @Override
+  protected void preDown() {
+    closed = true;
+  }
+
+  @Override
+  protected void terminate() {
+    final List<Request> left = new ArrayList<>();
+    queue.drainTo(left);
+    depth.addAndGet(-left.size());
+    for (final Request request : left) {
+      fail(request, new HerajException(this + " is down"));
+    }
+  }
+
+}
@@ -5,9 +5,21 @@
 package hera.keystore;
 
 import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import hera.AbstractTestCase;
+import hera.api.model.Authentication;
+import hera.exception.InvalidAuthenticationException;
+import hera.key.AergoKeyGenerator;
+import hera.model.KeyAlias;
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -27,4 +39,142 @@ public class AergoKeyStoreTest extends AbstractTestCase {
     keyStore.store(randomUUID().toString(), randomUUID().toString().toCharArray());
   }
 
+  protected Authentication supplyAuthentication() {
+    return Authentication.of(KeyAlias.of(randomUUID().toString().replaceAll("-", "")),
+        randomUUID().toString());
+  }
+
+  @Test
+  public void testIndexOnCreation() {
+    // given
+    final Authentication authentication = supplyAuthentication();
+    final AergoKeyStore saving = new AergoKeyStore(keyStoreRoot);
+    saving.save(authentication, new AergoKeyGenerator().create());
+    saving.close();
+
+    // then
+    final AergoKeyStore keyStore = new AergoKeyStore(keyStoreRoot);
+    try {
+      assertTrue(keyStore.listIdentities().contains(authentication.getIdentity()));
+      assertNotNull(keyStore.load(authentication));
+    } finally {
+      keyStore.close();
+    }
+  }
+
+  @Test
+  public void shouldLoadOneSavedByOther() {
+    // given
+    final AergoKeyStore keyStore = new AergoKeyStore(keyStoreRoot);
+    final AergoKeyStore other = new AergoKeyStore(keyStoreRoot);
+    keyStore.close();
+    other.close();
+    final Authentication authentication = supplyAuthentication();
+
+    // when
+    other.save(authentication, new AergoKeyGenerator().create());
+
+    // then
+    assertNotNull(keyStore.load(authentication));
+    try {
+      keyStore.save(authentication, new AergoKeyGenerator().create());
+      fail();
+    } catch (InvalidAuthenticationException e) {
+      // then
+    }
+  }
+
+  @Test
+  public void shouldThrowErrorOnOneRemovedByOther() {
+    // given
+    final AergoKeyStore keyStore = new AergoKeyStore(keyStoreRoot);
+    final AergoKeyStore other = new AergoKeyStore(keyStoreRoot);
+    keyStore.close();
+    other.close();
+    final Authentication authentication = supplyAuthentication();
+    keyStore.save(authentication, new AergoKeyGenerator().create());
+    assertNotNull(other.load(authentication));
+
+    // when
+    other.remove(authentication);
+
+    // then
+    try {
+      keyStore.load(authentication);
+      fail();
+    } catch (InvalidAuthenticationException e) {
+      // then
+    }
+    assertFalse(keyStore.listIdentities().contains(authentication.getIdentity()));
+  }
+
+  @Test
+  public void shouldWatchFileMadeByOther() throws Exception {
+    // given
+    final AergoKeyStore keyStore = new AergoKeyStore(keyStoreRoot, "1", true);
+    final AergoKeyStore other = new AergoKeyStore(keyStoreRoot);
+    final Authentication authentication = supplyAuthentication();
+
+    try {
+      // when
+      other.save(authentication, new AergoKeyGenerator().create());
+
+      // then
+      final long deadline = System.currentTimeMillis() + 30000L;
+      while (!keyStore.listIdentities().contains(authentication.getIdentity())) {
+        if (System.currentTimeMillis() > deadline) {
+          fail("Key file made by other is not watched");
+        }
+        Thread.sleep(100L);
+      }
+    } finally {
+      keyStore.close();
+    }
+  }
+
+  @Test
+  public void shouldListFileMadeByOtherWithoutWatch() throws Exception {
+    // given
+    final AergoKeyStore keyStore = new AergoKeyStore(keyStoreRoot);
+    final AergoKeyStore other = new AergoKeyStore(keyStoreRoot);
+    final Authentication authentication = supplyAuthentication();
+
+    // when
+    other.save(authentication, new AergoKeyGenerator().create());
+
+    // then
+    assertNull(keyStore.watchService);
+    assertTrue(keyStore.listIdentities().contains(authentication.getIdentity()));
+  }
+
+  @Test
+  public void shouldNotIndexIncompleteFile() throws Exception {
+    // given
+    final AergoKeyStore keyStore = new AergoKeyStore(keyStoreRoot);
+    final String identity = randomUUID().toString().replaceAll("-", "");
+    final File file = new File(keyStore.root, keyStore.deriveFilename(identity));
+    assertTrue(file.createNewFile());
+
+    // when
+    keyStore.onWatchEvent(new WatchEvent<Path>() {
+      @Override
+      public Kind<Path> kind() {
+        return StandardWatchEventKinds.ENTRY_CREATE;
+      }
+
+      @Override
+      public int count() {
+        return 1;
+      }
+
+      @Override
+      public Path context() {
+        return file.toPath().getFileName();
+      }
+    });
+
+    // then
+    assertFalse(keyStore.identity2File.containsKey(identity));
+  }
+
 }
@@ -0,0 +1,258 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.keystore;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.model.AccountAddress;
+import hera.api.model.Authentication;
+import hera.api.model.Identity;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
+import hera.model.KeyAlias;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class KeyStoreMigratorTest extends AbstractTestCase {
+
+  protected final String sourcePassword = randomUUID().toString();
+
+  protected final String targetPassword = randomUUID().toString();
+
+  protected Map<Identity, AergoKey> fill(final KeyStore keyStore, final int count) {
+    final Map<Identity, AergoKey> saved = new HashMap<>();
+    for (int i = 0; i < count; ++i) {
+      final KeyAlias alias = KeyAlias.of(randomUUID().toString().replaceAll("-", ""));
+      final AergoKey key = new AergoKeyGenerator().create();
+      keyStore.save(Authentication.of(alias, sourcePassword), key);
+      saved.put(alias, key);
+    }
+    return saved;
+  }
+
+  protected class RecordingListener implements KeyMigrationListener {
+
+    protected final Map<Identity, AccountAddress> migrated =
+        Collections.synchronizedMap(new HashMap<Identity, AccountAddress>());
+    protected final List<Identity> skipped =
+        Collections.synchronizedList(new ArrayList<Identity>());
+    protected final Map<Identity, Throwable> failed =
+        Collections.synchronizedMap(new HashMap<Identity, Throwable>());
+
+    @Override
+    public void onMigrated(final Identity identity, final AccountAddress address) {
+      migrated.put(identity, address);
+    }
+
+    @Override
+    public void onSkipped(final Identity identity) {
+      skipped.add(identity);
+    }
+
+    @Override
+    public void onFailed(final Identity identity, final Throwable cause) {
+      failed.put(identity, cause);
+    }
+  }
+
+  @Test
+  public void testMigrate() {
+    // given
+    final KeyStore source = new InMemoryKeyStore();
+    final KeyStore target = new InMemoryKeyStore();
+    final Map<Identity, AergoKey> saved = fill(source, 20);
+    final RecordingListener listener = new RecordingListener();
+
+    // when
+    final KeyStoreMigrationResult result = new KeyStoreMigrator(4).migrate(source, target,
+        KeyStoreMigrator.withPassword(sourcePassword, targetPassword), listener);
+
+    // then
+    assertEquals(20, result.getMigrated());
+    assertTrue(result.getFailed().isEmpty());
+    for (final Map.Entry<Identity, AergoKey> entry : saved.entrySet()) {
+      assertEquals(entry.getValue().getAddress(), listener.migrated.get(entry.getKey()));
+      assertEquals(entry.getValue().getAddress(), target
+          .load(Authentication.of(entry.getKey(), targetPassword)).getPrincipal());
+    }
+  }
+
+  @Test
+  public void shouldSkipExistingOnResume() {
+    // given
+    final KeyStore source = new InMemoryKeyStore();
+    final KeyStore target = new InMemoryKeyStore();
+    final Map<Identity, AergoKey> saved = fill(source, 6);
+    final Identity migratedBefore = saved.keySet().iterator().next();
+    target.save(Authentication.of(migratedBefore, targetPassword), saved.get(migratedBefore));
+    final RecordingListener listener = new RecordingListener();
+
+    // when
+    final KeyStoreMigrationResult result = new KeyStoreMigrator(2).migrate(source, target,
+        KeyStoreMigrator.withPassword(sourcePassword, targetPassword), listener);
+
+    // then
+    assertEquals(5, result.getMigrated());
+    assertEquals(1, result.getSkipped());
+    assertEquals(migratedBefore, listener.skipped.get(0));
+  }
+
+  @Test
+  public void shouldSaveAgainUnverifiedOnResume() {
+    // given
+    final KeyStore source = new InMemoryKeyStore();
+    final KeyStore target = new InMemoryKeyStore();
+    final Map<Identity, AergoKey> saved = fill(source, 3);
+    final Identity unverified = saved.keySet().iterator().next();
+    // saved by an interrupted run but doesn't match a source
+    target.save(Authentication.of(unverified, targetPassword), new AergoKeyGenerator().create());
+    final RecordingListener listener = new RecordingListener();
+
+    // when
+    final KeyStoreMigrationResult result = new KeyStoreMigrator(2).migrate(source, target,
+        KeyStoreMigrator.withPassword(sourcePassword, targetPassword), listener);
+
+    // then
+    assertEquals(3, result.getMigrated());
+    assertEquals(0, result.getSkipped());
+    assertEquals(saved.get(unverified).getAddress(), target
+        .load(Authentication.of(unverified, targetPassword)).getPrincipal());
+  }
+
+  @Test
+  public void shouldSkipVerifiedWithCheckpoint() {
+    // given
+    final KeyStore source = new InMemoryKeyStore();
+    final KeyStore target = new InMemoryKeyStore();
+    final Map<Identity, AergoKey> saved = fill(source, 4);
+    final Identity migratedBefore = saved.keySet().iterator().next();
+    target.save(Authentication.of(migratedBefore, targetPassword), saved.get(migratedBefore));
+    final Set<String> verified = Collections.synchronizedSet(new HashSet<String>());
+    verified.add(migratedBefore.getValue());
+    final MigrationCheckpoint checkpoint = new MigrationCheckpoint() {
+      @Override
+      public boolean isVerified(final Identity identity) {
+        return verified.contains(identity.getValue());
+      }
+
+      @Override
+      public void verified(final Identity identity) {
+        verified.add(identity.getValue());
+      }
+    };
+    // a source can't load the one recorded
+    final MigrationAuthenticator authenticator = new MigrationAuthenticator() {
+      @Override
+      public Authentication getSourceAuthentication(final Identity identity) {
+        return Authentication.of(identity, migratedBefore.equals(identity)
+            ? randomUUID().toString() : sourcePassword);
+      }
+
+      @Override
+      public Authentication getTargetAuthentication(final Identity identity) {
+        return Authentication.of(identity, targetPassword);
+      }
+    };
+
+    // when
+    final KeyStoreMigrationResult result = new KeyStoreMigrator(2).migrate(source, target,
+        authenticator, null, checkpoint);
+
+    // then
+    assertEquals(3, result.getMigrated());
+    assertEquals(1, result.getSkipped());
+    assertTrue(result.getFailed().isEmpty());
+    assertEquals(4, verified.size());
+  }
+
+  @Test
+  public void testMigrateToJavaKeyStoreInParallel() {
+    // given
+    final KeyStore source = new InMemoryKeyStore();
+    final KeyStore target = new JavaKeyStore("PKCS12", null, null);
+    final Map<Identity, AergoKey> saved = fill(source, 4);
+
+    // when
+    final KeyStoreMigrationResult result = new KeyStoreMigrator(4).migrate(source, target,
+        KeyStoreMigrator.withPassword(sourcePassword, targetPassword), null);
+
+    // then
+    assertEquals(4, result.getMigrated());
+    for (final Map.Entry<Identity, AergoKey> entry : saved.entrySet()) {
+      assertEquals(entry.getValue().getAddress(), target
+          .load(Authentication.of(entry.getKey(), targetPassword)).getPrincipal());
+    }
+  }
+
+  @Test
+  public void shouldCompareIdentityExactly() {
+    // given
+    final KeyStore source = new InMemoryKeyStore();
+    final KeyStore target = new InMemoryKeyStore();
+    final String alias = "Alias" + randomUUID().toString().replaceAll("-", "");
+    source.save(Authentication.of(KeyAlias.of(alias), sourcePassword),
+        new AergoKeyGenerator().create());
+    target.save(Authentication.of(KeyAlias.of(alias.toLowerCase()), targetPassword),
+        new AergoKeyGenerator().create());
+
+    // when
+    final KeyStoreMigrationResult result = new KeyStoreMigrator(2).migrate(source, target,
+        KeyStoreMigrator.withPassword(sourcePassword, targetPassword), null);
+
+    // then
+    assertEquals(1, result.getMigrated());
+    assertEquals(0, result.getSkipped());
+  }
+
+  @Test
+  public void shouldReportFailureOnInvalidPassword() {
+    // given
+    final KeyStore source = new InMemoryKeyStore();
+    final KeyStore target = new InMemoryKeyStore();
+    fill(source, 3);
+    final RecordingListener listener = new RecordingListener();
+
+    // when
+    final KeyStoreMigrationResult result = new KeyStoreMigrator(2).migrate(source, target,
+        KeyStoreMigrator.withPassword(randomUUID().toString(), targetPassword), listener);
+
+    // then
+    assertEquals(0, result.getMigrated());
+    assertEquals(3, result.getFailed().size());
+    assertEquals(3, listener.failed.size());
+    assertTrue(target.listIdentities().isEmpty());
+  }
+
+  @Test
+  public void testMigrateFromWrappingKeyStore() {
+    // given
+    final KeyStore source = new SessionCachingKeyStore(new InMemoryKeyStore(), 1,
+        TimeUnit.HOURS, 10);
+    final KeyStore target = new InMemoryKeyStore();
+    final Map<Identity, AergoKey> saved = fill(source, 2);
+
+    // when
+    final KeyStoreMigrationResult result = new KeyStoreMigrator(1).migrate(source, target,
+        KeyStoreMigrator.withPassword(sourcePassword, targetPassword), null);
+
+    // then
+    assertEquals(2, result.getMigrated());
+    for (final Map.Entry<Identity, AergoKey> entry : saved.entrySet()) {
+      assertEquals(entry.getValue().getAddress(), target
+          .load(Authentication.of(entry.getKey(), targetPassword)).getPrincipal());
+    }
+  }
+
+}
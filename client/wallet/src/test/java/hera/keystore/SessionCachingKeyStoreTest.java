@@ -0,0 +1,264 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.keystore;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import hera.AbstractTestCase;
+import hera.api.model.Authentication;
+import hera.api.model.BytesValue;
+import hera.api.model.Signature;
+import hera.exception.HerajException;
+import hera.exception.InvalidAuthenticationException;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
+import hera.key.Signer;
+import hera.model.KeyAlias;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class SessionCachingKeyStoreTest extends AbstractTestCase {
+
+  protected Authentication supplyAuthentication() {
+    return Authentication.of(KeyAlias.of(randomUUID().toString().replaceAll("-", "")),
+        randomUUID().toString());
+  }
+
+  protected KeyStore mockKeyStore(final Authentication authentication, final AergoKey key) {
+    final KeyStore mockKeyStore = mock(KeyStore.class);
+    doThrow(new InvalidAuthenticationException()).when(mockKeyStore)
+        .load(any(Authentication.class));
+    doReturn(key).when(mockKeyStore).load(authentication);
+    return mockKeyStore;
+  }
+
+  protected void assertDestroyed(final Signer signer) {
+    try {
+      signer.signMessage(BytesValue.of(randomUUID().toString().getBytes()));
+      fail();
+    } catch (HerajException e) {
+      // then
+    }
+  }
+
+  @Test
+  public void testLoad() {
+    // given
+    final Authentication authentication = supplyAuthentication();
+    final AergoKey key = new AergoKeyGenerator().create();
+    final KeyStore mockKeyStore = mockKeyStore(authentication, key);
+    final SessionCachingKeyStore keyStore = new SessionCachingKeyStore(mockKeyStore, 1,
+        TimeUnit.HOURS, 10);
+
+    // when
+    final Signer first = keyStore.load(authentication);
+    final Signer second = keyStore.load(Authentication.of(authentication.getIdentity(),
+        authentication.getPassword()));
+
+    // then
+    assertSame(first, second);
+    assertEquals(key.getPrincipal(), first.getPrincipal());
+    first.signMessage(BytesValue.of(randomUUID().toString().getBytes()));
+    verify(mockKeyStore, times(1)).load(any(Authentication.class));
+  }
+
+  @Test
+  public void shouldNotShareSessionWithOtherPassword() {
+    // given
+    final Authentication authentication = supplyAuthentication();
+    final KeyStore mockKeyStore = mockKeyStore(authentication, new AergoKeyGenerator().create());
+    final SessionCachingKeyStore keyStore = new SessionCachingKeyStore(mockKeyStore, 1,
+        TimeUnit.HOURS, 10);
+    keyStore.load(authentication);
+
+    // when
+    try {
+      final String identity = authentication.getIdentity().getValue();
+      // move a boundary of identity and password
+      keyStore.load(Authentication.of(KeyAlias.of(identity.substring(0, identity.length() - 1)),
+          identity.substring(identity.length() - 1) + authentication.getPassword()));
+      fail();
+    } catch (InvalidAuthenticationException e) {
+      // then
+    }
+  }
+
+  @Test
+  public void testInvalidate() {
+    // given
+    final Authentication authentication = supplyAuthentication();
+    final KeyStore mockKeyStore = mockKeyStore(authentication, new AergoKeyGenerator().create());
+    final SessionCachingKeyStore keyStore = new SessionCachingKeyStore(mockKeyStore, 1,
+        TimeUnit.HOURS, 10);
+    final Signer loaded = keyStore.load(authentication);
+
+    // when
+    keyStore.invalidate(authentication);
+
+    // then
+    assertDestroyed(loaded);
+    assertNotSame(loaded, keyStore.load(authentication));
+    verify(mockKeyStore, times(2)).load(authentication);
+  }
+
+  @Test
+  public void shouldEvictOnMaxSize() {
+    // given
+    final KeyStore delegate = new InMemoryKeyStore();
+    final SessionCachingKeyStore keyStore = new SessionCachingKeyStore(delegate, 1,
+        TimeUnit.HOURS, 1);
+    final Authentication first = supplyAuthentication();
+    final Authentication second = supplyAuthentication();
+    keyStore.save(first, new AergoKeyGenerator().create());
+    keyStore.save(second, new AergoKeyGenerator().create());
+
+    // when
+    final Signer evicted = keyStore.load(first);
+    keyStore.load(second);
+
+    // then
+    assertEquals(1L, keyStore.size());
+    assertDestroyed(evicted);
+  }
+
+  @Test
+  public void shouldCompleteSigningInProgressOnEviction() throws Exception {
+    // given
+    final Authentication first = supplyAuthentication();
+    final Authentication second = supplyAuthentication();
+    final AergoKey key = new AergoKeyGenerator().create();
+    final CountDownLatch signing = new CountDownLatch(1);
+    final CountDownLatch evicted = new CountDownLatch(1);
+    final Signer blocking = mock(Signer.class);
+    doAnswer(new Answer<Signature>() {
+      @Override
+      public Signature answer(final InvocationOnMock invocation) throws Exception {
+        signing.countDown();
+        evicted.await();
+        return key.signMessage((BytesValue) invocation.getArguments()[0]);
+      }
+    }).when(blocking).signMessage(any(BytesValue.class));
+    final KeyStore mockKeyStore = mockKeyStore(second, new AergoKeyGenerator().create());
+    doReturn(blocking).when(mockKeyStore).load(first);
+    final SessionCachingKeyStore keyStore = new SessionCachingKeyStore(mockKeyStore, 1,
+        TimeUnit.HOURS, 1);
+    final Signer loaded = keyStore.load(first);
+    final AtomicReference<Signature> signature = new AtomicReference<>();
+    final Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        signature.set(loaded.signMessage(BytesValue.of(randomUUID().toString().getBytes())));
+      }
+    });
+    thread.start();
+    signing.await();
+
+    // when
+    keyStore.load(second);
+    evicted.countDown();
+    thread.join();
+
+    // then
+    assertNotNull(signature.get());
+    assertDestroyed(loaded);
+  }
+
+  @Test
+  public void shouldRefreshSignerOnLoad() throws Exception {
+    // given
+    final Authentication authentication = supplyAuthentication();
+    final KeyStore mockKeyStore = mockKeyStore(authentication, new AergoKeyGenerator().create());
+    final SessionCachingKeyStore keyStore = new SessionCachingKeyStore(mockKeyStore, 300,
+        TimeUnit.MILLISECONDS, 10);
+    final Signer loaded = keyStore.load(authentication);
+
+    // when
+    Thread.sleep(200L);
+    assertSame(loaded, keyStore.load(authentication));
+    Thread.sleep(200L);
+
+    // then
+    loaded.signMessage(BytesValue.of(randomUUID().toString().getBytes()));
+    verify(mockKeyStore, times(1)).load(authentication);
+  }
+
+  @Test
+  public void shouldKeepSessionInUse() throws Exception {
+    // given
+    final Authentication authentication = supplyAuthentication();
+    final KeyStore mockKeyStore = mockKeyStore(authentication, new AergoKeyGenerator().create());
+    final SessionCachingKeyStore keyStore = new SessionCachingKeyStore(mockKeyStore, 300,
+        TimeUnit.MILLISECONDS, 10);
+    final Signer loaded = keyStore.load(authentication);
+
+    // when
+    for (int i = 0; i < 10; ++i) {
+      Thread.sleep(100L);
+      loaded.signMessage(BytesValue.of(randomUUID().toString().getBytes()));
+    }
+
+    // then
+    assertSame(loaded, keyStore.load(authentication));
+    verify(mockKeyStore, times(1)).load(authentication);
+  }
+
+  @Test
+  public void shouldExpireOnIdleTimeout() throws Exception {
+    // given
+    final Authentication authentication = supplyAuthentication();
+    final KeyStore mockKeyStore = mockKeyStore(authentication, new AergoKeyGenerator().create());
+    final SessionCachingKeyStore keyStore = new SessionCachingKeyStore(mockKeyStore, 100,
+        TimeUnit.MILLISECONDS, 10);
+    final Signer loaded = keyStore.load(authentication);
+
+    // when
+    Thread.sleep(300L);
+    final Signer reloaded = keyStore.load(authentication);
+
+    // then
+    assertNotSame(loaded, reloaded);
+    assertDestroyed(loaded);
+  }
+
+  @Test
+  public void testRemove() {
+    // given
+    final KeyStore delegate = new InMemoryKeyStore();
+    final SessionCachingKeyStore keyStore = new SessionCachingKeyStore(delegate, 1,
+        TimeUnit.HOURS, 10);
+    final Authentication authentication = supplyAuthentication();
+    keyStore.save(authentication, new AergoKeyGenerator().create());
+    final Signer loaded = keyStore.load(authentication);
+
+    // when
+    keyStore.remove(authentication);
+
+    // then
+    assertDestroyed(loaded);
+    try {
+      keyStore.load(authentication);
+      fail();
+    } catch (InvalidAuthenticationException e) {
+      // then
+    }
+  }
+
+}
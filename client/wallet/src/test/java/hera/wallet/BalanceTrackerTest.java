@@ -0,0 +1,427 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.wallet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.api.AccountOperation;
+import hera.api.BlockOperation;
+import hera.api.TransactionOperation;
+import hera.api.function.Function1;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Aer;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockHeader;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.RawTransaction;
+import hera.api.model.StateBatch;
+import hera.api.model.StateBatchResult;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Transaction;
+import hera.api.model.TxHash;
+import hera.api.model.TxReceipt;
+import hera.client.AergoClient;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
+import hera.server.ServerStatus;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class BalanceTrackerTest extends AbstractTestCase {
+
+  protected final AergoKey watchedKey = new AergoKeyGenerator().create();
+
+  protected final AccountAddress watched = watchedKey.getAddress();
+
+  protected final AergoKey otherKey = new AergoKeyGenerator().create();
+
+  // states on a node
+  protected final Map<AccountAddress, AccountState> chain = new ConcurrentHashMap<>();
+
+  protected final Map<Long, Block> blocks = new ConcurrentHashMap<>();
+
+  protected volatile long bestHeight = 1L;
+
+  protected final AtomicReference<StreamObserver<Block>> observer = new AtomicReference<>();
+
+  protected final List<Subscription<Block>> subscriptions = new CopyOnWriteArrayList<>();
+
+  protected volatile String receiptStatus = "SUCCESS";
+
+  // addresses of each state lookup
+  protected final List<List<AccountAddress>> fetched = new CopyOnWriteArrayList<>();
+
+  // run before a state lookup with its index
+  protected volatile Function1<Integer, Void> beforeFetch;
+
+  protected AccountOperation mockAccountOperation;
+
+  protected BlockOperation mockBlockOperation;
+
+  @SuppressWarnings("unchecked")
+  protected AergoClient mockClient() {
+    chain.put(watched, state(watched, 0L, "0"));
+    blocks.put(1L, block(1L));
+
+    mockAccountOperation = mock(AccountOperation.class);
+    when(mockAccountOperation.getStates(any(StateBatch.class)))
+        .thenAnswer(new Answer<StateBatchResult>() {
+          @Override
+          public StateBatchResult answer(final InvocationOnMock invocation) {
+            final StateBatch stateBatch = (StateBatch) invocation.getArguments()[0];
+            final List<AccountAddress> addresses = new ArrayList<>(stateBatch.getAddresses());
+            fetched.add(addresses);
+            if (null != beforeFetch) {
+              beforeFetch.apply(fetched.size() - 1);
+            }
+            final Map<AccountAddress, AccountState> states = new LinkedHashMap<>();
+            for (final AccountAddress address : stateBatch.getAddresses()) {
+              final AccountState state = chain.get(address);
+              states.put(address, null != state ? state : state(address, 0L, "0"));
+            }
+            final long height = bestHeight;
+            return StateBatchResult.newBuilder()
+                .states(states)
+                .blockNumber(height)
+                .blockHash(hashOf(height))
+                .build();
+          }
+        });
+    mockBlockOperation = mock(BlockOperation.class);
+    when(mockBlockOperation.subscribeNewBlock(any(StreamObserver.class)))
+        .thenAnswer(new Answer<Subscription<Block>>() {
+          @Override
+          public Subscription<Block> answer(final InvocationOnMock invocation) {
+            observer.set((StreamObserver<Block>) invocation.getArguments()[0]);
+            final Subscription<Block> subscription = mock(Subscription.class);
+            subscriptions.add(subscription);
+            return subscription;
+          }
+        });
+    when(mockBlockOperation.getBlock(anyLong())).thenAnswer(new Answer<Block>() {
+      @Override
+      public Block answer(final InvocationOnMock invocation) {
+        return blocks.get((Long) invocation.getArguments()[0]);
+      }
+    });
+    final TransactionOperation mockTransactionOperation = mock(TransactionOperation.class);
+    when(mockTransactionOperation.getTxReceipt(any(TxHash.class)))
+        .thenAnswer(new Answer<TxReceipt>() {
+          @Override
+          public TxReceipt answer(final InvocationOnMock invocation) {
+            return TxReceipt.newBuilder()
+                .txHash((TxHash) invocation.getArguments()[0])
+                .status(receiptStatus)
+                .build();
+          }
+        });
+    final AergoClient mockClient = mock(AergoClient.class);
+    when(mockClient.getAccountOperation()).thenReturn(mockAccountOperation);
+    when(mockClient.getBlockOperation()).thenReturn(mockBlockOperation);
+    when(mockClient.getTransactionOperation()).thenReturn(mockTransactionOperation);
+    return mockClient;
+  }
+
+  protected AccountState state(final AccountAddress address, final long nonce,
+      final String balance) {
+    return AccountState.newBuilder().address(address).nonce(nonce).balance(Aer.of(balance))
+        .build();
+  }
+
+  protected BlockHash hashOf(final long height) {
+    return BlockHash.of(BytesValue.of(("block" + height).getBytes()));
+  }
+
+  protected Block block(final long height, final Transaction... transactions) {
+    return Block.newBuilder()
+        .hash(hashOf(height))
+        .blockHeader(BlockHeader.newBuilder()
+            .blockNumber(height)
+            .previousHash(hashOf(height - 1L))
+            .build())
+        .transactions(Arrays.asList(transactions))
+        .build();
+  }
+
+  protected Transaction transfer(final AergoKey sender, final AccountAddress recipient,
+      final long nonce, final String amount) {
+    return sender.sign(RawTransaction.newBuilder(ChainIdHash.EMPTY)
+        .from(sender.getAddress())
+        .to(recipient)
+        .amount(Aer.of(amount))
+        .nonce(nonce)
+        .build());
+  }
+
+  // a node makes a block and sends it to a stream
+  protected void produce(final Block block) {
+    blocks.put(block.getBlockNumber(), block);
+    bestHeight = block.getBlockNumber();
+    observer.get().onNext(block);
+  }
+
+  protected BalanceTracker.Snapshot waitFor(final BalanceTracker tracker, final long height)
+      throws InterruptedException {
+    for (int i = 0; i < 500; ++i) {
+      final BalanceTracker.Snapshot snapshot = tracker.getSnapshot();
+      if (null != snapshot && snapshot.getBlockNumber() >= height) {
+        return snapshot;
+      }
+      Thread.sleep(10L);
+    }
+    throw new AssertionError("Tracker didn't reach block " + height);
+  }
+
+  @Test
+  public void shouldCreditTransferLocally() throws Exception {
+    // given
+    final BalanceTracker tracker = new BalanceTracker(mockClient(), Arrays.asList(watched));
+    final CountDownLatch changed = new CountDownLatch(1);
+    tracker.addListener(new BalanceTracker.ChangeListener() {
+      @Override
+      public void changed(final AccountState before, final AccountState after,
+          final long blockNumber) {
+        changed.countDown();
+      }
+    });
+    tracker.boot(true);
+    try {
+      assertEquals(1L, waitFor(tracker, 1L).getBlockNumber());
+
+      // when
+      produce(block(2L, transfer(otherKey, watched, 1L, "10")));
+
+      // then
+      final BalanceTracker.Snapshot snapshot = waitFor(tracker, 2L);
+      assertEquals(hashOf(2L), snapshot.getBlockHash());
+      assertEquals(Aer.of("10"), snapshot.get(watched).getBalance());
+      assertTrue(changed.await(5L, TimeUnit.SECONDS));
+      // seeding only
+      verify(mockAccountOperation, times(1)).getStates(any(StateBatch.class));
+    } finally {
+      tracker.down(true);
+    }
+  }
+
+  @Test
+  public void shouldFetchSenderAgain() throws Exception {
+    // given
+    final BalanceTracker tracker = new BalanceTracker(mockClient(), Arrays.asList(watched));
+    tracker.boot(true);
+    try {
+      waitFor(tracker, 1L);
+
+      // when
+      chain.put(watched, state(watched, 1L, "7"));
+      produce(block(2L, transfer(watchedKey, otherKey.getAddress(), 1L, "0")));
+
+      // then
+      final AccountState state = waitFor(tracker, 2L).get(watched);
+      assertEquals(1L, state.getNonce());
+      assertEquals(Aer.of("7"), state.getBalance());
+      verify(mockAccountOperation, times(2)).getStates(any(StateBatch.class));
+    } finally {
+      tracker.down(true);
+    }
+  }
+
+  @Test
+  public void shouldFillMissingBlocks() throws Exception {
+    // given
+    final BalanceTracker tracker = new BalanceTracker(mockClient(), Arrays.asList(watched));
+    tracker.boot(true);
+    try {
+      waitFor(tracker, 1L);
+
+      // when
+      blocks.put(2L, block(2L, transfer(otherKey, watched, 1L, "3")));
+      produce(block(3L, transfer(otherKey, watched, 2L, "4")));
+
+      // then
+      final BalanceTracker.Snapshot snapshot = waitFor(tracker, 3L);
+      assertEquals(3L, snapshot.getBlockNumber());
+      assertEquals(Aer.of("7"), snapshot.get(watched).getBalance());
+      verify(mockBlockOperation, times(1)).getBlock(2L);
+    } finally {
+      tracker.down(true);
+    }
+  }
+
+  @Test
+  public void testWatchAndUnwatch() throws Exception {
+    // given
+    final BalanceTracker tracker = new BalanceTracker(mockClient(), Arrays.asList(watched));
+    tracker.boot(true);
+    try {
+      waitFor(tracker, 1L);
+      final AccountAddress other = otherKey.getAddress();
+      chain.put(other, state(other, 3L, "5"));
+
+      // when
+      tracker.watch(other);
+      tracker.unwatch(watched);
+      produce(block(2L));
+
+      // then
+      final BalanceTracker.Snapshot snapshot = waitFor(tracker, 2L);
+      assertNotNull(snapshot.get(other));
+      assertEquals(3L, snapshot.get(other).getNonce());
+      assertNull(snapshot.get(watched));
+    } finally {
+      tracker.down(true);
+    }
+  }
+
+  @Test
+  public void shouldNotCreditFailedTransfer() throws Exception {
+    // given
+    final BalanceTracker tracker = new BalanceTracker(mockClient(), Arrays.asList(watched));
+    tracker.boot(true);
+    try {
+      waitFor(tracker, 1L);
+
+      // when
+      receiptStatus = "ERROR";
+      produce(block(2L, transfer(otherKey, watched, 1L, "10")));
+
+      // then
+      assertEquals(Aer.of("0"), waitFor(tracker, 2L).get(watched).getBalance());
+      verify(mockAccountOperation, times(2)).getStates(any(StateBatch.class));
+    } finally {
+      tracker.down(true);
+    }
+  }
+
+  @Test
+  public void shouldSeedInChunks() throws Exception {
+    // given
+    final AergoKey senderKey = new AergoKeyGenerator().create();
+    final AccountAddress other = otherKey.getAddress();
+    final BalanceTracker tracker = new BalanceTracker(mockClient(),
+        Arrays.asList(watched, other), 1, 0, 1);
+    // a block made between chunks credits an account of the first chunk
+    beforeFetch = new Function1<Integer, Void>() {
+      @Override
+      public Void apply(final Integer index) {
+        if (1 == index) {
+          final AccountAddress seeded = fetched.get(0).get(0);
+          blocks.put(2L, block(2L, transfer(senderKey, seeded, 1L, "10")));
+          chain.put(seeded, state(seeded, 0L, "10"));
+          bestHeight = 2L;
+        }
+        return null;
+      }
+    };
+
+    // when
+    tracker.boot(true);
+    try {
+      // then
+      final BalanceTracker.Snapshot snapshot = waitFor(tracker, 2L);
+      assertEquals(2L, snapshot.getBlockNumber());
+      assertEquals(2, fetched.size());
+      assertEquals(1, fetched.get(0).size());
+      assertEquals(1, fetched.get(1).size());
+      final AccountAddress seeded = fetched.get(0).get(0);
+      final AccountAddress last = fetched.get(1).get(0);
+      assertEquals(Aer.of("10"), snapshot.get(seeded).getBalance());
+      assertEquals(Aer.of("0"), snapshot.get(last).getBalance());
+      verify(mockBlockOperation, times(1)).getBlock(2L);
+    } finally {
+      tracker.down(true);
+    }
+  }
+
+  @Test
+  public void shouldResyncInChunks() throws Exception {
+    // given
+    final AccountAddress other = otherKey.getAddress();
+    final BalanceTracker tracker = new BalanceTracker(mockClient(),
+        Arrays.asList(watched, other), 1, 0, 1);
+    tracker.boot(true);
+    try {
+      waitFor(tracker, 1L);
+      fetched.clear();
+      chain.put(watched, state(watched, 2L, "5"));
+
+      // when
+      tracker.resync();
+      produce(block(2L));
+
+      // then
+      final BalanceTracker.Snapshot snapshot = waitFor(tracker, 2L);
+      assertEquals(2, fetched.size());
+      assertEquals(1, fetched.get(0).size());
+      assertEquals(1, fetched.get(1).size());
+      assertEquals(Aer.of("5"), snapshot.get(watched).getBalance());
+      assertNotNull(snapshot.get(other));
+    } finally {
+      tracker.down(true);
+    }
+  }
+
+  @Test
+  public void shouldRejectNullOnUnwatch() {
+    // given
+    final BalanceTracker tracker = new BalanceTracker(mockClient(), Arrays.asList(watched));
+
+    // when
+    try {
+      tracker.unwatch(null);
+      fail();
+    } catch (AssertionError e) {
+      // then
+    }
+  }
+
+  @Test
+  public void shouldUnsubscribeOnSeedFailure() {
+    // given
+    final BalanceTracker tracker = new BalanceTracker(mockClient(), Arrays.asList(watched));
+    beforeFetch = new Function1<Integer, Void>() {
+      @Override
+      public Void apply(final Integer index) {
+        throw new IllegalStateException("Node unavailable");
+      }
+    };
+
+    // when
+    tracker.boot(true);
+    tracker.waitStatus(ServerStatus.TERMINATED);
+
+    // then
+    assertTrue(tracker.getException() instanceof IllegalStateException);
+    assertNull(tracker.getSnapshot());
+    assertEquals(1, subscriptions.size());
+    verify(subscriptions.get(0)).unsubscribe();
+  }
+
+}
@@ -46,12 +46,15 @@ import hera.api.model.Peer;
 import hera.api.model.PeerMetric;
 import hera.api.model.ServerInfo;
 import hera.api.model.StakeInfo;
+import hera.api.model.StateBatch;
+import hera.api.model.StateBatchResult;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
 import hera.client.AergoClient;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
@@ -76,6 +79,28 @@ public class QueryApiImplTest extends AbstractTestCase {
     assertNotNull(accountState);
   }
 
+  @Test
+  public void testGetAccountStates() {
+    // given
+    final AccountOperation mockOperation = mock(AccountOperation.class);
+    final StateBatchResult expected = StateBatchResult.newBuilder()
+        .states(Collections.<AccountAddress, AccountState>emptyMap())
+        .build();
+    when(mockOperation.getStates(ArgumentMatchers.<AccountAddress>anyCollection()))
+        .thenReturn(expected);
+    when(mockOperation.getStates(any(StateBatch.class))).thenReturn(expected);
+    final AergoClient mockClient = mock(AergoClient.class);
+    when(mockClient.getAccountOperation()).thenReturn(mockOperation);
+    final ClientProvider mockClientProvider = mock(ClientProvider.class);
+    when(mockClientProvider.getClient()).thenReturn(mockClient);
+
+    // then
+    final QueryApi queryApi = new QueryApiImpl(mockClientProvider);
+    assertEquals(expected, queryApi.getAccountStates(Arrays.asList(anyAccountAddress)));
+    assertEquals(expected,
+        queryApi.getAccountStates(StateBatch.newBuilder().add(anyAccountAddress).build()));
+  }
+
   @Test
   public void testGetNameOwner() {
     // given
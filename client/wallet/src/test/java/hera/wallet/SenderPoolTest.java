@@ -0,0 +1,235 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.wallet;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.api.AccountOperation;
+import hera.api.TransactionOperation;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Aer;
+import hera.api.model.BytesValue;
+import hera.api.model.Fee;
+import hera.api.model.Time;
+import hera.api.model.TryCountAndInterval;
+import hera.api.model.TxHash;
+import hera.api.transaction.SimpleNonceProvider;
+import hera.client.AergoClient;
+import hera.exception.HerajException;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
+import hera.key.Signer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class SenderPoolTest extends AbstractTestCase {
+
+  protected final TryCountAndInterval tryCountAndInterval = TryCountAndInterval
+      .of(1, Time.of(1L));
+
+  protected AergoClient mockClient(final Map<AccountAddress, Aer> balances) {
+    final AccountOperation mockAccountOperation = mock(AccountOperation.class);
+    when(mockAccountOperation.getState(any(AccountAddress.class)))
+        .thenAnswer(new Answer<AccountState>() {
+          @Override
+          public AccountState answer(final InvocationOnMock invocation) {
+            final AccountAddress address = (AccountAddress) invocation.getArguments()[0];
+            return AccountState.newBuilder()
+                .address(address)
+                .nonce(0L)
+                .balance(balances.get(address))
+                .build();
+          }
+        });
+    final TransactionOperation mockTransactionOperation = mock(TransactionOperation.class);
+    when(mockTransactionOperation.sendTx(any(Signer.class), any(AccountAddress.class),
+        any(Aer.class), anyLong(), any(Fee.class), any(BytesValue.class)))
+        .thenReturn(TxHash.of(BytesValue.EMPTY));
+    final AergoClient mockClient = mock(AergoClient.class);
+    when(mockClient.getAccountOperation()).thenReturn(mockAccountOperation);
+    when(mockClient.getTransactionOperation()).thenReturn(mockTransactionOperation);
+    return mockClient;
+  }
+
+  @Test
+  public void testSend() {
+    // given
+    final AergoKey rich = new AergoKeyGenerator().create();
+    final AergoKey poor = new AergoKeyGenerator().create();
+    final Map<AccountAddress, Aer> balances = new HashMap<>();
+    balances.put(rich.getAddress(), Aer.of("100"));
+    balances.put(poor.getAddress(), Aer.of("1"));
+    final AergoClient mockClient = mockClient(balances);
+    final SenderPool senderPool = new SenderPool(mockClient, asList(rich, poor),
+        new SimpleNonceProvider(), tryCountAndInterval);
+    senderPool.refresh();
+
+    // when
+    for (int i = 0; i < 3; ++i) {
+      assertNotNull(senderPool.send(anyAccountAddress, Aer.of("10"), Fee.INFINITY));
+    }
+
+    // then
+    verify(mockClient.getTransactionOperation(), times(3)).sendTx(eq(rich),
+        any(AccountAddress.class), any(Aer.class), anyLong(), any(Fee.class),
+        any(BytesValue.class));
+    assertEquals(Aer.of("70"), senderPool.getBalance(rich.getAddress()));
+    assertEquals(Aer.of("1"), senderPool.getBalance(poor.getAddress()));
+  }
+
+  @Test
+  public void shouldSpreadOverMembers() {
+    // given
+    final AergoKey first = new AergoKeyGenerator().create();
+    final AergoKey second = new AergoKeyGenerator().create();
+    final Map<AccountAddress, Aer> balances = new HashMap<>();
+    balances.put(first.getAddress(), Aer.of("100"));
+    balances.put(second.getAddress(), Aer.of("100"));
+    final AergoClient mockClient = mockClient(balances);
+    final SenderPool senderPool = new SenderPool(mockClient, asList(first, second),
+        new SimpleNonceProvider(), tryCountAndInterval);
+    senderPool.refresh();
+
+    // when
+    for (int i = 0; i < 4; ++i) {
+      senderPool.send(anyAccountAddress, Aer.of("1"), Fee.INFINITY);
+    }
+
+    // then
+    assertEquals(Aer.of("98"), senderPool.getBalance(first.getAddress()));
+    assertEquals(Aer.of("98"), senderPool.getBalance(second.getAddress()));
+  }
+
+  @Test
+  public void shouldFailWithoutBalance() {
+    // given
+    final AergoKey key = new AergoKeyGenerator().create();
+    final Map<AccountAddress, Aer> balances = new HashMap<>();
+    balances.put(key.getAddress(), Aer.of("1"));
+    final SenderPool senderPool = new SenderPool(mockClient(balances), asList(key),
+        new SimpleNonceProvider(), tryCountAndInterval);
+    senderPool.refresh();
+
+    // when
+    try {
+      senderPool.send(anyAccountAddress, Aer.of("10"), Fee.INFINITY);
+      fail();
+    } catch (HerajException e) {
+      // then
+    }
+  }
+
+  @Test
+  public void testRebalance() {
+    // given
+    final AergoKey rich = new AergoKeyGenerator().create();
+    final AergoKey poor = new AergoKeyGenerator().create();
+    final Map<AccountAddress, Aer> balances = new HashMap<>();
+    balances.put(rich.getAddress(), Aer.of("100"));
+    balances.put(poor.getAddress(), Aer.of("1"));
+    final AergoClient mockClient = mockClient(balances);
+    final SenderPool senderPool = new SenderPool(mockClient, asList(rich, poor),
+        new SimpleNonceProvider(), tryCountAndInterval, Aer.of("10"), Aer.of("30"),
+        Fee.INFINITY);
+    senderPool.refresh();
+
+    // when
+    final int refilled = senderPool.rebalance();
+
+    // then
+    assertEquals(1, refilled);
+    verify(mockClient.getTransactionOperation()).sendTx(eq(rich), eq(poor.getAddress()),
+        eq(Aer.of("30")), anyLong(), any(Fee.class), any(BytesValue.class));
+    assertEquals(Aer.of("70"), senderPool.getBalance(rich.getAddress()));
+    assertEquals(Aer.of("31"), senderPool.getBalance(poor.getAddress()));
+  }
+
+  @Test
+  public void shouldReserveSelectedBalance() throws Exception {
+    // given
+    final AergoKey key = new AergoKeyGenerator().create();
+    final Map<AccountAddress, Aer> balances = new HashMap<>();
+    balances.put(key.getAddress(), Aer.of("15"));
+    final AergoClient mockClient = mockClient(balances);
+    final CountDownLatch sending = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    when(mockClient.getTransactionOperation().sendTx(any(Signer.class),
+        any(AccountAddress.class), any(Aer.class), anyLong(), any(Fee.class),
+        any(BytesValue.class))).thenAnswer(new Answer<TxHash>() {
+          @Override
+          public TxHash answer(final InvocationOnMock invocation) throws Exception {
+            sending.countDown();
+            release.await(5L, TimeUnit.SECONDS);
+            return TxHash.of(BytesValue.EMPTY);
+          }
+        });
+    final SenderPool senderPool = new SenderPool(mockClient, asList(key),
+        new SimpleNonceProvider(), tryCountAndInterval);
+    senderPool.refresh();
+    final Thread first = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        senderPool.send(anyAccountAddress, Aer.of("10"), Fee.INFINITY);
+      }
+    });
+    first.start();
+    assertTrue(sending.await(5L, TimeUnit.SECONDS));
+
+    // when
+    try {
+      senderPool.send(anyAccountAddress, Aer.of("10"), Fee.INFINITY);
+      fail();
+    } catch (HerajException e) {
+      // then
+    } finally {
+      release.countDown();
+      first.join();
+    }
+    assertEquals(Aer.of("5"), senderPool.getBalance(key.getAddress()));
+  }
+
+  @Test
+  public void shouldRebalanceInBackgroundAfterSend() throws Exception {
+    // given
+    final AergoKey rich = new AergoKeyGenerator().create();
+    final AergoKey poor = new AergoKeyGenerator().create();
+    final Map<AccountAddress, Aer> balances = new HashMap<>();
+    balances.put(rich.getAddress(), Aer.of("100"));
+    balances.put(poor.getAddress(), Aer.of("8"));
+    final SenderPool senderPool = new SenderPool(mockClient(balances), asList(rich, poor),
+        new SimpleNonceProvider(), tryCountAndInterval, Aer.of("10"), Aer.of("30"),
+        Fee.INFINITY);
+    senderPool.refresh();
+
+    // when
+    senderPool.send(anyAccountAddress, Aer.of("1"), Fee.INFINITY);
+
+    // then
+    for (int i = 0; i < 500 && Aer.of("10").compareTo(
+        senderPool.getBalance(poor.getAddress())) > 0; ++i) {
+      Thread.sleep(10L);
+    }
+    assertTrue(Aer.of("10").compareTo(senderPool.getBalance(poor.getAddress())) <= 0);
+  }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.wallet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.api.AccountOperation;
+import hera.api.TransactionOperation;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Aer;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.Fee;
+import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
+import hera.api.model.TxHash;
+import hera.api.transaction.SimpleNonceProvider;
+import hera.client.AergoClient;
+import hera.exception.CommitException;
+import hera.exception.CommitException.CommitStatus;
+import hera.exception.HerajException;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class TxDispatcherTest extends AbstractTestCase {
+
+  protected final AergoKey key = new AergoKeyGenerator().create();
+
+  // commit statuses of the first commit; the rest are committed
+  protected AergoClient mockClient(final CommitStatus... firstStatuses) {
+    final AccountOperation mockAccountOperation = mock(AccountOperation.class);
+    when(mockAccountOperation.getState(any(AccountAddress.class)))
+        .thenReturn(AccountState.newBuilder().address(key.getAddress()).nonce(0L).build());
+    final TransactionOperation mockTransactionOperation = mock(TransactionOperation.class);
+    when(mockTransactionOperation.commit(anyList()))
+        .thenAnswer(new Answer<List<TxCommitResult>>() {
+          protected boolean first = true;
+
+          @Override
+          public List<TxCommitResult> answer(final InvocationOnMock invocation) {
+            final List<?> transactions = (List<?>) invocation.getArguments()[0];
+            final List<TxCommitResult> results = new ArrayList<>();
+            for (int i = 0; i < transactions.size(); ++i) {
+              final Transaction transaction = (Transaction) transactions.get(i);
+              if (first && i < firstStatuses.length) {
+                results.add(TxCommitResult.newBuilder()
+                    .error(new CommitException(firstStatuses[i], "") {
+                    })
+                    .build());
+              } else {
+                results.add(TxCommitResult.newBuilder().txHash(transaction.getHash()).build());
+              }
+            }
+            first = false;
+            return results;
+          }
+        });
+    final AergoClient mockClient = mock(AergoClient.class);
+    when(mockClient.getCachedChainIdHash()).thenReturn(ChainIdHash.EMPTY);
+    when(mockClient.getAccountOperation()).thenReturn(mockAccountOperation);
+    when(mockClient.getTransactionOperation()).thenReturn(mockTransactionOperation);
+    return mockClient;
+  }
+
+  @Test
+  public void testSubmit() throws Exception {
+    // given
+    final TxDispatcher dispatcher = new TxDispatcher(mockClient(), new SimpleNonceProvider());
+    final List<Future<TxHash>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; ++i) {
+      futures.add(dispatcher.submit(0, key, anyAccountAddress, Aer.ONE, Fee.INFINITY,
+          BytesValue.EMPTY));
+    }
+
+    // when
+    dispatcher.boot(true);
+    try {
+      // then
+      for (final Future<TxHash> future : futures) {
+        assertNotNull(future.get());
+      }
+      final TxDispatcher.Stats stats = dispatcher.getStats();
+      assertEquals(3L, stats.getSubmittedCount());
+      assertEquals(3L, stats.getCommittedCount());
+      assertEquals(0, stats.getQueueDepth());
+    } finally {
+      dispatcher.down(true);
+    }
+  }
+
+  @Test
+  public void shouldRetryOnNonceFailure() throws Exception {
+    // given
+    final TxDispatcher dispatcher = new TxDispatcher(mockClient(CommitStatus.NONCE_TOO_LOW),
+        new SimpleNonceProvider());
+    dispatcher.boot(true);
+    try {
+      // when
+      final Future<TxHash> future = dispatcher.submit(0, key, anyAccountAddress, Aer.ONE,
+          Fee.INFINITY, BytesValue.EMPTY);
+
+      // then
+      assertNotNull(future.get());
+      assertEquals(1L, dispatcher.getStats().getRetriedCount());
+    } finally {
+      dispatcher.down(true);
+    }
+  }
+
+  @Test
+  public void shouldFailOnOtherFailure() throws Exception {
+    // given
+    final TxDispatcher dispatcher = new TxDispatcher(
+        mockClient(CommitStatus.INSUFFICIENT_BALANCE), new SimpleNonceProvider());
+    dispatcher.boot(true);
+    try {
+      // when
+      final Future<TxHash> future = dispatcher.submit(0, key, anyAccountAddress, Aer.ONE,
+          Fee.INFINITY, BytesValue.EMPTY);
+
+      // then
+      try {
+        future.get();
+        fail();
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof CommitException);
+      }
+      assertEquals(1L, dispatcher.getStats().getFailedCount());
+    } finally {
+      dispatcher.down(true);
+    }
+  }
+
+  @Test
+  public void shouldRejectWhenFull() {
+    // given
+    final TxDispatcher dispatcher = new TxDispatcher(mockClient(), new SimpleNonceProvider(), 1,
+        1, 0, 0.0d);
+    dispatcher.submit(0, key, anyAccountAddress, Aer.ONE, Fee.INFINITY, BytesValue.EMPTY);
+
+    // when
+    try {
+      dispatcher.submit(0, key, anyAccountAddress, Aer.ONE, Fee.INFINITY, BytesValue.EMPTY);
+      fail();
+    } catch (HerajException e) {
+      // then
+      assertEquals(1, dispatcher.getQueueDepth());
+    }
+  }
+
+  @Test
+  public void shouldFailBatchOnUnexpectedError() throws Exception {
+    // given
+    final AergoClient mockClient = mockClient();
+    // results don't match transactions
+    when(mockClient.getTransactionOperation().commit(anyList()))
+        .thenReturn(new ArrayList<TxCommitResult>());
+    final TxDispatcher dispatcher = new TxDispatcher(mockClient, new SimpleNonceProvider());
+    dispatcher.boot(true);
+    try {
+      // when
+      final Future<TxHash> future = dispatcher.submit(0, key, anyAccountAddress, Aer.ONE,
+          Fee.INFINITY, BytesValue.EMPTY);
+
+      // then
+      try {
+        future.get(5L, TimeUnit.SECONDS);
+        fail();
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof IndexOutOfBoundsException);
+      }
+      assertEquals(1L, dispatcher.getStats().getFailedCount());
+    } finally {
+      dispatcher.down(true);
+    }
+  }
+
+}
@@ -0,0 +1,26 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark a smart contract interface to generate a typed stub class at compile time. With
+ * {@code heraj-processor} as an annotation processor, a class named {@code <Interface>Stub} is
+ * generated in the same package. Its {@code FACTORY} can be passed to
+ * {@code ContractApiFactory.create} instead of an interface type.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface ContractStub {
+
+}
@@ -12,6 +12,7 @@ import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
 
 @BenchmarkMode(Mode.Throughput)
 public class ContractResultBindingBenchmark {
@@ -40,21 +41,111 @@ public class ContractResultBindingBenchmark {
 
   }
 
+  public static class NestedData {
+
+    protected String name;
+
+    protected Data data;
+
+    protected Data[] dataArray;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public Data getData() {
+      return data;
+    }
+
+    public void setData(Data data) {
+      this.data = data;
+    }
+
+    public Data[] getDataArray() {
+      return dataArray;
+    }
+
+    public void setDataArray(Data[] dataArray) {
+      this.dataArray = dataArray;
+    }
+
+  }
+
   @State(Scope.Thread)
   public static class User {
 
+    protected static final String DATA = "{\"intVal\":-1858492432,\"stringVal\":\"I am string\"}";
+
+    protected static final int LARGE_ARRAY_SIZE = 10000;
+
     protected BytesValue rawResult;
 
+    protected BytesValue rawNestedResult;
+
+    protected BytesValue rawListResult;
+
+    protected BytesValue rawLargeArrayResult;
+
     @Setup(Level.Trial)
     public synchronized void setUp() {
-      final String rawData = "{\"intVal\":-1858492432,\"stringVal\":\"I am string\"}";
-      this.rawResult = BytesValue.of(rawData.getBytes());
+      this.rawResult = BytesValue.of(DATA.getBytes());
+
+      final String list = "[" + DATA + "," + DATA + "," + DATA + "]";
+      this.rawNestedResult = BytesValue.of(("{\"name\":\"nested\",\"data\":" + DATA
+          + ",\"dataArray\":" + list + "}").getBytes());
+      this.rawListResult = BytesValue.of(list.getBytes());
+
+      final StringBuilder largeArray = new StringBuilder("[");
+      for (int i = 0; i < LARGE_ARRAY_SIZE; ++i) {
+        if (0 != i) {
+          largeArray.append(',');
+        }
+        largeArray.append(DATA);
+      }
+      largeArray.append(']');
+      this.rawLargeArrayResult = BytesValue.of(largeArray.toString().getBytes());
     }
 
     public Data bind() throws IOException {
       return ContractResult.of(rawResult).bind(Data.class);
     }
 
+    public NestedData bindNested() throws IOException {
+      return ContractResult.of(rawNestedResult).bind(NestedData.class);
+    }
+
+    public Data[] bindList() throws IOException {
+      return ContractResult.of(rawListResult).bind(Data[].class);
+    }
+
+    public Data[] bindLargeArray() throws IOException {
+      return ContractResult.of(rawLargeArrayResult).bind(Data[].class);
+    }
+
+    public int bindEachLargeArray(final Blackhole blackhole) {
+      return ContractResult.of(rawLargeArrayResult).bindEach(Data.class,
+          new StreamObserver<Data>() {
+
+            @Override
+            public void onNext(final Data value) {
+              blackhole.consume(value);
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+              throw new IllegalStateException(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+          });
+    }
+
   }
 
   @Benchmark
@@ -62,6 +153,24 @@ public class ContractResultBindingBenchmark {
     user.bind();
   }
 
-}
+  @Benchmark
+  public void bindNested(final User user, final Blackhole blackhole) throws IOException {
+    blackhole.consume(user.bindNested());
+  }
 
+  @Benchmark
+  public void bindList(final User user, final Blackhole blackhole) throws IOException {
+    blackhole.consume(user.bindList());
+  }
 
+  @Benchmark
+  public void bindLargeArray(final User user, final Blackhole blackhole) throws IOException {
+    blackhole.consume(user.bindLargeArray());
+  }
+
+  @Benchmark
+  public void bindEachLargeArray(final User user, final Blackhole blackhole) {
+    blackhole.consume(user.bindEachLargeArray(blackhole));
+  }
+
+}
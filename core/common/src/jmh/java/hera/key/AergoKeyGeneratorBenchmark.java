@@ -5,6 +5,7 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
 
 @BenchmarkMode(Mode.Throughput)
 public class AergoKeyGeneratorBenchmark {
@@ -19,4 +20,10 @@ public class AergoKeyGeneratorBenchmark {
     context.generator.create();
   }
 
+  @Benchmark
+  @Threads(1)
+  public void generateInSingleThread(final BenchmarkContext context) {
+    context.generator.create();
+  }
+
 }
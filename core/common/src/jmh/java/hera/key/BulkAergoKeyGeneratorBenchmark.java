@@ -0,0 +1,58 @@
+package hera.key;
+
+import hera.api.model.KeyFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.Throughput)
+@Threads(1)
+public class BulkAergoKeyGeneratorBenchmark {
+
+  protected static final int BATCH = 1000;
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkContext {
+
+    @Param({"1", "2", "4", "8"})
+    protected int concurrency;
+
+    protected BulkAergoKeyGenerator generator;
+
+    @Setup
+    public void setUp() {
+      generator = new BulkAergoKeyGenerator(concurrency);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void generate(final BenchmarkContext context, final Blackhole blackhole) {
+    context.generator.generate(BATCH, new KeySink<AergoKey>() {
+      @Override
+      public void accept(final AergoKey key) {
+        blackhole.consume(key);
+      }
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(2)
+  public void generateEncrypted(final BenchmarkContext context, final Blackhole blackhole) {
+    // scrypt dominates; keep a batch small
+    context.generator.generate(2, "password", new KeySink<KeyFormat>() {
+      @Override
+      public void accept(final KeyFormat keyFormat) {
+        blackhole.consume(keyFormat);
+      }
+    });
+  }
+
+}
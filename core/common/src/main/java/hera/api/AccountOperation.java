@@ -15,10 +15,13 @@ import hera.api.model.ElectedCandidate;
 import hera.api.model.Name;
 import hera.api.model.RawTransaction;
 import hera.api.model.StakeInfo;
+import hera.api.model.StateBatch;
+import hera.api.model.StateBatchResult;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.key.AergoSignVerifier;
 import hera.key.Signer;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -48,6 +51,24 @@ public interface AccountOperation {
    */
   AccountState getState(AccountAddress address);
 
+  /**
+   * Get account states of addresses at once. Duplicated addresses are looked up only once and
+   * the lookups are run concurrently. The result is tagged with the best block observed.
+   *
+   * @param addresses account addresses
+   * @return a state batch result
+   */
+  StateBatchResult getStates(Collection<AccountAddress> addresses);
+
+  /**
+   * Get account states with a batch. Set {@link StateBatch#isPinToBestBlock()} to get a snapshot
+   * consistent to a single block.
+   *
+   * @param stateBatch a state batch
+   * @return a state batch result
+   */
+  StateBatchResult getStates(StateBatch stateBatch);
+
   /**
    * Create name info of an account. Created name will be owned by {@code signer}.
    *
@@ -17,6 +17,8 @@ import hera.api.model.ContractTxReceipt;
 import hera.api.model.Event;
 import hera.api.model.EventFilter;
 import hera.api.model.Fee;
+import hera.api.model.QueryBatch;
+import hera.api.model.QueryBatchResult;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.api.model.TxHash;
@@ -200,6 +202,15 @@ public interface ContractOperation {
    */
   ContractResult query(ContractInvocation contractInvocation);
 
+  /**
+   * Query the smart contract state with a batch of invocations. Identical invocations are queried
+   * only once and the queries are run concurrently. Results are in the same order as invocations.
+   *
+   * @param queryBatch a query batch
+   * @return a query batch result
+   */
+  QueryBatchResult queryBatch(QueryBatch queryBatch);
+
   /**
    * List events corresponding to an event filter.
    *
@@ -12,9 +12,11 @@ import hera.api.model.BytesValue;
 import hera.api.model.Fee;
 import hera.api.model.Name;
 import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
 import hera.key.Signer;
+import java.util.List;
 
 /**
  * Provide transaction related operations.
@@ -49,6 +51,14 @@ public interface TransactionOperation {
    */
   TxHash commit(Transaction transaction);
 
+  /**
+   * Commit transactions in a single request. A failure of a transaction doesn't affect others.
+   *
+   * @param transactions transactions to commit
+   * @return commit results in the same order as {@code transactions}
+   */
+  List<TxCommitResult> commit(List<Transaction> transactions);
+
   /**
    * Send aergo.
    *
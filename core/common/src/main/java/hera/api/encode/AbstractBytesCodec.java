@@ -0,0 +1,190 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.encode;
+
+import static hera.util.IoUtils.from;
+import static hera.util.ValidationUtils.assertNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+abstract class AbstractBytesCodec implements BytesEncoder, BytesDecoder {
+
+  protected static final int CHUNK_UNIT_COUNT = 1024;
+
+  /**
+   * Encode {@code length} bytes of {@code raw} starting from {@code offset}. Range is already
+   * validated.
+   *
+   * @param raw a raw bytes
+   * @param offset an offset to start from
+   * @param length a length to encode
+   * @return an encoded chars
+   */
+  protected abstract char[] encodeRange(byte[] raw, int offset, int length);
+
+  /**
+   * Decode {@code length} chars of {@code encoded} starting from {@code offset}.
+   *
+   * @param encoded an encoded value
+   * @param offset an offset to start from
+   * @param length a length to decode
+   * @return a decoded raw bytes
+   */
+  protected abstract byte[] decodeRange(CharSequence encoded, int offset, int length);
+
+  @Override
+  public String encode(final byte[] raw) {
+    assertNotNull(raw, "Raw bytes must not null");
+    return new String(encodeRange(raw, 0, raw.length));
+  }
+
+  @Override
+  public String encode(final byte[] raw, final int offset, final int length) {
+    assertNotNull(raw, "Raw bytes must not null");
+    if (offset < 0 || length < 0 || raw.length - length < offset) {
+      throw new IndexOutOfBoundsException(
+          "Invalid range (offset: " + offset + ", length: " + length + ")");
+    }
+    return new String(encodeRange(raw, offset, length));
+  }
+
+  @Override
+  public String encode(final ByteBuffer raw) {
+    assertNotNull(raw, "Byte buffer must not null");
+    if (raw.hasArray()) {
+      return new String(encodeRange(raw.array(), raw.arrayOffset() + raw.position(),
+          raw.remaining()));
+    }
+    final byte[] copied = new byte[raw.remaining()];
+    raw.duplicate().get(copied);
+    return new String(encodeRange(copied, 0, copied.length));
+  }
+
+  @Override
+  public void encode(final InputStream in, final Appendable out) throws IOException {
+    assertNotNull(in, "Input stream must not null");
+    assertNotNull(out, "Output must not null");
+    final int unit = getEncodingUnit();
+    if (unit <= 0) {
+      final byte[] raw = from(in);
+      out.append(new String(encodeRange(raw, 0, raw.length)));
+      return;
+    }
+
+    final byte[] buffer = new byte[unit * CHUNK_UNIT_COUNT];
+    final CharBufferView view = new CharBufferView();
+    int filled = 0;
+    int read;
+    while (0 <= (read = in.read(buffer, filled, buffer.length - filled))) {
+      filled += read;
+      if (filled == buffer.length) {
+        out.append(view.wrap(encodeRange(buffer, 0, filled)));
+        filled = 0;
+      }
+    }
+    if (0 < filled) {
+      out.append(view.wrap(encodeRange(buffer, 0, filled)));
+    }
+  }
+
+  @Override
+  public char[] encodeToChars(final byte[] raw) {
+    assertNotNull(raw, "Raw bytes must not null");
+    return encodeRange(raw, 0, raw.length);
+  }
+
+  @Override
+  public byte[] decode(final CharSequence encoded) {
+    assertNotNull(encoded, "Encoded value must not null");
+    return decodeRange(encoded, 0, encoded.length());
+  }
+
+  @Override
+  public void decode(final Reader in, final OutputStream out) throws IOException {
+    assertNotNull(in, "Reader must not null");
+    assertNotNull(out, "Output stream must not null");
+    final int unit = getDecodingUnit();
+    if (unit <= 0) {
+      out.write(decode(from(in)));
+      return;
+    }
+
+    final char[] buffer = new char[unit * CHUNK_UNIT_COUNT];
+    final CharBufferView view = new CharBufferView();
+    int filled = 0;
+    int read;
+    while (0 <= (read = in.read(buffer, filled, buffer.length - filled))) {
+      filled += read;
+      if (filled == buffer.length) {
+        out.write(decodeRange(view.wrap(buffer), 0, filled));
+        filled = 0;
+      }
+    }
+    if (0 < filled) {
+      out.write(decodeRange(view.wrap(buffer), 0, filled));
+    }
+  }
+
+  /**
+   * Get a number of bytes which can be encoded independently. A codec which cannot be encoded
+   * block-wise returns 0.
+   *
+   * @return a number of bytes in an encoding unit
+   */
+  protected abstract int getEncodingUnit();
+
+  /**
+   * Get a number of chars which can be decoded independently. A codec which cannot be decoded
+   * block-wise returns 0.
+   *
+   * @return a number of chars in a decoding unit
+   */
+  protected abstract int getDecodingUnit();
+
+  protected static IllegalArgumentException invalidChar(final char ch, final int index) {
+    return new IllegalArgumentException("Invalid character '" + ch + "' at " + index);
+  }
+
+  /**
+   * A reusable {@link CharSequence} view of a char array to avoid making a string per chunk.
+   */
+  private static class CharBufferView implements CharSequence {
+
+    protected char[] chars;
+
+    protected int length;
+
+    CharSequence wrap(final char[] chars) {
+      this.chars = chars;
+      this.length = chars.length;
+      return this;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+      return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+      return new String(chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      return new String(chars, 0, length);
+    }
+  }
+
+}
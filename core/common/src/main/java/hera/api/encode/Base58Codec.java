@@ -0,0 +1,66 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.encode;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.util.Base58Utils;
+import java.util.Arrays;
+
+/**
+ * A base58 codec. Base58 is a positional numeral system over a whole value so it cannot be
+ * processed block-wise; streaming methods buffer a whole input.
+ */
+class Base58Codec extends AbstractBytesCodec {
+
+  static final Base58Codec PLAIN = new Base58Codec(false);
+
+  static final Base58Codec WITH_CHECK = new Base58Codec(true);
+
+  protected final boolean withCheck;
+
+  protected Base58Codec(final boolean withCheck) {
+    this.withCheck = withCheck;
+  }
+
+  @Override
+  protected char[] encodeRange(final byte[] raw, final int offset, final int length) {
+    final byte[] target = (0 == offset && raw.length == length) ? raw
+        : Arrays.copyOfRange(raw, offset, offset + length);
+    final String encoded = withCheck ? Base58Utils.encodeWithCheck(target)
+        : Base58Utils.encode(target);
+    return encoded.toCharArray();
+  }
+
+  @Override
+  public String encode(final byte[] raw) {
+    assertNotNull(raw, "Raw bytes must not null");
+    // skip a char array round trip
+    return withCheck ? Base58Utils.encodeWithCheck(raw) : Base58Utils.encode(raw);
+  }
+
+  @Override
+  protected byte[] decodeRange(final CharSequence encoded, final int offset, final int length) {
+    final String target = encoded.subSequence(offset, offset + length).toString();
+    try {
+      return withCheck ? Base58Utils.decodeWithCheck(target) : Base58Utils.decode(target);
+    } catch (IllegalArgumentException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  protected int getEncodingUnit() {
+    return 0;
+  }
+
+  @Override
+  protected int getDecodingUnit() {
+    return 0;
+  }
+
+}
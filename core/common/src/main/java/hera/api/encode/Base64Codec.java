@@ -0,0 +1,121 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.encode;
+
+import java.util.Arrays;
+
+/**
+ * A table-driven base64 codec with a standard alphabet (RFC 4648). Encoding always writes padding
+ * and decoding accepts a value with or without padding.
+ */
+class Base64Codec extends AbstractBytesCodec {
+
+  static final Base64Codec STANDARD = new Base64Codec(
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray());
+
+  protected static final char PADDING = '=';
+
+  protected final char[] alphabet;
+
+  protected final byte[] decodingTable = new byte[128];
+
+  protected Base64Codec(final char[] alphabet) {
+    this.alphabet = alphabet;
+    Arrays.fill(decodingTable, (byte) -1);
+    for (int i = 0; i < alphabet.length; ++i) {
+      decodingTable[alphabet[i]] = (byte) i;
+    }
+  }
+
+  @Override
+  protected char[] encodeRange(final byte[] raw, final int offset, final int length) {
+    final char[] encoded = new char[((length + 2) / 3) << 2];
+    final int end = offset + length;
+    final int fullEnd = offset + length - length % 3;
+    int i = offset;
+    int j = 0;
+    while (i < fullEnd) {
+      final int bits = (raw[i++] & 0xff) << 16 | (raw[i++] & 0xff) << 8 | (raw[i++] & 0xff);
+      encoded[j++] = alphabet[bits >>> 18];
+      encoded[j++] = alphabet[(bits >>> 12) & 0x3f];
+      encoded[j++] = alphabet[(bits >>> 6) & 0x3f];
+      encoded[j++] = alphabet[bits & 0x3f];
+    }
+    final int remaining = end - fullEnd;
+    if (1 == remaining) {
+      final int bits = (raw[i] & 0xff) << 16;
+      encoded[j++] = alphabet[bits >>> 18];
+      encoded[j++] = alphabet[(bits >>> 12) & 0x3f];
+      encoded[j++] = PADDING;
+      encoded[j] = PADDING;
+    } else if (2 == remaining) {
+      final int bits = (raw[i] & 0xff) << 16 | (raw[i + 1] & 0xff) << 8;
+      encoded[j++] = alphabet[bits >>> 18];
+      encoded[j++] = alphabet[(bits >>> 12) & 0x3f];
+      encoded[j++] = alphabet[(bits >>> 6) & 0x3f];
+      encoded[j] = PADDING;
+    }
+    return encoded;
+  }
+
+  @Override
+  protected byte[] decodeRange(final CharSequence encoded, final int offset, final int length) {
+    int end = offset + length;
+    while (offset < end && PADDING == encoded.charAt(end - 1)) {
+      --end;
+    }
+    if (2 < offset + length - end) {
+      throw new IllegalArgumentException("Too many padding characters");
+    }
+    final int significant = end - offset;
+    final int tail = significant & 3;
+    if (1 == tail) {
+      throw new IllegalArgumentException("Invalid base64 encoded length: " + length);
+    }
+
+    final byte[] decoded = new byte[(significant >>> 2) * 3 + (0 == tail ? 0 : tail - 1)];
+    final int fullEnd = end - tail;
+    int i = offset;
+    int j = 0;
+    while (i < fullEnd) {
+      final int bits = sextet(encoded, i) << 18 | sextet(encoded, i + 1) << 12
+          | sextet(encoded, i + 2) << 6 | sextet(encoded, i + 3);
+      decoded[j++] = (byte) (bits >>> 16);
+      decoded[j++] = (byte) (bits >>> 8);
+      decoded[j++] = (byte) bits;
+      i += 4;
+    }
+    if (2 == tail) {
+      final int bits = sextet(encoded, i) << 18 | sextet(encoded, i + 1) << 12;
+      decoded[j] = (byte) (bits >>> 16);
+    } else if (3 == tail) {
+      final int bits = sextet(encoded, i) << 18 | sextet(encoded, i + 1) << 12
+          | sextet(encoded, i + 2) << 6;
+      decoded[j++] = (byte) (bits >>> 16);
+      decoded[j] = (byte) (bits >>> 8);
+    }
+    return decoded;
+  }
+
+  protected int sextet(final CharSequence encoded, final int index) {
+    final char ch = encoded.charAt(index);
+    final int value = ch < 128 ? decodingTable[ch] : -1;
+    if (value < 0) {
+      throw invalidChar(ch, index);
+    }
+    return value;
+  }
+
+  @Override
+  protected int getEncodingUnit() {
+    return 3;
+  }
+
+  @Override
+  protected int getDecodingUnit() {
+    return 4;
+  }
+
+}
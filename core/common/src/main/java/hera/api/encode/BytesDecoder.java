@@ -0,0 +1,49 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.encode;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+
+/**
+ * A decoder producing a raw bytes directly. Unlike {@link Decoder}, it doesn't wrap an input and an
+ * output with a stream.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface BytesDecoder {
+
+  BytesDecoder Hex = HexCodec.UPPER;
+
+  BytesDecoder Base58 = Base58Codec.PLAIN;
+
+  BytesDecoder Base58Check = Base58Codec.WITH_CHECK;
+
+  BytesDecoder Base64 = Base64Codec.STANDARD;
+
+  /**
+   * Decode an encoded value.
+   *
+   * @param encoded an encoded value
+   * @return a decoded raw bytes
+   * @throws IllegalArgumentException if {@code encoded} is not a valid encoded value
+   */
+  byte[] decode(CharSequence encoded);
+
+  /**
+   * Decode all the characters from a reader to an output stream. A decoder supporting block-wise
+   * decoding writes an output chunk by chunk without holding the whole input in a memory.
+   *
+   * @param in a reader to read from
+   * @param out an output stream to write a decoded bytes to
+   * @throws IOException on read or write failure
+   * @throws IllegalArgumentException if an input is not a valid encoded value
+   */
+  void decode(Reader in, OutputStream out) throws IOException;
+
+}
@@ -0,0 +1,73 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.encode;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An encoder working directly on a raw bytes. Unlike {@link Encoder}, it doesn't wrap an input and
+ * an output with a stream.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface BytesEncoder {
+
+  BytesEncoder Hex = HexCodec.UPPER;
+
+  BytesEncoder Base58 = Base58Codec.PLAIN;
+
+  BytesEncoder Base58Check = Base58Codec.WITH_CHECK;
+
+  BytesEncoder Base64 = Base64Codec.STANDARD;
+
+  /**
+   * Encode a raw bytes.
+   *
+   * @param raw a raw bytes
+   * @return an encoded value
+   */
+  String encode(byte[] raw);
+
+  /**
+   * Encode a part of a raw bytes.
+   *
+   * @param raw a raw bytes
+   * @param offset an offset to start from
+   * @param length a length to encode
+   * @return an encoded value
+   */
+  String encode(byte[] raw, int offset, int length);
+
+  /**
+   * Encode remaining bytes of a buffer. The position of the buffer is not changed.
+   *
+   * @param raw a byte buffer
+   * @return an encoded value
+   */
+  String encode(ByteBuffer raw);
+
+  /**
+   * Encode all the bytes from an input stream to an output. An encoder supporting block-wise
+   * encoding writes an output chunk by chunk without holding the whole input in a memory.
+   *
+   * @param in an input stream to read from
+   * @param out an output to append an encoded value to
+   * @throws IOException on read or write failure
+   */
+  void encode(InputStream in, Appendable out) throws IOException;
+
+  /**
+   * Encode a raw bytes into a char array.
+   *
+   * @param raw a raw bytes
+   * @return an encoded value
+   */
+  char[] encodeToChars(byte[] raw);
+
+}
@@ -9,8 +9,6 @@ import static hera.util.IoUtils.from;
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
 import hera.util.Base58Utils;
-import hera.util.Base64Utils;
-import hera.util.HexUtils;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -23,7 +21,7 @@ public interface Decoder {
   Decoder Hex = new Decoder() {
     @Override
     public InputStream decode(final Reader reader) throws IOException {
-      return new ByteArrayInputStream(HexUtils.decode(from(reader)));
+      return new ByteArrayInputStream(BytesDecoder.Hex.decode(from(reader)));
     }
   };
 
@@ -44,7 +42,7 @@ public interface Decoder {
   Decoder Base64 = new Decoder() {
     @Override
     public InputStream decode(final Reader reader) throws IOException {
-      return new ByteArrayInputStream(Base64Utils.decode(from(reader)));
+      return new ByteArrayInputStream(BytesDecoder.Base64.decode(from(reader)));
     }
   };
 
@@ -9,8 +9,6 @@ import static hera.util.IoUtils.from;
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
 import hera.util.Base58Utils;
-import hera.util.Base64Utils;
-import hera.util.HexUtils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -23,7 +21,7 @@ public interface Encoder {
   Encoder Hex = new Encoder() {
     @Override
     public Reader encode(final InputStream in) throws IOException {
-      return new StringReader(HexUtils.encode(from(in)));
+      return new StringReader(BytesEncoder.Hex.encode(from(in)));
     }
   };
 
@@ -44,7 +42,7 @@ public interface Encoder {
   Encoder Base64 = new Encoder() {
     @Override
     public Reader encode(final InputStream in) throws IOException {
-      return new StringReader(Base64Utils.encode(from(in)));
+      return new StringReader(BytesEncoder.Base64.encode(from(in)));
     }
   };
 
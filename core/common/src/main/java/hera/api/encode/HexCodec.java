@@ -0,0 +1,88 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.encode;
+
+import java.util.Arrays;
+
+/**
+ * A table-driven hex codec. Decoding accepts both upper and lower case characters.
+ */
+class HexCodec extends AbstractBytesCodec {
+
+  static final HexCodec UPPER = new HexCodec("0123456789ABCDEF".toCharArray());
+
+  static final HexCodec LOWER = new HexCodec("0123456789abcdef".toCharArray());
+
+  protected static final byte[] DECODING_TABLE = new byte[128];
+
+  static {
+    Arrays.fill(DECODING_TABLE, (byte) -1);
+    for (int i = 0; i < 10; ++i) {
+      DECODING_TABLE['0' + i] = (byte) i;
+    }
+    for (int i = 0; i < 6; ++i) {
+      DECODING_TABLE['A' + i] = (byte) (10 + i);
+      DECODING_TABLE['a' + i] = (byte) (10 + i);
+    }
+  }
+
+  // high and low nibble char for each byte value
+  protected final char[] high = new char[256];
+
+  protected final char[] low = new char[256];
+
+  protected HexCodec(final char[] digits) {
+    for (int i = 0; i < 256; ++i) {
+      high[i] = digits[i >>> 4];
+      low[i] = digits[i & 0x0f];
+    }
+  }
+
+  @Override
+  protected char[] encodeRange(final byte[] raw, final int offset, final int length) {
+    final char[] encoded = new char[length << 1];
+    int j = 0;
+    for (int i = offset, end = offset + length; i < end; ++i) {
+      final int value = raw[i] & 0xff;
+      encoded[j++] = high[value];
+      encoded[j++] = low[value];
+    }
+    return encoded;
+  }
+
+  @Override
+  protected byte[] decodeRange(final CharSequence encoded, final int offset, final int length) {
+    if (0 != (length & 1)) {
+      throw new IllegalArgumentException("Hex encoded value must have even length");
+    }
+    final byte[] decoded = new byte[length >>> 1];
+    int j = 0;
+    for (int i = offset, end = offset + length; i < end; i += 2) {
+      final int highNibble = digit(encoded.charAt(i), i);
+      final int lowNibble = digit(encoded.charAt(i + 1), i + 1);
+      decoded[j++] = (byte) (highNibble << 4 | lowNibble);
+    }
+    return decoded;
+  }
+
+  protected int digit(final char ch, final int index) {
+    final int digit = ch < 128 ? DECODING_TABLE[ch] : -1;
+    if (digit < 0) {
+      throw invalidChar(ch, index);
+    }
+    return digit;
+  }
+
+  @Override
+  protected int getEncodingUnit() {
+    return 1;
+  }
+
+  @Override
+  protected int getDecodingUnit() {
+    return 2;
+  }
+
+}
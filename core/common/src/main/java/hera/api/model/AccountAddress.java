@@ -5,18 +5,16 @@
 package hera.api.model;
 
 import static hera.util.BytesValueUtils.trimPrefix;
-import static hera.util.IoUtils.from;
 import static hera.util.ValidationUtils.assertNotNull;
 
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
-import hera.api.encode.Decoder;
-import hera.api.encode.Encoder;
+import hera.api.encode.BytesDecoder;
+import hera.api.encode.BytesEncoder;
 import hera.exception.HerajException;
 import hera.util.Adaptor;
 import hera.util.BytesValueUtils;
 import hera.util.StringUtils;
-import java.io.StringReader;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
@@ -66,8 +64,7 @@ public class AccountAddress implements Identity, Adaptor {
   public AccountAddress(final String encoded) {
     assertNotNull(encoded, "Encoded address must not null");
     try {
-      final Decoder decoder = Decoder.Base58Check;
-      final byte[] raw = from(decoder.decode(new StringReader(encoded)));
+      final byte[] raw = BytesDecoder.Base58Check.decode(encoded);
       final BytesValue withPrefix = BytesValue.of(raw);
       if (!hasPrefix(withPrefix)) {
         throw new HerajException("Decoded address value must have prefix " + ADDRESS_PREFIX);
@@ -133,8 +130,7 @@ public class AccountAddress implements Identity, Adaptor {
               this.encoded = StringUtils.EMPTY_STRING;
             } else {
               final BytesValue withPrefix = BytesValueUtils.append(getBytesValue(), ADDRESS_PREFIX);
-              final Encoder encoder = Encoder.Base58Check;
-              this.encoded = from(encoder.encode(withPrefix.getInputStream()));
+              this.encoded = withPrefix.getEncoded(BytesEncoder.Base58Check);
             }
           } catch (Exception e) {
             throw new HerajException(e);
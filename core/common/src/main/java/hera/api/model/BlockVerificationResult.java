@@ -0,0 +1,61 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import static java.util.Collections.unmodifiableList;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.Collections;
+import java.util.List;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder(builderMethodName = "newBuilder")
+public class BlockVerificationResult {
+
+  @NonNull
+  @Default
+  protected final BlockHash blockHash = BlockHash.EMPTY;
+
+  @Default
+  protected final long blockNumber = 0L;
+
+  @NonNull
+  @Default
+  protected final Hash expectedTxRootHash = Hash.EMPTY;
+
+  @NonNull
+  @Default
+  protected final Hash calculatedTxRootHash = Hash.EMPTY;
+
+  @Default
+  protected final boolean txRootHashMatched = false;
+
+  @NonNull
+  @Default
+  protected final List<TxVerificationFailure> failures = unmodifiableList(
+      Collections.<TxVerificationFailure>emptyList());
+
+  /**
+   * Check if a block is valid. A block is valid if every transaction hash and signature is valid
+   * and a merkle root of transaction hashes is matched with a tx root hash in a block header.
+   *
+   * @return if valid
+   */
+  public boolean isValid() {
+    return txRootHashMatched && failures.isEmpty();
+  }
+
+}
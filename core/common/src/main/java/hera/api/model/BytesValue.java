@@ -9,6 +9,8 @@ import static hera.util.ValidationUtils.assertNotNull;
 
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
+import hera.api.encode.BytesDecoder;
+import hera.api.encode.BytesEncoder;
 import hera.api.encode.Decoder;
 import hera.api.encode.Encoder;
 import hera.exception.HerajException;
@@ -33,6 +35,19 @@ public class BytesValue {
     return new BytesValue(bytes);
   }
 
+  /**
+   * Create {@code BytesValue} with a range of a raw bytes array.
+   *
+   * @param bytes  a raw bytes value
+   * @param offset an offset of the range
+   * @param length a length of the range
+   * @return created {@link BytesValue}
+   */
+  public static BytesValue of(final byte[] bytes, final int offset, final int length) {
+    assertNotNull(bytes, "Raw bytes must not null");
+    return new BytesValue(Arrays.copyOfRange(bytes, offset, offset + length), false);
+  }
+
   /**
    * Create {@code BytesValue} with an encoded one.
    *
@@ -44,6 +59,17 @@ public class BytesValue {
     return new BytesValue(encoded, decoder);
   }
 
+  /**
+   * Create {@code BytesValue} with an encoded one.
+   *
+   * @param encoded an encoded one
+   * @param decoder a bytes decoder
+   * @return created {@link BytesValue}
+   */
+  public static BytesValue of(final String encoded, final BytesDecoder decoder) {
+    return new BytesValue(encoded, decoder);
+  }
+
   protected transient int hash;
 
   protected final byte[] value;
@@ -58,6 +84,10 @@ public class BytesValue {
     this.value = Arrays.copyOf(bytes, bytes.length);
   }
 
+  protected BytesValue(final byte[] bytes, final boolean copy) {
+    this.value = copy ? Arrays.copyOf(bytes, bytes.length) : bytes;
+  }
+
   /**
    * Create {@code BytesValue} with an encoded one.
    *
@@ -74,6 +104,22 @@ public class BytesValue {
     }
   }
 
+  /**
+   * Create {@code BytesValue} with an encoded one.
+   *
+   * @param encoded an encoded one
+   * @param decoder a bytes decoder
+   */
+  public BytesValue(final String encoded, final BytesDecoder decoder) {
+    assertNotNull(encoded, "An encoded value must not null");
+    assertNotNull(decoder, "A decoder must not null");
+    try {
+      this.value = decoder.decode(encoded);
+    } catch (Exception e) {
+      throw new HerajException(e);
+    }
+  }
+
   public InputStream getInputStream() {
     return new ByteArrayInputStream(getValue());
   }
@@ -134,4 +180,20 @@ public class BytesValue {
     }
   }
 
+  /**
+   * Get encoded value. Unlike {@link #getEncoded(Encoder)}, it encodes an underlying bytes directly
+   * without copying it.
+   *
+   * @param encoder a bytes encoder
+   * @return an encoded value
+   */
+  public String getEncoded(final BytesEncoder encoder) {
+    try {
+      assertNotNull(encoder, "An encoder must not null");
+      return encoder.encode(this.value);
+    } catch (Exception e) {
+      throw new HerajException(e);
+    }
+  }
+
 }
@@ -13,7 +13,11 @@ import hera.annotation.ApiStability;
 import hera.exception.HerajException;
 import hera.util.StringUtils;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.EqualsAndHashCode;
@@ -52,21 +56,33 @@ public class ContractInterface {
   protected final List<StateVariable> stateVariables = unmodifiableList(
       Collections.<StateVariable>emptyList());
 
+  // lazily built function name index; not a part of a value
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  protected final transient AtomicReference<Map<String, ContractFunction>> functionIndex =
+      new AtomicReference<>();
+
   /**
-   * Find a contract function with the given function name.
+   * Find a contract function with the given function name. A function name index is built on
+   * first lookup. If there are functions with the same name, the first one is found.
    *
    * @param functionName function name to find
    * @return {@code ContractFunction} if found. Otherwise, null
    */
   public ContractFunction findFunction(final String functionName) {
-    ContractFunction foundFunction = null;
-    for (final ContractFunction contractFunction : functions) {
-      if (contractFunction.getName().equals(functionName)) {
-        foundFunction = contractFunction;
-        break;
+    Map<String, ContractFunction> index = functionIndex.get();
+    if (null == index) {
+      index = new HashMap<>();
+      for (final ContractFunction contractFunction : functions) {
+        if (!index.containsKey(contractFunction.getName())) {
+          index.put(contractFunction.getName(), contractFunction);
+        }
       }
+      // racing builders make the same index; any of them is ok
+      functionIndex.compareAndSet(null, index);
     }
-    return foundFunction;
+    return index.get(functionName);
   }
 
   public ContractInvocationWithNothing newInvocationBuilder() {
@@ -9,8 +9,8 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
-import hera.api.transaction.AergoJsonMapper;
-import hera.api.transaction.JsonMapper;
+import hera.api.transaction.AergoJsonReader;
+import hera.exception.HerajException;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -24,7 +24,7 @@ public class ContractResult {
 
   public static final ContractResult EMPTY = ContractResult.of(BytesValue.EMPTY);
 
-  protected static final JsonMapper mapper = new AergoJsonMapper();
+  protected static final AergoJsonReader reader = AergoJsonReader.getInstance();
 
   public static ContractResult of(final BytesValue result) {
     return new ContractResult(result);
@@ -48,15 +48,41 @@ public class ContractResult {
    * @return bound class instance. null if result is empty or empty json format
    * @throws IOException when binding error occurred
    */
-  @SuppressWarnings("unchecked")
   public <T> T bind(final Class<T> clazz) throws IOException {
-    final byte[] rawBytes = this.result.getValue();
-    final String stringFormat = new String(rawBytes);
-    logger.debug("Raw result to bind: {}", stringFormat);
-    if (stringFormat.isEmpty() || "{}".equals(stringFormat)) {
+    final byte[] rawBytes = this.result.value;
+    if (logger.isDebugEnabled()) {
+      logger.debug("Raw result to bind: {}", new String(rawBytes));
+    }
+    if (isEmptyJson(rawBytes)) {
       return null;
     }
-    return mapper.unmarshal(result, clazz);
+    try {
+      return reader.read(rawBytes, 0, rawBytes.length, clazz);
+    } catch (Exception e) {
+      throw new HerajException(e);
+    }
+  }
+
+  /**
+   * Bind each element of a json array result to class one by one without collecting them. It's
+   * useful for a large array result. Each bound element is passed to
+   * {@link StreamObserver#onNext(Object)} and {@link StreamObserver#onCompleted()} is called at
+   * the end. A binding error is passed to {@link StreamObserver#onError(Throwable)}. An empty
+   * result is treated as an empty array.
+   *
+   * @param <T>      element type
+   * @param clazz    element class to bind
+   * @param observer an observer receiving bound elements
+   * @return the number of bound elements
+   */
+  public <T> int bindEach(final Class<T> clazz, final StreamObserver<T> observer) {
+    final byte[] rawBytes = this.result.value;
+    return reader.readEach(rawBytes, 0, rawBytes.length, clazz, observer);
+  }
+
+  protected boolean isEmptyJson(final byte[] rawBytes) {
+    return 0 == rawBytes.length
+        || (2 == rawBytes.length && '{' == rawBytes[0] && '}' == rawBytes[1]);
   }
 
   /**
@@ -8,8 +8,8 @@ import static hera.util.ValidationUtils.assertNotNull;
 
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
-import hera.api.encode.Decoder;
-import hera.api.encode.Encoder;
+import hera.api.encode.BytesDecoder;
+import hera.api.encode.BytesEncoder;
 import hera.util.Adaptor;
 import lombok.Getter;
 
@@ -42,6 +42,9 @@ public class Hash implements Adaptor, Encodable {
   @Getter
   protected final BytesValue bytesValue;
 
+  // holds base58 encoded value; racy single-check is fine since a string is immutable
+  protected transient String encoded;
+
   /**
    * Create {@code Hash} with a base58 encoded one.
    *
@@ -49,7 +52,8 @@ public class Hash implements Adaptor, Encodable {
    */
   public Hash(final String encoded) {
     assertNotNull(encoded, "Encoded value must not null");
-    this.bytesValue = BytesValue.of(encoded, Decoder.Base58);
+    this.bytesValue = BytesValue.of(encoded, BytesDecoder.Base58);
+    this.encoded = encoded;
   }
 
   /**
@@ -64,7 +68,12 @@ public class Hash implements Adaptor, Encodable {
 
   @Override
   public String getEncoded() {
-    return getBytesValue().getEncoded(Encoder.Base58);
+    String ret = this.encoded;
+    if (null == ret) {
+      ret = getBytesValue().getEncoded(BytesEncoder.Base58);
+      this.encoded = ret;
+    }
+    return ret;
   }
 
   @Override
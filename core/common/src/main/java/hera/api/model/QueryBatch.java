@@ -0,0 +1,113 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A batch of view-function queries. Identical invocations are queried only once and queries are
+ * run concurrently up to {@code concurrency}. If {@code pinToBestBlock} is set, all the results
+ * are guaranteed to be made on the same best block. Since a node doesn't accept a block number
+ * for a query, it's checked by comparing the best block before and after the batch and the batch
+ * is retried up to {@code maxRetry} times if the best block has been changed.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+public class QueryBatch {
+
+  public static final int DEFAULT_CONCURRENCY = 8;
+
+  public static final int DEFAULT_MAX_RETRY = 3;
+
+  public static QueryBatchBuilder newBuilder() {
+    return new QueryBatchBuilder();
+  }
+
+  protected final List<ContractInvocation> invocations;
+
+  protected final int concurrency;
+
+  protected final boolean pinToBestBlock;
+
+  protected final int maxRetry;
+
+  QueryBatch(final List<ContractInvocation> invocations, final int concurrency,
+      final boolean pinToBestBlock, final int maxRetry) {
+    assertNotNull(invocations, "Invocations must not null");
+    for (final ContractInvocation invocation : invocations) {
+      assertNotNull(invocation, "Invocation must not null");
+    }
+    assertTrue(concurrency > 0, "Concurrency must be > 0");
+    assertTrue(maxRetry >= 0, "Max retry must be >= 0");
+    this.invocations = unmodifiableList(new ArrayList<>(invocations));
+    this.concurrency = concurrency;
+    this.pinToBestBlock = pinToBestBlock;
+    this.maxRetry = maxRetry;
+  }
+
+  public static class QueryBatchBuilder implements hera.util.Builder<QueryBatch> {
+
+    protected final List<ContractInvocation> invocations = new ArrayList<>();
+
+    protected int concurrency = DEFAULT_CONCURRENCY;
+
+    protected boolean pinToBestBlock = false;
+
+    protected int maxRetry = DEFAULT_MAX_RETRY;
+
+    QueryBatchBuilder() {
+    }
+
+    public QueryBatchBuilder add(final ContractInvocation invocation) {
+      this.invocations.add(invocation);
+      return this;
+    }
+
+    public QueryBatchBuilder addAll(final ContractInvocation... invocations) {
+      return addAll(asList(invocations));
+    }
+
+    public QueryBatchBuilder addAll(final List<ContractInvocation> invocations) {
+      this.invocations.addAll(invocations);
+      return this;
+    }
+
+    public QueryBatchBuilder concurrency(final int concurrency) {
+      this.concurrency = concurrency;
+      return this;
+    }
+
+    public QueryBatchBuilder pinToBestBlock(final boolean pinToBestBlock) {
+      this.pinToBestBlock = pinToBestBlock;
+      return this;
+    }
+
+    public QueryBatchBuilder maxRetry(final int maxRetry) {
+      this.maxRetry = maxRetry;
+      return this;
+    }
+
+    @Override
+    public QueryBatch build() {
+      return new QueryBatch(invocations, concurrency, pinToBestBlock, maxRetry);
+    }
+
+  }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.List;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * A result of {@link QueryBatch}. Results are in the same order as the invocations of the batch.
+ * Block number and hash is set only when the batch is pinned to the best block.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder(builderMethodName = "newBuilder")
+public class QueryBatchResult {
+
+  @NonNull
+  protected final List<ContractResult> results;
+
+  @Default
+  protected final long blockNumber = 0L;
+
+  @NonNull
+  @Default
+  protected final BlockHash blockHash = BlockHash.EMPTY;
+
+  @Default
+  protected final int attempts = 1;
+
+}
@@ -0,0 +1,125 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A batch of account state lookups. Duplicated addresses are removed keeping the first occurrence
+ * and lookups are run concurrently up to {@code concurrency}. If {@code pinToBestBlock} is set,
+ * all the states are guaranteed to be read on the same best block. It's checked the same way as
+ * {@link QueryBatch}; the batch is retried up to {@code maxRetry} times if the best block has been
+ * changed during the lookups.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+public class StateBatch {
+
+  public static final int DEFAULT_CONCURRENCY = 8;
+
+  public static final int DEFAULT_MAX_RETRY = 3;
+
+  public static StateBatchBuilder newBuilder() {
+    return new StateBatchBuilder();
+  }
+
+  /**
+   * Make a batch with default options.
+   *
+   * @param addresses account addresses to look up
+   * @return a state batch
+   */
+  public static StateBatch of(final Collection<AccountAddress> addresses) {
+    return newBuilder().addAll(addresses).build();
+  }
+
+  protected final List<AccountAddress> addresses;
+
+  protected final int concurrency;
+
+  protected final boolean pinToBestBlock;
+
+  protected final int maxRetry;
+
+  StateBatch(final Collection<AccountAddress> addresses, final int concurrency,
+      final boolean pinToBestBlock, final int maxRetry) {
+    assertNotNull(addresses, "Addresses must not null");
+    for (final AccountAddress address : addresses) {
+      assertNotNull(address, "Address must not null");
+    }
+    assertTrue(concurrency > 0, "Concurrency must be > 0");
+    assertTrue(maxRetry >= 0, "Max retry must be >= 0");
+    this.addresses = unmodifiableList(new ArrayList<>(new LinkedHashSet<>(addresses)));
+    this.concurrency = concurrency;
+    this.pinToBestBlock = pinToBestBlock;
+    this.maxRetry = maxRetry;
+  }
+
+  public static class StateBatchBuilder implements hera.util.Builder<StateBatch> {
+
+    protected final List<AccountAddress> addresses = new ArrayList<>();
+
+    protected int concurrency = DEFAULT_CONCURRENCY;
+
+    protected boolean pinToBestBlock = false;
+
+    protected int maxRetry = DEFAULT_MAX_RETRY;
+
+    StateBatchBuilder() {
+    }
+
+    public StateBatchBuilder add(final AccountAddress address) {
+      this.addresses.add(address);
+      return this;
+    }
+
+    public StateBatchBuilder addAll(final AccountAddress... addresses) {
+      return addAll(asList(addresses));
+    }
+
+    public StateBatchBuilder addAll(final Collection<AccountAddress> addresses) {
+      this.addresses.addAll(addresses);
+      return this;
+    }
+
+    public StateBatchBuilder concurrency(final int concurrency) {
+      this.concurrency = concurrency;
+      return this;
+    }
+
+    public StateBatchBuilder pinToBestBlock(final boolean pinToBestBlock) {
+      this.pinToBestBlock = pinToBestBlock;
+      return this;
+    }
+
+    public StateBatchBuilder maxRetry(final int maxRetry) {
+      this.maxRetry = maxRetry;
+      return this;
+    }
+
+    @Override
+    public StateBatch build() {
+      return new StateBatch(addresses, concurrency, pinToBestBlock, maxRetry);
+    }
+
+  }
+
+}
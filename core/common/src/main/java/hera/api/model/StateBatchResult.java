@@ -0,0 +1,53 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * A result of {@link StateBatch}. States are keyed by address in the order of the batch. Block
+ * number and hash is the best block observed before the lookups; the states are guaranteed to be
+ * on that block only when the batch is pinned to the best block.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder(builderMethodName = "newBuilder")
+public class StateBatchResult {
+
+  @NonNull
+  protected final Map<AccountAddress, AccountState> states;
+
+  @Default
+  protected final long blockNumber = 0L;
+
+  @NonNull
+  @Default
+  protected final BlockHash blockHash = BlockHash.EMPTY;
+
+  @Default
+  protected final int attempts = 1;
+
+  /**
+   * Get a state of an address.
+   *
+   * @param address an account address
+   * @return an account state. null if not in the batch
+   */
+  public AccountState getState(final AccountAddress address) {
+    return states.get(address);
+  }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.exception.HerajException;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * A result of committing a transaction in a batch. A failed one has an error describing why it's
+ * rejected.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder(builderMethodName = "newBuilder")
+public class TxCommitResult {
+
+  @NonNull
+  @Default
+  protected final TxHash txHash = TxHash.of(BytesValue.EMPTY);
+
+  // null if committed
+  protected final HerajException error;
+
+  public boolean isSuccess() {
+    return null == error;
+  }
+
+}
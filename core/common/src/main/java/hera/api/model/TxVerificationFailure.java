@@ -0,0 +1,55 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.util.StringUtils;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder(builderMethodName = "newBuilder")
+public class TxVerificationFailure {
+
+  public enum Reason {
+    /**
+     * A hash recalculated from a transaction body is different from a reported one.
+     */
+    HASH_MISMATCH,
+    /**
+     * A signature is not signed by a sender.
+     */
+    INVALID_SIGNATURE,
+    /**
+     * A transaction cannot be verified (eg. malformed signature).
+     */
+    ERROR
+  }
+
+  @Default
+  protected final int indexInBlock = 0;
+
+  @NonNull
+  @Default
+  protected final TxHash txHash = TxHash.EMPTY;
+
+  @NonNull
+  @Default
+  protected final Reason reason = Reason.ERROR;
+
+  @NonNull
+  @Default
+  protected final String message = StringUtils.EMPTY_STRING;
+
+}
@@ -7,6 +7,7 @@ package hera.api.transaction;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import hera.annotation.ApiAudience;
 import hera.annotation.ApiStability;
@@ -23,6 +24,8 @@ public class AergoJsonMapper implements JsonMapper {
 
   protected static final ObjectMapper objectMapper = new ObjectMapper();
 
+  protected static final ObjectWriter writer;
+
   static {
     final SimpleModule module = new SimpleModule();
     module.addSerializer(BigNumber.class, new BigNumberSerializer());
@@ -30,6 +33,7 @@ public class AergoJsonMapper implements JsonMapper {
     module.addDeserializer(NodeStatus.class, new NodeStatusDeserializer());
     module.addDeserializer(List.class, new ListDeserializer());
     objectMapper.registerModule(module);
+    writer = objectMapper.writer();
   }
 
   protected final Logger logger = getLogger(getClass());
@@ -37,8 +41,8 @@ public class AergoJsonMapper implements JsonMapper {
   @Override
   public BytesValue marshal(final Object value) {
     try {
-      logger.debug("Marshal: {}", value);
-      final byte[] rawBytes = objectMapper.writer().writeValueAsBytes(value);
+      logger.trace("Marshal: {}", value);
+      final byte[] rawBytes = writer.writeValueAsBytes(value);
       return BytesValue.of(rawBytes);
     } catch (Exception e) {
       throw new HerajException(e);
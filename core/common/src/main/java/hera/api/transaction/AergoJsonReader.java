@@ -0,0 +1,120 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.transaction;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.StreamObserver;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+
+/**
+ * A json reader binding a raw json bytes to a class. An {@link ObjectReader} is resolved once per
+ * target class and cached. It shares json configuration with {@link AergoJsonMapper}.
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+public class AergoJsonReader {
+
+  protected static final AergoJsonReader instance = new AergoJsonReader();
+
+  public static AergoJsonReader getInstance() {
+    return instance;
+  }
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+  /**
+   * Get a cached reader for {@code clazz}.
+   *
+   * @param clazz a class to bind
+   * @return an object reader for {@code clazz}
+   */
+  public ObjectReader getReader(final Class<?> clazz) {
+    assertNotNull(clazz, "Class must not null");
+    ObjectReader reader = readers.get(clazz);
+    if (null == reader) {
+      final ObjectReader created = AergoJsonMapper.objectMapper.readerFor(clazz);
+      reader = readers.putIfAbsent(clazz, created);
+      if (null == reader) {
+        reader = created;
+      }
+    }
+    return reader;
+  }
+
+  /**
+   * Bind a json in {@code rawBytes[offset, offset + length)} to {@code clazz}.
+   *
+   * @param <T>      a return type
+   * @param rawBytes a raw json bytes
+   * @param offset   an offset of json
+   * @param length   a length of json
+   * @param clazz    a class to bind
+   * @return a bound instance
+   * @throws IOException on binding failure
+   */
+  public <T> T read(final byte[] rawBytes, final int offset, final int length,
+      final Class<T> clazz) throws IOException {
+    assertNotNull(rawBytes, "Raw bytes must not null");
+    if (logger.isTraceEnabled()) {
+      logger.trace("Read {} bytes as '{}'", length, clazz);
+    }
+    return getReader(clazz).readValue(rawBytes, offset, length);
+  }
+
+  /**
+   * Bind each element of a json array in {@code rawBytes[offset, offset + length)} to
+   * {@code clazz} one by one without collecting them. Each element is passed to
+   * {@link StreamObserver#onNext(Object)} and {@link StreamObserver#onCompleted()} is called after
+   * the last one. An error is passed to {@link StreamObserver#onError(Throwable)}. An empty json
+   * is treated as an empty array.
+   *
+   * @param <T>      an element type
+   * @param rawBytes a raw json bytes
+   * @param offset   an offset of json
+   * @param length   a length of json
+   * @param clazz    an element class to bind
+   * @param observer an observer receiving bound elements
+   * @return the number of bound elements
+   */
+  public <T> int readEach(final byte[] rawBytes, final int offset, final int length,
+      final Class<T> clazz, final StreamObserver<T> observer) {
+    assertNotNull(rawBytes, "Raw bytes must not null");
+    assertNotNull(observer, "Observer must not null");
+    int count = 0;
+    try {
+      if (0 != length) {
+        final ObjectReader reader = getReader(clazz);
+        try (final JsonParser parser = reader.getFactory()
+            .createParser(rawBytes, offset, length)) {
+          if (JsonToken.START_ARRAY != parser.nextToken()) {
+            throw new IOException("Json is not an array: " + parser.getCurrentToken());
+          }
+          while (JsonToken.END_ARRAY != parser.nextToken()) {
+            final T element = reader.readValue(parser);
+            observer.onNext(element);
+            ++count;
+          }
+        }
+      }
+      observer.onCompleted();
+    } catch (Exception e) {
+      observer.onError(e);
+    }
+    return count;
+  }
+
+}
@@ -42,18 +42,13 @@ public class ContractInvocationPayloadConverter implements PayloadConverter<Cont
 
   protected final Logger logger = getLogger(getClass());
 
-  protected final JsonMapper mapper = new AergoJsonMapper();
+  protected static final ContractInvocationPayloadEncoder encoder =
+      new ContractInvocationPayloadEncoder();
 
   @Override
   public BytesValue convertToPayload(final ContractInvocation contractInvocation) {
-    logger.debug("Convert to payload from {}", contractInvocation);
-    final String name = contractInvocation.getFunctionName();
-    final List<Object> args = contractInvocation.getArgs();
-    final Map<String, Object> map = new HashMap<>();
-    map.put("Name", name);
-    map.put("Args", args);
-
-    return mapper.marshal(map);
+    logger.trace("Convert to payload from {}", contractInvocation);
+    return encoder.encode(contractInvocation);
   }
 
   @Override
@@ -0,0 +1,209 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.transaction;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.BigNumber;
+import hera.api.model.BytesValue;
+import hera.api.model.ContractInvocation;
+import hera.exception.HerajException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import org.slf4j.Logger;
+
+/**
+ * An encoder writing a contract invocation payload {@code {"Name":..,"Args":[..]}} directly into a
+ * per-thread reusable buffer. Common argument types (String, Number, {@link BigNumber}, Boolean,
+ * List, Map) are written without a databind lookup and the encoded function name part is cached.
+ * Any other type is written by {@link AergoJsonMapper}'s configuration.
+ */
+@ApiAudience.Private
+@ApiStability.Unstable
+public class ContractInvocationPayloadEncoder {
+
+  public static final int DEFAULT_NAME_CACHE_SIZE = 1000;
+
+  protected static final Charset CHARSET = Charset.forName("UTF-8");
+
+  protected static final byte[] ARGS_SUFFIX = "}".getBytes(CHARSET);
+
+  protected static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Cache<String, byte[]> namePrefixCache;
+
+  protected final ThreadLocal<PayloadBuffer> buffers = new ThreadLocal<PayloadBuffer>() {
+    @Override
+    protected PayloadBuffer initialValue() {
+      return new PayloadBuffer();
+    }
+  };
+
+  public ContractInvocationPayloadEncoder() {
+    this(DEFAULT_NAME_CACHE_SIZE);
+  }
+
+  /**
+   * ContractInvocationPayloadEncoder constructor.
+   *
+   * @param nameCacheSize a max number of cached function name prefix
+   */
+  public ContractInvocationPayloadEncoder(final int nameCacheSize) {
+    this.namePrefixCache = CacheBuilder.newBuilder()
+        .maximumSize(nameCacheSize)
+        .build();
+  }
+
+  /**
+   * Encode a contract invocation to a payload.
+   *
+   * @param contractInvocation a contract invocation
+   * @return an encoded payload
+   * @throws HerajException on encoding failure
+   */
+  public BytesValue encode(final ContractInvocation contractInvocation) {
+    assertNotNull(contractInvocation, "Contract invocation must not null");
+    final PayloadBuffer buffer = buffers.get();
+    try {
+      buffer.write(getNamePrefix(contractInvocation.getFunctionName()));
+      final JsonGenerator generator = AergoJsonMapper.objectMapper.getFactory()
+          .createGenerator(buffer);
+      writeList(generator, contractInvocation.getArgs());
+      generator.close();
+      buffer.write(ARGS_SUFFIX);
+      return buffer.toBytesValue();
+    } catch (HerajException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HerajException(e);
+    } finally {
+      buffer.release();
+      if (buffer.capacity() > MAX_POOLED_BUFFER_SIZE) {
+        buffers.remove();
+      }
+    }
+  }
+
+  protected byte[] getNamePrefix(final String functionName) throws Exception {
+    return namePrefixCache.get(functionName, new Callable<byte[]>() {
+      @Override
+      public byte[] call() throws Exception {
+        logger.trace("Cache payload prefix of function: {}", functionName);
+        final String encodedName = AergoJsonMapper.writer.writeValueAsString(functionName);
+        return ("{\"Name\":" + encodedName + ",\"Args\":").getBytes(CHARSET);
+      }
+    });
+  }
+
+  protected void writeValue(final JsonGenerator generator, final Object value)
+      throws IOException {
+    if (null == value) {
+      generator.writeNull();
+    } else if (value instanceof String) {
+      generator.writeString((String) value);
+    } else if (value instanceof Boolean) {
+      generator.writeBoolean((Boolean) value);
+    } else if (value instanceof Number) {
+      writeNumber(generator, (Number) value);
+    } else if (value instanceof BigNumber) {
+      generator.writeStartObject();
+      generator.writeStringField(BigNumber.BIGNUM_JSON_KEY, ((BigNumber) value).getValue());
+      generator.writeEndObject();
+    } else if (value instanceof List) {
+      writeList(generator, (List<?>) value);
+    } else if (value instanceof Map) {
+      writeMap(generator, (Map<?, ?>) value);
+    } else {
+      generator.writeObject(value);
+    }
+  }
+
+  protected void writeNumber(final JsonGenerator generator, final Number value)
+      throws IOException {
+    if (value instanceof Integer || value instanceof Long || value instanceof Short
+        || value instanceof Byte) {
+      generator.writeNumber(value.longValue());
+    } else if (value instanceof Double) {
+      generator.writeNumber(value.doubleValue());
+    } else if (value instanceof Float) {
+      generator.writeNumber(value.floatValue());
+    } else if (value instanceof BigInteger) {
+      generator.writeNumber((BigInteger) value);
+    } else if (value instanceof BigDecimal) {
+      generator.writeNumber((BigDecimal) value);
+    } else {
+      generator.writeObject(value);
+    }
+  }
+
+  protected void writeList(final JsonGenerator generator, final List<?> list)
+      throws IOException {
+    generator.writeStartArray();
+    for (final Object element : list) {
+      writeValue(generator, element);
+    }
+    generator.writeEndArray();
+  }
+
+  protected void writeMap(final JsonGenerator generator, final Map<?, ?> map)
+      throws IOException {
+    generator.writeStartObject();
+    for (final Map.Entry<?, ?> entry : map.entrySet()) {
+      if (null == entry.getKey()) {
+        throw new HerajException("Null key for a map is not allowed");
+      }
+      generator.writeFieldName(entry.getKey().toString());
+      writeValue(generator, entry.getValue());
+    }
+    generator.writeEndObject();
+  }
+
+  /**
+   * A reusable output buffer whose content is copied out only once.
+   */
+  protected static class PayloadBuffer extends ByteArrayOutputStream {
+
+    PayloadBuffer() {
+      super(256);
+    }
+
+    BytesValue toBytesValue() {
+      return BytesValue.of(buf, 0, count);
+    }
+
+    int capacity() {
+      return buf.length;
+    }
+
+    void release() {
+      reset();
+    }
+
+    @Override
+    public void write(final byte[] b) {
+      write(b, 0, b.length);
+    }
+
+    @Override
+    public void close() {
+      // reused; do nothing
+    }
+  }
+
+}
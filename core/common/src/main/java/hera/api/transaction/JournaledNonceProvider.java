@@ -0,0 +1,367 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.transaction;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.exception.HerajException;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+
+/**
+ * A nonce provider keeping nonces in a memory-mapped journal file. Each account takes a fixed slot
+ * in a file and every change is written to it before returning, so that a restarted process
+ * resumes from the last nonce without syncing it. A slot has a checksum and a slot torn by a crash
+ * is treated as not bound, which leads to a sync by a caller.
+ *
+ * <p>Every operation on an account holds a file lock on its slot, so processes on the same host
+ * can share a journal and accounts in it. Since a file lock is held by a whole process, open a
+ * journal only once in a process and share the instance. Written slots are in a page cache of an
+ * os and survive a crash of a process. To survive a crash of an os, use {@link SyncPolicy#ALWAYS}
+ * or call {@link #sync()} periodically.</p>
+ *
+ * <p>A slot is never freed. Releasing a nonce only marks it as not bound. If a journal is full, a
+ * new account can't be bound.</p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class JournaledNonceProvider implements NonceProvider, Closeable {
+
+  /**
+   * A policy to flush a journal to a storage.
+   */
+  public enum SyncPolicy {
+    /**
+     * Leave flushing to an os. A journal survives a crash of a process but not of an os.
+     */
+    OS,
+    /**
+     * Flush on every change. A journal survives a crash of an os.
+     */
+    ALWAYS
+  }
+
+  public static final int DEFAULT_SLOT_COUNT = 1 << 16;
+
+  protected static final int MAGIC = 0x4e4f4e43; // "NONC"
+  protected static final int VERSION = 1;
+
+  protected static final int HEADER_SIZE = 64;
+
+  // flag (1) + address (33) + padding (6) + nonce (8) + checksum (8) + reserved (8)
+  protected static final int SLOT_SIZE = 64;
+  protected static final int FLAG_OFFSET = 0;
+  protected static final int ADDRESS_OFFSET = 1;
+  protected static final int NONCE_OFFSET = 40;
+  protected static final int CHECKSUM_OFFSET = 48;
+
+  protected static final byte FLAG_EMPTY = 0;
+  protected static final byte FLAG_BOUND = 1;
+  protected static final byte FLAG_RELEASED = 2;
+
+  // a mapped buffer is indexed by int
+  protected static final int MAX_SLOT_COUNT = (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE;
+
+  protected static final int LOCK_STRIPES = 64;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final File file;
+
+  protected final SyncPolicy syncPolicy;
+
+  protected final RandomAccessFile randomAccessFile;
+
+  protected final FileChannel channel;
+
+  protected final MappedByteBuffer buffer;
+
+  protected final int slotCount;
+
+  protected final ConcurrentMap<AccountAddress, Integer> address2Slot = new ConcurrentHashMap<>();
+
+  // file locks are held by a process; serialize threads on the same slot before locking it
+  protected final Object[] locks = new Object[LOCK_STRIPES];
+
+  /**
+   * JournaledNonceProvider constructor with {@link #DEFAULT_SLOT_COUNT} and {@link SyncPolicy#OS}.
+   *
+   * @param file a journal file. Created if not exists
+   */
+  public JournaledNonceProvider(final File file) {
+    this(file, DEFAULT_SLOT_COUNT, SyncPolicy.OS);
+  }
+
+  /**
+   * JournaledNonceProvider constructor. If a journal already exists, a slot count of it is used.
+   *
+   * @param file       a journal file. Created if not exists
+   * @param slotCount  the max number of accounts for a new journal
+   * @param syncPolicy a policy to flush a journal
+   */
+  public JournaledNonceProvider(final File file, final int slotCount,
+      final SyncPolicy syncPolicy) {
+    assertNotNull(file, "Journal file must not null");
+    assertTrue(slotCount > 0 && slotCount <= MAX_SLOT_COUNT,
+        "Slot count must be in (0, " + MAX_SLOT_COUNT + "]");
+    assertNotNull(syncPolicy, "Sync policy must not null");
+    logger.debug("Open a nonce journal: {}, slot count: {}, sync policy: {}", file, slotCount,
+        syncPolicy);
+    this.file = file;
+    this.syncPolicy = syncPolicy;
+    for (int i = 0; i < locks.length; ++i) {
+      locks[i] = new Object();
+    }
+    try {
+      this.randomAccessFile = new RandomAccessFile(file, "rw");
+      this.channel = randomAccessFile.getChannel();
+      this.slotCount = initialize(slotCount);
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+          HEADER_SIZE + (long) this.slotCount * SLOT_SIZE);
+    } catch (HerajException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new HerajException(e);
+    }
+  }
+
+  protected int initialize(final int newSlotCount) throws IOException {
+    try (final FileLock ignored = channel.lock(0, HEADER_SIZE, false)) {
+      if (channel.size() < HEADER_SIZE) {
+        randomAccessFile.setLength(HEADER_SIZE + (long) newSlotCount * SLOT_SIZE);
+        randomAccessFile.seek(0);
+        randomAccessFile.writeInt(MAGIC);
+        randomAccessFile.writeInt(VERSION);
+        randomAccessFile.writeInt(newSlotCount);
+        channel.force(true);
+        return newSlotCount;
+      }
+      randomAccessFile.seek(0);
+      final int magic = randomAccessFile.readInt();
+      final int version = randomAccessFile.readInt();
+      final int slotCount = randomAccessFile.readInt();
+      if (MAGIC != magic || VERSION != version || slotCount <= 0
+          || channel.size() < HEADER_SIZE + (long) slotCount * SLOT_SIZE) {
+        throw new HerajException("Not a nonce journal: " + file);
+      }
+      return slotCount;
+    }
+  }
+
+  @Override
+  public void bindNonce(final AccountState accountState) {
+    assertNotNull(accountState, "AccountState must not null");
+    bindNonce(accountState.getAddress(), accountState.getNonce());
+  }
+
+  @Override
+  public void bindNonce(final AccountAddress accountAddress, final long nonce) {
+    assertNotNull(accountAddress, "AccountAddress must not null");
+    assertTrue(nonce >= 0, "Nonce must > 0");
+    final int slot = slotOf(accountAddress, true);
+    synchronized (lockOf(slot)) {
+      try (final FileLock ignored = lockSlot(slot)) {
+        write(slot, FLAG_BOUND, nonce);
+      } catch (IOException e) {
+        throw new HerajException(e);
+      }
+    }
+  }
+
+  @Override
+  public long incrementAndGetNonce(final AccountAddress accountAddress) {
+    assertNotNull(accountAddress, "AccountAddress must not null");
+    final int slot = slotOf(accountAddress, true);
+    synchronized (lockOf(slot)) {
+      try (final FileLock ignored = lockSlot(slot)) {
+        final long next = readNonce(slot) + 1;
+        write(slot, FLAG_BOUND, next);
+        return next;
+      } catch (IOException e) {
+        throw new HerajException(e);
+      }
+    }
+  }
+
+  @Override
+  public long getLastUsedNonce(final AccountAddress accountAddress) {
+    assertNotNull(accountAddress, "AccountAddress must not null");
+    final int slot = slotOf(accountAddress, false);
+    if (slot < 0) {
+      return 0L;
+    }
+    synchronized (lockOf(slot)) {
+      try (final FileLock ignored = lockSlot(slot)) {
+        return readNonce(slot);
+      } catch (IOException e) {
+        throw new HerajException(e);
+      }
+    }
+  }
+
+  @Override
+  public void releaseNonce(final AccountAddress accountAddress) {
+    assertNotNull(accountAddress, "AccountAddress must not null");
+    final int slot = slotOf(accountAddress, false);
+    if (slot < 0) {
+      return;
+    }
+    synchronized (lockOf(slot)) {
+      try (final FileLock ignored = lockSlot(slot)) {
+        write(slot, FLAG_RELEASED, 0L);
+      } catch (IOException e) {
+        throw new HerajException(e);
+      }
+    }
+  }
+
+  /**
+   * Flush a journal to a storage.
+   */
+  public void sync() {
+    buffer.force();
+  }
+
+  /**
+   * Flush and close a journal. Note that a mapped memory is released on garbage collection.
+   */
+  @Override
+  public void close() throws IOException {
+    logger.debug("Close a nonce journal: {}", file);
+    sync();
+    channel.close();
+    randomAccessFile.close();
+  }
+
+  protected Object lockOf(final int slot) {
+    return locks[slot % locks.length];
+  }
+
+  protected FileLock lockSlot(final int slot) throws IOException {
+    return channel.lock(offsetOf(slot), SLOT_SIZE, false);
+  }
+
+  protected long offsetOf(final int slot) {
+    return HEADER_SIZE + (long) slot * SLOT_SIZE;
+  }
+
+  /**
+   * Find a slot of an address by linear probing, claiming an empty one if {@code claim} is true.
+   *
+   * @return a slot or -1 if not found
+   */
+  protected int slotOf(final AccountAddress accountAddress, final boolean claim) {
+    final Integer cached = address2Slot.get(accountAddress);
+    if (null != cached) {
+      return cached;
+    }
+    final byte[] rawAddress = accountAddress.getBytesValue().getValue();
+    assertTrue(AccountAddress.ADDRESS_BYTE_LENGTH == rawAddress.length,
+        "Invalid address: " + accountAddress);
+    final int home = (Arrays.hashCode(rawAddress) & Integer.MAX_VALUE) % slotCount;
+    for (int i = 0; i < slotCount; ++i) {
+      final int slot = (home + i) % slotCount;
+      synchronized (lockOf(slot)) {
+        try (final FileLock ignored = lockSlot(slot)) {
+          final byte flag = buffer.get((int) offsetOf(slot) + FLAG_OFFSET);
+          if (FLAG_EMPTY == flag) {
+            if (!claim) {
+              return -1;
+            }
+            writeAddress(slot, rawAddress);
+            write(slot, FLAG_RELEASED, 0L);
+            address2Slot.put(accountAddress, slot);
+            return slot;
+          }
+          if (Arrays.equals(rawAddress, readAddress(slot))) {
+            address2Slot.put(accountAddress, slot);
+            return slot;
+          }
+        } catch (IOException e) {
+          throw new HerajException(e);
+        }
+      }
+    }
+    if (!claim) {
+      return -1;
+    }
+    throw new HerajException("Nonce journal is full: " + file);
+  }
+
+  protected byte[] readAddress(final int slot) {
+    final byte[] rawAddress = new byte[AccountAddress.ADDRESS_BYTE_LENGTH];
+    final int base = (int) offsetOf(slot) + ADDRESS_OFFSET;
+    for (int i = 0; i < rawAddress.length; ++i) {
+      rawAddress[i] = buffer.get(base + i);
+    }
+    return rawAddress;
+  }
+
+  protected void writeAddress(final int slot, final byte[] rawAddress) {
+    final int base = (int) offsetOf(slot) + ADDRESS_OFFSET;
+    for (int i = 0; i < rawAddress.length; ++i) {
+      buffer.put(base + i, rawAddress[i]);
+    }
+  }
+
+  /**
+   * Read a nonce of a slot. A released slot or a slot with an invalid checksum is read as 0.
+   */
+  protected long readNonce(final int slot) {
+    final int base = (int) offsetOf(slot);
+    if (FLAG_BOUND != buffer.get(base + FLAG_OFFSET)) {
+      return 0L;
+    }
+    if (checksum(slot) != buffer.getLong(base + CHECKSUM_OFFSET)) {
+      logger.warn("Broken nonce journal slot: {}; treat as not bound", slot);
+      return 0L;
+    }
+    return buffer.getLong(base + NONCE_OFFSET);
+  }
+
+  protected void write(final int slot, final byte flag, final long nonce) {
+    final int base = (int) offsetOf(slot);
+    buffer.put(base + FLAG_OFFSET, flag);
+    buffer.putLong(base + NONCE_OFFSET, nonce);
+    buffer.putLong(base + CHECKSUM_OFFSET, checksum(slot));
+    if (SyncPolicy.ALWAYS == syncPolicy) {
+      buffer.force();
+    }
+  }
+
+  protected long checksum(final int slot) {
+    final int base = (int) offsetOf(slot);
+    final byte[] raw = new byte[CHECKSUM_OFFSET];
+    for (int i = 0; i < raw.length; ++i) {
+      raw[i] = buffer.get(base + i);
+    }
+    final CRC32 crc32 = new CRC32();
+    crc32.update(raw, 0, raw.length);
+    return crc32.getValue();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("JournaledNonceProvider(file=%s, slots=%d, syncPolicy=%s)", file,
+        slotCount, syncPolicy);
+  }
+
+}
@@ -4,8 +4,8 @@
 
 package hera.key;
 
-import static hera.key.AccountAddressSpec.recoverPublicKey;
 import static hera.key.SignatureSpec.deserialize;
+import static hera.util.ValidationUtils.assertNotNull;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import hera.annotation.ApiAudience;
@@ -21,7 +21,7 @@ import hera.util.Sha256Utils;
 import hera.util.pki.ECDSAKeyGenerator;
 import hera.util.pki.ECDSASignature;
 import hera.util.pki.ECDSAVerifier;
-import java.security.PublicKey;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 import org.slf4j.Logger;
 
 @ApiAudience.Public
@@ -36,6 +36,25 @@ public class AergoSignVerifier implements Verifier {
 
   protected final ECDSAVerifier ecdsaVerifier = new ECDSAVerifier(ECDSAKeyGenerator.ecParams);
 
+  protected final PublicKeyCache publicKeyCache;
+
+  /**
+   * Create {@code AergoSignVerifier} with a {@link PublicKeyCache#shared()}.
+   */
+  public AergoSignVerifier() {
+    this(PublicKeyCache.shared());
+  }
+
+  /**
+   * Create {@code AergoSignVerifier} with a public key cache.
+   *
+   * @param publicKeyCache a public key cache
+   */
+  public AergoSignVerifier(final PublicKeyCache publicKeyCache) {
+    assertNotNull(publicKeyCache, "Public key cache must not null");
+    this.publicKeyCache = publicKeyCache;
+  }
+
   @Override
   public boolean verify(final Transaction transaction) {
     try {
@@ -68,7 +87,7 @@ public class AergoSignVerifier implements Verifier {
     try {
       logger.debug("Verify with address: {}, hashed message: {}, signature: {}", accountAddress,
           hashedMessage, signature);
-      final PublicKey publicKey = recoverPublicKey(accountAddress);
+      final ECPublicKeyParameters publicKey = publicKeyCache.get(accountAddress);
       final ECDSASignature ecdsaSignature = deserialize(signature);
       return ecdsaVerifier.verify(publicKey, hashedMessage.getBytesValue().getValue(),
           ecdsaSignature);
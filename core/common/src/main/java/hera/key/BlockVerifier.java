@@ -0,0 +1,207 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.key;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static java.util.Collections.unmodifiableList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.Block;
+import hera.api.model.BlockVerificationResult;
+import hera.api.model.BytesValue;
+import hera.api.model.Hash;
+import hera.api.model.RawTransaction;
+import hera.api.model.Transaction;
+import hera.api.model.TxHash;
+import hera.api.model.TxVerificationFailure;
+import hera.api.model.TxVerificationFailure.Reason;
+import hera.util.MerkleUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.slf4j.Logger;
+
+/**
+ * A verifier checking integrity of a block locally. It recalculates every transaction hash from a
+ * transaction body and a signature, verifies a signature of every transaction and compares a
+ * merkle root of recalculated hashes with a tx root hash of a block header. Transactions are
+ * verified in parallel on a fork-join pool.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class BlockVerifier {
+
+  // number of transactions verified in a single fork-join task
+  protected static final int DEFAULT_BATCH_SIZE = 16;
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Verifier verifier;
+
+  protected final ForkJoinPool pool;
+
+  protected final int batchSize;
+
+  /**
+   * Create {@code BlockVerifier} with {@link AergoSignVerifier} and a common fork-join pool.
+   */
+  public BlockVerifier() {
+    this(new AergoSignVerifier(), ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create {@code BlockVerifier}.
+   *
+   * @param verifier a signature verifier
+   * @param pool a fork-join pool to verify transactions on
+   */
+  public BlockVerifier(final Verifier verifier, final ForkJoinPool pool) {
+    this(verifier, pool, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Create {@code BlockVerifier}.
+   *
+   * @param verifier a signature verifier
+   * @param pool a fork-join pool to verify transactions on
+   * @param batchSize a number of transactions verified sequentially in a single task
+   */
+  public BlockVerifier(final Verifier verifier, final ForkJoinPool pool, final int batchSize) {
+    assertNotNull(verifier, "Verifier must not null");
+    assertNotNull(pool, "Fork-join pool must not null");
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    this.verifier = verifier;
+    this.pool = pool;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Verify a block.
+   *
+   * @param block a block to verify
+   * @return a verification result
+   */
+  public BlockVerificationResult verify(final Block block) {
+    assertNotNull(block, "Block must not null");
+    logger.debug("Verify block: {} (number: {}, txs: {})", block.getHash(),
+        block.getBlockNumber(), block.getTransactions().size());
+
+    final List<Transaction> transactions = block.getTransactions();
+    final byte[][] hashes = new byte[transactions.size()][];
+    final TxVerificationFailure[] failures = new TxVerificationFailure[transactions.size()];
+    if (!transactions.isEmpty()) {
+      pool.invoke(new VerifyTask(transactions, hashes, failures, 0, transactions.size()));
+    }
+
+    final Hash expected = block.getTxRootHash();
+    final Hash calculated;
+    final boolean matched;
+    if (transactions.isEmpty()) {
+      // nothing is bound to a root hash of an empty block
+      calculated = expected;
+      matched = true;
+    } else {
+      calculated = Hash.of(BytesValue.of(MerkleUtils.calculateRoot(Arrays.asList(hashes))));
+      matched = calculated.equals(expected);
+    }
+
+    final List<TxVerificationFailure> failureList = new ArrayList<>();
+    for (final TxVerificationFailure failure : failures) {
+      if (null != failure) {
+        failureList.add(failure);
+      }
+    }
+
+    final BlockVerificationResult result = BlockVerificationResult.newBuilder()
+        .blockHash(block.getHash())
+        .blockNumber(block.getBlockNumber())
+        .expectedTxRootHash(expected)
+        .calculatedTxRootHash(calculated)
+        .txRootHashMatched(matched)
+        .failures(unmodifiableList(failureList))
+        .build();
+    logger.debug("Block verification result: {}", result);
+    return result;
+  }
+
+  protected TxVerificationFailure verify(final int index, final Transaction transaction,
+      final byte[][] hashes) {
+    try {
+      final RawTransaction rawTransaction = transaction.getRawTransaction();
+      final TxHash calculated = rawTransaction.calculateHash(transaction.getSignature());
+      hashes[index] = calculated.getBytesValue().getValue();
+      if (!calculated.equals(transaction.getHash())) {
+        return failure(index, transaction, Reason.HASH_MISMATCH,
+            "Calculated hash is " + calculated);
+      }
+      if (!verifier.verify(transaction.getSender(), rawTransaction.calculateHash(),
+          transaction.getSignature())) {
+        return failure(index, transaction, Reason.INVALID_SIGNATURE,
+            "Not signed by " + transaction.getSender());
+      }
+      return null;
+    } catch (Exception e) {
+      logger.debug("Verifying transaction at {} failed", index, e);
+      if (null == hashes[index]) {
+        hashes[index] = transaction.getHash().getBytesValue().getValue();
+      }
+      return failure(index, transaction, Reason.ERROR, String.valueOf(e.getMessage()));
+    }
+  }
+
+  protected TxVerificationFailure failure(final int index, final Transaction transaction,
+      final Reason reason, final String message) {
+    return TxVerificationFailure.newBuilder()
+        .indexInBlock(index)
+        .txHash(transaction.getHash())
+        .reason(reason)
+        .message(message)
+        .build();
+  }
+
+  private class VerifyTask extends RecursiveAction {
+
+    private static final long serialVersionUID = -3412520935512339624L;
+
+    protected final List<Transaction> transactions;
+
+    protected final byte[][] hashes;
+
+    protected final TxVerificationFailure[] failures;
+
+    protected final int from;
+
+    protected final int to;
+
+    VerifyTask(final List<Transaction> transactions, final byte[][] hashes,
+        final TxVerificationFailure[] failures, final int from, final int to) {
+      this.transactions = transactions;
+      this.hashes = hashes;
+      this.failures = failures;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= batchSize) {
+        for (int i = from; i < to; ++i) {
+          failures[i] = verify(i, transactions.get(i), hashes);
+        }
+        return;
+      }
+      final int middle = (from + to) >>> 1;
+      invokeAll(new VerifyTask(transactions, hashes, failures, from, middle),
+          new VerifyTask(transactions, hashes, failures, middle, to));
+    }
+  }
+
+}
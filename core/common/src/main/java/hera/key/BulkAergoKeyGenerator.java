@@ -0,0 +1,144 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.key;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.KeyFormat;
+import hera.exception.HerajException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+
+/**
+ * A generator making a large number of keys across multiple threads. Each thread reuses its own
+ * initialized key pair generator and random. Generated keys are passed to a sink as soon as they're
+ * made without being collected.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class BulkAergoKeyGenerator {
+
+  protected static final AtomicInteger workerId = new AtomicInteger(0);
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final AergoKeyGenerator generator = new AergoKeyGenerator();
+
+  protected final int concurrency;
+
+  /**
+   * BulkAergoKeyGenerator constructor using the number of processors as concurrency.
+   */
+  public BulkAergoKeyGenerator() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * BulkAergoKeyGenerator constructor.
+   *
+   * @param concurrency the number of generating threads
+   */
+  public BulkAergoKeyGenerator(final int concurrency) {
+    assertTrue(concurrency > 0, "Concurrency must be positive");
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * Generate keys and pass them to a sink. A sink is called by multiple threads at the same time.
+   * If a sink fails, the generation stops and the failure is thrown.
+   *
+   * @param count the number of keys to generate
+   * @param sink  a sink accepting generated keys
+   */
+  public void generate(final int count, final KeySink<AergoKey> sink) {
+    assertTrue(count >= 0, "Count must not negative");
+    assertNotNull(sink, "Sink must not null");
+    run(count, sink);
+  }
+
+  /**
+   * Generate keys and pass them to a sink as encrypted with a password. An encryption runs on
+   * generating threads.
+   *
+   * @param count    the number of keys to generate
+   * @param password a password to encrypt keys
+   * @param sink     a sink accepting encrypted keys
+   */
+  public void generate(final int count, final String password, final KeySink<KeyFormat> sink) {
+    assertTrue(count >= 0, "Count must not negative");
+    assertNotNull(password, "Password must not null");
+    assertNotNull(sink, "Sink must not null");
+    run(count, new KeySink<AergoKey>() {
+      @Override
+      public void accept(final AergoKey key) throws Exception {
+        sink.accept(key.exportAsKeyFormat(password));
+      }
+    });
+  }
+
+  protected void run(final int count, final KeySink<AergoKey> sink) {
+    if (0 == count) {
+      return;
+    }
+    final int workers = Math.min(concurrency, count);
+    logger.debug("Generate {} keys with {} workers", count, workers);
+    final ExecutorService executor = Executors.newFixedThreadPool(workers, new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable,
+            "key-generator-" + workerId.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    try {
+      final List<Future<?>> futures = new ArrayList<>(workers);
+      for (int i = 0; i < workers; ++i) {
+        // spread remainder to first ones
+        final int share = count / workers + (i < count % workers ? 1 : 0);
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            for (int j = 0; j < share && !failed.get(); ++j) {
+              try {
+                sink.accept(generator.create());
+              } catch (Exception e) {
+                failed.set(true);
+                throw e;
+              }
+            }
+            return null;
+          }
+        }));
+      }
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      throw (cause instanceof HerajException) ? (HerajException) cause : new HerajException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HerajException("Key generation interrupted", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
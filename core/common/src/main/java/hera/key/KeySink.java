@@ -0,0 +1,27 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.key;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+
+/**
+ * A consumer of generated keys. It's called by multiple generating threads at the same time.
+ *
+ * @param <T> a type of a generated key
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public interface KeySink<T> {
+
+  /**
+   * Accept a generated key.
+   *
+   * @param key a generated key
+   * @throws Exception on failure, which stops a generation
+   */
+  void accept(T key) throws Exception;
+
+}
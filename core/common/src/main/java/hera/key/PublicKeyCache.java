@@ -0,0 +1,136 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.key;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.BytesValue;
+import hera.exception.HerajException;
+import hera.util.pki.ECDSAKeyGenerator;
+import java.util.concurrent.Callable;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.slf4j.Logger;
+
+/**
+ * A bounded concurrent cache from an account address to a decoded public key ready for signature
+ * verification. Recovering a public key from an address decompresses a curve point, which is
+ * repeated for every transaction of the same sender otherwise. Since bouncy castle keeps a
+ * precomputed multiplication table on a point itself, a cached key also reuses the table across
+ * verifications.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class PublicKeyCache {
+
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  private static final PublicKeyCache SHARED = new PublicKeyCache(DEFAULT_CAPACITY);
+
+  /**
+   * Get a process-wide cache used by {@link AergoSignVerifier} by default.
+   *
+   * @return a shared cache
+   */
+  public static PublicKeyCache shared() {
+    return SHARED;
+  }
+
+  protected final Logger logger = getLogger(getClass());
+
+  protected final Cache<BytesValue, ECPublicKeyParameters> cache;
+
+  /**
+   * PublicKeyCache constructor. Capacity is set as {@value #DEFAULT_CAPACITY}.
+   */
+  public PublicKeyCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * PublicKeyCache constructor.
+   *
+   * @param capacity a maximum number of public keys to hold
+   */
+  public PublicKeyCache(final int capacity) {
+    assertTrue(capacity > 0, "Capacity must > 0");
+    this.cache = CacheBuilder.newBuilder()
+        .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+        .maximumSize(capacity)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Get a decoded public key of {@code accountAddress}. Recover it if not cached yet.
+   *
+   * @param accountAddress an account address
+   * @return a decoded public key
+   */
+  ECPublicKeyParameters get(final AccountAddress accountAddress) {
+    assertNotNull(accountAddress, "AccountAddress must not null");
+    final BytesValue rawAddress = accountAddress.getBytesValue();
+    try {
+      return cache.get(rawAddress, new Callable<ECPublicKeyParameters>() {
+        @Override
+        public ECPublicKeyParameters call() {
+          logger.debug("Recover public key from {}", accountAddress);
+          return new ECPublicKeyParameters(
+              ECDSAKeyGenerator.ecParams.getCurve().decodePoint(rawAddress.getValue()).normalize(),
+              ECDSAKeyGenerator.ecParams);
+        }
+      });
+    } catch (Exception e) {
+      throw new HerajException(null != e.getCause() ? e.getCause() : e);
+    }
+  }
+
+  /**
+   * Discard all the cached public keys.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public long getHitCount() {
+    return cache.stats().hitCount();
+  }
+
+  public long getMissCount() {
+    return cache.stats().missCount();
+  }
+
+  public long getEvictionCount() {
+    return cache.stats().evictionCount();
+  }
+
+  /**
+   * Get a ratio of lookups served from the cache. It's 1.0 if there was no lookup.
+   *
+   * @return a hit rate
+   */
+  public double getHitRate() {
+    return cache.stats().hitRate();
+  }
+
+  @Override
+  public String toString() {
+    final CacheStats stats = cache.stats();
+    return String.format("PublicKeyCache(size=%d, hit=%d, miss=%d, eviction=%d)", cache.size(),
+        stats.hitCount(), stats.missCount(), stats.evictionCount());
+  }
+
+}
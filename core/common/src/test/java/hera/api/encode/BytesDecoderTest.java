@@ -0,0 +1,98 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.encode;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import hera.AbstractTestCase;
+import hera.util.Base58Utils;
+import hera.util.Base64Utils;
+import hera.util.HexUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import org.junit.Test;
+
+public class BytesDecoderTest extends AbstractTestCase {
+
+  protected final Random random = new Random();
+
+  protected byte[] randomBytes(final int length) {
+    final byte[] raw = new byte[length];
+    random.nextBytes(raw);
+    return raw;
+  }
+
+  @Test
+  public void testHexDecoder() {
+    for (int i = 0; i < N_TEST; ++i) {
+      final byte[] raw = randomBytes(i);
+      assertArrayEquals(raw, BytesDecoder.Hex.decode(HexUtils.encode(raw)));
+      assertArrayEquals(raw, BytesDecoder.Hex.decode(HexUtils.encodeLower(raw)));
+    }
+  }
+
+  @Test
+  public void testBase58Decoder() throws IOException {
+    final byte[] raw = randomBytes(32);
+    assertArrayEquals(raw, BytesDecoder.Base58.decode(Base58Utils.encode(raw)));
+  }
+
+  @Test
+  public void testBase58CheckDecoder() throws IOException {
+    final byte[] raw = randomBytes(32);
+    assertArrayEquals(raw, BytesDecoder.Base58Check.decode(Base58Utils.encodeWithCheck(raw)));
+  }
+
+  @Test
+  public void testBase64Decoder() {
+    for (int i = 0; i < N_TEST; ++i) {
+      final byte[] raw = randomBytes(i);
+      final String encoded = Base64Utils.encode(raw);
+      assertArrayEquals(raw, BytesDecoder.Base64.decode(encoded));
+      assertArrayEquals(raw, BytesDecoder.Base64.decode(encoded.replace("=", "")));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHexDecoderWithOddLength() {
+    BytesDecoder.Hex.decode("ABC");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHexDecoderWithInvalidChar() {
+    BytesDecoder.Hex.decode("AG");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBase64DecoderWithInvalidLength() {
+    BytesDecoder.Base64.decode("QUJDR");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBase64DecoderWithInvalidChar() {
+    BytesDecoder.Base64.decode("QU=D");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBase58CheckDecoderWithInvalidChecksum() {
+    final String encoded = Base58Utils.encodeWithCheck(randomBytes(32));
+    BytesDecoder.Base58Check.decode(encoded.substring(1));
+  }
+
+  @Test
+  public void testStreamingDecode() throws IOException {
+    final byte[] raw = randomBytes(10001);
+    final BytesEncoder[] encoders = new BytesEncoder[] {BytesEncoder.Hex, BytesEncoder.Base64};
+    final BytesDecoder[] decoders = new BytesDecoder[] {BytesDecoder.Hex, BytesDecoder.Base64};
+    for (int i = 0; i < decoders.length; ++i) {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      decoders[i].decode(new StringReader(encoders[i].encode(raw)), out);
+      assertArrayEquals(raw, out.toByteArray());
+    }
+  }
+
+}
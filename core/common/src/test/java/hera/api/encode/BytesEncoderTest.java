@@ -0,0 +1,100 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.encode;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import hera.AbstractTestCase;
+import hera.util.Base58Utils;
+import hera.util.Base64Utils;
+import hera.util.HexUtils;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class BytesEncoderTest extends AbstractTestCase {
+
+  protected final Random random = new Random();
+
+  protected byte[] randomBytes(final int length) {
+    final byte[] raw = new byte[length];
+    random.nextBytes(raw);
+    return raw;
+  }
+
+  @Test
+  public void testHexEncoder() {
+    for (int i = 0; i < N_TEST; ++i) {
+      final byte[] raw = randomBytes(i);
+      assertEquals(HexUtils.encode(raw), BytesEncoder.Hex.encode(raw));
+    }
+  }
+
+  @Test
+  public void testBase58Encoder() {
+    final byte[] raw = randomUUID().toString().getBytes();
+    assertEquals(Base58Utils.encode(raw), BytesEncoder.Base58.encode(raw));
+  }
+
+  @Test
+  public void testBase58CheckEncoder() {
+    final byte[] raw = randomUUID().toString().getBytes();
+    assertEquals(Base58Utils.encodeWithCheck(raw), BytesEncoder.Base58Check.encode(raw));
+  }
+
+  @Test
+  public void testBase64Encoder() {
+    for (int i = 0; i < N_TEST; ++i) {
+      final byte[] raw = randomBytes(i);
+      assertEquals(Base64Utils.encode(raw), BytesEncoder.Base64.encode(raw));
+    }
+  }
+
+  @Test
+  public void testEncodeRange() {
+    final BytesEncoder[] encoders = new BytesEncoder[] {
+        BytesEncoder.Hex, BytesEncoder.Base58, BytesEncoder.Base58Check, BytesEncoder.Base64};
+    final byte[] raw = randomBytes(64);
+    for (final BytesEncoder encoder : encoders) {
+      final byte[] part = Arrays.copyOfRange(raw, 7, 40);
+      assertEquals(encoder.encode(part), encoder.encode(raw, 7, 33));
+      assertEquals(encoder.encode(part), encoder.encode(ByteBuffer.wrap(raw, 7, 33)));
+      assertArrayEquals(encoder.encode(part).toCharArray(), encoder.encodeToChars(part));
+    }
+  }
+
+  @Test
+  public void testEncodeDirectByteBuffer() {
+    final byte[] raw = randomBytes(32);
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(raw.length);
+    buffer.put(raw).flip();
+    assertEquals(BytesEncoder.Hex.encode(raw), BytesEncoder.Hex.encode(buffer));
+    assertEquals(0, buffer.position());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testEncodeWithInvalidRange() {
+    BytesEncoder.Hex.encode(new byte[4], 3, 2);
+  }
+
+  @Test
+  public void testStreamingEncode() throws IOException {
+    final BytesEncoder[] encoders = new BytesEncoder[] {
+        BytesEncoder.Hex, BytesEncoder.Base58, BytesEncoder.Base64};
+    for (final BytesEncoder encoder : encoders) {
+      // larger than a chunk and not aligned with a unit
+      final byte[] raw = encoder == BytesEncoder.Base58 ? randomBytes(301) : randomBytes(10001);
+      final StringBuilder out = new StringBuilder();
+      encoder.encode(new ByteArrayInputStream(raw), out);
+      assertEquals(encoder.encode(raw), out.toString());
+    }
+  }
+
+}
@@ -33,4 +33,11 @@ public class BytesValueTest {
     assertEquals(value1, value2);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testOfRange() {
+    final byte[] raw = randomUUID().toString().getBytes();
+    final BytesValue bytesValue = BytesValue.of(raw, 2, 5);
+    assertEquals(BytesValue.of(Arrays.copyOfRange(raw, 2, 7)), bytesValue);
+  }
+
+}
@@ -8,6 +8,8 @@ import static java.util.Arrays.asList;
 import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
@@ -203,4 +205,27 @@ public class ContractInterfaceTest {
     assertNotNull(invocation);
   }
 
+  @Test
+  public void testFindFunction() {
+    // given
+    final ContractFunction first = new ContractFunction(functionName, false, false, false);
+    final ContractFunction duplicated = new ContractFunction(functionName, true, false, false);
+    final ContractFunction other = new ContractFunction(randomUUID().toString());
+    final ContractInterface contractInterface = ContractInterface.newBuilder()
+        .address(new ContractAddress(encodedAddress))
+        .functions(asList(first, duplicated, other))
+        .build();
+    final ContractInterface same = ContractInterface.newBuilder()
+        .address(new ContractAddress(encodedAddress))
+        .functions(asList(first, duplicated, other))
+        .build();
+
+    // then
+    assertSame(first, contractInterface.findFunction(functionName));
+    assertSame(other, contractInterface.findFunction(other.getName()));
+    assertNull(contractInterface.findFunction(randomUUID().toString()));
+    assertEquals(same, contractInterface);
+    assertEquals(same.hashCode(), contractInterface.hashCode());
+  }
+
 }
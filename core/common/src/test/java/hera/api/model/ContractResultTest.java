@@ -0,0 +1,118 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class ContractResultTest extends AbstractTestCase {
+
+  public static class Data {
+
+    protected int intVal;
+
+    protected String stringVal;
+
+    public int getIntVal() {
+      return intVal;
+    }
+
+    public void setIntVal(int intVal) {
+      this.intVal = intVal;
+    }
+
+    public String getStringVal() {
+      return stringVal;
+    }
+
+    public void setStringVal(String stringVal) {
+      this.stringVal = stringVal;
+    }
+
+  }
+
+  protected static class CollectingObserver<T> implements StreamObserver<T> {
+
+    protected final List<T> elements = new ArrayList<>();
+
+    protected Throwable error;
+
+    protected boolean completed;
+
+    @Override
+    public void onNext(final T value) {
+      elements.add(value);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      this.error = t;
+    }
+
+    @Override
+    public void onCompleted() {
+      this.completed = true;
+    }
+  }
+
+  @Test
+  public void testBind() throws Exception {
+    final String rawData = "{\"intVal\":10,\"stringVal\":\"I am string\"}";
+    final ContractResult contractResult = ContractResult.of(BytesValue.of(rawData.getBytes()));
+    final Data data = contractResult.bind(Data.class);
+    assertEquals(10, data.getIntVal());
+    assertEquals("I am string", data.getStringVal());
+  }
+
+  @Test
+  public void testBindBigNumber() throws Exception {
+    final String rawData = "{\"_bignum\":\"100\"}";
+    final ContractResult contractResult = ContractResult.of(BytesValue.of(rawData.getBytes()));
+    assertEquals(BigNumber.of("100"), contractResult.bind(BigNumber.class));
+  }
+
+  @Test
+  public void shouldBindReturnNullOnEmpty() throws Exception {
+    assertNull(ContractResult.EMPTY.bind(Data.class));
+    assertNull(ContractResult.of(BytesValue.of("{}".getBytes())).bind(Data.class));
+  }
+
+  @Test
+  public void testBindEach() {
+    final String rawData =
+        "[{\"intVal\":1,\"stringVal\":\"a\"},{\"intVal\":2,\"stringVal\":\"b\"}]";
+    final ContractResult contractResult = ContractResult.of(BytesValue.of(rawData.getBytes()));
+    final CollectingObserver<Data> observer = new CollectingObserver<>();
+    final int count = contractResult.bindEach(Data.class, observer);
+    assertEquals(2, count);
+    assertEquals(1, observer.elements.get(0).getIntVal());
+    assertEquals("b", observer.elements.get(1).getStringVal());
+    assertTrue(observer.completed);
+    assertNull(observer.error);
+  }
+
+  @Test
+  public void shouldBindEachNotifyErrorOnNonArray() {
+    final String rawData = "{\"intVal\":1}";
+    final ContractResult contractResult = ContractResult.of(BytesValue.of(rawData.getBytes()));
+    final CollectingObserver<Data> observer = new CollectingObserver<>();
+    contractResult.bindEach(Data.class, observer);
+    assertTrue(null != observer.error);
+  }
+
+  @Test
+  public void shouldBindEachCompleteOnEmpty() {
+    final CollectingObserver<Data> observer = new CollectingObserver<>();
+    assertEquals(0, ContractResult.EMPTY.bindEach(Data.class, observer));
+    assertTrue(observer.completed);
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.transaction;
+
+import static java.util.Arrays.asList;
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hera.AbstractTestCase;
+import hera.api.model.Aer;
+import hera.api.model.BigNumber;
+import hera.api.model.BytesValue;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractInvocation;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ContractInvocationPayloadEncoderTest extends AbstractTestCase {
+
+  protected final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  public void testEncode() throws Exception {
+    // given
+    final Map<String, Object> map = new HashMap<>();
+    map.put(randomUUID().toString(), randomUUID().toString());
+    map.put("number", 3L);
+    map.put("bignum", BigNumber.of("1000"));
+    final List<Object> args = asList(randomUUID().toString(),
+        "quote \" and \\ and \n and é",
+        true,
+        null,
+        3,
+        4L,
+        1.5d,
+        new BigInteger("123456789012345678901234567890"),
+        new BigDecimal("1.25"),
+        asList(randomUUID().toString(), asList(1, 2)),
+        BigNumber.of("3000"),
+        map);
+    final String functionName = randomUUID().toString();
+    final ContractInvocation contractInvocation = ContractInvocation.newBuilder()
+        .address(ContractAddress.EMPTY)
+        .functionName(functionName)
+        .args(args)
+        .amount(Aer.EMPTY)
+        .build();
+
+    // then
+    final Map<String, Object> legacy = new HashMap<>();
+    legacy.put("Name", functionName);
+    legacy.put("Args", args);
+    final BytesValue expected = new AergoJsonMapper().marshal(legacy);
+    final ContractInvocationPayloadEncoder encoder = new ContractInvocationPayloadEncoder();
+    for (int i = 0; i < 3; ++i) {
+      final BytesValue actual = encoder.encode(contractInvocation);
+      assertEquals(objectMapper.readTree(expected.getValue()),
+          objectMapper.readTree(actual.getValue()));
+    }
+  }
+
+  @Test
+  public void testEncodeWithoutArgs() {
+    final ContractInvocation contractInvocation = ContractInvocation.newBuilder()
+        .address(ContractAddress.EMPTY)
+        .functionName("get")
+        .build();
+    final BytesValue actual = new ContractInvocationPayloadEncoder().encode(contractInvocation);
+    assertEquals("{\"Name\":\"get\",\"Args\":[]}", new String(actual.getValue()));
+  }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.api.transaction;
+
+import static org.junit.Assert.assertEquals;
+
+import hera.AbstractTestCase;
+import hera.api.model.AccountAddress;
+import hera.api.transaction.JournaledNonceProvider.SyncPolicy;
+import hera.key.AergoKeyGenerator;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class JournaledNonceProviderTest extends AbstractTestCase {
+
+  protected File supplyJournal() throws Exception {
+    final File file = File.createTempFile("nonce", ".journal");
+    file.delete();
+    file.deleteOnExit();
+    return file;
+  }
+
+  @Test
+  public void testBindAndIncrement() throws Exception {
+    // given
+    final AccountAddress address = new AergoKeyGenerator().create().getAddress();
+    try (final JournaledNonceProvider nonceProvider = new JournaledNonceProvider(supplyJournal(),
+        16, SyncPolicy.OS)) {
+      // when
+      assertEquals(0L, nonceProvider.getLastUsedNonce(address));
+      nonceProvider.bindNonce(address, 10L);
+
+      // then
+      assertEquals(11L, nonceProvider.incrementAndGetNonce(address));
+      assertEquals(11L, nonceProvider.getLastUsedNonce(address));
+    }
+  }
+
+  @Test
+  public void shouldResumeOnReopen() throws Exception {
+    // given
+    final File journal = supplyJournal();
+    final AccountAddress address = new AergoKeyGenerator().create().getAddress();
+    try (final JournaledNonceProvider nonceProvider = new JournaledNonceProvider(journal, 16,
+        SyncPolicy.ALWAYS)) {
+      nonceProvider.bindNonce(address, 3L);
+      nonceProvider.incrementAndGetNonce(address);
+    }
+
+    // when
+    try (final JournaledNonceProvider reopened = new JournaledNonceProvider(journal, 1,
+        SyncPolicy.OS)) {
+      // then
+      assertEquals(16, reopened.slotCount);
+      assertEquals(4L, reopened.getLastUsedNonce(address));
+      assertEquals(5L, reopened.incrementAndGetNonce(address));
+    }
+  }
+
+  @Test
+  public void testReleaseNonce() throws Exception {
+    // given
+    final AccountAddress address = new AergoKeyGenerator().create().getAddress();
+    try (final JournaledNonceProvider nonceProvider = new JournaledNonceProvider(supplyJournal(),
+        16, SyncPolicy.OS)) {
+      nonceProvider.bindNonce(address, 10L);
+
+      // when
+      nonceProvider.releaseNonce(address);
+
+      // then
+      assertEquals(0L, nonceProvider.getLastUsedNonce(address));
+      assertEquals(1L, nonceProvider.incrementAndGetNonce(address));
+    }
+  }
+
+  @Test
+  public void shouldTreatBrokenSlotAsNotBound() throws Exception {
+    // given
+    final File journal = supplyJournal();
+    final AccountAddress address = new AergoKeyGenerator().create().getAddress();
+    final int slot;
+    try (final JournaledNonceProvider nonceProvider = new JournaledNonceProvider(journal, 16,
+        SyncPolicy.ALWAYS)) {
+      nonceProvider.bindNonce(address, 10L);
+      slot = nonceProvider.slotOf(address, false);
+    }
+
+    // when
+    try (final RandomAccessFile raw = new RandomAccessFile(journal, "rw")) {
+      raw.seek(JournaledNonceProvider.HEADER_SIZE
+          + (long) slot * JournaledNonceProvider.SLOT_SIZE
+          + JournaledNonceProvider.NONCE_OFFSET);
+      raw.writeLong(1000L);
+    }
+
+    // then
+    try (final JournaledNonceProvider reopened = new JournaledNonceProvider(journal)) {
+      assertEquals(0L, reopened.getLastUsedNonce(address));
+    }
+  }
+
+  @Test
+  public void testIncrementConcurrently() throws Exception {
+    // given
+    final List<AccountAddress> addresses = new ArrayList<>();
+    for (int i = 0; i < 4; ++i) {
+      addresses.add(new AergoKeyGenerator().create().getAddress());
+    }
+    try (final JournaledNonceProvider nonceProvider = new JournaledNonceProvider(supplyJournal(),
+        4, SyncPolicy.OS)) {
+      // when
+      final List<Thread> threads = new ArrayList<>();
+      for (int i = 0; i < 8; ++i) {
+        final Thread thread = new Thread(new Runnable() {
+          @Override
+          public void run() {
+            for (int j = 0; j < N_TEST; ++j) {
+              for (final AccountAddress address : addresses) {
+                nonceProvider.incrementAndGetNonce(address);
+              }
+            }
+          }
+        });
+        thread.start();
+        threads.add(thread);
+      }
+      for (final Thread thread : threads) {
+        thread.join();
+      }
+
+      // then
+      for (final AccountAddress address : addresses) {
+        assertEquals(8L * N_TEST, nonceProvider.getLastUsedNonce(address));
+      }
+    }
+  }
+
+}
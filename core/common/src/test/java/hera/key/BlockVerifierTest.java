@@ -0,0 +1,123 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.key;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.api.model.Aer.Unit;
+import hera.api.model.Block;
+import hera.api.model.BlockHeader;
+import hera.api.model.BlockVerificationResult;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.Hash;
+import hera.api.model.RawTransaction;
+import hera.api.model.Signature;
+import hera.api.model.Transaction;
+import hera.api.model.TxVerificationFailure.Reason;
+import hera.util.MerkleUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+public class BlockVerifierTest {
+
+  protected final ChainIdHash chainIdHash = ChainIdHash.of(BytesValue.EMPTY);
+
+  protected List<Transaction> signedTransactions(final int count) {
+    final AergoKey key = new AergoKeyGenerator().create();
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < count; ++i) {
+      final RawTransaction rawTransaction = RawTransaction.newBuilder(chainIdHash)
+          .from(key.getAddress())
+          .to(key.getAddress())
+          .amount("10000", Unit.AER)
+          .nonce(i + 1L)
+          .build();
+      transactions.add(key.sign(rawTransaction));
+    }
+    return transactions;
+  }
+
+  protected Block block(final List<Transaction> transactions) {
+    final List<byte[]> hashes = new ArrayList<>();
+    for (final Transaction transaction : transactions) {
+      hashes.add(transaction.getHash().getBytesValue().getValue());
+    }
+    final Hash txRootHash = Hash.of(BytesValue.of(MerkleUtils.calculateRoot(hashes)));
+    return Block.newBuilder()
+        .blockHeader(BlockHeader.newBuilder().blockNumber(1L).txRootHash(txRootHash).build())
+        .transactions(transactions)
+        .build();
+  }
+
+  @Test
+  public void testVerifyValidBlock() {
+    final BlockVerifier verifier = new BlockVerifier(new AergoSignVerifier(),
+        ForkJoinPool.commonPool(), 2);
+    final BlockVerificationResult result = verifier.verify(block(signedTransactions(37)));
+    assertTrue(result.isTxRootHashMatched());
+    assertTrue(result.getFailures().isEmpty());
+    assertTrue(result.isValid());
+  }
+
+  @Test
+  public void testVerifyEmptyBlock() {
+    final BlockVerifier verifier = new BlockVerifier();
+    assertTrue(verifier.verify(Block.EMPTY).isValid());
+  }
+
+  @Test
+  public void testVerifyWithInvalidSignature() {
+    final List<Transaction> transactions = signedTransactions(5);
+    final Transaction original = transactions.get(3);
+    final Signature otherSignature = new AergoKeyGenerator().create()
+        .sign(original.getRawTransaction()).getSignature();
+    // keep hash consistent with a forged signature to reach signature verification
+    final Transaction forged = Transaction.newBuilder()
+        .rawTransaction(original.getRawTransaction())
+        .signature(otherSignature)
+        .hash(original.getRawTransaction().calculateHash(otherSignature))
+        .build();
+    transactions.set(3, forged);
+
+    final BlockVerificationResult result = new BlockVerifier().verify(block(transactions));
+    assertTrue(result.isTxRootHashMatched());
+    assertFalse(result.isValid());
+    assertEquals(1, result.getFailures().size());
+    assertEquals(3, result.getFailures().get(0).getIndexInBlock());
+    assertEquals(Reason.INVALID_SIGNATURE, result.getFailures().get(0).getReason());
+  }
+
+  @Test
+  public void testVerifyWithTamperedTransaction() {
+    final List<Transaction> transactions = signedTransactions(4);
+    final Block block = block(transactions);
+    final Transaction original = transactions.get(1);
+    final RawTransaction tampered = RawTransaction.newBuilder(chainIdHash)
+        .from(original.getSender())
+        .to(original.getRecipient())
+        .amount("20000", Unit.AER)
+        .nonce(original.getNonce())
+        .build();
+    transactions.set(1, Transaction.newBuilder()
+        .rawTransaction(tampered)
+        .signature(original.getSignature())
+        .hash(original.getHash())
+        .build());
+
+    final BlockVerificationResult result = new BlockVerifier().verify(Block.newBuilder()
+        .blockHeader(block.getBlockHeader())
+        .transactions(transactions)
+        .build());
+    assertFalse(result.isTxRootHashMatched());
+    assertFalse(result.isValid());
+    assertEquals(Reason.HASH_MISMATCH, result.getFailures().get(0).getReason());
+  }
+
+}
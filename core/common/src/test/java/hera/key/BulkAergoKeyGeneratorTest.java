@@ -0,0 +1,89 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.key;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import hera.AbstractTestCase;
+import hera.api.model.AccountAddress;
+import hera.api.model.KeyFormat;
+import hera.exception.HerajException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class BulkAergoKeyGeneratorTest extends AbstractTestCase {
+
+  @Test
+  public void testGenerate() {
+    // given
+    final BulkAergoKeyGenerator generator = new BulkAergoKeyGenerator(4);
+    final Set<AccountAddress> addresses =
+        Collections.synchronizedSet(new HashSet<AccountAddress>());
+    final int count = 103;
+
+    // when
+    generator.generate(count, new KeySink<AergoKey>() {
+      @Override
+      public void accept(final AergoKey key) {
+        addresses.add(key.getAddress());
+      }
+    });
+
+    // then
+    assertEquals(count, addresses.size());
+  }
+
+  @Test
+  public void testGenerateEncrypted() {
+    // given
+    final BulkAergoKeyGenerator generator = new BulkAergoKeyGenerator(2);
+    final String password = randomUUID().toString();
+    final Set<KeyFormat> keyFormats = Collections.synchronizedSet(new HashSet<KeyFormat>());
+
+    // when
+    generator.generate(2, password, new KeySink<KeyFormat>() {
+      @Override
+      public void accept(final KeyFormat keyFormat) {
+        keyFormats.add(keyFormat);
+      }
+    });
+
+    // then
+    assertEquals(2, keyFormats.size());
+    for (final KeyFormat keyFormat : keyFormats) {
+      AergoKey.of(keyFormat, password);
+    }
+  }
+
+  @Test
+  public void shouldStopOnSinkFailure() {
+    // given
+    final BulkAergoKeyGenerator generator = new BulkAergoKeyGenerator(2);
+    final AtomicInteger accepted = new AtomicInteger(0);
+    final int count = 1000;
+
+    // when
+    try {
+      generator.generate(count, new KeySink<AergoKey>() {
+        @Override
+        public void accept(final AergoKey key) {
+          if (accepted.incrementAndGet() == 10) {
+            throw new IllegalStateException();
+          }
+        }
+      });
+      fail();
+    } catch (HerajException e) {
+      // then
+      assertEquals(IllegalStateException.class, e.getCause().getClass());
+    }
+  }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.key;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.model.BytesValue;
+import hera.api.model.Signature;
+import org.junit.Test;
+
+public class PublicKeyCacheTest extends AbstractTestCase {
+
+  @Test
+  public void testHitAndMiss() {
+    final PublicKeyCache cache = new PublicKeyCache();
+    final AergoKey key = new AergoKeyGenerator().create();
+    assertSame(cache.get(key.getAddress()), cache.get(key.getAddress()));
+    assertEquals(1L, cache.getMissCount());
+    assertEquals(1L, cache.getHitCount());
+    assertEquals(0.5, cache.getHitRate(), 0.0);
+  }
+
+  @Test
+  public void testEviction() {
+    final PublicKeyCache cache = new PublicKeyCache(1);
+    cache.get(new AergoKeyGenerator().create().getAddress());
+    cache.get(new AergoKeyGenerator().create().getAddress());
+    assertEquals(1L, cache.size());
+    assertEquals(1L, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testVerifyWithCache() {
+    final PublicKeyCache cache = new PublicKeyCache();
+    final AergoSignVerifier verifier = new AergoSignVerifier(cache);
+    final AergoKey key = new AergoKeyGenerator().create();
+    for (int i = 0; i < N_TEST; ++i) {
+      final BytesValue message = BytesValue.of(("message" + i).getBytes());
+      final Signature signature = key.signMessage(message);
+      assertTrue(verifier.verify(key.getAddress(), message, signature));
+    }
+    assertEquals(1L, cache.getMissCount());
+    assertEquals(N_TEST - 1L, cache.getHitCount());
+  }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.annotation.processor;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.annotation.ContractStub;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * An annotation processor generating a stub class for an interface annotated with
+ * {@link ContractStub}. A method returning {@code void} or {@code TxHash} is generated as a
+ * contract execution and the others as a contract query, same as a proxy made by
+ * {@code ContractApiFactory}. A {@code Fee} parameter is used as a fee and isn't passed as a
+ * contract argument.
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@SupportedAnnotationTypes("hera.annotation.ContractStub")
+public class ContractStubProcessor extends AbstractProcessor {
+
+  public static final String STUB_SUFFIX = "Stub";
+
+  protected static final String STUB_CLASS = "hera.contract.ContractStub";
+
+  protected static final String STUB_FACTORY_CLASS = "hera.contract.ContractStubFactory";
+
+  protected static final String STUB_CONTEXT_CLASS = "hera.contract.ContractStubContext";
+
+  protected static final String TX_HASH_CLASS = "hera.api.model.TxHash";
+
+  protected static final String FEE_CLASS = "hera.api.model.Fee";
+
+  protected static final String INDENT = "  ";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations,
+      final RoundEnvironment roundEnv) {
+    for (final Element element : roundEnv.getElementsAnnotatedWith(ContractStub.class)) {
+      if (ElementKind.INTERFACE != element.getKind()) {
+        error(element, "@ContractStub is only applicable to an interface");
+        continue;
+      }
+      final TypeElement type = (TypeElement) element;
+      if (!type.getTypeParameters().isEmpty()) {
+        error(element, "@ContractStub is not applicable to a generic interface");
+        continue;
+      }
+      if (type.getModifiers().contains(Modifier.PRIVATE)) {
+        error(element, "@ContractStub is not applicable to a private interface");
+        continue;
+      }
+      try {
+        generate(type);
+      } catch (IOException e) {
+        error(element, "Failed to generate stub: " + e.getMessage());
+      }
+    }
+    return true;
+  }
+
+  protected void generate(final TypeElement type) throws IOException {
+    final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+    final String packageName = packageElement.isUnnamed() ? ""
+        : packageElement.getQualifiedName().toString();
+    final String stubName = getStubName(type);
+    final String interfaceName = type.getQualifiedName().toString();
+
+    final List<String> methods = new ArrayList<>();
+    for (final ExecutableElement method : ElementFilter
+        .methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+      if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+        continue;
+      }
+      // resolve type variables of a generic super interface
+      final ExecutableType resolved = (ExecutableType) processingEnv.getTypeUtils()
+          .asMemberOf((DeclaredType) type.asType(), method);
+      final String generated = generateMethod(method, resolved);
+      if (null == generated) {
+        return;
+      }
+      methods.add(generated);
+    }
+
+    final StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source.append("/**\n")
+        .append(" * A contract stub for {@link ").append(interfaceName).append("}.\n")
+        .append(" * Generated by ").append(getClass().getName()).append(". Do not edit.\n")
+        .append(" */\n")
+        .append("public final class ").append(stubName).append(" extends ").append(STUB_CLASS)
+        .append(" implements ").append(interfaceName).append(" {\n\n");
+
+    source.append(INDENT).append("public static final ").append(STUB_FACTORY_CLASS).append('<')
+        .append(interfaceName).append("> FACTORY =\n")
+        .append(INDENT).append(INDENT).append(INDENT).append("new ").append(STUB_FACTORY_CLASS)
+        .append('<').append(interfaceName).append(">() {\n")
+        .append(INDENT).append(INDENT).append(INDENT).append(INDENT).append("@Override\n")
+        .append(INDENT).append(INDENT).append(INDENT).append(INDENT).append("public ")
+        .append(interfaceName).append(" create(final ").append(STUB_CONTEXT_CLASS)
+        .append(" context) {\n")
+        .append(INDENT).append(INDENT).append(INDENT).append(INDENT).append(INDENT)
+        .append("return new ").append(stubName).append("(context);\n")
+        .append(INDENT).append(INDENT).append(INDENT).append(INDENT).append("}\n")
+        .append(INDENT).append(INDENT).append(INDENT).append("};\n\n");
+
+    source.append(INDENT).append("private ").append(stubName).append("(final ")
+        .append(STUB_CONTEXT_CLASS).append(" context) {\n")
+        .append(INDENT).append(INDENT).append("super(context);\n")
+        .append(INDENT).append("}\n");
+
+    for (final String method : methods) {
+      source.append('\n').append(method);
+    }
+    source.append("\n}\n");
+
+    final String qualifiedStubName = packageName.isEmpty() ? stubName
+        : packageName + "." + stubName;
+    final JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedStubName, type);
+    try (final Writer writer = file.openWriter()) {
+      writer.write(source.toString());
+    }
+  }
+
+  protected String getStubName(final TypeElement type) {
+    final StringBuilder name = new StringBuilder(type.getSimpleName());
+    Element enclosing = type;
+    while (NestingKind.TOP_LEVEL != ((TypeElement) enclosing).getNestingKind()) {
+      enclosing = enclosing.getEnclosingElement();
+      name.insert(0, '_').insert(0, enclosing.getSimpleName());
+    }
+    return name.append(STUB_SUFFIX).toString();
+  }
+
+  protected String generateMethod(final ExecutableElement method,
+      final ExecutableType resolved) {
+    if (!method.getTypeParameters().isEmpty()) {
+      error(method, "Generic method is not supported by @ContractStub");
+      return null;
+    }
+
+    final TypeMirror returnType = resolved.getReturnType();
+    final boolean isExecution = TypeKind.VOID == returnType.getKind()
+        || isTypeOf(returnType, TX_HASH_CLASS);
+    if (!isExecution && TypeKind.TYPEVAR == returnType.getKind()) {
+      error(method, "Type variable return type is not supported by @ContractStub");
+      return null;
+    }
+
+    final StringBuilder parameters = new StringBuilder();
+    final StringBuilder args = new StringBuilder();
+    String fee = FEE_CLASS + ".INFINITY";
+    final List<? extends VariableElement> params = method.getParameters();
+    for (int i = 0; i < params.size(); ++i) {
+      final VariableElement param = params.get(i);
+      final TypeMirror paramTypeMirror = resolved.getParameterTypes().get(i);
+      final String paramName = param.getSimpleName().toString();
+      String paramType = paramTypeMirror.toString();
+      if (method.isVarArgs() && i == params.size() - 1) {
+        paramType = paramType.substring(0, paramType.length() - 2) + "...";
+      }
+      if (0 != i) {
+        parameters.append(", ");
+      }
+      parameters.append("final ").append(paramType).append(' ').append(paramName);
+
+      if (isTypeOf(paramTypeMirror, FEE_CLASS)) {
+        fee = paramName;
+      } else {
+        if (0 != args.length()) {
+          args.append(", ");
+        }
+        args.append(paramName);
+      }
+    }
+
+    final String functionName = method.getSimpleName().toString();
+    final boolean isParameterized = TypeKind.DECLARED == returnType.getKind()
+        && !((DeclaredType) returnType).getTypeArguments().isEmpty();
+    final StringBuilder body = new StringBuilder();
+    if (isExecution) {
+      body.append(TypeKind.VOID == returnType.getKind() ? "" : "return ")
+          .append("execute(\"").append(functionName).append("\", ").append(fee)
+          .append(", new java.lang.Object[] {").append(args).append("});\n");
+    } else {
+      final String erased = processingEnv.getTypeUtils().erasure(returnType).toString();
+      body.append("return ");
+      if (isParameterized) {
+        body.append('(').append(returnType).append(") ");
+      }
+      body.append("query(\"").append(functionName).append("\", ").append(erased)
+          .append(".class, new java.lang.Object[] {").append(args).append("});\n");
+    }
+
+    final StringBuilder source = new StringBuilder();
+    source.append(INDENT).append("@Override\n");
+    if (isParameterized) {
+      source.append(INDENT).append("@SuppressWarnings(\"unchecked\")\n");
+    }
+    source.append(INDENT).append("public ").append(returnType).append(' ')
+        .append(functionName).append('(').append(parameters).append(") {\n")
+        .append(INDENT).append(INDENT).append(body)
+        .append(INDENT).append("}\n");
+    return source.toString();
+  }
+
+  protected boolean isTypeOf(final TypeMirror type, final String className) {
+    return TypeKind.DECLARED == type.getKind()
+        && className.equals(((TypeElement) ((DeclaredType) type).asElement())
+        .getQualifiedName().toString());
+  }
+
+  protected void error(final Element element, final String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.annotation.processor;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ContractStubProcessorTest {
+
+  // minimal runtime classes with the same signature as ones in smart-contract module
+  protected static final JavaFileObject STUB = source("hera.contract.ContractStub",
+      "package hera.contract;\n"
+          + "public abstract class ContractStub {\n"
+          + "  protected ContractStub(ContractStubContext context) {}\n"
+          + "  protected hera.api.model.TxHash execute(String functionName,\n"
+          + "      hera.api.model.Fee fee, Object[] args) { return null; }\n"
+          + "  protected <T> T query(String functionName, Class<T> returnType,\n"
+          + "      Object[] args) { return null; }\n"
+          + "}\n");
+
+  protected static final JavaFileObject STUB_FACTORY = source("hera.contract.ContractStubFactory",
+      "package hera.contract;\n"
+          + "public interface ContractStubFactory<ContractT> {\n"
+          + "  ContractT create(ContractStubContext context);\n"
+          + "}\n");
+
+  protected static final JavaFileObject STUB_CONTEXT = source("hera.contract.ContractStubContext",
+      "package hera.contract;\n"
+          + "public final class ContractStubContext {\n"
+          + "}\n");
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  protected static JavaFileObject source(final String className, final String content) {
+    final URI uri = URI.create("string:///" + className.replace('.', '/') + ".java");
+    return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+        return content;
+      }
+    };
+  }
+
+  protected boolean compile(final JavaFileObject source,
+      final DiagnosticCollector<JavaFileObject> diagnostics) throws Exception {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final List<String> options = asList(
+        "-classpath", System.getProperty("java.class.path"),
+        "-d", temporaryFolder.newFolder("classes").getAbsolutePath(),
+        "-s", temporaryFolder.newFolder("generated").getAbsolutePath());
+    final List<JavaFileObject> sources = new ArrayList<>(
+        asList(source, STUB, STUB_FACTORY, STUB_CONTEXT));
+    final CompilationTask task = compiler.getTask(null, null, diagnostics, options, null,
+        sources);
+    task.setProcessors(asList(new ContractStubProcessor()));
+    return task.call();
+  }
+
+  protected String readGenerated(final String path) throws Exception {
+    final File generated = new File(new File(temporaryFolder.getRoot(), "generated"), path);
+    return new String(Files.readAllBytes(generated.toPath()), Charset.forName("UTF-8"));
+  }
+
+  @Test
+  public void testGenerate() throws Exception {
+    // given
+    final JavaFileObject source = source("sample.Token",
+        "package sample;\n"
+            + "import hera.api.model.BigNumber;\n"
+            + "import hera.api.model.ContractResult;\n"
+            + "import hera.api.model.Fee;\n"
+            + "import hera.api.model.TxHash;\n"
+            + "import java.util.List;\n"
+            + "@hera.annotation.ContractStub\n"
+            + "public interface Token {\n"
+            + "  TxHash transfer(String to, BigNumber amount, Fee fee);\n"
+            + "  void burn(BigNumber amount);\n"
+            + "  BigNumber balanceOf(String owner);\n"
+            + "  int decimals();\n"
+            + "  List<String> holders(int limit);\n"
+            + "  ContractResult raw(String... keys);\n"
+            + "}\n");
+
+    // when
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    final boolean success = compile(source, diagnostics);
+
+    // then
+    assertTrue(diagnostics.getDiagnostics().toString(), success);
+    final String generated = readGenerated("sample/TokenStub.java");
+    assertTrue(generated
+        .contains("execute(\"transfer\", fee, new java.lang.Object[] {to, amount})"));
+    assertTrue(generated.contains("execute(\"burn\", hera.api.model.Fee.INFINITY"));
+    assertTrue(generated.contains("query(\"balanceOf\", hera.api.model.BigNumber.class"));
+    assertTrue(generated.contains("query(\"holders\", java.util.List.class"));
+    assertTrue(generated.contains("new java.lang.Object[] {keys}"));
+  }
+
+  @Test
+  public void testGenerateNested() throws Exception {
+    // given
+    final JavaFileObject source = source("sample.Outer",
+        "package sample;\n"
+            + "public class Outer {\n"
+            + "  @hera.annotation.ContractStub\n"
+            + "  public interface Inner {\n"
+            + "    String get(String key);\n"
+            + "  }\n"
+            + "}\n");
+
+    // when
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    final boolean success = compile(source, diagnostics);
+
+    // then
+    assertTrue(diagnostics.getDiagnostics().toString(), success);
+    assertTrue(readGenerated("sample/Outer_InnerStub.java")
+        .contains("implements sample.Outer.Inner"));
+  }
+
+  @Test
+  public void testGenerateWithGenericParent() throws Exception {
+    // given
+    final JavaFileObject source = source("sample.Registry",
+        "package sample;\n"
+            + "import hera.api.model.Fee;\n"
+            + "import hera.api.model.TxHash;\n"
+            + "import java.math.BigInteger;\n"
+            + "import java.util.List;\n"
+            + "interface Store<K, V> {\n"
+            + "  V get(K key);\n"
+            + "  TxHash put(K key, V value, Fee fee);\n"
+            + "  List<V> values(K... keys);\n"
+            + "}\n"
+            + "@hera.annotation.ContractStub\n"
+            + "public interface Registry extends Store<String, BigInteger> {\n"
+            + "}\n");
+
+    // when
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    final boolean success = compile(source, diagnostics);
+
+    // then
+    assertTrue(diagnostics.getDiagnostics().toString(), success);
+    final String generated = readGenerated("sample/RegistryStub.java");
+    assertTrue(generated.contains("public java.math.BigInteger get(final java.lang.String key)"));
+    assertTrue(generated.contains("query(\"get\", java.math.BigInteger.class"));
+    assertTrue(generated.contains("put(final java.lang.String key, "
+        + "final java.math.BigInteger value, final hera.api.model.Fee fee)"));
+    assertTrue(generated.contains("public java.util.List<java.math.BigInteger> values("
+        + "final java.lang.String... keys)"));
+  }
+
+  @Test
+  public void shouldFailOnClass() throws Exception {
+    // given
+    final JavaFileObject source = source("sample.NotInterface",
+        "package sample;\n"
+            + "@hera.annotation.ContractStub\n"
+            + "public class NotInterface {\n"
+            + "}\n");
+
+    // when
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    final boolean success = compile(source, diagnostics);
+
+    // then
+    assertFalse(success);
+    boolean found = false;
+    for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      found |= diagnostic.getMessage(null).contains("only applicable to an interface");
+    }
+    assertTrue(found);
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.fixture;
+
+import hera.api.model.AccountAddress;
+import hera.api.model.AccountState;
+import hera.api.model.Aer;
+import hera.api.model.Block;
+import hera.api.model.ChainIdHash;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractInvocation;
+import hera.api.model.ContractResult;
+import hera.api.model.RawTransaction;
+import hera.api.model.TxHash;
+import hera.client.AergoClient;
+import hera.client.AergoClientBuilder;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Client overhead against an in-process node. A latency of 0 measures the client and the loopback
+ * transport only.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AergoClientBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Node {
+
+    // node latency in milliseconds
+    @Param({"0", "1"})
+    public long latency;
+
+    protected FakeAergoNode node;
+
+    protected AergoClient client;
+
+    protected AccountAddress account = new AergoKeyGenerator().create().getAddress();
+
+    protected long bestHeight;
+
+    protected ContractInvocation invocation;
+
+    @Setup(Level.Trial)
+    public synchronized void setUp() {
+      node = new FakeAergoNode().start();
+      node.setLatency(latency);
+      node.setState(account, 1L, Aer.of("100"));
+      for (int i = 0; i < 100; ++i) {
+        bestHeight = node.produceBlock();
+      }
+      final ContractAddress contractAddress = new AergoKeyGenerator().create().getAddress()
+          .adapt(ContractAddress.class);
+      node.putContract(contractAddress, "{\"value\":1}", "get");
+
+      client = new AergoClientBuilder().withEndpoint(node.getEndpoint()).build();
+      invocation = client.getContractOperation().getContractInterface(contractAddress)
+          .newInvocationBuilder()
+          .function("get")
+          .build();
+    }
+
+    @TearDown(Level.Trial)
+    public synchronized void tearDown() throws IOException {
+      client.close();
+      node.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Sender {
+
+    protected final AergoKey key = new AergoKeyGenerator().create();
+
+    protected final AccountAddress recipient = new AergoKeyGenerator().create().getAddress();
+
+    protected long nonce = 0L;
+
+    public RawTransaction next() {
+      return RawTransaction.newBuilder(ChainIdHash.EMPTY)
+          .from(key.getAddress())
+          .to(recipient)
+          .amount(Aer.ZERO)
+          .nonce(++nonce)
+          .build();
+    }
+  }
+
+  @Benchmark
+  public AccountState getState(final Node node) {
+    return node.client.getAccountOperation().getState(node.account);
+  }
+
+  @Benchmark
+  public Block getBlock(final Node node) {
+    return node.client.getBlockOperation().getBlock(node.bestHeight);
+  }
+
+  @Benchmark
+  public TxHash commit(final Node node, final Sender sender) {
+    return node.client.getTransactionOperation().commit(sender.key.sign(sender.next()));
+  }
+
+  @Benchmark
+  public ContractResult query(final Node node) {
+    return node.client.getContractOperation().query(node.invocation);
+  }
+
+}
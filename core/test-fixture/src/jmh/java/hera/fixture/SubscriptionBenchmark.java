@@ -0,0 +1,112 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.fixture;
+
+import hera.api.model.BlockMetadata;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.client.AergoClient;
+import hera.client.AergoClientBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Blocks delivered to every subscriber per second. A node produces a block and waits until all
+ * subscribers get it, so a single producer thread is used.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(1)
+public class SubscriptionBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Node {
+
+    @Param({"1", "8"})
+    public int subscriberCount;
+
+    protected FakeAergoNode node;
+
+    protected AergoClient client;
+
+    protected final List<Subscription<BlockMetadata>> subscriptions = new ArrayList<>();
+
+    // the last block height received by each subscriber
+    protected final List<AtomicLong> lastHeights = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public synchronized void setUp() throws InterruptedException {
+      node = new FakeAergoNode().start();
+      client = new AergoClientBuilder().withEndpoint(node.getEndpoint()).build();
+      for (int i = 0; i < subscriberCount; ++i) {
+        final AtomicLong lastHeight = new AtomicLong(-1L);
+        lastHeights.add(lastHeight);
+        subscriptions.add(client.getBlockOperation()
+            .subscribeNewBlockMetadata(new StreamObserver<BlockMetadata>() {
+              @Override
+              public void onNext(final BlockMetadata value) {
+                lastHeight.set(value.getBlockHeader().getBlockNumber());
+              }
+
+              @Override
+              public void onError(final Throwable t) {
+              }
+
+              @Override
+              public void onCompleted() {
+              }
+            }));
+      }
+      // streams are registered asynchronously
+      long height = node.produceBlock();
+      while (!receivedAll(height)) {
+        Thread.sleep(10L);
+        height = node.produceBlock();
+      }
+    }
+
+    public void produceAndWait() {
+      final long height = node.produceBlock();
+      while (!receivedAll(height)) {
+        Thread.yield();
+      }
+    }
+
+    protected boolean receivedAll(final long height) {
+      for (final AtomicLong lastHeight : lastHeights) {
+        if (lastHeight.get() < height) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @TearDown(Level.Trial)
+    public synchronized void tearDown() throws IOException {
+      for (final Subscription<BlockMetadata> subscription : subscriptions) {
+        subscription.unsubscribe();
+      }
+      client.close();
+      node.close();
+    }
+  }
+
+  @Benchmark
+  public void newBlockMetadata(final Node node) {
+    node.produceAndWait();
+  }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.fixture;
+
+import hera.api.model.AccountState;
+import hera.api.model.Aer;
+import hera.api.model.Block;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.RawTransaction;
+import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
+import hera.client.AergoClient;
+import hera.client.AergoClientBuilder;
+import hera.client.TransportProfile;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
+import hera.util.HexUtils;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Transport presets against an in-process node. {@code getState} is a small round trip where
+ * {@code LOW_LATENCY} should win. {@code getLargeBlock} and {@code commitBatch} move about 2MB and
+ * 200KB where {@code BULK_STREAMING} should win. A payload is a contract call with random
+ * recipients, and payloads don't repeat within a compression window, so they compress about as
+ * much as real ones. A node compresses responses the same way a profile compresses requests.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class TransportProfileBenchmark {
+
+  protected static final int TX_COUNT_IN_BLOCK = 1000;
+
+  protected static final int BATCH_SIZE = 100;
+
+  protected static final int PAYLOAD_SIZE = 2 * 1024;
+
+  // distinct payloads cycled; 512KB apart, beyond a 32KB gzip window
+  protected static final int PAYLOAD_COUNT = 256;
+
+  protected static final Charset CHARSET = Charset.forName("UTF-8");
+
+  protected static List<BytesValue> payloads(final long seed) {
+    final Random random = new Random(seed);
+    final List<BytesValue> payloads = new ArrayList<>(PAYLOAD_COUNT);
+    for (int i = 0; i < PAYLOAD_COUNT; ++i) {
+      payloads.add(payload(random));
+    }
+    return payloads;
+  }
+
+  protected static BytesValue payload(final Random random) {
+    final StringBuilder json = new StringBuilder("{\"Name\":\"transferBatch\",\"Args\":[");
+    final byte[] recipient = new byte[20];
+    boolean first = true;
+    while (json.length() < PAYLOAD_SIZE - 64) {
+      random.nextBytes(recipient);
+      json.append(first ? "" : ",").append("[\"").append(HexUtils.encodeLower(recipient))
+          .append("\",\"").append(random.nextInt(1000000)).append("000000000000\"]");
+      first = false;
+    }
+    return BytesValue.of(json.append("]}").toString().getBytes(CHARSET));
+  }
+
+  @State(Scope.Benchmark)
+  public static class Node {
+
+    @Param({"DEFAULT", "LOW_LATENCY", "BULK_STREAMING"})
+    public String profile;
+
+    protected FakeAergoNode node;
+
+    protected AergoClient client;
+
+    protected final AergoKey key = new AergoKeyGenerator().create();
+
+    protected long largeBlockHeight;
+
+    @Setup(Level.Trial)
+    public synchronized void setUp() {
+      node = new FakeAergoNode().start();
+      node.setResponseCompression(toProfile(profile).getCompression());
+      client = new AergoClientBuilder()
+          .withEndpoint(node.getEndpoint())
+          .withTransportProfile(toProfile(profile))
+          .build();
+
+      node.setState(key.getAddress(), 0L, Aer.of("1"));
+      final List<BytesValue> payloads = payloads(0L);
+      final List<Transaction> transactions = new ArrayList<>();
+      for (int i = 1; i <= TX_COUNT_IN_BLOCK; ++i) {
+        transactions.add(key.sign(RawTransaction.newBuilder(ChainIdHash.EMPTY)
+            .from(key.getAddress())
+            .to(key.getAddress())
+            .amount(Aer.ZERO)
+            .nonce(i)
+            .payload(payloads.get(i % PAYLOAD_COUNT))
+            .build()));
+      }
+      client.getTransactionOperation().commit(transactions);
+      largeBlockHeight = node.produceBlock();
+    }
+
+    protected TransportProfile toProfile(final String name) {
+      switch (name) {
+        case "LOW_LATENCY":
+          return TransportProfile.LOW_LATENCY;
+        case "BULK_STREAMING":
+          return TransportProfile.BULK_STREAMING;
+        default:
+          return TransportProfile.DEFAULT;
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public synchronized void tearDown() throws IOException {
+      client.close();
+      node.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Sender {
+
+    protected final AergoKey key = new AergoKeyGenerator().create();
+
+    protected final List<BytesValue> payloads = payloads(Thread.currentThread().getId());
+
+    protected long nonce = 0L;
+
+    public List<Transaction> next() {
+      final List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+      for (int i = 0; i < BATCH_SIZE; ++i) {
+        batch.add(key.sign(RawTransaction.newBuilder(ChainIdHash.EMPTY)
+            .from(key.getAddress())
+            .to(key.getAddress())
+            .amount(Aer.ZERO)
+            .nonce(++nonce)
+            .payload(payloads.get((int) (nonce % PAYLOAD_COUNT)))
+            .build()));
+      }
+      return batch;
+    }
+  }
+
+  @Benchmark
+  public AccountState getState(final Node node) {
+    return node.client.getAccountOperation().getState(node.key.getAddress());
+  }
+
+  @Benchmark
+  public Block getLargeBlock(final Node node) {
+    return node.client.getBlockOperation().getBlock(node.largeBlockHeight);
+  }
+
+  @Benchmark
+  public List<TxCommitResult> commitBatch(final Node node, final Sender sender) {
+    return node.client.getTransactionOperation().commit(sender.next());
+  }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.fixture;
+
+import static hera.util.TransportUtils.copyFrom;
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.protobuf.ByteString;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.Aer;
+import hera.api.model.ContractAddress;
+import hera.exception.HerajException;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+
+/**
+ * An in-process aergo node serving a {@link FakeAergoService} on a loopback port. Connect a client
+ * to {@link #getEndpoint()} with a plain text channel.
+ *
+ * <pre>
+ * try (FakeAergoNode node = new FakeAergoNode().start()) {
+ *   node.setState(address, 0L, Aer.of("100", Unit.AERGO));
+ *   AergoClient client = new AergoClientBuilder().withEndpoint(node.getEndpoint()).build();
+ *   ...
+ * }
+ * </pre>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class FakeAergoNode implements Closeable {
+
+  protected final Logger logger = getLogger(getClass());
+
+  protected final FakeAergoService service;
+
+  protected Server server;
+
+  // null for no compression
+  protected volatile String responseCompression;
+
+  public FakeAergoNode() {
+    this(new FakeAergoService());
+  }
+
+  /**
+   * FakeAergoNode constructor with a scripted service.
+   *
+   * @param service a service to serve
+   */
+  public FakeAergoNode(final FakeAergoService service) {
+    assertNotNull(service, "Service must not null");
+    this.service = service;
+  }
+
+  /**
+   * Start serving on a free loopback port.
+   *
+   * @return an instance itself
+   */
+  public synchronized FakeAergoNode start() {
+    if (null != server) {
+      throw new HerajException("Already started");
+    }
+    try {
+      server = NettyServerBuilder
+          .forAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+          .directExecutor()
+          .addService(ServerInterceptors.intercept(service, new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+                final ServerCall<ReqT, RespT> call, final Metadata headers,
+                final ServerCallHandler<ReqT, RespT> next) {
+              final String compression = responseCompression;
+              if (null != compression) {
+                call.setCompression(compression);
+              }
+              return next.startCall(call, headers);
+            }
+          }))
+          .build()
+          .start();
+      logger.info("Fake aergo node started on {}", getEndpoint());
+      return this;
+    } catch (IOException e) {
+      throw new HerajException(e);
+    }
+  }
+
+  /**
+   * Get an endpoint to connect.
+   *
+   * @return an endpoint in a form of host:port
+   */
+  public String getEndpoint() {
+    if (null == server) {
+      throw new HerajException("Not started");
+    }
+    return InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort();
+  }
+
+  /**
+   * Get a service being served.
+   *
+   * @return a service
+   */
+  public FakeAergoService getService() {
+    return service;
+  }
+
+  /**
+   * Set a latency of unary responses.
+   *
+   * @param latency a latency in milliseconds
+   */
+  public void setLatency(final long latency) {
+    service.setLatency(latency);
+  }
+
+  /**
+   * Set a compression of responses. It applies to calls started afterward.
+   *
+   * @param compression a compressor name like "gzip". null for no compression
+   */
+  public void setResponseCompression(final String compression) {
+    this.responseCompression = compression;
+  }
+
+  /**
+   * Set an account state.
+   *
+   * @param address an account address
+   * @param nonce   a nonce
+   * @param balance a balance
+   */
+  public void setState(final AccountAddress address, final long nonce, final Aer balance) {
+    assertNotNull(address, "Address must not null");
+    assertNotNull(balance, "Balance must not null");
+    service.setState(copyFrom(address.getBytesValue()), nonce, balance);
+  }
+
+  /**
+   * Register a contract whose functions are all view ones answering the same query result.
+   *
+   * @param address       a contract address
+   * @param queryResult   a query result in json
+   * @param functionNames function names
+   */
+  public void putContract(final ContractAddress address, final String queryResult,
+      final String... functionNames) {
+    assertNotNull(address, "Address must not null");
+    assertNotNull(queryResult, "Query result must not null");
+    service.putContract(copyFrom(address.getBytesValue()),
+        ByteString.copyFromUtf8(queryResult), functionNames);
+  }
+
+  /**
+   * Make a block with committed transactions and send it to subscribers.
+   *
+   * @return a height of a new block
+   */
+  public long produceBlock() {
+    return service.produceBlock();
+  }
+
+  /**
+   * Emit a contract event in a best block to subscribers.
+   *
+   * @param address   a contract address
+   * @param eventName an event name
+   * @param jsonArgs  event arguments in a json array
+   */
+  public void emitEvent(final ContractAddress address, final String eventName,
+      final String jsonArgs) {
+    assertNotNull(address, "Address must not null");
+    service.emitEvent(copyFrom(address.getBytesValue()), eventName, jsonArgs);
+  }
+
+  /**
+   * Get a height of a best block.
+   *
+   * @return a best block height
+   */
+  public long getBestHeight() {
+    return service.getBestHeight();
+  }
+
+  @Override
+  public synchronized void close() {
+    service.close();
+    if (null == server) {
+      return;
+    }
+    server.shutdownNow();
+    try {
+      server.awaitTermination(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    server = null;
+  }
+
+}
@@ -0,0 +1,427 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.fixture;
+
+import static hera.util.TransportUtils.copyFrom;
+import static hera.util.TransportUtils.parseToAer;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.protobuf.ByteString;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.Aer;
+import hera.util.Sha256Utils;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import types.AergoRPCServiceGrpc;
+import types.Blockchain;
+import types.Rpc;
+
+/**
+ * A scriptable stand-in of an aergo node service. It keeps account states, blocks and contracts in
+ * memory and serves state, block, commit, contract query and stream requests. Transactions are
+ * applied on commit and included in a block made by {@link #produceBlock()}.
+ *
+ * <p>Unary responses are delayed by a configured latency without holding a server thread. Override
+ * a method to script other behavior; unsupported ones are answered with UNIMPLEMENTED.</p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class FakeAergoService extends AergoRPCServiceGrpc.AergoRPCServiceImplBase
+    implements Closeable {
+
+  protected final Logger logger = getLogger(getClass());
+
+  protected final ByteString chainIdHash = ByteString
+      .copyFrom(Sha256Utils.digest("fake-aergo".getBytes()));
+
+  protected final ScheduledExecutorService scheduler = Executors
+      .newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+          final Thread thread = new Thread(runnable, "fake-aergo-responder");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+
+  // in milliseconds
+  protected volatile long latency = 0L;
+
+  // guarded by this
+  protected final Map<ByteString, Blockchain.State> states = new HashMap<>();
+
+  // guarded by this
+  protected final List<Blockchain.Block> blocks = new ArrayList<>();
+
+  // guarded by this
+  protected final Map<ByteString, Blockchain.Block> hash2Block = new HashMap<>();
+
+  // committed but not in a block yet; guarded by this
+  protected final List<Blockchain.Tx> pending = new ArrayList<>();
+
+  protected final Map<ByteString, Blockchain.ABI> abis = new ConcurrentHashMap<>();
+
+  protected final Map<ByteString, ByteString> queryResults = new ConcurrentHashMap<>();
+
+  protected final List<StreamObserver<Blockchain.Block>> blockObservers =
+      new CopyOnWriteArrayList<>();
+
+  protected final List<StreamObserver<Rpc.BlockMetadata>> blockMetadataObservers =
+      new CopyOnWriteArrayList<>();
+
+  protected final Map<StreamObserver<Blockchain.Event>, Blockchain.FilterInfo> eventObservers =
+      new ConcurrentHashMap<>();
+
+  /**
+   * FakeAergoService constructor with a genesis block.
+   */
+  public FakeAergoService() {
+    produceBlock();
+  }
+
+  /**
+   * Set a latency of unary responses.
+   *
+   * @param latency a latency in milliseconds
+   */
+  public void setLatency(final long latency) {
+    if (latency < 0L) {
+      throw new IllegalArgumentException("Latency must not negative");
+    }
+    this.latency = latency;
+  }
+
+  /**
+   * Set an account state.
+   *
+   * @param rawAddress a raw account address
+   * @param nonce      a nonce
+   * @param balance    a balance
+   */
+  public synchronized void setState(final ByteString rawAddress, final long nonce,
+      final Aer balance) {
+    states.put(rawAddress, Blockchain.State.newBuilder()
+        .setNonce(nonce)
+        .setBalance(copyFrom(balance))
+        .build());
+  }
+
+  /**
+   * Register a contract whose functions are all view ones answering the same query result.
+   *
+   * @param rawAddress    a raw contract address
+   * @param queryResult   a raw query result
+   * @param functionNames function names
+   */
+  public void putContract(final ByteString rawAddress, final ByteString queryResult,
+      final String... functionNames) {
+    final Blockchain.ABI.Builder builder = Blockchain.ABI.newBuilder()
+        .setVersion("0.2")
+        .setLanguage("lua");
+    for (final String functionName : functionNames) {
+      builder.addFunctions(Blockchain.Function.newBuilder()
+          .setName(functionName)
+          .setView(true)
+          .build());
+    }
+    abis.put(rawAddress, builder.build());
+    queryResults.put(rawAddress, queryResult);
+  }
+
+  /**
+   * Make a block with pending transactions and send it to stream observers.
+   *
+   * @return a height of a new block
+   */
+  public synchronized long produceBlock() {
+    final long height = blocks.size();
+    final ByteString previousHash = blocks.isEmpty() ? ByteString.EMPTY
+        : blocks.get(blocks.size() - 1).getHash();
+    final long timestamp = System.currentTimeMillis() * 1000000L;
+    final Blockchain.BlockHeader header = Blockchain.BlockHeader.newBuilder()
+        .setChainID(chainIdHash)
+        .setPrevBlockHash(previousHash)
+        .setBlockNo(height)
+        .setTimestamp(timestamp)
+        .build();
+    final ByteString hash = ByteString.copyFrom(Sha256Utils.digest(previousHash.toByteArray(),
+        toLittleEndian(height), toLittleEndian(timestamp)));
+    final Blockchain.Block block = Blockchain.Block.newBuilder()
+        .setHash(hash)
+        .setHeader(header)
+        .setBody(Blockchain.BlockBody.newBuilder().addAllTxs(pending).build())
+        .build();
+    pending.clear();
+    blocks.add(block);
+    hash2Block.put(hash, block);
+
+    if (!blockObservers.isEmpty()) {
+      for (final StreamObserver<Blockchain.Block> observer : blockObservers) {
+        observer.onNext(block);
+      }
+    }
+    if (!blockMetadataObservers.isEmpty()) {
+      final Rpc.BlockMetadata metadata = Rpc.BlockMetadata.newBuilder()
+          .setHash(hash)
+          .setHeader(header)
+          .setTxcount(block.getBody().getTxsCount())
+          .build();
+      for (final StreamObserver<Rpc.BlockMetadata> observer : blockMetadataObservers) {
+        observer.onNext(metadata);
+      }
+    }
+    return height;
+  }
+
+  /**
+   * Emit a contract event in a best block to matching event stream observers.
+   *
+   * @param rawAddress a raw contract address
+   * @param eventName  an event name
+   * @param jsonArgs   event arguments in a json array
+   */
+  public synchronized void emitEvent(final ByteString rawAddress, final String eventName,
+      final String jsonArgs) {
+    final Blockchain.Block best = blocks.get(blocks.size() - 1);
+    final Blockchain.Event event = Blockchain.Event.newBuilder()
+        .setContractAddress(rawAddress)
+        .setEventName(eventName)
+        .setJsonArgs(jsonArgs)
+        .setBlockHash(best.getHash())
+        .setBlockNo(best.getHeader().getBlockNo())
+        .build();
+    for (final Map.Entry<StreamObserver<Blockchain.Event>, Blockchain.FilterInfo> entry
+        : eventObservers.entrySet()) {
+      final Blockchain.FilterInfo filter = entry.getValue();
+      if (filter.getContractAddress().equals(rawAddress)
+          && (filter.getEventName().isEmpty() || filter.getEventName().equals(eventName))) {
+        entry.getKey().onNext(event);
+      }
+    }
+  }
+
+  /**
+   * Get a height of a best block.
+   *
+   * @return a best block height
+   */
+  public synchronized long getBestHeight() {
+    return blocks.size() - 1;
+  }
+
+  @Override
+  public void blockchain(final Rpc.Empty request,
+      final StreamObserver<Rpc.BlockchainStatus> responseObserver) {
+    final Blockchain.Block best;
+    synchronized (this) {
+      best = blocks.get(blocks.size() - 1);
+    }
+    respond(responseObserver, Rpc.BlockchainStatus.newBuilder()
+        .setBestBlockHash(best.getHash())
+        .setBestHeight(best.getHeader().getBlockNo())
+        .setBestChainIdHash(chainIdHash)
+        .build());
+  }
+
+  @Override
+  public void getState(final Rpc.SingleBytes request,
+      final StreamObserver<Blockchain.State> responseObserver) {
+    Blockchain.State state;
+    synchronized (this) {
+      state = states.get(request.getValue());
+    }
+    if (null == state) {
+      state = Blockchain.State.newBuilder().build();
+    }
+    respond(responseObserver, state);
+  }
+
+  @Override
+  public void commitTX(final Blockchain.TxList request,
+      final StreamObserver<Rpc.CommitResultList> responseObserver) {
+    final Rpc.CommitResultList.Builder builder = Rpc.CommitResultList.newBuilder();
+    synchronized (this) {
+      for (final Blockchain.Tx tx : request.getTxsList()) {
+        builder.addResults(apply(tx));
+      }
+    }
+    respond(responseObserver, builder.build());
+  }
+
+  /**
+   * Apply a transaction to states. Must be called holding a lock of this.
+   */
+  protected Rpc.CommitResult apply(final Blockchain.Tx tx) {
+    final Blockchain.TxBody body = tx.getBody();
+    final Rpc.CommitResult.Builder builder = Rpc.CommitResult.newBuilder().setHash(tx.getHash());
+    final Blockchain.State sender = states.containsKey(body.getAccount())
+        ? states.get(body.getAccount()) : Blockchain.State.newBuilder().build();
+    if (body.getNonce() <= sender.getNonce()) {
+      return builder.setError(Rpc.CommitStatus.TX_NONCE_TOO_LOW)
+          .setDetail("nonce is too low")
+          .build();
+    }
+    final Aer amount = toAer(body.getAmount());
+    final Aer balance = toAer(sender.getBalance());
+    if (balance.compareTo(amount) < 0) {
+      return builder.setError(Rpc.CommitStatus.TX_INSUFFICIENT_BALANCE)
+          .setDetail("insufficient balance")
+          .build();
+    }
+    states.put(body.getAccount(), sender.toBuilder()
+        .setNonce(body.getNonce())
+        .setBalance(copyFrom(balance.subtract(amount)))
+        .build());
+    if (!body.getRecipient().isEmpty() && !amount.equals(Aer.ZERO)) {
+      final Blockchain.State recipient = states.containsKey(body.getRecipient())
+          ? states.get(body.getRecipient()) : Blockchain.State.newBuilder().build();
+      states.put(body.getRecipient(), recipient.toBuilder()
+          .setBalance(copyFrom(toAer(recipient.getBalance()).add(amount)))
+          .build());
+    }
+    pending.add(tx);
+    return builder.setError(Rpc.CommitStatus.TX_OK).build();
+  }
+
+  @Override
+  public void getBlock(final Rpc.SingleBytes request,
+      final StreamObserver<Blockchain.Block> responseObserver) {
+    final ByteString value = request.getValue();
+    Blockchain.Block block;
+    synchronized (this) {
+      if (8 == value.size()) {
+        final long height = value.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN).getLong();
+        block = 0 <= height && height < blocks.size() ? blocks.get((int) height) : null;
+      } else {
+        block = hash2Block.get(value);
+      }
+    }
+    if (null == block) {
+      responseObserver.onError(Status.NOT_FOUND.withDescription("block not found")
+          .asRuntimeException());
+      return;
+    }
+    respond(responseObserver, block);
+  }
+
+  @Override
+  public void getABI(final Rpc.SingleBytes request,
+      final StreamObserver<Blockchain.ABI> responseObserver) {
+    final Blockchain.ABI abi = abis.get(request.getValue());
+    if (null == abi) {
+      responseObserver.onError(Status.NOT_FOUND.withDescription("cannot find contract")
+          .asRuntimeException());
+      return;
+    }
+    respond(responseObserver, abi);
+  }
+
+  @Override
+  public void queryContract(final Blockchain.Query request,
+      final StreamObserver<Rpc.SingleBytes> responseObserver) {
+    final ByteString queryResult = queryResults.get(request.getContractAddress());
+    if (null == queryResult) {
+      responseObserver.onError(Status.NOT_FOUND.withDescription("cannot find contract")
+          .asRuntimeException());
+      return;
+    }
+    respond(responseObserver, Rpc.SingleBytes.newBuilder().setValue(queryResult).build());
+  }
+
+  @Override
+  public void listBlockStream(final Rpc.Empty request,
+      final StreamObserver<Blockchain.Block> responseObserver) {
+    register(blockObservers, responseObserver);
+  }
+
+  @Override
+  public void listBlockMetadataStream(final Rpc.Empty request,
+      final StreamObserver<Rpc.BlockMetadata> responseObserver) {
+    register(blockMetadataObservers, responseObserver);
+  }
+
+  @Override
+  public void listEventStream(final Blockchain.FilterInfo request,
+      final StreamObserver<Blockchain.Event> responseObserver) {
+    ((ServerCallStreamObserver<Blockchain.Event>) responseObserver)
+        .setOnCancelHandler(new Runnable() {
+          @Override
+          public void run() {
+            eventObservers.remove(responseObserver);
+          }
+        });
+    eventObservers.put(responseObserver, request);
+  }
+
+  protected <T> void register(final List<StreamObserver<T>> observers,
+      final StreamObserver<T> responseObserver) {
+    ((ServerCallStreamObserver<T>) responseObserver).setOnCancelHandler(new Runnable() {
+      @Override
+      public void run() {
+        observers.remove(responseObserver);
+      }
+    });
+    // blocks are sent holding a lock of this; don't add one in the middle
+    synchronized (this) {
+      observers.add(responseObserver);
+    }
+  }
+
+  protected <T> void respond(final StreamObserver<T> responseObserver, final T response) {
+    final long delay = latency;
+    if (0L == delay) {
+      responseObserver.onNext(response);
+      responseObserver.onCompleted();
+      return;
+    }
+    scheduler.schedule(new Runnable() {
+      @Override
+      public void run() {
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+      }
+    }, delay, MILLISECONDS);
+  }
+
+  protected Aer toAer(final ByteString raw) {
+    final Aer parsed = parseToAer(raw);
+    return parsed.equals(Aer.EMPTY) ? Aer.ZERO : parsed;
+  }
+
+  protected byte[] toLittleEndian(final long value) {
+    return ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(value).array();
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    for (final StreamObserver<Blockchain.Block> observer : blockObservers) {
+      observer.onCompleted();
+    }
+    for (final StreamObserver<Rpc.BlockMetadata> observer : blockMetadataObservers) {
+      observer.onCompleted();
+    }
+    for (final StreamObserver<Blockchain.Event> observer : eventObservers.keySet()) {
+      observer.onCompleted();
+    }
+  }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.fixture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import hera.api.model.AccountState;
+import hera.api.model.Aer;
+import hera.api.model.Block;
+import hera.api.model.BlockMetadata;
+import hera.api.model.ChainIdHash;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractInterface;
+import hera.api.model.ContractInvocation;
+import hera.api.model.ContractResult;
+import hera.api.model.RawTransaction;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Transaction;
+import hera.client.AergoClient;
+import hera.client.AergoClientBuilder;
+import hera.exception.CommitException;
+import hera.exception.CommitException.CommitStatus;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FakeAergoNodeTest {
+
+  protected final AergoKey key = new AergoKeyGenerator().create();
+
+  protected FakeAergoNode node;
+
+  protected AergoClient client;
+
+  @Before
+  public void setUp() {
+    node = new FakeAergoNode().start();
+    client = new AergoClientBuilder().withEndpoint(node.getEndpoint()).build();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    client.close();
+    node.close();
+  }
+
+  protected Transaction supplyTransaction(final long nonce, final Aer amount) {
+    final RawTransaction rawTransaction = RawTransaction.newBuilder(ChainIdHash.EMPTY)
+        .from(key.getAddress())
+        .to(new AergoKeyGenerator().create().getAddress())
+        .amount(amount)
+        .nonce(nonce)
+        .build();
+    return key.sign(rawTransaction);
+  }
+
+  @Test
+  public void testGetState() {
+    // given
+    node.setState(key.getAddress(), 3L, Aer.of("100"));
+
+    // when
+    final AccountState state = client.getAccountOperation().getState(key.getAddress());
+
+    // then
+    assertEquals(3L, state.getNonce());
+    assertEquals(Aer.of("100"), state.getBalance());
+  }
+
+  @Test
+  public void testCommit() {
+    // given
+    node.setState(key.getAddress(), 0L, Aer.of("100"));
+
+    // when
+    assertNotNull(client.getTransactionOperation().commit(supplyTransaction(1L, Aer.of("10"))));
+    try {
+      client.getTransactionOperation().commit(supplyTransaction(1L, Aer.of("10")));
+      fail();
+    } catch (CommitException e) {
+      // then
+      assertEquals(CommitStatus.NONCE_TOO_LOW, e.getCommitStatus());
+    }
+    final AccountState state = client.getAccountOperation().getState(key.getAddress());
+    assertEquals(1L, state.getNonce());
+    assertEquals(Aer.of("90"), state.getBalance());
+  }
+
+  @Test
+  public void testGetBlock() {
+    // given
+    node.setState(key.getAddress(), 0L, Aer.of("100"));
+    client.getTransactionOperation().commit(supplyTransaction(1L, Aer.ZERO));
+
+    // when
+    final long height = node.produceBlock();
+
+    // then
+    final Block block = client.getBlockOperation().getBlock(height);
+    assertEquals(height, block.getBlockNumber());
+    assertEquals(1, block.getTransactions().size());
+    assertEquals(block.getHash(), client.getBlockOperation().getBlock(block.getHash()).getHash());
+    assertNull(client.getBlockOperation().getBlock(height + 1));
+  }
+
+  @Test
+  public void testSubscribe() throws Exception {
+    // given
+    final List<BlockMetadata> received = Collections
+        .synchronizedList(new ArrayList<BlockMetadata>());
+    final Subscription<BlockMetadata> subscription = client.getBlockOperation()
+        .subscribeNewBlockMetadata(new StreamObserver<BlockMetadata>() {
+          @Override
+          public void onNext(final BlockMetadata value) {
+            received.add(value);
+          }
+
+          @Override
+          public void onError(final Throwable t) {
+          }
+
+          @Override
+          public void onCompleted() {
+          }
+        });
+
+    // when
+    // a stream is registered asynchronously; produce until received
+    final long deadline = System.currentTimeMillis() + 5000L;
+    while (received.isEmpty() && System.currentTimeMillis() < deadline) {
+      node.produceBlock();
+      Thread.sleep(10L);
+    }
+    subscription.unsubscribe();
+
+    // then
+    assertTrue(!received.isEmpty());
+  }
+
+  @Test
+  public void testQuery() throws Exception {
+    // given
+    final ContractAddress contractAddress = new AergoKeyGenerator().create().getAddress()
+        .adapt(ContractAddress.class);
+    node.putContract(contractAddress, "{\"value\":1}", "get");
+
+    // when
+    final ContractInterface contractInterface = client.getContractOperation()
+        .getContractInterface(contractAddress);
+    final ContractInvocation invocation = contractInterface.newInvocationBuilder()
+        .function("get")
+        .build();
+    final ContractResult result = client.getContractOperation().query(invocation);
+
+    // then
+    assertEquals("{\"value\":1}", new String(result.getResultInRawBytes().getValue()));
+  }
+
+}
@@ -14,6 +14,7 @@ import hera.api.model.ChainIdHash;
 import hera.exception.HerajException;
 import org.slf4j.Logger;
 import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
 
 abstract class AbstractMethods {
@@ -30,6 +31,16 @@ abstract class AbstractMethods {
     return grpcClient.getBlockingStub();
   }
 
+  protected AergoRPCServiceFutureStub getFutureStub() {
+    final Context current = ContextHolder.current();
+    final GrpcClient grpcClient = current.get(GRPC_CLIENT);
+    if (null == grpcClient) {
+      throw new HerajException("No grpc client in context");
+    }
+    logger.trace("GrpcClient: {}", grpcClient);
+    return grpcClient.getFutureStub();
+  }
+
   protected AergoRPCServiceStub getStreamStub() {
     final Context current = ContextHolder.current();
     final GrpcClient grpcClient = current.get(GRPC_CLIENT);
@@ -10,23 +10,29 @@ import static hera.client.Methods.ACCOUNT_NAMEOWNER;
 import static hera.client.Methods.ACCOUNT_STAKEINFO;
 import static hera.client.Methods.ACCOUNT_STAKETX;
 import static hera.client.Methods.ACCOUNT_STATE;
+import static hera.client.Methods.ACCOUNT_STATE_BATCH;
 import static hera.client.Methods.ACCOUNT_UNSTAKETX;
 import static hera.client.Methods.ACCOUNT_UPDATENAMETX;
 import static hera.client.Methods.ACCOUNT_VOTESOF;
 import static hera.client.Methods.ACCOUNT_VOTETX;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.protobuf.ByteString;
 import hera.RequestMethod;
+import hera.api.function.Function1;
 import hera.api.model.AccountAddress;
 import hera.api.model.AccountState;
 import hera.api.model.AccountTotalVote;
 import hera.api.model.Aer;
+import hera.api.model.BlockchainStatus;
 import hera.api.model.BytesValue;
 import hera.api.model.ElectedCandidate;
 import hera.api.model.Name;
 import hera.api.model.RawTransaction;
 import hera.api.model.StakeInfo;
+import hera.api.model.StateBatch;
+import hera.api.model.StateBatchResult;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.api.transaction.CreateNameTransactionBuilder;
@@ -34,6 +40,7 @@ import hera.api.transaction.StakeTransactionBuilder;
 import hera.api.transaction.UnstakeTransactionBuilder;
 import hera.api.transaction.UpdateNameTransactionBuilder;
 import hera.api.transaction.VoteTransactionBuilder;
+import hera.exception.HerajException;
 import hera.key.Signer;
 import hera.transport.AccountAddressConverterFactory;
 import hera.transport.AccountStateConverterFactory;
@@ -41,9 +48,13 @@ import hera.transport.AccountTotalVoteConverterFactory;
 import hera.transport.ElectedCandidateConverterFactory;
 import hera.transport.ModelConverter;
 import hera.transport.StakeInfoConverterFactory;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import org.slf4j.Logger;
 import types.Blockchain;
@@ -70,6 +81,8 @@ class AccountMethods extends AbstractMethods {
 
   protected final TransactionMethods transactionMethods = new TransactionMethods();
 
+  protected final BlockchainMethods blockchainMethods = new BlockchainMethods();
+
   @Getter
   protected final RequestMethod<AccountState> accountState = new RequestMethod<AccountState>() {
 
@@ -100,6 +113,84 @@ class AccountMethods extends AbstractMethods {
     }
   };
 
+  @Getter
+  protected final RequestMethod<StateBatchResult> stateBatch =
+      new RequestMethod<StateBatchResult>() {
+
+        @Getter
+        protected final String name = ACCOUNT_STATE_BATCH;
+
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, StateBatch.class);
+        }
+
+        @Override
+        protected StateBatchResult runInternal(final List<Object> parameters) throws Exception {
+          final StateBatch stateBatch = (StateBatch) parameters.get(0);
+          logger.debug("GetState with batch: {}", stateBatch);
+
+          // addresses are already distinct
+          final List<AccountAddress> addresses = stateBatch.getAddresses();
+          final List<Rpc.SingleBytes> rpcAddresses = new ArrayList<>(addresses.size());
+          for (final AccountAddress address : addresses) {
+            rpcAddresses.add(Rpc.SingleBytes.newBuilder()
+                .setValue(accountAddressConverter.convertToRpcModel(address))
+                .build());
+          }
+
+          int attempts = 0;
+          while (true) {
+            ++attempts;
+            // always taken to tag the result with a block
+            final BlockchainStatus before = blockchainMethods.getBlockchainStatus().invoke();
+            final List<Blockchain.State> rpcStates =
+                getStatesConcurrently(rpcAddresses, stateBatch.getConcurrency());
+            if (stateBatch.isPinToBestBlock()) {
+              final BlockchainStatus after = blockchainMethods.getBlockchainStatus().invoke();
+              if (!before.getBestBlockHash().equals(after.getBestBlockHash())) {
+                if (attempts > stateBatch.getMaxRetry()) {
+                  throw new HerajException(String.format(
+                      "Best block has been changed during state batch (attempts: %d)", attempts));
+                }
+                logger.debug("Best block has been changed from {} to {}, retry state batch",
+                    before.getBestHeight(), after.getBestHeight());
+                continue;
+              }
+            }
+
+            final Map<AccountAddress, AccountState> states = new LinkedHashMap<>();
+            for (int i = 0; i < addresses.size(); ++i) {
+              final AccountAddress address = addresses.get(i);
+              final AccountState withoutAddress =
+                  accountStateConverter.convertToDomainModel(rpcStates.get(i));
+              states.put(address, AccountState.newBuilder().address(address)
+                  .nonce(withoutAddress.getNonce())
+                  .balance(withoutAddress.getBalance())
+                  .build());
+            }
+            return StateBatchResult.newBuilder()
+                .states(Collections.unmodifiableMap(states))
+                .blockNumber(before.getBestHeight())
+                .blockHash(before.getBestBlockHash())
+                .attempts(attempts)
+                .build();
+          }
+        }
+      };
+
+  protected List<Blockchain.State> getStatesConcurrently(final List<Rpc.SingleBytes> rpcAddresses,
+      final int concurrency) throws Exception {
+    return ConcurrentCalls.callInOrder(rpcAddresses, concurrency,
+        new Function1<Rpc.SingleBytes, ListenableFuture<Blockchain.State>>() {
+          @Override
+          public ListenableFuture<Blockchain.State> apply(final Rpc.SingleBytes rpcAddress) {
+            logger.trace("AergoService getstate arg: {}", rpcAddress);
+            return getFutureStub().getState(rpcAddress);
+          }
+        });
+  }
+
   @Getter
   protected final RequestMethod<TxHash> createNameTx = new RequestMethod<TxHash>() {
 
@@ -16,11 +16,14 @@ import hera.api.model.ElectedCandidate;
 import hera.api.model.Name;
 import hera.api.model.RawTransaction;
 import hera.api.model.StakeInfo;
+import hera.api.model.StateBatch;
+import hera.api.model.StateBatchResult;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.key.AergoSignVerifier;
 import hera.key.Signer;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 class AccountTemplate extends AbstractTemplate implements AccountOperation {
@@ -41,6 +44,16 @@ class AccountTemplate extends AbstractTemplate implements AccountOperation {
     return request(accountMethods.getAccountState(), Arrays.<Object>asList(address));
   }
 
+  @Override
+  public StateBatchResult getStates(final Collection<AccountAddress> addresses) {
+    return getStates(StateBatch.of(addresses));
+  }
+
+  @Override
+  public StateBatchResult getStates(final StateBatch stateBatch) {
+    return request(accountMethods.getStateBatch(), Arrays.<Object>asList(stateBatch));
+  }
+
   @Override
   public TxHash createName(final Account account, final String name, final long nonce) {
     return createNameTx(account.getKey(), Name.of(name), nonce);
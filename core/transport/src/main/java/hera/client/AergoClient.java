@@ -28,6 +28,14 @@ public interface AergoClient extends AergoApi, Closeable {
    */
   void cacheChainIdHash(ChainIdHash chainIdHash);
 
+  /**
+   * Get a block feed shared by this client. It's made on the first call and closed with this
+   * client.
+   *
+   * @return a block feed
+   */
+  BlockFeed getBlockFeed();
+
   void close();
 
 }
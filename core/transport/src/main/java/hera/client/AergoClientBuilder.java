@@ -7,10 +7,14 @@ package hera.client;
 import static hera.client.ClientContextKeys.GRPC_CLIENT;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_ENDPOINT;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_NEGOTIATION;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_PROFILE;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_RESOURCES;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_STRATEGY;
 import static hera.client.ClientContextKeys.GRPC_FAILOVER_HANDLER_CHAIN;
 import static hera.client.ClientContextKeys.GRPC_REQUEST_TIMEOUT;
 import static hera.client.ClientContextKeys.GRPC_VALUE_CHAIN_ID_HASH_HOLDER;
+import static hera.client.ClientContextKeys.GRPC_VALUE_CONTRACT_INTERFACE_REGISTRY;
+import static hera.util.ValidationUtils.assertNotNull;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import hera.Context;
@@ -27,6 +31,8 @@ import hera.strategy.OkHttpConnectStrategy;
 import hera.strategy.PlainTextChannelStrategy;
 import hera.strategy.TimeoutStrategy;
 import hera.strategy.TlsChannelStrategy;
+import hera.util.conf.InMemoryConfiguration;
+import hera.util.conf.ReloadableConfiguration;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -46,6 +52,15 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
   protected final Map<Object, Object> key2Value = new HashMap<>();
   protected final List<ComparableFailoverHandler> failoverHandlers = new ArrayList<>();
 
+  // read back as a fixed tuning if it has tuning keys and no tuning is given
+  protected final InMemoryConfiguration configuration = new InMemoryConfiguration();
+  protected boolean hasTuningKey = false;
+  protected ReloadableConfiguration<ClientTuning> tuning;
+
+  // values of keys not configured are taken from these
+  protected Time timeout;
+  protected JustRetryFailoverHandler retry;
+
   {
     // add built-in holders
     key2Value.put(GRPC_VALUE_CHAIN_ID_HASH_HOLDER, new ChainIdHashHolder());
@@ -57,6 +72,8 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
   @Override
   public AergoClientBuilder addConfiguration(final String key, final String value) {
     this.key2Value.put(Key.of(key, String.class), value);
+    this.configuration.define(key, value);
+    this.hasTuningKey |= key.startsWith(ClientTuning.PREFIX);
     return this;
   }
 
@@ -108,13 +125,70 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
 
   @Override
   public AergoClientBuilder withTimeout(final long timeout, final TimeUnit unit) {
-    this.key2Value.put(GRPC_REQUEST_TIMEOUT, new TimeoutStrategy(Time.of(timeout, unit)));
+    this.timeout = Time.of(timeout, unit);
+    this.key2Value.put(GRPC_REQUEST_TIMEOUT, new TimeoutStrategy(this.timeout));
     return this;
   }
 
   @Override
   public AergoClientBuilder withRetry(int count, long interval, TimeUnit unit) {
-    this.failoverHandlers.add(new JustRetryFailoverHandler(count, Time.of(interval, unit)));
+    this.retry = new JustRetryFailoverHandler(count, Time.of(interval, unit));
+    this.failoverHandlers.add(this.retry);
+    return this;
+  }
+
+  /**
+   * Cache contract interfaces in a registry. A contract interface is fetched from a node on every
+   * lookup unless it's set. Use the same registry only for clients connected to the same chain.
+   *
+   * @param contractInterfaceRegistry a contract interface registry
+   * @return an instance of this
+   */
+  public AergoClientBuilder withContractInterfaceRegistry(
+      final ContractInterfaceRegistry contractInterfaceRegistry) {
+    assertNotNull(contractInterfaceRegistry, "Contract interface registry must not null");
+    this.key2Value.put(GRPC_VALUE_CONTRACT_INTERFACE_REGISTRY, contractInterfaceRegistry);
+    return this;
+  }
+
+  /**
+   * Use transport settings of {@code profile} for a channel. eg.
+   * {@link TransportProfile#BULK_STREAMING} for large blocks and event streams.
+   *
+   * @param profile a transport profile
+   * @return an instance of this
+   */
+  public AergoClientBuilder withTransportProfile(final TransportProfile profile) {
+    assertNotNull(profile, "Transport profile must not null");
+    this.key2Value.put(GRPC_CONNECTION_PROFILE, profile);
+    return this;
+  }
+
+  /**
+   * Run a channel on shared {@code resources} instead of its own threads. A client holds a
+   * reference of {@code resources} from when it's built until it's closed, and closing it doesn't
+   * shut them down.
+   *
+   * @param resources shared transport resources
+   * @return an instance of this
+   */
+  public AergoClientBuilder withTransportResources(final TransportResources resources) {
+    assertNotNull(resources, "Transport resources must not null");
+    this.key2Value.put(GRPC_CONNECTION_RESOURCES, resources);
+    return this;
+  }
+
+  /**
+   * Use a timeout and a retry of {@code tuning}, read on every request. A reload of
+   * {@code tuning} applies to a built client at once. They replace ones given by
+   * {@link #withTimeout(long, TimeUnit)} and {@link #withRetry(int, long, TimeUnit)}.
+   *
+   * @param tuning a reloadable client tuning
+   * @return an instance of this
+   */
+  public AergoClientBuilder withTuning(final ReloadableConfiguration<ClientTuning> tuning) {
+    assertNotNull(tuning, "Tuning must not null");
+    this.tuning = tuning;
     return this;
   }
 
@@ -140,14 +214,59 @@ public class AergoClientBuilder implements ClientConfiguer<AergoClientBuilder> {
       context = context.withValue(key, entry.getValue());
     }
 
+    final List<ComparableFailoverHandler> handlers = new ArrayList<>(failoverHandlers);
+    final ReloadableConfiguration<ClientTuning> actualTuning = resolveTuning();
+    if (null != actualTuning) {
+      logger.debug("Use tuning: {}", actualTuning);
+      context = context.withValue(GRPC_REQUEST_TIMEOUT, new TunedTimeoutStrategy(actualTuning));
+      final List<ComparableFailoverHandler> retries = new ArrayList<>();
+      for (final ComparableFailoverHandler handler : handlers) {
+        if (handler instanceof JustRetryFailoverHandler) {
+          retries.add(handler);
+        }
+      }
+      handlers.removeAll(retries);
+      handlers.add(new TunedRetryFailoverHandler(actualTuning));
+    }
+
     // failover handlers have priority
-    final FailoverHandlerChain failoverHandlerChain = new FailoverHandlerChain(failoverHandlers);
+    final FailoverHandlerChain failoverHandlerChain = new FailoverHandlerChain(handlers);
     context = context.withValue(GRPC_FAILOVER_HANDLER_CHAIN, failoverHandlerChain);
 
     // init grpc client
-    context = context.withValue(GRPC_CLIENT, new GrpcClientImpl());
+    // retain shared resources now, not on the first request
+    context = context.withValue(GRPC_CLIENT,
+        new GrpcClientImpl(context.get(GRPC_CONNECTION_RESOURCES)));
 
     return context;
   }
 
+  protected ReloadableConfiguration<ClientTuning> resolveTuning() {
+    if (null != tuning) {
+      return tuning;
+    }
+    if (hasTuningKey) {
+      // override only configured keys
+      return new ReloadableConfiguration<>(ClientTuning.binder(explicitTuning()), configuration);
+    }
+    return null;
+  }
+
+  /**
+   * Make a tuning of a timeout and a retry given by {@link #withTimeout(long, TimeUnit)} and
+   * {@link #withRetry(int, long, TimeUnit)}.
+   *
+   * @return a tuning with explicit settings
+   */
+  protected ClientTuning explicitTuning() {
+    final ClientTuning.ClientTuningBuilder builder = ClientTuning.newBuilder();
+    if (null != timeout) {
+      builder.timeout(timeout.toMilliseconds());
+    }
+    if (null != retry) {
+      builder.retryCount(retry.count).retryInterval(retry.interval);
+    }
+    return builder.build();
+  }
+
 }
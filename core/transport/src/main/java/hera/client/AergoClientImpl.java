@@ -48,6 +48,23 @@ class AergoClientImpl implements AergoClient {
   @Getter(lazy = true)
   private final ContractOperation contractOperation = new ContractTemplate(contextStorage);
 
+  private volatile BlockFeed blockFeed;
+
+  @Override
+  public BlockFeed getBlockFeed() {
+    BlockFeed feed = blockFeed;
+    if (null == feed) {
+      synchronized (this) {
+        feed = blockFeed;
+        if (null == feed) {
+          feed = new BlockFeed(getBlockOperation());
+          blockFeed = feed;
+        }
+      }
+    }
+    return feed;
+  }
+
   @Override
   public ChainIdHash getCachedChainIdHash() {
     final Context context = contextStorage.get();
@@ -72,6 +89,10 @@ class AergoClientImpl implements AergoClient {
   @Override
   public void close() {
     try {
+      final BlockFeed feed = blockFeed;
+      if (null != feed) {
+        feed.close();
+      }
       final Context context = contextStorage.get();
       final GrpcClient grpcClient = context.get(GRPC_CLIENT);
       if (null == grpcClient) {
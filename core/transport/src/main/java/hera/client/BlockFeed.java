@@ -0,0 +1,511 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.BlockOperation;
+import hera.api.model.Block;
+import hera.api.model.BlockMetadata;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+
+/**
+ * A shared hot block stream. It keeps a single upstream stream for blocks and another for block
+ * metadata, so that a block is received and converted once however many observers there are.
+ *
+ * <p>Each observer has its own bounded queue drained by one of a bounded number of feed threads,
+ * a batch at a time. A slow observer doesn't hold up the upstream; once its queue is full, the
+ * oldest block in it is dropped and counted in {@link FeedSubscription#getDroppedCount()}. Note
+ * that observers blocking as many as feed threads delay the others.</p>
+ *
+ * <p>The last blocks are kept in a history and a late observer may ask to replay some of them
+ * before new ones. An upstream stream is opened on the first observer and kept open until the feed
+ * is closed so that the history stays up to date. An error of an upstream stream is delivered to
+ * all of its observers after their queued blocks and ends them. The next observer opens it again
+ * with an empty history, since blocks made while it was down are missed and a replay mustn't
+ * skip over them.</p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class BlockFeed implements Closeable {
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+  public static final int DEFAULT_HISTORY_SIZE = 16;
+
+  public static final int DEFAULT_FEED_THREADS =
+      Math.max(2, Runtime.getRuntime().availableProcessors());
+
+  // values delivered to an observer before yielding a feed thread to others
+  protected static final int MAX_DELIVERIES_PER_RUN = 64;
+
+  protected static final AtomicInteger feedId = new AtomicInteger(0);
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final BlockOperation blockOperation;
+
+  protected final int queueCapacity;
+
+  protected final int historySize;
+
+  protected final ThreadPoolExecutor executor;
+
+  protected final Hub<Block> blockHub = new Hub<Block>("block") {
+    @Override
+    protected Subscription<Block> openUpstream(final StreamObserver<Block> observer) {
+      return blockOperation.subscribeBlock(observer);
+    }
+  };
+
+  // block size of metadata can't be made from a block
+  protected final Hub<BlockMetadata> metadataHub = new Hub<BlockMetadata>("block metadata") {
+    @Override
+    protected Subscription<BlockMetadata> openUpstream(
+        final StreamObserver<BlockMetadata> observer) {
+      return blockOperation.subscribeBlockMetadata(observer);
+    }
+  };
+
+  protected volatile boolean closed = false;
+
+  /**
+   * BlockFeed constructor.
+   *
+   * @param blockOperation a block operation opening upstream streams
+   */
+  public BlockFeed(final BlockOperation blockOperation) {
+    this(blockOperation, DEFAULT_QUEUE_CAPACITY, DEFAULT_HISTORY_SIZE);
+  }
+
+  /**
+   * BlockFeed constructor.
+   *
+   * @param blockOperation a block operation opening upstream streams
+   * @param queueCapacity  a maximum number of blocks queued for an observer
+   * @param historySize    a number of the last blocks kept for a replay
+   */
+  public BlockFeed(final BlockOperation blockOperation, final int queueCapacity,
+      final int historySize) {
+    this(blockOperation, queueCapacity, historySize, DEFAULT_FEED_THREADS);
+  }
+
+  /**
+   * BlockFeed constructor.
+   *
+   * @param blockOperation a block operation opening upstream streams
+   * @param queueCapacity  a maximum number of blocks queued for an observer
+   * @param historySize    a number of the last blocks kept for a replay
+   * @param feedThreads    a maximum number of threads delivering to observers
+   */
+  public BlockFeed(final BlockOperation blockOperation, final int queueCapacity,
+      final int historySize, final int feedThreads) {
+    assertNotNull(blockOperation, "Block operation must not null");
+    assertTrue(0 < queueCapacity, "Queue capacity must be positive");
+    assertTrue(0 <= historySize, "History size must not negative");
+    assertTrue(0 < feedThreads, "Feed threads must be positive");
+    this.blockOperation = blockOperation;
+    this.queueCapacity = queueCapacity;
+    this.historySize = historySize;
+    final int id = feedId.incrementAndGet();
+    // a sink is queued at most once at a time, so the queue is bounded by observers
+    this.executor = new ThreadPoolExecutor(feedThreads, feedThreads, 1L, TimeUnit.MINUTES,
+        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+          protected final AtomicInteger threadId = new AtomicInteger(0);
+
+          @Override
+          public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable,
+                "block-feed-" + id + "-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Subscribe new blocks.
+   *
+   * @param observer a stream observer
+   * @return a subscription
+   */
+  public FeedSubscription<Block> subscribeBlock(final StreamObserver<Block> observer) {
+    return subscribeBlock(observer, 0);
+  }
+
+  /**
+   * Subscribe new blocks after replaying at most {@code replayCount} of the last blocks.
+   *
+   * @param observer    a stream observer
+   * @param replayCount a number of the last blocks to replay. It can't exceed a history size
+   * @return a subscription
+   */
+  public FeedSubscription<Block> subscribeBlock(final StreamObserver<Block> observer,
+      final int replayCount) {
+    return blockHub.subscribe(observer, replayCount);
+  }
+
+  /**
+   * Subscribe new block metadata.
+   *
+   * @param observer a stream observer
+   * @return a subscription
+   */
+  public FeedSubscription<BlockMetadata> subscribeBlockMetadata(
+      final StreamObserver<BlockMetadata> observer) {
+    return subscribeBlockMetadata(observer, 0);
+  }
+
+  /**
+   * Subscribe new block metadata after replaying at most {@code replayCount} of the last ones.
+   *
+   * @param observer    a stream observer
+   * @param replayCount a number of the last block metadata to replay. It can't exceed a history
+   *                    size
+   * @return a subscription
+   */
+  public FeedSubscription<BlockMetadata> subscribeBlockMetadata(
+      final StreamObserver<BlockMetadata> observer, final int replayCount) {
+    return metadataHub.subscribe(observer, replayCount);
+  }
+
+  /**
+   * Get the number of open upstream streams.
+   *
+   * @return the number of open upstream streams
+   */
+  public int getUpstreamCount() {
+    return (blockHub.isOpen() ? 1 : 0) + (metadataHub.isOpen() ? 1 : 0);
+  }
+
+  /**
+   * Get the number of active observers.
+   *
+   * @return the number of active observers
+   */
+  public int getObserverCount() {
+    return blockHub.size() + metadataHub.size();
+  }
+
+  /**
+   * Close upstream streams. Observers left are completed after their queued blocks.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    blockHub.close();
+    metadataHub.close();
+    executor.shutdown();
+  }
+
+  /**
+   * A subscription of a block feed.
+   *
+   * @param <T> a type of a value
+   */
+  @ApiAudience.Public
+  @ApiStability.Unstable
+  public interface FeedSubscription<T> extends Subscription<T> {
+
+    /**
+     * Get the number of values dropped since a queue was full.
+     *
+     * @return the number of dropped values
+     */
+    long getDroppedCount();
+
+    /**
+     * Get the number of values waiting in a queue.
+     *
+     * @return the number of queued values
+     */
+    int getQueueDepth();
+  }
+
+  /**
+   * An upstream stream with its history and observers.
+   *
+   * @param <T> a type of a value
+   */
+  protected abstract class Hub<T> implements StreamObserver<T> {
+
+    protected final String name;
+
+    // guarded by this
+    protected final ArrayDeque<T> history = new ArrayDeque<>();
+
+    protected final List<Sink<T>> sinks = new ArrayList<>();
+
+    protected Subscription<T> upstream;
+
+    Hub(final String name) {
+      this.name = name;
+    }
+
+    protected abstract Subscription<T> openUpstream(StreamObserver<T> observer);
+
+    protected FeedSubscription<T> subscribe(final StreamObserver<T> observer,
+        final int replayCount) {
+      assertNotNull(observer, "Stream observer must not null");
+      assertTrue(0 <= replayCount && replayCount <= historySize,
+          "Replay count must be between 0 and " + historySize);
+      final Sink<T> sink = new Sink<>(this, observer);
+      synchronized (this) {
+        if (closed) {
+          throw new IllegalStateException(BlockFeed.this + " is closed");
+        }
+        if (null == upstream) {
+          upstream = openUpstream(this);
+          logger.debug("Upstream opened for {}", name);
+        }
+        // replay and join under the same lock so nothing is missed or repeated
+        final Iterator<T> it = history.iterator();
+        for (int skip = history.size() - replayCount; 0 < skip; --skip) {
+          it.next();
+        }
+        while (it.hasNext()) {
+          sink.offer(it.next());
+        }
+        sinks.add(sink);
+      }
+      return sink;
+    }
+
+    protected synchronized boolean isOpen() {
+      return null != upstream;
+    }
+
+    protected synchronized int size() {
+      return sinks.size();
+    }
+
+    protected synchronized void remove(final Sink<T> sink) {
+      sinks.remove(sink);
+    }
+
+    protected void close() {
+      final Subscription<T> left;
+      synchronized (this) {
+        left = upstream;
+        upstream = null;
+      }
+      if (null != left) {
+        left.unsubscribe();
+      }
+      end(null);
+    }
+
+    protected void end(final Throwable cause) {
+      final List<Sink<T>> ended;
+      synchronized (this) {
+        upstream = null;
+        // a reopened stream starts after a gap
+        history.clear();
+        ended = new ArrayList<>(sinks);
+        sinks.clear();
+      }
+      for (final Sink<T> sink : ended) {
+        sink.end(cause);
+      }
+    }
+
+    @Override
+    public void onNext(final T value) {
+      synchronized (this) {
+        if (0 < historySize) {
+          if (historySize <= history.size()) {
+            history.poll();
+          }
+          history.add(value);
+        }
+        for (final Sink<T> sink : sinks) {
+          sink.offer(value);
+        }
+      }
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      logger.info("Upstream for {} failed: {}", name, t.toString());
+      end(t);
+    }
+
+    @Override
+    public void onCompleted() {
+      end(null);
+    }
+  }
+
+  /**
+   * An observer with its own queue. Queued values are delivered in order by a single feed thread
+   * at a time, which is yielded to other observers after {@link #MAX_DELIVERIES_PER_RUN} values.
+   *
+   * @param <T> a type of a value
+   */
+  protected class Sink<T> implements FeedSubscription<T>, Runnable {
+
+    protected final Hub<T> hub;
+
+    protected final StreamObserver<T> observer;
+
+    // guarded by this
+    protected final ArrayDeque<T> queue = new ArrayDeque<>();
+
+    protected long droppedCount = 0L;
+
+    protected boolean scheduled = false;
+
+    protected boolean ended = false;
+
+    protected boolean terminated = false;
+
+    protected Throwable cause;
+
+    protected volatile boolean cancelled = false;
+
+    Sink(final Hub<T> hub, final StreamObserver<T> observer) {
+      this.hub = hub;
+      this.observer = observer;
+    }
+
+    protected synchronized void offer(final T value) {
+      if (cancelled || ended) {
+        return;
+      }
+      if (queueCapacity <= queue.size()) {
+        queue.poll();
+        ++droppedCount;
+      }
+      queue.add(value);
+      schedule();
+    }
+
+    protected synchronized void end(final Throwable cause) {
+      if (cancelled || ended) {
+        return;
+      }
+      this.ended = true;
+      this.cause = cause;
+      schedule();
+    }
+
+    // guarded by this
+    protected void schedule() {
+      if (scheduled) {
+        return;
+      }
+      scheduled = true;
+      try {
+        executor.execute(this);
+      } catch (final RejectedExecutionException e) {
+        logger.debug("Feed is shut down; dropping {} queued value(s)", queue.size());
+        scheduled = false;
+        queue.clear();
+      }
+    }
+
+    @Override
+    public void run() {
+      int delivered = 0;
+      while (true) {
+        final T next;
+        final boolean terminate;
+        synchronized (this) {
+          if (MAX_DELIVERIES_PER_RUN <= delivered
+              && (!queue.isEmpty() || (ended && !terminated))) {
+            try {
+              executor.execute(this);
+              return;
+            } catch (final RejectedExecutionException e) {
+              // shut down; finish queued ones in this thread
+              delivered = 0;
+            }
+          }
+          next = queue.poll();
+          terminate = null == next && ended && !terminated;
+          if (null == next && !terminate) {
+            scheduled = false;
+            return;
+          }
+          if (terminate) {
+            terminated = true;
+          }
+        }
+        if (cancelled) {
+          continue;
+        }
+        ++delivered;
+        try {
+          if (terminate) {
+            if (null != cause) {
+              observer.onError(cause);
+            } else {
+              observer.onCompleted();
+            }
+          } else {
+            observer.onNext(next);
+          }
+        } catch (final Throwable e) {
+          logger.debug("Unexpected exception in observer", e);
+        }
+      }
+    }
+
+    @Override
+    public void unsubscribe() {
+      if (cancelled) {
+        return;
+      }
+      cancelled = true;
+      hub.remove(this);
+      synchronized (this) {
+        queue.clear();
+      }
+    }
+
+    @Override
+    public synchronized boolean isUnsubscribed() {
+      return cancelled || ended;
+    }
+
+    @Override
+    public synchronized long getDroppedCount() {
+      return droppedCount;
+    }
+
+    @Override
+    public synchronized int getQueueDepth() {
+      return queue.size();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("BlockFeed.Sink(hub=%s, queueDepth=%d, droppedCount=%d)", hub.name,
+          getQueueDepth(), getDroppedCount());
+    }
+  }
+
+}
@@ -25,6 +25,12 @@ abstract class ClientContextKeys {
   public static final Key<SecurityConfigurationStrategy> GRPC_CONNECTION_NEGOTIATION = Key
       .of("GRPC_CONNECTION_NEGOTIATION", SecurityConfigurationStrategy.class);
 
+  public static final Key<TransportProfile> GRPC_CONNECTION_PROFILE = Key
+      .of("GRPC_CONNECTION_PROFILE", TransportProfile.class);
+
+  public static final Key<TransportResources> GRPC_CONNECTION_RESOURCES = Key
+      .of("GRPC_CONNECTION_RESOURCES", TransportResources.class);
+
   @SuppressWarnings("rawtypes")
   public static final Key<GrpcClient> GRPC_CLIENT = Key.of("GRPC_CLIENT", GrpcClient.class);
 
@@ -42,6 +48,9 @@ abstract class ClientContextKeys {
   public static final Key<ChainIdHashHolder> GRPC_VALUE_CHAIN_ID_HASH_HOLDER = Key
       .of("GRPC_VALUE_CHAIN_ID_HASH_HOLDER", ChainIdHashHolder.class);
 
+  public static final Key<ContractInterfaceRegistry> GRPC_VALUE_CONTRACT_INTERFACE_REGISTRY = Key
+      .of("GRPC_VALUE_CONTRACT_INTERFACE_REGISTRY", ContractInterfaceRegistry.class);
+
 
 
   /* failover */
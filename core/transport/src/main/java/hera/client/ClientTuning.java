@@ -0,0 +1,82 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.util.Configuration;
+import hera.util.conf.ConfigurationBinder;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Client settings which can be changed at runtime. Bind them from configuration sources with
+ * {@link #BINDER} and give the snapshot to {@link AergoClientBuilder#withTuning}. Keys are
+ * <ul>
+ *   <li>{@code heraj.client.timeout}: a request timeout in milliseconds. 0 means no timeout</li>
+ *   <li>{@code heraj.client.retry.count}: a retry count of a failed request</li>
+ *   <li>{@code heraj.client.retry.interval}: an interval between retries in milliseconds</li>
+ * </ul>
+ * For an environment variable, use an upper case name with '_' (eg. {@code HERAJ_CLIENT_TIMEOUT}).
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder(builderMethodName = "newBuilder")
+public class ClientTuning {
+
+  public static final String PREFIX = "heraj.client.";
+
+  public static final String TIMEOUT = PREFIX + "timeout";
+
+  public static final String RETRY_COUNT = PREFIX + "retry.count";
+
+  public static final String RETRY_INTERVAL = PREFIX + "retry.interval";
+
+  public static final ClientTuning DEFAULT = ClientTuning.newBuilder().build();
+
+  public static final ConfigurationBinder<ClientTuning> BINDER = binder(DEFAULT);
+
+  /**
+   * Make a binder taking a value of a key not configured from {@code base}.
+   *
+   * @param base a tuning giving values of keys not configured
+   * @return a binder
+   */
+  public static ConfigurationBinder<ClientTuning> binder(final ClientTuning base) {
+    return new ConfigurationBinder<ClientTuning>() {
+      @Override
+      public ClientTuning bind(final Configuration configuration) {
+        final ClientTuning bound = ClientTuning.newBuilder()
+            .timeout(configuration.getAsLong(TIMEOUT, base.getTimeout()))
+            .retryCount(configuration.getAsInt(RETRY_COUNT, base.getRetryCount()))
+            .retryInterval(configuration.getAsLong(RETRY_INTERVAL, base.getRetryInterval()))
+            .build();
+        if (bound.getTimeout() < 0L || bound.getRetryCount() < 0
+            || bound.getRetryInterval() < 0L) {
+          throw new IllegalArgumentException("Negative value in " + bound);
+        }
+        return bound;
+      }
+    };
+  }
+
+  // milliseconds. 0 means no timeout
+  @Default
+  protected final long timeout = 0L;
+
+  @Default
+  protected final int retryCount = 0;
+
+  // milliseconds
+  @Default
+  protected final long retryInterval = 5000L;
+
+}
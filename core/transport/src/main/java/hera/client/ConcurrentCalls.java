@@ -0,0 +1,87 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import hera.api.function.Function1;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unary calls made concurrently with results in the order of requests.
+ */
+final class ConcurrentCalls {
+
+  private ConcurrentCalls() {
+  }
+
+  /**
+   * Make a call for each request with at most {@code concurrency} calls in flight. No more call
+   * is made after a failure, and calls left are cancelled when it's done.
+   *
+   * @param requests    requests
+   * @param concurrency the maximum number of calls in flight
+   * @param call        a function making a call with a request
+   * @param <T>         a type of a request
+   * @param <R>         a type of a response
+   * @return responses in the order of requests
+   *
+   * @throws Exception a cause of the first failed call
+   */
+  static <T, R> List<R> callInOrder(final List<T> requests, final int concurrency,
+      final Function1<T, ListenableFuture<R>> call) throws Exception {
+    final Semaphore permits = new Semaphore(concurrency);
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    final FutureCallback<R> releaser = new FutureCallback<R>() {
+
+      @Override
+      public void onSuccess(final R result) {
+        permits.release();
+      }
+
+      @Override
+      public void onFailure(final Throwable t) {
+        failure.compareAndSet(null, t);
+        permits.release();
+      }
+    };
+
+    final List<ListenableFuture<R>> futures = new ArrayList<>(requests.size());
+    try {
+      for (final T request : requests) {
+        permits.acquire();
+        if (null != failure.get()) {
+          break;
+        }
+        final ListenableFuture<R> future = call.apply(request);
+        Futures.addCallback(future, releaser, MoreExecutors.directExecutor());
+        futures.add(future);
+      }
+
+      final List<R> responses = new ArrayList<>(futures.size());
+      for (final ListenableFuture<R> future : futures) {
+        responses.add(future.get());
+      }
+      return responses;
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw e;
+    } finally {
+      for (final ListenableFuture<R> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,456 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.model.AccountAddress;
+import hera.api.model.Block;
+import hera.api.model.BytesValue;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractFunction;
+import hera.api.model.ContractInterface;
+import hera.api.model.StateVariable;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Transaction;
+import hera.api.model.Transaction.TxType;
+import hera.api.model.TxHash;
+import hera.util.Sha256Utils;
+import java.nio.charset.Charset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+
+/**
+ * A registry of {@link ContractInterface} keyed by a contract address. A registered interface is
+ * shared by every {@link AergoClient} using this registry until it's invalidated explicitly or by
+ * a redeploy transaction found in a block stream (see {@link #watch(AergoClient)}). Note that a
+ * contract address is assumed to be unique in a registry. Clients connected to different chains
+ * must use different registries. An {@link AergoClient} uses one only if it's set by
+ * {@link AergoClientBuilder#withContractInterfaceRegistry(ContractInterfaceRegistry)}.
+ *
+ * <p>An interface of a contract being redeployed isn't registered until its redeploy transaction
+ * is confirmed (see {@link #redeploying(ContractAddress, TxHash)}).</p>
+ *
+ * <p>While no block stream is watched, a redeploy can't be seen and a registered interface
+ * expires after a time to live.</p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class ContractInterfaceRegistry {
+
+  public static final int DEFAULT_CAPACITY = 10000;
+
+  public static final long DEFAULT_TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(10L);
+
+  protected static final long MIN_RESUBSCRIBE_DELAY = TimeUnit.SECONDS.toMillis(1L);
+
+  protected static final long MAX_RESUBSCRIBE_DELAY = TimeUnit.MINUTES.toMillis(1L);
+
+  protected static final Charset CHARSET = Charset.forName("UTF-8");
+
+  protected static final ContractInterfaceRegistry shared = new ContractInterfaceRegistry();
+
+  /**
+   * Get a process-wide registry. Use it only when every client in a process is connected to the
+   * same chain.
+   *
+   * @return a process-wide registry
+   */
+  public static ContractInterfaceRegistry shared() {
+    return shared;
+  }
+
+  /**
+   * Make a fingerprint of a contract interface. A fingerprint is a sha256 digest of a version,
+   * a language, functions and state variables of an interface.
+   *
+   * @param contractInterface a contract interface
+   * @return a fingerprint
+   */
+  public static BytesValue fingerprint(final ContractInterface contractInterface) {
+    assertNotNull(contractInterface, "Contract interface must not null");
+    final StringBuilder canonical = new StringBuilder();
+    canonical.append(contractInterface.getVersion()).append('\n')
+        .append(contractInterface.getLanguage()).append('\n');
+    for (final ContractFunction function : contractInterface.getFunctions()) {
+      canonical.append("function:").append(function.getName()).append('(');
+      for (final String argumentName : function.getArgumentNames()) {
+        canonical.append(argumentName).append(',');
+      }
+      canonical.append(')')
+          .append(function.isPayable() ? 'p' : '-')
+          .append(function.isView() ? 'v' : '-')
+          .append(function.isFeeDelegation() ? 'f' : '-')
+          .append('\n');
+    }
+    for (final StateVariable stateVariable : contractInterface.getStateVariables()) {
+      canonical.append("state:").append(stateVariable.getName()).append(':')
+          .append(stateVariable.getType()).append('\n');
+    }
+    return BytesValue.of(Sha256Utils.digest(canonical.toString().getBytes(CHARSET)));
+  }
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final Cache<ContractAddress, Entry> entries;
+
+  // redeploy transactions not confirmed yet
+  protected final Cache<ContractAddress, TxHash> redeploys;
+
+  protected final long timeToLive;
+
+  // number of block streams watched now
+  protected final AtomicInteger watchCount = new AtomicInteger(0);
+
+  public ContractInterfaceRegistry() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * ContractInterfaceRegistry constructor.
+   *
+   * @param capacity a max number of registered contract interfaces
+   */
+  public ContractInterfaceRegistry(final int capacity) {
+    this(capacity, DEFAULT_TIME_TO_LIVE, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * ContractInterfaceRegistry constructor.
+   *
+   * @param capacity   a max number of registered contract interfaces
+   * @param timeToLive a time a registered interface lives while no block stream is watched
+   * @param unit       a unit of {@code timeToLive}
+   */
+  public ContractInterfaceRegistry(final int capacity, final long timeToLive,
+      final TimeUnit unit) {
+    assertNotNull(unit, "Time unit must not null");
+    this.entries = CacheBuilder.newBuilder()
+        .maximumSize(capacity)
+        .build();
+    this.redeploys = CacheBuilder.newBuilder()
+        .maximumSize(capacity)
+        .build();
+    this.timeToLive = unit.toMillis(timeToLive);
+  }
+
+  /**
+   * Get a registered contract interface.
+   *
+   * @param contractAddress a contract address
+   * @return a registered contract interface. null if not registered
+   */
+  public ContractInterface get(final ContractAddress contractAddress) {
+    final Entry entry = getEntry(contractAddress);
+    return null != entry ? entry.contractInterface : null;
+  }
+
+  /**
+   * Get a fingerprint of a registered contract interface.
+   *
+   * @param contractAddress a contract address
+   * @return a fingerprint. null if not registered
+   */
+  public BytesValue getFingerprint(final ContractAddress contractAddress) {
+    final Entry entry = getEntry(contractAddress);
+    return null != entry ? entry.fingerprint : null;
+  }
+
+  protected Entry getEntry(final ContractAddress contractAddress) {
+    assertNotNull(contractAddress, "Contract address must not null");
+    final Entry entry = entries.getIfPresent(contractAddress);
+    if (null == entry) {
+      return null;
+    }
+    if (null != redeploys.getIfPresent(contractAddress)) {
+      return null;
+    }
+    if (0 == watchCount.get()
+        && timeToLive <= System.currentTimeMillis() - entry.registeredAt) {
+      logger.debug("Contract interface of {} expired", contractAddress);
+      entries.asMap().remove(contractAddress, entry);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Register a contract interface. If an interface with the same fingerprint is already
+   * registered, it's kept and returned so that its function index is reused. An interface of a
+   * contract being redeployed is returned as it is without registering.
+   *
+   * @param contractInterface a contract interface to register
+   * @return a registered contract interface
+   */
+  public ContractInterface register(final ContractInterface contractInterface) {
+    assertNotNull(contractInterface, "Contract interface must not null");
+    final ContractAddress contractAddress = contractInterface.getAddress();
+    if (null != redeploys.getIfPresent(contractAddress)) {
+      logger.debug("Contract {} is being redeployed; skip registering", contractAddress);
+      return contractInterface;
+    }
+    final BytesValue fingerprint = fingerprint(contractInterface);
+    final Entry existing = getEntry(contractAddress);
+    if (null != existing && existing.fingerprint.equals(fingerprint)) {
+      return existing.contractInterface;
+    }
+    if (null != existing) {
+      logger.info("Contract interface of {} changed", contractAddress);
+    }
+    logger.debug("Register contract interface of {} (fingerprint: {})", contractAddress,
+        fingerprint);
+    entries.put(contractAddress,
+        new Entry(contractInterface, fingerprint, System.currentTimeMillis()));
+    return contractInterface;
+  }
+
+  /**
+   * Invalidate a registered contract interface.
+   *
+   * @param contractAddress a contract address
+   */
+  public void invalidate(final ContractAddress contractAddress) {
+    assertNotNull(contractAddress, "Contract address must not null");
+    logger.debug("Invalidate contract interface of {}", contractAddress);
+    entries.invalidate(contractAddress);
+  }
+
+  /**
+   * Mark a contract being redeployed by a transaction not confirmed yet. Its interface is neither
+   * returned nor registered until {@link #redeployed(ContractAddress, TxHash)} is called or the
+   * transaction is found in a watched block stream.
+   *
+   * @param contractAddress a contract address
+   * @param txHash          a hash of a redeploy transaction
+   */
+  public void redeploying(final ContractAddress contractAddress, final TxHash txHash) {
+    assertNotNull(contractAddress, "Contract address must not null");
+    assertNotNull(txHash, "Tx hash must not null");
+    logger.debug("Contract {} is being redeployed by {}", contractAddress, txHash);
+    redeploys.put(contractAddress, txHash);
+    entries.invalidate(contractAddress);
+  }
+
+  /**
+   * Get a hash of an unconfirmed redeploy transaction of a contract.
+   *
+   * @param contractAddress a contract address
+   * @return a hash of a redeploy transaction. null if not being redeployed
+   */
+  public TxHash getRedeploying(final ContractAddress contractAddress) {
+    assertNotNull(contractAddress, "Contract address must not null");
+    return redeploys.getIfPresent(contractAddress);
+  }
+
+  /**
+   * Mark a redeploy transaction confirmed and invalidate an interface of its contract, which
+   * may be registered before the redeploy.
+   *
+   * @param contractAddress a contract address
+   * @param txHash          a hash of a confirmed redeploy transaction
+   */
+  public void redeployed(final ContractAddress contractAddress, final TxHash txHash) {
+    assertNotNull(contractAddress, "Contract address must not null");
+    assertNotNull(txHash, "Tx hash must not null");
+    // a later redeploy keeps waiting for its own transaction
+    if (redeploys.asMap().remove(contractAddress, txHash)) {
+      logger.debug("Redeploy of {} confirmed by {}", contractAddress, txHash);
+    }
+    invalidate(contractAddress);
+  }
+
+  /**
+   * Invalidate all the registered contract interfaces.
+   */
+  public void invalidateAll() {
+    logger.debug("Invalidate all contract interfaces");
+    entries.invalidateAll();
+  }
+
+  /**
+   * Invalidate contract interfaces redeployed by transactions in a block.
+   *
+   * @param block a block
+   */
+  public void invalidateRedeployed(final Block block) {
+    assertNotNull(block, "Block must not null");
+    for (final Transaction transaction : block.getTransactions()) {
+      if (TxType.REDEPLOY != transaction.getTxType()) {
+        continue;
+      }
+      final AccountAddress recipient = transaction.getRecipient();
+      if (null == recipient) {
+        continue;
+      }
+      logger.debug("Redeploy of {} found in block {}", recipient, block.getBlockNumber());
+      final ContractAddress contractAddress = recipient.adapt(ContractAddress.class);
+      if (null != transaction.getHash()) {
+        redeployed(contractAddress, transaction.getHash());
+      } else {
+        invalidate(contractAddress);
+      }
+    }
+  }
+
+  /**
+   * Subscribe a block stream of a client and invalidate a contract interface on its redeploy.
+   * Registered interfaces don't expire while watching. On an error of a block stream, all the
+   * interfaces are invalidated and a block stream is subscribed again with a backoff.
+   *
+   * @param client a client to subscribe a block stream
+   * @return a block subscription. Unsubscribe it to stop watching
+   */
+  public Subscription<Block> watch(final AergoClient client) {
+    assertNotNull(client, "Client must not null");
+    final Watch watch = new Watch(client);
+    watchCount.incrementAndGet();
+    try {
+      watch.subscribe();
+    } catch (final RuntimeException e) {
+      watch.unsubscribe();
+      throw e;
+    }
+    return watch;
+  }
+
+  /**
+   * A block stream watched. It subscribes again on an error until it's unsubscribed.
+   */
+  protected class Watch implements Subscription<Block>, StreamObserver<Block> {
+
+    protected final AergoClient client;
+
+    // guarded by this
+    protected Subscription<Block> upstream;
+
+    protected ScheduledExecutorService scheduler;
+
+    protected long delay = MIN_RESUBSCRIBE_DELAY;
+
+    protected boolean ended = false;
+
+    Watch(final AergoClient client) {
+      this.client = client;
+    }
+
+    protected void subscribe() {
+      final Subscription<Block> subscription = client.getBlockOperation().subscribeBlock(this);
+      synchronized (this) {
+        if (ended) {
+          subscription.unsubscribe();
+          return;
+        }
+        upstream = subscription;
+      }
+    }
+
+    protected synchronized void scheduleResubscribe() {
+      if (ended) {
+        return;
+      }
+      if (null == scheduler) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+          @Override
+          public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "contract-interface-registry-watch");
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+      }
+      logger.debug("Subscribe a block stream again in {}ms", delay);
+      scheduler.schedule(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            subscribe();
+            // blocks missed meanwhile may have redeployed ones registered again
+            invalidateAll();
+          } catch (final Throwable e) {
+            logger.info("Fail to subscribe a block stream: {}", e.toString());
+            scheduleResubscribe();
+          }
+        }
+      }, delay, TimeUnit.MILLISECONDS);
+      delay = Math.min(delay * 2L, MAX_RESUBSCRIBE_DELAY);
+    }
+
+    @Override
+    public void onNext(final Block value) {
+      synchronized (this) {
+        delay = MIN_RESUBSCRIBE_DELAY;
+      }
+      invalidateRedeployed(value);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      // can't tell which one is redeployed during disconnection
+      logger.info("Block stream for contract interface registry closed: {}", t.toString());
+      invalidateAll();
+      scheduleResubscribe();
+    }
+
+    @Override
+    public void onCompleted() {
+      logger.debug("Block stream for contract interface registry completed");
+      end();
+    }
+
+    protected void end() {
+      final ScheduledExecutorService left;
+      synchronized (this) {
+        if (ended) {
+          return;
+        }
+        ended = true;
+        left = scheduler;
+      }
+      if (null != left) {
+        left.shutdownNow();
+      }
+      watchCount.decrementAndGet();
+    }
+
+    @Override
+    public void unsubscribe() {
+      final Subscription<Block> subscription;
+      synchronized (this) {
+        subscription = upstream;
+      }
+      end();
+      if (null != subscription) {
+        subscription.unsubscribe();
+      }
+    }
+
+    @Override
+    public synchronized boolean isUnsubscribed() {
+      return ended;
+    }
+  }
+
+  @RequiredArgsConstructor
+  protected static class Entry {
+
+    protected final ContractInterface contractInterface;
+
+    protected final BytesValue fingerprint;
+
+    protected final long registeredAt;
+  }
+
+}
@@ -9,15 +9,19 @@ import static hera.client.Methods.CONTRACT_EXECUTETX;
 import static hera.client.Methods.CONTRACT_INTERFACE;
 import static hera.client.Methods.CONTRACT_LIST_EVENT;
 import static hera.client.Methods.CONTRACT_QUERY;
+import static hera.client.Methods.CONTRACT_QUERY_BATCH;
 import static hera.client.Methods.CONTRACT_REDEPLOYTX;
 import static hera.client.Methods.CONTRACT_SUBSCRIBE_EVENT;
 import static hera.client.Methods.CONTRACT_TXRECEIPT;
 import static hera.util.TransportUtils.copyFrom;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.protobuf.ByteString;
 import hera.RequestMethod;
+import hera.api.function.Function1;
 import hera.api.model.AccountAddress;
+import hera.api.model.BlockchainStatus;
 import hera.api.model.BytesValue;
 import hera.api.model.ContractAddress;
 import hera.api.model.ContractDefinition;
@@ -28,6 +32,8 @@ import hera.api.model.ContractTxReceipt;
 import hera.api.model.Event;
 import hera.api.model.EventFilter;
 import hera.api.model.Fee;
+import hera.api.model.QueryBatch;
+import hera.api.model.QueryBatchResult;
 import hera.api.model.RawTransaction;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
@@ -38,6 +44,7 @@ import hera.api.transaction.DeployContractTransactionBuilder;
 import hera.api.transaction.InvokeContractTransactionBuilder;
 import hera.api.transaction.PayloadConverter;
 import hera.api.transaction.ReDeployContractTransactionBuilder;
+import hera.exception.HerajException;
 import hera.key.Signer;
 import hera.transport.AccountAddressConverterFactory;
 import hera.transport.ContractInterfaceConverterFactory;
@@ -48,9 +55,13 @@ import hera.transport.EventFilterConverterFactory;
 import hera.transport.ModelConverter;
 import io.grpc.Context;
 import io.grpc.StatusRuntimeException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import org.slf4j.Logger;
 import types.Blockchain;
@@ -83,6 +94,8 @@ class ContractMethods extends AbstractMethods {
 
   protected final TransactionMethods transactionMethods = new TransactionMethods();
 
+  protected final BlockchainMethods blockchainMethods = new BlockchainMethods();
+
   @Getter
   protected final RequestMethod<ContractTxReceipt> contractTxReceipt =
       new RequestMethod<ContractTxReceipt>() {
@@ -286,14 +299,7 @@ class ContractMethods extends AbstractMethods {
       final ContractInvocation contractInvocation = (ContractInvocation) parameters.get(0);
       logger.debug("Query contract with invocation: {}", contractInvocation);
 
-      final ByteString rpcContractAddress = accountAddressConverter
-          .convertToRpcModel(contractInvocation.getAddress());
-      final BytesValue rpcContractInvocation =
-          payloadConverter.convertToPayload(contractInvocation);
-      final Blockchain.Query rpcQuery = Blockchain.Query.newBuilder()
-          .setContractAddress(rpcContractAddress)
-          .setQueryinfo(copyFrom(rpcContractInvocation))
-          .build();
+      final Blockchain.Query rpcQuery = toRpcQuery(contractInvocation);
       logger.trace("AergoService queryContract arg: {}", rpcQuery);
 
       final Rpc.SingleBytes rawQueryResult = getBlockingStub().queryContract(rpcQuery);
@@ -301,6 +307,103 @@ class ContractMethods extends AbstractMethods {
     }
   };
 
+  @Getter
+  protected final RequestMethod<QueryBatchResult> queryBatch =
+      new RequestMethod<QueryBatchResult>() {
+
+        @Getter
+        protected final String name = CONTRACT_QUERY_BATCH;
+
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, QueryBatch.class);
+        }
+
+        @Override
+        protected QueryBatchResult runInternal(final List<Object> parameters) throws Exception {
+          final QueryBatch queryBatch = (QueryBatch) parameters.get(0);
+          logger.debug("Query contract with batch: {}", queryBatch);
+
+          // query identical invocations only once
+          final List<ContractInvocation> invocations = queryBatch.getInvocations();
+          final Map<ContractInvocation, Integer> distinctIndexes = new HashMap<>();
+          final List<Blockchain.Query> rpcQueries = new ArrayList<>();
+          final int[] resultIndexes = new int[invocations.size()];
+          for (int i = 0; i < invocations.size(); ++i) {
+            final ContractInvocation invocation = invocations.get(i);
+            Integer distinctIndex = distinctIndexes.get(invocation);
+            if (null == distinctIndex) {
+              distinctIndex = rpcQueries.size();
+              distinctIndexes.put(invocation, distinctIndex);
+              rpcQueries.add(toRpcQuery(invocation));
+            }
+            resultIndexes[i] = distinctIndex;
+          }
+          logger.trace("Distinct queries: {} (requested: {})", rpcQueries.size(),
+              invocations.size());
+
+          int attempts = 0;
+          while (true) {
+            ++attempts;
+            final BlockchainStatus before = queryBatch.isPinToBestBlock()
+                ? blockchainMethods.getBlockchainStatus().invoke() : null;
+            final List<Rpc.SingleBytes> rawResults =
+                queryConcurrently(rpcQueries, queryBatch.getConcurrency());
+            final BlockchainStatus after = queryBatch.isPinToBestBlock()
+                ? blockchainMethods.getBlockchainStatus().invoke() : null;
+
+            if (null != before && !before.getBestBlockHash().equals(after.getBestBlockHash())) {
+              if (attempts > queryBatch.getMaxRetry()) {
+                throw new HerajException(String.format(
+                    "Best block has been changed during query batch (attempts: %d)", attempts));
+              }
+              logger.debug("Best block has been changed from {} to {}, retry query batch",
+                  before.getBestHeight(), after.getBestHeight());
+              continue;
+            }
+
+            final List<ContractResult> distinctResults = new ArrayList<>(rawResults.size());
+            for (final Rpc.SingleBytes rawResult : rawResults) {
+              distinctResults.add(contractResultConverter.convertToDomainModel(rawResult));
+            }
+            final List<ContractResult> results = new ArrayList<>(resultIndexes.length);
+            for (final int resultIndex : resultIndexes) {
+              results.add(distinctResults.get(resultIndex));
+            }
+
+            final QueryBatchResult.QueryBatchResultBuilder builder = QueryBatchResult.newBuilder()
+                .results(Collections.unmodifiableList(results))
+                .attempts(attempts);
+            if (null != before) {
+              builder.blockNumber(before.getBestHeight()).blockHash(before.getBestBlockHash());
+            }
+            return builder.build();
+          }
+        }
+      };
+
+  protected Blockchain.Query toRpcQuery(final ContractInvocation contractInvocation) {
+    final ByteString rpcContractAddress = accountAddressConverter
+        .convertToRpcModel(contractInvocation.getAddress());
+    final BytesValue rpcContractInvocation = payloadConverter.convertToPayload(contractInvocation);
+    return Blockchain.Query.newBuilder()
+        .setContractAddress(rpcContractAddress)
+        .setQueryinfo(copyFrom(rpcContractInvocation))
+        .build();
+  }
+
+  protected List<Rpc.SingleBytes> queryConcurrently(final List<Blockchain.Query> rpcQueries,
+      final int concurrency) throws Exception {
+    return ConcurrentCalls.callInOrder(rpcQueries, concurrency,
+        new Function1<Blockchain.Query, ListenableFuture<Rpc.SingleBytes>>() {
+          @Override
+          public ListenableFuture<Rpc.SingleBytes> apply(final Blockchain.Query rpcQuery) {
+            logger.trace("AergoService queryContract arg: {}", rpcQuery);
+            return getFutureStub().queryContract(rpcQuery);
+          }
+        });
+  }
+
   @Getter
   protected final RequestMethod<List<Event>> listEvent = new RequestMethod<List<Event>>() {
 
@@ -4,6 +4,8 @@
 
 package hera.client;
 
+import static hera.client.ClientContextKeys.GRPC_VALUE_CONTRACT_INTERFACE_REGISTRY;
+
 import hera.Context;
 import hera.ContextStorage;
 import hera.api.ContractOperation;
@@ -18,6 +20,8 @@ import hera.api.model.ContractTxReceipt;
 import hera.api.model.Event;
 import hera.api.model.EventFilter;
 import hera.api.model.Fee;
+import hera.api.model.QueryBatch;
+import hera.api.model.QueryBatchResult;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.api.model.TxHash;
@@ -78,13 +82,37 @@ class ContractTemplate extends AbstractTemplate implements ContractOperation {
   @Override
   public TxHash redeployTx(final Signer signer, final ContractAddress existingContract,
       final ContractDefinition contractDefinition, final long nonce, final Fee fee) {
-    return request(contractMethods.getRedeployTx(),
+    final TxHash txHash = request(contractMethods.getRedeployTx(),
         Arrays.asList(signer, existingContract, contractDefinition, nonce, fee));
+    final ContractInterfaceRegistry registry = contextStorage.get()
+        .get(GRPC_VALUE_CONTRACT_INTERFACE_REGISTRY);
+    if (null != registry && null != existingContract && null != txHash) {
+      // a concurrent lookup would get an old interface until it's confirmed
+      registry.redeploying(existingContract, txHash);
+    }
+    return txHash;
   }
 
   @Override
   public ContractInterface getContractInterface(final ContractAddress contractAddress) {
-    return request(contractMethods.getContractInterface(), Arrays.<Object>asList(contractAddress));
+    final ContractInterfaceRegistry registry = contextStorage.get()
+        .get(GRPC_VALUE_CONTRACT_INTERFACE_REGISTRY);
+    if (null != registry && null != contractAddress) {
+      final TxHash redeploy = registry.getRedeploying(contractAddress);
+      if (null != redeploy && null != getContractTxReceipt(redeploy)) {
+        registry.redeployed(contractAddress, redeploy);
+      }
+      final ContractInterface registered = registry.get(contractAddress);
+      if (null != registered) {
+        return registered;
+      }
+    }
+    final ContractInterface contractInterface = request(contractMethods.getContractInterface(),
+        Arrays.<Object>asList(contractAddress));
+    if (null == registry || null == contractInterface) {
+      return contractInterface;
+    }
+    return registry.register(contractInterface);
   }
 
   @Override
@@ -117,6 +145,11 @@ class ContractTemplate extends AbstractTemplate implements ContractOperation {
     return request(contractMethods.getQuery(), Arrays.<Object>asList(contractInvocation));
   }
 
+  @Override
+  public QueryBatchResult queryBatch(final QueryBatch queryBatch) {
+    return request(contractMethods.getQueryBatch(), Arrays.<Object>asList(queryBatch));
+  }
+
   @Override
   public List<Event> listEvents(final EventFilter filter) {
     return request(contractMethods.getListEvent(), Arrays.<Object>asList(filter));
@@ -0,0 +1,461 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import hera.api.ContractOperation;
+import hera.api.model.ContractAddress;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import java.io.Closeable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+
+/**
+ * An event subscription multiplexer. It keeps a single upstream event stream per contract and
+ * delivers events to any number of local subscribers, so that a node sees one stream per contract
+ * however many subscriptions there are.
+ *
+ * <p>Local filters are matched by an index on an event name and a value of the first argument.
+ * The rest of the arguments are compared only for the subscribers in a matching bucket. An empty
+ * event name matches any event and arguments are matched by position as a node does. Numbers are
+ * compared by value, so {@code 1} matches {@code 1L}.</p>
+ *
+ * <p>An upstream stream is opened on the first subscriber of a contract and closed when the last
+ * one leaves. Others join and leave without touching it. Events are delivered in a thread of an
+ * upstream stream; a subscriber should hand a heavy work over to other thread. An error of an
+ * upstream stream is delivered to all the subscribers of the contract and ends them.</p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class EventMultiplexer implements Closeable {
+
+  // a key of a null argument since an index can't hold null
+  protected static final Object NULL_KEY = new Object();
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ContractOperation contractOperation;
+
+  protected final Map<ContractAddress, Channel> channels = new HashMap<>();
+
+  protected final Object lock = new Object();
+
+  protected volatile boolean closed = false;
+
+  /**
+   * EventMultiplexer constructor.
+   *
+   * @param contractOperation a contract operation opening upstream streams
+   */
+  public EventMultiplexer(final ContractOperation contractOperation) {
+    assertNotNull(contractOperation, "Contract operation must not null");
+    this.contractOperation = contractOperation;
+  }
+
+  /**
+   * Subscribe events. Block range options of a filter aren't supported since an upstream stream
+   * delivers new events only.
+   *
+   * @param filter   an event filter
+   * @param observer a stream observer
+   * @return a subscription
+   */
+  public Subscription<Event> subscribe(final EventFilter filter,
+      final StreamObserver<Event> observer) {
+    assertNotNull(filter, "Event filter must not null");
+    assertNotNull(observer, "Stream observer must not null");
+    assertTrue(0L == filter.getFromBlockNumber() && 0L == filter.getToBlockNumber()
+        && 0 == filter.getRecentBlockCount(), "Block range isn't supported by a multiplexer");
+
+    final ContractAddress contractAddress = filter.getContractAddress();
+    final Subscriber subscriber = new Subscriber(filter, observer);
+    while (true) {
+      synchronized (lock) {
+        if (closed) {
+          throw new IllegalStateException(this + " is closed");
+        }
+        final Channel channel = channels.get(contractAddress);
+        if (null != channel) {
+          subscriber.channel = channel;
+          channel.add(subscriber);
+          return subscriber;
+        }
+      }
+
+      // open outside the lock; an upstream may call back synchronously
+      final Channel opened = new Channel(contractAddress);
+      final Subscription<Event> upstream = contractOperation.subscribeEvent(
+          EventFilter.newBuilder(contractAddress).build(), opened);
+      final boolean failed;
+      synchronized (lock) {
+        failed = opened.ended;
+        if (!closed && !failed && null == channels.get(contractAddress)) {
+          opened.upstream = upstream;
+          channels.put(contractAddress, opened);
+          subscriber.channel = opened;
+          opened.add(subscriber);
+          logger.debug("Upstream opened for {}", contractAddress);
+          return subscriber;
+        }
+      }
+      upstream.unsubscribe();
+      if (failed) {
+        // ended before any subscriber joined
+        subscriber.unsubscribed.set(true);
+        if (null != opened.cause) {
+          observer.onError(opened.cause);
+        } else {
+          observer.onCompleted();
+        }
+        return subscriber;
+      }
+      // closed, or another one opened first; check again
+    }
+  }
+
+  /**
+   * Get the number of upstream streams.
+   *
+   * @return the number of upstream streams
+   */
+  public int getUpstreamCount() {
+    synchronized (lock) {
+      return channels.size();
+    }
+  }
+
+  /**
+   * Get the number of local subscribers.
+   *
+   * @return the number of local subscribers
+   */
+  public int getSubscriberCount() {
+    synchronized (lock) {
+      int count = 0;
+      for (final Channel channel : channels.values()) {
+        count += channel.size;
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Close all the upstream streams. Subscribers left are completed.
+   */
+  @Override
+  public void close() {
+    final List<Channel> left;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      left = new ArrayList<>(channels.values());
+    }
+    for (final Channel channel : left) {
+      channel.upstream.unsubscribe();
+      for (final Subscriber subscriber : detach(channel)) {
+        subscriber.observer.onCompleted();
+      }
+    }
+  }
+
+  protected void remove(final Subscriber subscriber) {
+    final Channel channel = subscriber.channel;
+    synchronized (lock) {
+      if (channel.ended || !channel.remove(subscriber) || 0 < channel.size) {
+        return;
+      }
+      channel.ended = true;
+      channels.remove(channel.contractAddress, channel);
+    }
+    logger.debug("Upstream closed for {}", channel.contractAddress);
+    channel.upstream.unsubscribe();
+  }
+
+  /**
+   * Detach a channel ended by an upstream or by close.
+   *
+   * @param channel a channel
+   * @return subscribers which were active
+   */
+  protected List<Subscriber> detach(final Channel channel) {
+    final List<Subscriber> active = new ArrayList<>();
+    synchronized (lock) {
+      if (channel.ended) {
+        return active;
+      }
+      channel.ended = true;
+      channels.remove(channel.contractAddress, channel);
+      for (final Bucket bucket : channel.buckets.values()) {
+        for (final Subscriber subscriber : bucket.anyArgs) {
+          if (subscriber.unsubscribed.compareAndSet(false, true)) {
+            active.add(subscriber);
+          }
+        }
+        for (final List<Subscriber> subscribers : bucket.byFirstArg.values()) {
+          for (final Subscriber subscriber : subscribers) {
+            if (subscriber.unsubscribed.compareAndSet(false, true)) {
+              active.add(subscriber);
+            }
+          }
+        }
+      }
+    }
+    return active;
+  }
+
+  /**
+   * Make a key of an argument value. Numbers of different types are equal by value.
+   *
+   * @param value an argument value
+   * @return a key
+   */
+  protected static Object keyOf(final Object value) {
+    if (null == value) {
+      return NULL_KEY;
+    }
+    if (value instanceof Number) {
+      try {
+        final BigDecimal decimal = new BigDecimal(value.toString());
+        return 0 == decimal.signum() ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+      } catch (final NumberFormatException e) {
+        // NaN or infinity
+        return value;
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Subscribers of a contract indexed by an event name and a value of the first argument.
+   */
+  protected class Channel implements StreamObserver<Event> {
+
+    protected final ContractAddress contractAddress;
+
+    protected Subscription<Event> upstream;
+
+    // event name -> bucket. an empty name is for any event
+    protected final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    // guarded by the lock of a multiplexer
+    protected int size = 0;
+
+    protected boolean ended = false;
+
+    // set before ended by an upstream error
+    protected volatile Throwable cause;
+
+    Channel(final ContractAddress contractAddress) {
+      this.contractAddress = contractAddress;
+    }
+
+    protected void add(final Subscriber subscriber) {
+      final String eventName = subscriber.filter.getEventName();
+      Bucket bucket = buckets.get(eventName);
+      if (null == bucket) {
+        bucket = new Bucket();
+        buckets.put(eventName, bucket);
+      }
+      bucket.add(subscriber);
+      ++size;
+    }
+
+    protected boolean remove(final Subscriber subscriber) {
+      final String eventName = subscriber.filter.getEventName();
+      final Bucket bucket = buckets.get(eventName);
+      if (null == bucket || !bucket.remove(subscriber)) {
+        return false;
+      }
+      if (bucket.isEmpty()) {
+        buckets.remove(eventName);
+      }
+      --size;
+      return true;
+    }
+
+    @Override
+    public void onNext(final Event value) {
+      final Object firstKey = value.getArgs().isEmpty() ? null : keyOf(value.getArgs().get(0));
+      final Bucket named = buckets.get(value.getName());
+      if (null != named) {
+        named.deliver(value, firstKey);
+      }
+      final Bucket any = value.getName().isEmpty() ? null : buckets.get("");
+      if (null != any) {
+        any.deliver(value, firstKey);
+      }
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      logger.info("Upstream for {} failed: {}", contractAddress, t.toString());
+      this.cause = t;
+      for (final Subscriber subscriber : detach(this)) {
+        subscriber.observer.onError(t);
+      }
+    }
+
+    @Override
+    public void onCompleted() {
+      for (final Subscriber subscriber : detach(this)) {
+        subscriber.observer.onCompleted();
+      }
+    }
+  }
+
+  /**
+   * Subscribers of an event name.
+   */
+  protected static class Bucket {
+
+    // subscribers without argument filters
+    protected final List<Subscriber> anyArgs = new CopyOnWriteArrayList<>();
+
+    protected final Map<Object, List<Subscriber>> byFirstArg = new ConcurrentHashMap<>();
+
+    protected void add(final Subscriber subscriber) {
+      if (null == subscriber.argKeys) {
+        anyArgs.add(subscriber);
+        return;
+      }
+      final Object firstKey = subscriber.argKeys.get(0);
+      List<Subscriber> subscribers = byFirstArg.get(firstKey);
+      if (null == subscribers) {
+        subscribers = new CopyOnWriteArrayList<>();
+        byFirstArg.put(firstKey, subscribers);
+      }
+      subscribers.add(subscriber);
+    }
+
+    protected boolean remove(final Subscriber subscriber) {
+      if (null == subscriber.argKeys) {
+        return anyArgs.remove(subscriber);
+      }
+      final Object firstKey = subscriber.argKeys.get(0);
+      final List<Subscriber> subscribers = byFirstArg.get(firstKey);
+      if (null == subscribers || !subscribers.remove(subscriber)) {
+        return false;
+      }
+      if (subscribers.isEmpty()) {
+        byFirstArg.remove(firstKey);
+      }
+      return true;
+    }
+
+    protected boolean isEmpty() {
+      return anyArgs.isEmpty() && byFirstArg.isEmpty();
+    }
+
+    protected void deliver(final Event event, final Object firstKey) {
+      for (final Subscriber subscriber : anyArgs) {
+        subscriber.deliver(event);
+      }
+      if (null == firstKey) {
+        return;
+      }
+      final List<Subscriber> subscribers = byFirstArg.get(firstKey);
+      if (null == subscribers) {
+        return;
+      }
+      for (final Subscriber subscriber : subscribers) {
+        if (subscriber.matchesRest(event)) {
+          subscriber.deliver(event);
+        }
+      }
+    }
+  }
+
+  /**
+   * A local subscriber.
+   */
+  protected class Subscriber implements Subscription<Event> {
+
+    protected final EventFilter filter;
+
+    protected final StreamObserver<Event> observer;
+
+    // null if no argument filter
+    protected final List<Object> argKeys;
+
+    protected final AtomicBoolean unsubscribed = new AtomicBoolean(false);
+
+    protected Channel channel;
+
+    Subscriber(final EventFilter filter, final StreamObserver<Event> observer) {
+      this.filter = filter;
+      this.observer = observer;
+      if (filter.getArgs().isEmpty()) {
+        this.argKeys = null;
+      } else {
+        final List<Object> keys = new ArrayList<>(filter.getArgs().size());
+        for (final Object arg : filter.getArgs()) {
+          keys.add(keyOf(arg));
+        }
+        this.argKeys = Collections.unmodifiableList(keys);
+      }
+    }
+
+    protected boolean matchesRest(final Event event) {
+      final List<Object> args = event.getArgs();
+      if (args.size() < argKeys.size()) {
+        return false;
+      }
+      for (int i = 1; i < argKeys.size(); ++i) {
+        if (!argKeys.get(i).equals(keyOf(args.get(i)))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    protected void deliver(final Event event) {
+      if (unsubscribed.get()) {
+        return;
+      }
+      try {
+        observer.onNext(event);
+      } catch (final Throwable e) {
+        logger.debug("Unexpected exception in subscriber", e);
+      }
+    }
+
+    @Override
+    public void unsubscribe() {
+      if (unsubscribed.compareAndSet(false, true)) {
+        remove(this);
+      }
+    }
+
+    @Override
+    public boolean isUnsubscribed() {
+      return unsubscribed.get();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("EventMultiplexer.Subscriber(filter=%s, unsubscribed=%s)", filter,
+          unsubscribed.get());
+    }
+  }
+
+}
@@ -6,6 +6,8 @@ package hera.client;
 
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_ENDPOINT;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_NEGOTIATION;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_PROFILE;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_RESOURCES;
 import static hera.client.ClientContextKeys.GRPC_CONNECTION_STRATEGY;
 import static org.slf4j.LoggerFactory.getLogger;
 import static types.AergoRPCServiceGrpc.newBlockingStub;
@@ -22,6 +24,7 @@ import hera.strategy.NettyConnectStrategy;
 import hera.strategy.PlainTextChannelStrategy;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
 import java.io.Closeable;
 import java.util.LinkedList;
 import java.util.List;
@@ -41,7 +44,24 @@ class GrpcClientImpl implements GrpcClient, Closeable {
   protected volatile AergoRPCServiceFutureStub futureStub;
   protected volatile AergoRPCServiceStub streamStub;
 
+  // shared resources retained by a client. released on close
+  protected TransportResources resources;
+
   GrpcClientImpl() {
+    this(null);
+  }
+
+  /**
+   * GrpcClientImpl constructor retaining shared {@code resources} at once, so that a creator
+   * closing them before the first request doesn't shut them down.
+   *
+   * @param resources shared transport resources. null to use ones in a context, if any
+   */
+  GrpcClientImpl(final TransportResources resources) {
+    if (null != resources) {
+      resources.retain();
+    }
+    this.resources = resources;
   }
 
   public AergoRPCServiceBlockingStub getBlockingStub() {
@@ -81,12 +101,42 @@ class GrpcClientImpl implements GrpcClient, Closeable {
     final Context current = ContextHolder.current();
     logger.trace("Context: {}", current);
     final ManagedChannelBuilder<?> raw = getChannelBuilder(current);
-    final ManagedChannelBuilder<?> configured = configure(raw, current);
-    final ManagedChannel channel = configured.build();
+    TransportResources resources = this.resources;
+    boolean retained = false;
+    if (null == resources) {
+      resources = current.get(GRPC_CONNECTION_RESOURCES);
+      if (null != resources) {
+        resources.retain();
+        retained = true;
+      }
+    }
+    final ManagedChannel channel;
+    try {
+      if (null != resources) {
+        attach(raw, resources);
+      }
+      channel = configure(raw, current).build();
+    } catch (final RuntimeException e) {
+      if (retained) {
+        resources.release();
+      }
+      throw e;
+    }
+    this.resources = resources;
+    final TransportProfile profile = current.getOrDefault(GRPC_CONNECTION_PROFILE,
+        TransportProfile.DEFAULT);
+    final String compression = profile.getCompression();
+    if (null == compression) {
+      this.blockingStub = newBlockingStub(channel);
+      this.futureStub = newFutureStub(channel);
+      this.streamStub = newStub(channel);
+    } else {
+      logger.debug("Compress requests with {}", compression);
+      this.blockingStub = newBlockingStub(channel).withCompression(compression);
+      this.futureStub = newFutureStub(channel).withCompression(compression);
+      this.streamStub = newStub(channel).withCompression(compression);
+    }
     this.channel = channel;
-    this.blockingStub = newBlockingStub(channel);
-    this.futureStub = newFutureStub(channel);
-    this.streamStub = newStub(channel);
   }
 
   protected ManagedChannelBuilder<?> getChannelBuilder(final Context context) {
@@ -98,11 +148,26 @@ class GrpcClientImpl implements GrpcClient, Closeable {
     return (ManagedChannelBuilder<?>) connectStrategy.connect(hostnameAndPort);
   }
 
+  protected void attach(final ManagedChannelBuilder<?> builder,
+      final TransportResources resources) {
+    logger.debug("Use shared {}", resources);
+    builder.executor(resources.getExecutor());
+    if (builder instanceof NettyChannelBuilder) {
+      ((NettyChannelBuilder) builder)
+          .eventLoopGroup(resources.getEventLoopGroup())
+          .channelType(resources.getChannelType());
+    }
+  }
+
   protected ManagedChannelBuilder<?> configure(final ManagedChannelBuilder<?> builder,
       final Context context) {
     final List<ChannelConfigurationStrategy> configurationStrategies = new LinkedList<>();
     configurationStrategies.add(context.getOrDefault(GRPC_CONNECTION_NEGOTIATION,
         new PlainTextChannelStrategy()));
+    final TransportProfile profile = context.get(GRPC_CONNECTION_PROFILE);
+    if (null != profile) {
+      configurationStrategies.add(new TransportProfileStrategy(profile));
+    }
     for (final ChannelConfigurationStrategy strategy : configurationStrategies) {
       logger.debug("Configure channel with: {}", strategy);
       strategy.configure(builder);
@@ -119,6 +184,20 @@ class GrpcClientImpl implements GrpcClient, Closeable {
     } catch (Throwable e) {
       logger.debug("Fail to close grpc client by {}", e.toString());
       throw new HerajException(e);
+    } finally {
+      releaseResources();
+    }
+  }
+
+  protected void releaseResources() {
+    final TransportResources released;
+    synchronized (lock) {
+      released = this.resources;
+      this.resources = null;
+    }
+    if (null != released) {
+      // shared threads are shut down by the last one only
+      released.release();
     }
   }
 
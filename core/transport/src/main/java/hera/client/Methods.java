@@ -15,6 +15,7 @@ import hera.annotation.ApiStability;
 public abstract class Methods {
 
   public static final String ACCOUNT_STATE = "heraj.account.state";
+  public static final String ACCOUNT_STATE_BATCH = "heraj.account.state.batch";
   public static final String ACCOUNT_CREATENAMETX = "heraj.account.createnametx";
   public static final String ACCOUNT_UPDATENAMETX = "heraj.account.updatenametx";
   public static final String ACCOUNT_NAMEOWNER = "heraj.account.nameowner";
@@ -57,6 +58,7 @@ public abstract class Methods {
   static final String TRANSACTION_IN_BLOCK = "heraj.transaction.in.block";
   public static final String TRANSACTION_TXRECEIPT = "heraj.transaction.txreceipt";
   public static final String TRANSACTION_COMMIT = "heraj.transaction.commit";
+  public static final String TRANSACTION_COMMIT_BATCH = "heraj.transaction.commit.batch";
   public static final String TRANSACTION_SENDTX_BY_ADDRESS = "heraj.transaction.sendtx.by.address";
   public static final String TRANSACTION_SENDTX_BY_NAME = "heraj.transaction.sendtx.by.name";
 
@@ -66,6 +68,7 @@ public abstract class Methods {
   public static final String CONTRACT_INTERFACE = "heraj.contract.interface";
   public static final String CONTRACT_EXECUTETX = "heraj.contract.executetx";
   public static final String CONTRACT_QUERY = "heraj.contract.query";
+  public static final String CONTRACT_QUERY_BATCH = "heraj.contract.query.batch";
   public static final String CONTRACT_LIST_EVENT = "heraj.contract.list.event";
   public static final String CONTRACT_SUBSCRIBE_EVENT = "heraj.contract.subscribe.event";
 
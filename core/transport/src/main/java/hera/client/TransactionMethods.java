@@ -6,6 +6,7 @@ package hera.client;
 
 import static hera.api.model.BytesValue.of;
 import static hera.client.Methods.TRANSACTION_COMMIT;
+import static hera.client.Methods.TRANSACTION_COMMIT_BATCH;
 import static hera.client.Methods.TRANSACTION_IN_BLOCK;
 import static hera.client.Methods.TRANSACTION_IN_MEMPOOL;
 import static hera.client.Methods.TRANSACTION_SENDTX_BY_ADDRESS;
@@ -22,6 +23,7 @@ import hera.api.model.Fee;
 import hera.api.model.Name;
 import hera.api.model.RawTransaction;
 import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
 import hera.api.transaction.PlainTransactionBuilder;
@@ -32,6 +34,7 @@ import hera.transport.TransactionConverterFactory;
 import hera.transport.TransactionInBlockConverterFactory;
 import hera.transport.TxReceiptConverterFactory;
 import io.grpc.StatusRuntimeException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import lombok.Getter;
@@ -187,6 +190,51 @@ class TransactionMethods extends AbstractMethods {
 
   };
 
+  @Getter
+  private final RequestMethod<List<TxCommitResult>> commitBatch =
+      new RequestMethod<List<TxCommitResult>>() {
+
+        @Getter
+        protected final String name = TRANSACTION_COMMIT_BATCH;
+
+        @Override
+        protected void validate(final List<Object> parameters) {
+          validateType(parameters, 0, List.class);
+        }
+
+        @Override
+        protected List<TxCommitResult> runInternal(final List<Object> parameters)
+            throws Exception {
+          @SuppressWarnings("unchecked")
+          final List<Transaction> transactions = (List<Transaction>) parameters.get(0);
+          logger.debug("Commit {} transactions in a batch", transactions.size());
+          if (transactions.isEmpty()) {
+            return new ArrayList<>();
+          }
+
+          final Blockchain.TxList.Builder rpcTxListBuilder = Blockchain.TxList.newBuilder();
+          for (final Transaction transaction : transactions) {
+            rpcTxListBuilder.addTxs(transactionConverter.convertToRpcModel(transaction));
+          }
+          final Blockchain.TxList rpcTxList = rpcTxListBuilder.build();
+          logger.trace("AergoService commitTX arg: {}", rpcTxList);
+
+          final Rpc.CommitResultList rpcCommitResultList = getBlockingStub().commitTX(rpcTxList);
+          final List<TxCommitResult> results = new ArrayList<>(transactions.size());
+          for (final Rpc.CommitResult rpcCommitResult : rpcCommitResultList.getResultsList()) {
+            final TxCommitResult.TxCommitResultBuilder builder = TxCommitResult.newBuilder()
+                .txHash(new TxHash(of(rpcCommitResult.getHash().toByteArray())));
+            if (Rpc.CommitStatus.TX_OK != rpcCommitResult.getError()) {
+              builder.error(new CommitException(rpcCommitResult.getError(),
+                  rpcCommitResult.getDetail()));
+            }
+            results.add(builder.build());
+          }
+          return results;
+        }
+
+      };
+
   @Getter
   private final RequestMethod<TxHash> sendTxByAddress = new RequestMethod<TxHash>() {
 
@@ -16,6 +16,7 @@ import hera.api.model.BytesValue;
 import hera.api.model.Fee;
 import hera.api.model.Name;
 import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
 import hera.key.Signer;
@@ -63,6 +64,11 @@ class TransactionTemplate extends AbstractTemplate implements TransactionOperati
     return request(transactionMethods.getCommit(), Arrays.<Object>asList(transaction));
   }
 
+  @Override
+  public List<TxCommitResult> commit(final List<Transaction> transactions) {
+    return request(transactionMethods.getCommitBatch(), Arrays.<Object>asList(transactions));
+  }
+
   @Override
   public TxHash sendTx(final Signer signer, final AccountAddress recipient, final Aer amount,
       final long nonce, final Fee fee, final BytesValue payload) {
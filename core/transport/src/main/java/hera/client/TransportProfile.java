@@ -0,0 +1,100 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Transport settings of a channel. Start from a preset and override with {@code toBuilder()}.
+ * <p>
+ * An aergo server drops a connection pinging more often than every 5 minutes, or pinging without
+ * an active call, with GOAWAY (too_many_pings) by default. So presets don't shorten a keepalive
+ * time, and only {@link #IDLE_KEEPALIVE} pings without a call.
+ * </p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+@Getter
+@ToString
+@EqualsAndHashCode
+@Builder(builderMethodName = "newBuilder", toBuilder = true)
+public class TransportProfile {
+
+  /**
+   * Same as grpc defaults. No keepalive ping is sent.
+   */
+  public static final TransportProfile DEFAULT = TransportProfile.newBuilder().build();
+
+  /**
+   * For small requests with a tight latency budget. Responses are handled in a transport thread
+   * without a hand-off, and a dead connection is found sooner by a keepalive ping during a call.
+   * Never block in a stream observer with this.
+   */
+  public static final TransportProfile LOW_LATENCY = TransportProfile.newBuilder()
+      .keepAliveTime(300L * 1000L)
+      .keepAliveTimeout(5000L)
+      .idleTimeout(24L * 60L * 60L * 1000L)
+      .directExecutor(true)
+      .build();
+
+  /**
+   * For large blocks, event lists and streams. Requests are compressed and a larger window keeps
+   * a stream from stalling on flow control.
+   */
+  public static final TransportProfile BULK_STREAMING = TransportProfile.newBuilder()
+      .compression("gzip")
+      .maxInboundMessageSize(64 * 1024 * 1024)
+      .flowControlWindow(8 * 1024 * 1024)
+      .build();
+
+  /**
+   * Keep an idle connection alive through a proxy or a NAT dropping silent ones, by pinging every
+   * 5 minutes even without a call. Use it only if a server permits it (eg. a grpc-go server with
+   * {@code PermitWithoutStream} enforcement). Otherwise a server closes the connection with
+   * GOAWAY (too_many_pings).
+   */
+  public static final TransportProfile IDLE_KEEPALIVE = TransportProfile.newBuilder()
+      .keepAliveTime(300L * 1000L)
+      .keepAliveWithoutCalls(true)
+      .build();
+
+  // null for no compression
+  @Default
+  protected final String compression = null;
+
+  // bytes
+  @Default
+  protected final int maxInboundMessageSize = 4 * 1024 * 1024;
+
+  // bytes
+  @Default
+  protected final int flowControlWindow = 1024 * 1024;
+
+  // milliseconds. 0 means no keepalive ping
+  @Default
+  protected final long keepAliveTime = 0L;
+
+  // milliseconds
+  @Default
+  protected final long keepAliveTimeout = 20L * 1000L;
+
+  @Default
+  protected final boolean keepAliveWithoutCalls = false;
+
+  // milliseconds
+  @Default
+  protected final long idleTimeout = 30L * 60L * 1000L;
+
+  // run callbacks in a transport thread instead of a channel executor
+  @Default
+  protected final boolean directExecutor = false;
+
+}
@@ -0,0 +1,48 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.strategy.ChannelConfigurationStrategy;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.okhttp.OkHttpChannelBuilder;
+import java.util.concurrent.TimeUnit;
+import lombok.ToString;
+
+@ToString
+class TransportProfileStrategy implements ChannelConfigurationStrategy {
+
+  protected final TransportProfile profile;
+
+  TransportProfileStrategy(final TransportProfile profile) {
+    assertNotNull(profile, "Transport profile must not null");
+    this.profile = profile;
+  }
+
+  @Override
+  public void configure(final ManagedChannelBuilder<?> builder) {
+    // a keepalive time as large as infinite disables it
+    final long keepAliveTime = 0L == profile.getKeepAliveTime() ? Long.MAX_VALUE
+        : profile.getKeepAliveTime();
+    builder.maxInboundMessageSize(profile.getMaxInboundMessageSize())
+        .keepAliveTime(keepAliveTime, TimeUnit.MILLISECONDS)
+        .keepAliveTimeout(profile.getKeepAliveTimeout(), TimeUnit.MILLISECONDS)
+        .keepAliveWithoutCalls(profile.isKeepAliveWithoutCalls())
+        .idleTimeout(profile.getIdleTimeout(), TimeUnit.MILLISECONDS);
+    if (profile.isDirectExecutor()) {
+      builder.directExecutor();
+    }
+
+    // flow control is transport specific
+    if (builder instanceof NettyChannelBuilder) {
+      ((NettyChannelBuilder) builder).flowControlWindow(profile.getFlowControlWindow());
+    } else if (builder instanceof OkHttpChannelBuilder) {
+      ((OkHttpChannelBuilder) builder).flowControlWindow(profile.getFlowControlWindow());
+    }
+  }
+
+}
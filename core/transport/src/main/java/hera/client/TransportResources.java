@@ -0,0 +1,150 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.annotation.ApiAudience;
+import hera.annotation.ApiStability;
+import io.grpc.netty.shaded.io.netty.channel.Channel;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioSocketChannel;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
+import java.io.Closeable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import org.slf4j.Logger;
+
+/**
+ * Transport threads shared by many {@link AergoClient}s: a netty event loop group and a channel
+ * executor. Without them, each client has its own.
+ * <p>
+ * A creator holds a reference and a client holds one from when it's built until it's closed.
+ * Threads are shut down when the last reference is released, so closing a client never stops
+ * others. An event
+ * loop is used by a client with a netty connection only.
+ * </p>
+ */
+@ApiAudience.Public
+@ApiStability.Unstable
+public class TransportResources implements Closeable {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final EventLoopGroup eventLoopGroup;
+
+  @Getter
+  protected final Class<? extends Channel> channelType;
+
+  @Getter
+  protected final ExecutorService executor;
+
+  protected final AtomicInteger referenceCount = new AtomicInteger(1);
+
+  protected final AtomicBoolean closed = new AtomicBoolean(false);
+
+  /**
+   * Create resources with a thread per processor for both an event loop and an executor, using
+   * native epoll if available.
+   */
+  public TransportResources() {
+    this(Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(),
+        true);
+  }
+
+  /**
+   * TransportResources constructor.
+   *
+   * @param eventLoopThreads the number of event loop threads
+   * @param executorThreads the number of channel executor threads
+   * @param preferNative whether to use native epoll if available
+   */
+  public TransportResources(final int eventLoopThreads, final int executorThreads,
+      final boolean preferNative) {
+    assertTrue(0 < eventLoopThreads, "Event loop thread count must be positive");
+    assertTrue(0 < executorThreads, "Executor thread count must be positive");
+    final DefaultThreadFactory eventLoopThreadFactory =
+        new DefaultThreadFactory("heraj-event-loop", true);
+    if (preferNative && Epoll.isAvailable()) {
+      this.eventLoopGroup = new EpollEventLoopGroup(eventLoopThreads, eventLoopThreadFactory);
+      this.channelType = EpollSocketChannel.class;
+    } else {
+      this.eventLoopGroup = new NioEventLoopGroup(eventLoopThreads, eventLoopThreadFactory);
+      this.channelType = NioSocketChannel.class;
+    }
+    this.executor = Executors.newFixedThreadPool(executorThreads,
+        new DefaultThreadFactory("heraj-channel-executor", true));
+    logger.debug("Create {}", this);
+  }
+
+  /**
+   * Get the number of references not released.
+   *
+   * @return a reference count
+   */
+  public int getReferenceCount() {
+    return referenceCount.get();
+  }
+
+  /**
+   * Add a reference.
+   *
+   * @throws IllegalStateException if already released
+   */
+  public void retain() {
+    while (true) {
+      final int current = referenceCount.get();
+      if (0 == current) {
+        throw new IllegalStateException(this + " is already released");
+      }
+      if (referenceCount.compareAndSet(current, current + 1)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Release a reference. Threads are shut down on the last one.
+   */
+  public void release() {
+    final int remaining = referenceCount.decrementAndGet();
+    if (remaining < 0) {
+      referenceCount.incrementAndGet();
+      throw new IllegalStateException(this + " is already released");
+    }
+    if (0 == remaining) {
+      logger.debug("Shut down {}", this);
+      eventLoopGroup.shutdownGracefully(0L, 3L, TimeUnit.SECONDS);
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Release a reference of a creator. Clients still using these keep working until closed.
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      release();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TransportResources(channelType=%s, references=%d)",
+        channelType.getSimpleName(), referenceCount.get());
+  }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import hera.Invocation;
+import hera.Response;
+import hera.api.model.Time;
+import hera.util.conf.ReloadableConfiguration;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A retry handler reading a retry count and an interval of {@link ClientTuning} on every failure.
+ */
+@ToString
+@RequiredArgsConstructor
+class TunedRetryFailoverHandler extends ComparableFailoverHandler {
+
+  @Getter
+  protected final int priority = 2;
+
+  protected final ReloadableConfiguration<ClientTuning> tuning;
+
+  @Override
+  public <T> Response<T> handle(final Invocation<T> invocation, final Response<T> response) {
+    final ClientTuning current = tuning.get();
+    if (0 == current.getRetryCount()) {
+      return response;
+    }
+    return new JustRetryFailoverHandler(current.getRetryCount(),
+        Time.of(current.getRetryInterval())).handle(invocation, response);
+  }
+
+}
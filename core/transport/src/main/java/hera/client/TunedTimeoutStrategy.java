@@ -0,0 +1,66 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.Invocation;
+import hera.RequestMethod;
+import hera.api.model.Time;
+import hera.strategy.InvocationStrategy;
+import hera.strategy.TimeoutStrategy;
+import hera.util.conf.ReloadableConfiguration;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A timeout strategy reading a timeout of {@link ClientTuning} on every invocation. A decorated
+ * invocation is cached per method, so it can't be fixed on apply.
+ */
+@ToString
+@RequiredArgsConstructor
+class TunedTimeoutStrategy implements InvocationStrategy {
+
+  protected final ReloadableConfiguration<ClientTuning> tuning;
+
+  @Override
+  public <T> Invocation<T> apply(final Invocation<T> invocation) {
+    assertNotNull(invocation, "Invocation must not null");
+    return new TunedInvocation<T>(invocation);
+  }
+
+  @RequiredArgsConstructor
+  @ToString
+  private class TunedInvocation<T> implements Invocation<T> {
+
+    protected final Invocation<T> delegate;
+
+    @Override
+    public RequestMethod<T> getRequestMethod() {
+      return delegate.getRequestMethod();
+    }
+
+    @Override
+    public List<Object> getParameters() {
+      return delegate.getParameters();
+    }
+
+    @Override
+    public T invoke() throws Exception {
+      final long timeout = tuning.get().getTimeout();
+      if (0L == timeout) {
+        return delegate.invoke();
+      }
+      return new TimeoutStrategy(Time.of(timeout)).apply(delegate).invoke();
+    }
+
+    @Override
+    public Invocation<T> withParameters(final List<Object> parameters) {
+      return new TunedInvocation<T>(delegate.withParameters(parameters));
+    }
+  }
+
+}
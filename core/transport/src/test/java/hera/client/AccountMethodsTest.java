@@ -6,11 +6,15 @@ package hera.client;
 
 import static hera.client.ClientContextKeys.GRPC_CLIENT;
 import static hera.client.ClientContextKeys.GRPC_VALUE_CHAIN_ID_HASH_HOLDER;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.protobuf.ByteString;
 import hera.*;
 import hera.api.model.AccountAddress;
@@ -18,7 +22,10 @@ import hera.api.model.AccountState;
 import hera.api.model.AccountTotalVote;
 import hera.api.model.ElectedCandidate;
 import hera.api.model.StakeInfo;
+import hera.api.model.StateBatch;
+import hera.api.model.StateBatchResult;
 import hera.api.model.TxHash;
+import hera.key.AergoKeyGenerator;
 import hera.transport.AccountAddressConverterFactory;
 import hera.transport.ModelConverter;
 import java.util.Arrays;
@@ -29,11 +36,13 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
 import types.Blockchain;
 import types.Rpc;
 
-@PrepareForTest({AergoRPCServiceBlockingStub.class, AergoRPCServiceStub.class})
+@PrepareForTest({AergoRPCServiceBlockingStub.class, AergoRPCServiceFutureStub.class,
+    AergoRPCServiceStub.class})
 public class AccountMethodsTest extends AbstractTestCase {
   @BeforeClass
   public static void beforeClass() throws Exception {
@@ -72,6 +81,105 @@ public class AccountMethodsTest extends AbstractTestCase {
     });
   }
 
+  @Test
+  public void testStateBatch() {
+    runOnOtherThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // given
+          final AergoRPCServiceBlockingStub mockBlockingStub = mock(
+              AergoRPCServiceBlockingStub.class);
+          when(mockBlockingStub.blockchain(any(Rpc.Empty.class)))
+              .thenReturn(Rpc.BlockchainStatus.newBuilder()
+                  .setBestHeight(10L)
+                  .build());
+          final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+          when(mockFutureStub.getState(any(Rpc.SingleBytes.class)))
+              .thenReturn(Futures.immediateFuture(Blockchain.State.newBuilder().build()));
+          final GrpcClientImpl mockClient = mock(GrpcClientImpl.class);
+          when(mockClient.getBlockingStub()).thenReturn(mockBlockingStub);
+          when(mockClient.getFutureStub()).thenReturn(mockFutureStub);
+          final Context context = EmptyContext.getInstance().withValue(GRPC_CLIENT, mockClient);
+          ContextHolder.attach(context);
+
+          // when
+          final AccountAddress other = new AergoKeyGenerator().create().getAddress();
+          final StateBatch stateBatch = StateBatch.newBuilder()
+              .addAll(anyAccountAddress, other, anyAccountAddress)
+              .concurrency(1)
+              .build();
+          final AccountMethods accountMethods = new AccountMethods();
+          final StateBatchResult result = accountMethods.getStateBatch()
+              .invoke(Arrays.<Object>asList(stateBatch));
+
+          // then
+          assertEquals(2, result.getStates().size());
+          assertEquals(anyAccountAddress, result.getState(anyAccountAddress).getAddress());
+          assertEquals(other, result.getState(other).getAddress());
+          assertEquals(10L, result.getBlockNumber());
+          assertEquals(1, result.getAttempts());
+          verify(mockFutureStub, times(2)).getState(any(Rpc.SingleBytes.class));
+          verify(mockBlockingStub, times(1)).blockchain(any(Rpc.Empty.class));
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          ContextHolder.remove();
+        }
+      }
+    });
+  }
+
+  @Test
+  public void testStateBatchPinnedToBestBlock() {
+    runOnOtherThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // given
+          final Rpc.BlockchainStatus first = Rpc.BlockchainStatus.newBuilder()
+              .setBestHeight(10L)
+              .setBestBlockHash(ByteString.copyFrom(new byte[] {1}))
+              .build();
+          final Rpc.BlockchainStatus second = Rpc.BlockchainStatus.newBuilder()
+              .setBestHeight(11L)
+              .setBestBlockHash(ByteString.copyFrom(new byte[] {2}))
+              .build();
+          final AergoRPCServiceBlockingStub mockBlockingStub = mock(
+              AergoRPCServiceBlockingStub.class);
+          when(mockBlockingStub.blockchain(any(Rpc.Empty.class)))
+              .thenReturn(first, second, second, second);
+          final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+          when(mockFutureStub.getState(any(Rpc.SingleBytes.class)))
+              .thenReturn(Futures.immediateFuture(Blockchain.State.newBuilder().build()));
+          final GrpcClientImpl mockClient = mock(GrpcClientImpl.class);
+          when(mockClient.getBlockingStub()).thenReturn(mockBlockingStub);
+          when(mockClient.getFutureStub()).thenReturn(mockFutureStub);
+          final Context context = EmptyContext.getInstance().withValue(GRPC_CLIENT, mockClient);
+          ContextHolder.attach(context);
+
+          // when
+          final StateBatch stateBatch = StateBatch.newBuilder()
+              .add(anyAccountAddress)
+              .pinToBestBlock(true)
+              .build();
+          final AccountMethods accountMethods = new AccountMethods();
+          final StateBatchResult result = accountMethods.getStateBatch()
+              .invoke(Arrays.<Object>asList(stateBatch));
+
+          // then
+          assertEquals(1, result.getStates().size());
+          assertEquals(11L, result.getBlockNumber());
+          assertEquals(2, result.getAttempts());
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          ContextHolder.remove();
+        }
+      }
+    });
+  }
+
   @Test
   public void testCreateNameTx() {
     runOnOtherThread(new Runnable() {
@@ -28,10 +28,14 @@ import hera.api.model.ChainIdHash;
 import hera.api.model.ElectedCandidate;
 import hera.api.model.RawTransaction;
 import hera.api.model.StakeInfo;
+import hera.api.model.StateBatch;
+import hera.api.model.StateBatchResult;
 import hera.api.model.Transaction;
 import hera.api.model.TxHash;
 import hera.key.AergoKey;
 import hera.key.AergoKeyGenerator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
@@ -57,6 +61,24 @@ public class AccountTemplateTest extends AbstractTestCase {
     assertEquals(expected, accountTemplate.getState(anyAccountAddress));
   }
 
+  @Test
+  public void testGetStates() throws Exception {
+    // given
+    final AccountTemplate accountTemplate = new AccountTemplate(contextStorage);
+    final Requester mockRequester = mock(Requester.class);
+    final StateBatchResult expected = StateBatchResult.newBuilder()
+        .states(Collections.<AccountAddress, AccountState>emptyMap())
+        .build();
+    when(mockRequester.request(ArgumentMatchers.<Invocation<StateBatchResult>>any()))
+        .thenReturn(expected);
+    accountTemplate.requester = mockRequester;
+
+    // then
+    assertEquals(expected, accountTemplate.getStates(Arrays.asList(anyAccountAddress)));
+    assertEquals(expected,
+        accountTemplate.getStates(StateBatch.newBuilder().add(anyAccountAddress).build()));
+  }
+
   @Test
   public void testCreateNameTx() throws Exception {
     // given
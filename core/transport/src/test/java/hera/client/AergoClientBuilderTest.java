@@ -4,9 +4,17 @@
 
 package hera.client;
 
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_PROFILE;
+import static hera.client.ClientContextKeys.GRPC_REQUEST_TIMEOUT;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import hera.AbstractTestCase;
+import hera.Context;
+import hera.strategy.TimeoutStrategy;
+import hera.util.conf.InMemoryConfiguration;
+import hera.util.conf.ReloadableConfiguration;
 import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
@@ -24,4 +32,59 @@ public class AergoClientBuilderTest extends AbstractTestCase {
     assertNotNull(aergoClient);
   }
 
+  @Test
+  public void testBuildWithTransportProfile() {
+    final Context context = new AergoClientBuilder()
+        .withTransportProfile(TransportProfile.BULK_STREAMING)
+        .initContext();
+    assertEquals(TransportProfile.BULK_STREAMING, context.get(GRPC_CONNECTION_PROFILE));
+  }
+
+  @Test
+  public void testBuildWithTuning() {
+    final ReloadableConfiguration<ClientTuning> tuning =
+        new ReloadableConfiguration<>(ClientTuning.BINDER, new InMemoryConfiguration());
+    final AergoClient aergoClient = new AergoClientBuilder()
+        .withTimeout(3000L, TimeUnit.MILLISECONDS)
+        .withTuning(tuning)
+        .build();
+    assertNotNull(aergoClient);
+  }
+
+  @Test
+  public void shouldReadBackTuningConfiguration() {
+    final Context context = new AergoClientBuilder()
+        .addConfiguration(ClientTuning.TIMEOUT, "3000")
+        .initContext();
+    assertTrue(context.get(GRPC_REQUEST_TIMEOUT) instanceof TunedTimeoutStrategy);
+  }
+
+  @Test
+  public void shouldKeepExplicitSettingsNotConfigured() {
+    // when
+    final ClientTuning tuning = new AergoClientBuilder()
+        .withTimeout(3000L, TimeUnit.MILLISECONDS)
+        .withRetry(3, 1000L, TimeUnit.MILLISECONDS)
+        .addConfiguration(ClientTuning.RETRY_COUNT, "5")
+        .resolveTuning()
+        .get();
+
+    // then
+    assertEquals(3000L, tuning.getTimeout());
+    assertEquals(5, tuning.getRetryCount());
+    assertEquals(1000L, tuning.getRetryInterval());
+  }
+
+  @Test
+  public void shouldNotTuneWithoutTuningKey() {
+    // when
+    final Context context = new AergoClientBuilder()
+        .withTimeout(3000L, TimeUnit.MILLISECONDS)
+        .addConfiguration("other.key", "value")
+        .initContext();
+
+    // then
+    assertTrue(context.get(GRPC_REQUEST_TIMEOUT) instanceof TimeoutStrategy);
+  }
+
 }
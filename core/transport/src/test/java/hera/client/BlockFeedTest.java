@@ -0,0 +1,315 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.api.BlockOperation;
+import hera.api.model.Block;
+import hera.api.model.BlockHash;
+import hera.api.model.BlockHeader;
+import hera.api.model.BytesValue;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class BlockFeedTest extends AbstractTestCase {
+
+  protected final AtomicReference<StreamObserver<Block>> upstream = new AtomicReference<>();
+
+  protected final List<Subscription<Block>> upstreamSubscriptions = new ArrayList<>();
+
+  protected BlockOperation mockOperation;
+
+  @SuppressWarnings("unchecked")
+  protected BlockOperation mockOperation() {
+    mockOperation = mock(BlockOperation.class);
+    when(mockOperation.subscribeBlock(any(StreamObserver.class)))
+        .thenAnswer(new Answer<Subscription<Block>>() {
+          @Override
+          public Subscription<Block> answer(final InvocationOnMock invocation) {
+            upstream.set((StreamObserver<Block>) invocation.getArguments()[0]);
+            final Subscription<Block> subscription = mock(Subscription.class);
+            upstreamSubscriptions.add(subscription);
+            return subscription;
+          }
+        });
+    return mockOperation;
+  }
+
+  protected Block block(final long height) {
+    return Block.newBuilder()
+        .hash(BlockHash.of(BytesValue.of(("block" + height).getBytes())))
+        .blockHeader(BlockHeader.newBuilder().blockNumber(height).build())
+        .build();
+  }
+
+  protected static class Collector implements StreamObserver<Block> {
+
+    protected final List<Long> heights = Collections.synchronizedList(new ArrayList<Long>());
+
+    protected final CountDownLatch ended = new CountDownLatch(1);
+
+    protected volatile Throwable error;
+
+    @Override
+    public void onNext(final Block value) {
+      heights.add(value.getBlockNumber());
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      error = t;
+      ended.countDown();
+    }
+
+    @Override
+    public void onCompleted() {
+      ended.countDown();
+    }
+
+    protected void waitFor(final int count) throws InterruptedException {
+      for (int i = 0; i < 500 && heights.size() < count; ++i) {
+        Thread.sleep(10L);
+      }
+    }
+  }
+
+  @Test
+  public void shouldShareUpstream() throws Exception {
+    // given
+    final BlockFeed feed = new BlockFeed(mockOperation());
+    try {
+      final List<Collector> collectors = new ArrayList<>();
+      for (int i = 0; i < 10; ++i) {
+        final Collector collector = new Collector();
+        feed.subscribeBlock(collector);
+        collectors.add(collector);
+      }
+
+      // when
+      for (long height = 1L; height <= 3L; ++height) {
+        upstream.get().onNext(block(height));
+      }
+
+      // then
+      verify(mockOperation, times(1)).subscribeBlock(any(StreamObserver.class));
+      assertEquals(1, feed.getUpstreamCount());
+      assertEquals(10, feed.getObserverCount());
+      for (final Collector collector : collectors) {
+        collector.waitFor(3);
+        assertEquals(Arrays.asList(1L, 2L, 3L), collector.heights);
+      }
+    } finally {
+      feed.close();
+    }
+  }
+
+  @Test
+  public void shouldReplayLastBlocks() throws Exception {
+    // given
+    final BlockFeed feed = new BlockFeed(mockOperation(), 16, 3);
+    try {
+      feed.subscribeBlock(new Collector());
+      for (long height = 1L; height <= 5L; ++height) {
+        upstream.get().onNext(block(height));
+      }
+
+      // when
+      final Collector late = new Collector();
+      feed.subscribeBlock(late, 2);
+      upstream.get().onNext(block(6L));
+
+      // then
+      late.waitFor(3);
+      assertEquals(Arrays.asList(4L, 5L, 6L), late.heights);
+    } finally {
+      feed.close();
+    }
+  }
+
+  @Test
+  public void shouldIsolateSlowObserver() throws Exception {
+    // given
+    final BlockFeed feed = new BlockFeed(mockOperation(), 2, 0);
+    try {
+      final CountDownLatch release = new CountDownLatch(1);
+      final Collector slow = new Collector() {
+        @Override
+        public void onNext(final Block value) {
+          try {
+            release.await(5L, TimeUnit.SECONDS);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          super.onNext(value);
+        }
+      };
+      final Collector fast = new Collector();
+      final BlockFeed.FeedSubscription<Block> slowSubscription = feed.subscribeBlock(slow);
+      final BlockFeed.FeedSubscription<Block> fastSubscription = feed.subscribeBlock(fast);
+
+      // when
+      for (long height = 1L; height <= 10L; ++height) {
+        upstream.get().onNext(block(height));
+        fast.waitFor((int) height);
+      }
+
+      // then
+      assertEquals(10, fast.heights.size());
+      assertEquals(0L, fastSubscription.getDroppedCount());
+      assertTrue(0L < slowSubscription.getDroppedCount());
+      assertTrue(slowSubscription.getQueueDepth() <= 2);
+
+      // when
+      release.countDown();
+      slow.waitFor(10 - (int) slowSubscription.getDroppedCount());
+
+      // then
+      assertEquals(10L, (long) slow.heights.get(slow.heights.size() - 1));
+    } finally {
+      feed.close();
+    }
+  }
+
+  @Test
+  public void shouldEndObserversOnUpstreamError() throws Exception {
+    // given
+    final BlockFeed feed = new BlockFeed(mockOperation());
+    try {
+      final Collector collector = new Collector();
+      final Subscription<Block> subscription = feed.subscribeBlock(collector);
+      upstream.get().onNext(block(1L));
+
+      // when
+      upstream.get().onError(new IllegalStateException());
+
+      // then
+      assertTrue(collector.ended.await(5L, TimeUnit.SECONDS));
+      assertEquals(Arrays.asList(1L), collector.heights);
+      assertTrue(collector.error instanceof IllegalStateException);
+      assertTrue(subscription.isUnsubscribed());
+      assertEquals(0, feed.getUpstreamCount());
+
+      // when
+      feed.subscribeBlock(new Collector());
+
+      // then
+      assertEquals(2, upstreamSubscriptions.size());
+    } finally {
+      feed.close();
+    }
+  }
+
+  @Test
+  public void shouldNotReplayOverGap() throws Exception {
+    // given
+    final BlockFeed feed = new BlockFeed(mockOperation(), 16, 3);
+    try {
+      feed.subscribeBlock(new Collector());
+      for (long height = 1L; height <= 3L; ++height) {
+        upstream.get().onNext(block(height));
+      }
+
+      // when
+      upstream.get().onError(new IllegalStateException());
+      final Collector late = new Collector();
+      feed.subscribeBlock(late, 3);
+      upstream.get().onNext(block(6L));
+
+      // then
+      late.waitFor(1);
+      assertEquals(Arrays.asList(6L), late.heights);
+    } finally {
+      feed.close();
+    }
+  }
+
+  @Test
+  public void testUnsubscribe() throws Exception {
+    // given
+    final BlockFeed feed = new BlockFeed(mockOperation());
+    try {
+      final Collector collector = new Collector();
+      final Subscription<Block> subscription = feed.subscribeBlock(collector);
+
+      // when
+      subscription.unsubscribe();
+      upstream.get().onNext(block(1L));
+
+      // then
+      assertTrue(subscription.isUnsubscribed());
+      assertEquals(0, feed.getObserverCount());
+      assertEquals(1, feed.getUpstreamCount());
+      verify(upstreamSubscriptions.get(0), times(0)).unsubscribe();
+    } finally {
+      feed.close();
+    }
+  }
+
+  @Test
+  public void shouldShareBoundedFeedThreads() throws Exception {
+    // given
+    final BlockFeed feed = new BlockFeed(mockOperation(), 256, 0, 1);
+    final List<Collector> collectors = new ArrayList<>();
+    final List<Long> expected = new ArrayList<>();
+    try {
+      for (int i = 0; i < 3; ++i) {
+        final Collector collector = new Collector();
+        feed.subscribeBlock(collector);
+        collectors.add(collector);
+      }
+
+      // when
+      for (long height = 1L; height <= 200L; ++height) {
+        upstream.get().onNext(block(height));
+        expected.add(height);
+      }
+
+      // then
+      for (final Collector collector : collectors) {
+        collector.waitFor(200);
+        assertEquals(expected, collector.heights);
+      }
+      assertEquals(1, feed.executor.getLargestPoolSize());
+    } finally {
+      feed.close();
+    }
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    // given
+    final BlockFeed feed = new BlockFeed(mockOperation());
+    final Collector collector = new Collector();
+    feed.subscribeBlock(collector);
+
+    // when
+    feed.close();
+
+    // then
+    assertTrue(collector.ended.await(5L, TimeUnit.SECONDS));
+    verify(upstreamSubscriptions.get(0), times(1)).unsubscribe();
+    assertEquals(0, feed.getUpstreamCount());
+    assertEquals(0, feed.getObserverCount());
+  }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+
+import hera.AbstractTestCase;
+import hera.util.conf.InMemoryConfiguration;
+import hera.util.conf.ReloadableConfiguration;
+import org.junit.Test;
+
+public class ClientTuningTest extends AbstractTestCase {
+
+  @Test
+  public void testBind() {
+    // given
+    final InMemoryConfiguration configuration = new InMemoryConfiguration();
+    configuration.define(ClientTuning.TIMEOUT, "3000");
+    configuration.define(ClientTuning.RETRY_COUNT, "2");
+
+    // when
+    final ClientTuning tuning = ClientTuning.BINDER.bind(configuration);
+
+    // then
+    assertEquals(3000L, tuning.getTimeout());
+    assertEquals(2, tuning.getRetryCount());
+    assertEquals(ClientTuning.DEFAULT.getRetryInterval(), tuning.getRetryInterval());
+  }
+
+  @Test
+  public void shouldKeepOnInvalidValue() {
+    // given
+    final InMemoryConfiguration configuration = new InMemoryConfiguration();
+    configuration.define(ClientTuning.RETRY_COUNT, "2");
+    final ReloadableConfiguration<ClientTuning> tuning =
+        new ReloadableConfiguration<>(ClientTuning.BINDER, configuration);
+
+    // when
+    configuration.define(ClientTuning.RETRY_COUNT, "-1");
+    tuning.reload();
+
+    // then
+    assertEquals(2, tuning.get().getRetryCount());
+  }
+
+  @Test
+  public void shouldTakeUnconfiguredFromBase() {
+    // given
+    final InMemoryConfiguration configuration = new InMemoryConfiguration();
+    configuration.define(ClientTuning.RETRY_COUNT, "5");
+    final ClientTuning base = ClientTuning.newBuilder()
+        .timeout(3000L)
+        .retryCount(3)
+        .retryInterval(1000L)
+        .build();
+
+    // when
+    final ClientTuning tuning = ClientTuning.binder(base).bind(configuration);
+
+    // then
+    assertEquals(3000L, tuning.getTimeout());
+    assertEquals(5, tuning.getRetryCount());
+    assertEquals(1000L, tuning.getRetryInterval());
+  }
+
+}
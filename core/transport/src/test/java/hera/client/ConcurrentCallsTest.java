@@ -0,0 +1,147 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import hera.AbstractTestCase;
+import hera.api.function.Function1;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class ConcurrentCallsTest extends AbstractTestCase {
+
+  @Test
+  public void shouldKeepOrderWithBoundedConcurrency() throws Exception {
+    // given
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    final AtomicInteger inFlight = new AtomicInteger(0);
+    final AtomicInteger maxInFlight = new AtomicInteger(0);
+    final List<Integer> requests = new ArrayList<>();
+    for (int i = 0; i < 20; ++i) {
+      requests.add(i);
+    }
+    try {
+      // when
+      final List<String> responses = ConcurrentCalls.callInOrder(requests, 3,
+          new Function1<Integer, ListenableFuture<String>>() {
+            @Override
+            public ListenableFuture<String> apply(final Integer request) {
+              final SettableFuture<String> future = SettableFuture.create();
+              final int current = inFlight.incrementAndGet();
+              maxInFlight.set(Math.max(maxInFlight.get(), current));
+              executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                  try {
+                    // later requests complete first
+                    Thread.sleep(20L - request);
+                  } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                  inFlight.decrementAndGet();
+                  future.set("response" + request);
+                }
+              });
+              return future;
+            }
+          });
+
+      // then
+      assertEquals(requests.size(), responses.size());
+      for (int i = 0; i < requests.size(); ++i) {
+        assertEquals("response" + i, responses.get(i));
+      }
+      assertTrue(maxInFlight.get() <= 3);
+    } finally {
+      executor.shutdownNow();
+      executor.awaitTermination(1L, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void shouldStopOnFailure() throws Exception {
+    // given
+    final List<SettableFuture<String>> futures = new ArrayList<>();
+    final IllegalStateException error = new IllegalStateException();
+
+    // when
+    try {
+      ConcurrentCalls.callInOrder(asList(0, 1, 2, 3), 1,
+          new Function1<Integer, ListenableFuture<String>>() {
+            @Override
+            public ListenableFuture<String> apply(final Integer request) {
+              final SettableFuture<String> future = SettableFuture.create();
+              futures.add(future);
+              if (1 == request) {
+                future.setException(error);
+              } else {
+                future.set("response" + request);
+              }
+              return future;
+            }
+          });
+      fail();
+    } catch (IllegalStateException e) {
+      // then
+      assertTrue(error == e);
+      assertEquals(2, futures.size());
+    }
+  }
+
+  @Test
+  public void shouldCancelLeftOnFailure() throws Exception {
+    // given
+    final SettableFuture<String> failed = SettableFuture.create();
+    final SettableFuture<String> pending = SettableFuture.create();
+
+    // when
+    try {
+      ConcurrentCalls.callInOrder(asList(0, 1), 2,
+          new Function1<Integer, ListenableFuture<String>>() {
+            @Override
+            public ListenableFuture<String> apply(final Integer request) {
+              if (0 == request) {
+                return failed;
+              }
+              // fails after all calls are made
+              failed.setException(new IllegalStateException());
+              return pending;
+            }
+          });
+      fail();
+    } catch (IllegalStateException e) {
+      // then
+      assertTrue(pending.isCancelled());
+    }
+  }
+
+  @Test
+  public void shouldReturnEmptyWithoutRequest() throws Exception {
+    // when
+    final List<String> responses = ConcurrentCalls.callInOrder(Collections.<Integer>emptyList(),
+        1, new Function1<Integer, ListenableFuture<String>>() {
+          @Override
+          public ListenableFuture<String> apply(final Integer request) {
+            throw new UnsupportedOperationException();
+          }
+        });
+
+    // then
+    assertTrue(responses.isEmpty());
+  }
+
+}
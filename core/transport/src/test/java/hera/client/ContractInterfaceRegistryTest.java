@@ -0,0 +1,279 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ContractInterfaceRegistry.DEFAULT_CAPACITY;
+import static java.util.Arrays.asList;
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.api.BlockOperation;
+import hera.api.model.Block;
+import hera.api.model.BlockHeader;
+import hera.api.model.BytesValue;
+import hera.api.model.ChainIdHash;
+import hera.api.model.ContractAddress;
+import hera.api.model.ContractFunction;
+import hera.api.model.ContractInterface;
+import hera.api.model.RawTransaction;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.api.model.Transaction;
+import hera.api.model.TxHash;
+import hera.key.AergoKey;
+import hera.key.AergoKeyGenerator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ContractInterfaceRegistryTest extends AbstractTestCase {
+
+  protected ContractInterface contractInterface(final ContractAddress contractAddress,
+      final String functionName) {
+    return ContractInterface.newBuilder()
+        .address(contractAddress)
+        .functions(asList(new ContractFunction(functionName)))
+        .build();
+  }
+
+  protected Block blockWithRedeploy(final ContractAddress contractAddress) {
+    final AergoKey creator = new AergoKeyGenerator().create();
+    final RawTransaction redeploy = RawTransaction.newReDeployContractBuilder()
+        .chainIdHash(ChainIdHash.of(BytesValue.EMPTY))
+        .creator(creator.getAddress())
+        .contractAddress(contractAddress)
+        .definition(anyDefinition)
+        .nonce(1L)
+        .build();
+    return Block.newBuilder()
+        .blockHeader(BlockHeader.newBuilder().blockNumber(anyHeight).build())
+        .transactions(asList(anyTransaction, creator.sign(redeploy)))
+        .build();
+  }
+
+  @Test
+  public void testRegister() {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    final String functionName = randomUUID().toString();
+    final ContractInterface registered = contractInterface(anyContractAddress, functionName);
+
+    // when
+    assertNull(registry.get(anyContractAddress));
+    assertSame(registered, registry.register(registered));
+
+    // then
+    assertSame(registered, registry.get(anyContractAddress));
+    assertEquals(ContractInterfaceRegistry.fingerprint(registered),
+        registry.getFingerprint(anyContractAddress));
+  }
+
+  @Test
+  public void shouldKeepRegisteredOneWithSameFingerprint() {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    final String functionName = randomUUID().toString();
+    final ContractInterface registered = contractInterface(anyContractAddress, functionName);
+    registry.register(registered);
+
+    // when
+    final ContractInterface same = contractInterface(anyContractAddress, functionName);
+    final ContractInterface changed = contractInterface(anyContractAddress,
+        randomUUID().toString());
+
+    // then
+    assertSame(registered, registry.register(same));
+    assertNotEquals(ContractInterfaceRegistry.fingerprint(registered),
+        ContractInterfaceRegistry.fingerprint(changed));
+    assertSame(changed, registry.register(changed));
+    assertSame(changed, registry.get(anyContractAddress));
+  }
+
+  @Test
+  public void testInvalidate() {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    final ContractAddress other = new AergoKeyGenerator().create().getAddress()
+        .adapt(ContractAddress.class);
+    registry.register(contractInterface(anyContractAddress, randomUUID().toString()));
+    registry.register(contractInterface(other, randomUUID().toString()));
+
+    // when
+    registry.invalidate(anyContractAddress);
+
+    // then
+    assertNull(registry.get(anyContractAddress));
+    assertNotNull(registry.get(other));
+    registry.invalidateAll();
+    assertNull(registry.get(other));
+  }
+
+  @Test
+  public void testInvalidateRedeployed() {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    final ContractAddress other = new AergoKeyGenerator().create().getAddress()
+        .adapt(ContractAddress.class);
+    registry.register(contractInterface(anyContractAddress, randomUUID().toString()));
+    registry.register(contractInterface(other, randomUUID().toString()));
+
+    // when
+    registry.invalidateRedeployed(blockWithRedeploy(anyContractAddress));
+
+    // then
+    assertNull(registry.get(anyContractAddress));
+    assertNotNull(registry.get(other));
+  }
+
+  @Test
+  public void shouldNotRegisterWhileRedeploying() {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    final TxHash first = TxHash.of(BytesValue.of(new byte[] {1}));
+    final TxHash second = TxHash.of(BytesValue.of(new byte[] {2}));
+    registry.register(contractInterface(anyContractAddress, randomUUID().toString()));
+
+    // when
+    registry.redeploying(anyContractAddress, first);
+    registry.redeploying(anyContractAddress, second);
+
+    // then
+    assertNull(registry.get(anyContractAddress));
+    final ContractInterface stale = contractInterface(anyContractAddress, "stale");
+    assertSame(stale, registry.register(stale));
+    assertNull(registry.get(anyContractAddress));
+    // confirmation of an older one keeps waiting for a later one
+    registry.redeployed(anyContractAddress, first);
+    assertEquals(second, registry.getRedeploying(anyContractAddress));
+    registry.redeployed(anyContractAddress, second);
+    assertNull(registry.getRedeploying(anyContractAddress));
+    final ContractInterface redeployed = contractInterface(anyContractAddress, "redeployed");
+    registry.register(redeployed);
+    assertSame(redeployed, registry.get(anyContractAddress));
+  }
+
+  @Test
+  public void shouldConfirmRedeployOnBlock() {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    final Block block = blockWithRedeploy(anyContractAddress);
+    final TxHash txHash = block.getTransactions().get(1).getHash();
+    registry.redeploying(anyContractAddress, txHash);
+    registry.register(contractInterface(anyContractAddress, randomUUID().toString()));
+
+    // when
+    registry.invalidateRedeployed(block);
+
+    // then
+    assertNull(registry.getRedeploying(anyContractAddress));
+    assertNull(registry.get(anyContractAddress));
+  }
+
+  @SuppressWarnings("unchecked")
+  protected AergoClient mockClient(final List<StreamObserver<Block>> observers,
+      final List<Subscription<Block>> subscriptions) {
+    final BlockOperation mockBlockOperation = mock(BlockOperation.class);
+    when(mockBlockOperation.subscribeBlock(any(StreamObserver.class)))
+        .thenAnswer(new Answer<Subscription<Block>>() {
+          @Override
+          public Subscription<Block> answer(final InvocationOnMock invocation) {
+            observers.add((StreamObserver<Block>) invocation.getArguments()[0]);
+            final Subscription<Block> subscription = mock(Subscription.class);
+            subscriptions.add(subscription);
+            return subscription;
+          }
+        });
+    final AergoClient mockClient = mock(AergoClient.class);
+    when(mockClient.getBlockOperation()).thenReturn(mockBlockOperation);
+    return mockClient;
+  }
+
+  @Test
+  public void testWatch() {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    registry.register(contractInterface(anyContractAddress, randomUUID().toString()));
+    final List<StreamObserver<Block>> observers = new CopyOnWriteArrayList<>();
+    final List<Subscription<Block>> subscriptions = new CopyOnWriteArrayList<>();
+
+    // when
+    final Subscription<Block> watching = registry.watch(mockClient(observers, subscriptions));
+    observers.get(0).onNext(Block.EMPTY);
+    assertNotNull(registry.get(anyContractAddress));
+    observers.get(0).onNext(blockWithRedeploy(anyContractAddress));
+
+    // then
+    assertEquals(1, observers.size());
+    assertNull(registry.get(anyContractAddress));
+    assertFalse(watching.isUnsubscribed());
+    watching.unsubscribe();
+    assertTrue(watching.isUnsubscribed());
+    verify(subscriptions.get(0)).unsubscribe();
+  }
+
+  @Test
+  public void shouldSubscribeAgainOnError() throws Exception {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    registry.register(contractInterface(anyContractAddress, randomUUID().toString()));
+    final List<StreamObserver<Block>> observers = new CopyOnWriteArrayList<>();
+    final List<Subscription<Block>> subscriptions = new CopyOnWriteArrayList<>();
+    final Subscription<Block> watching = registry.watch(mockClient(observers, subscriptions));
+
+    // when
+    observers.get(0).onError(new IllegalStateException());
+
+    // then
+    assertNull(registry.get(anyContractAddress));
+    for (int i = 0; i < 500 && observers.size() < 2; ++i) {
+      Thread.sleep(10L);
+    }
+    assertEquals(2, observers.size());
+    assertFalse(watching.isUnsubscribed());
+    watching.unsubscribe();
+    verify(subscriptions.get(1)).unsubscribe();
+  }
+
+  @Test
+  public void shouldExpireWithoutWatch() {
+    // given
+    final ContractInterfaceRegistry registry =
+        new ContractInterfaceRegistry(DEFAULT_CAPACITY, 0L, TimeUnit.MILLISECONDS);
+    final ContractInterface registered =
+        contractInterface(anyContractAddress, randomUUID().toString());
+
+    // when
+    registry.register(registered);
+
+    // then
+    assertNull(registry.get(anyContractAddress));
+
+    // when
+    final Subscription<Block> watching = registry.watch(
+        mockClient(new CopyOnWriteArrayList<StreamObserver<Block>>(),
+            new CopyOnWriteArrayList<Subscription<Block>>()));
+    registry.register(registered);
+
+    // then
+    assertSame(registered, registry.get(anyContractAddress));
+    watching.unsubscribe();
+    assertNull(registry.get(anyContractAddress));
+  }
+
+}
@@ -6,17 +6,23 @@ package hera.client;
 
 import static hera.client.ClientContextKeys.GRPC_CLIENT;
 import static hera.client.ClientContextKeys.GRPC_VALUE_CHAIN_ID_HASH_HOLDER;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.util.concurrent.Futures;
 import hera.*;
 import hera.api.model.ContractInterface;
 import hera.api.model.ContractResult;
 import hera.api.model.ContractTxReceipt;
 import hera.api.model.Event;
+import hera.api.model.QueryBatch;
+import hera.api.model.QueryBatchResult;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
 import hera.api.model.TxHash;
@@ -30,11 +36,13 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import types.AergoRPCServiceGrpc.AergoRPCServiceBlockingStub;
+import types.AergoRPCServiceGrpc.AergoRPCServiceFutureStub;
 import types.AergoRPCServiceGrpc.AergoRPCServiceStub;
 import types.Blockchain;
 import types.Rpc;
 
-@PrepareForTest({AergoRPCServiceBlockingStub.class, AergoRPCServiceStub.class})
+@PrepareForTest({AergoRPCServiceBlockingStub.class, AergoRPCServiceFutureStub.class,
+    AergoRPCServiceStub.class})
 public class ContractMethodsTest extends AbstractTestCase {
   @BeforeClass
   public static void beforeClass() throws Exception {
@@ -315,6 +323,84 @@ public class ContractMethodsTest extends AbstractTestCase {
     });
   }
 
+  @Test
+  public void testQueryBatch() {
+    runOnOtherThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // given
+          final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+          when(mockFutureStub.queryContract(any(Blockchain.Query.class)))
+              .thenReturn(Futures.immediateFuture(Rpc.SingleBytes.newBuilder().build()));
+          final GrpcClientImpl mockClient = mock(GrpcClientImpl.class);
+          when(mockClient.getFutureStub()).thenReturn(mockFutureStub);
+          final Context context = EmptyContext.getInstance().withValue(GRPC_CLIENT, mockClient);
+          ContextHolder.attach(context);
+
+          // then
+          final ContractMethods contractMethods = new ContractMethods();
+          final QueryBatch queryBatch = QueryBatch.newBuilder()
+              .addAll(anyInvocation, anyInvocation, anyInvocation)
+              .concurrency(2)
+              .build();
+          final List<Object> parameters = Arrays.<Object>asList(queryBatch);
+          final QueryBatchResult queryBatchResult = contractMethods.getQueryBatch()
+              .invoke(parameters);
+          assertEquals(3, queryBatchResult.getResults().size());
+          verify(mockFutureStub, times(1)).queryContract(any(Blockchain.Query.class));
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          ContextHolder.remove();
+        }
+      }
+    });
+  }
+
+  @Test
+  public void testQueryBatchPinnedToBestBlock() {
+    runOnOtherThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // given
+          final AergoRPCServiceBlockingStub mockBlockingStub = mock(
+              AergoRPCServiceBlockingStub.class);
+          when(mockBlockingStub.blockchain(any(Rpc.Empty.class)))
+              .thenReturn(Rpc.BlockchainStatus.newBuilder()
+                  .setBestHeight(anyHeight)
+                  .build());
+          final AergoRPCServiceFutureStub mockFutureStub = mock(AergoRPCServiceFutureStub.class);
+          when(mockFutureStub.queryContract(any(Blockchain.Query.class)))
+              .thenReturn(Futures.immediateFuture(Rpc.SingleBytes.newBuilder().build()));
+          final GrpcClientImpl mockClient = mock(GrpcClientImpl.class);
+          when(mockClient.getBlockingStub()).thenReturn(mockBlockingStub);
+          when(mockClient.getFutureStub()).thenReturn(mockFutureStub);
+          final Context context = EmptyContext.getInstance().withValue(GRPC_CLIENT, mockClient);
+          ContextHolder.attach(context);
+
+          // then
+          final ContractMethods contractMethods = new ContractMethods();
+          final QueryBatch queryBatch = QueryBatch.newBuilder()
+              .add(anyInvocation)
+              .pinToBestBlock(true)
+              .build();
+          final List<Object> parameters = Arrays.<Object>asList(queryBatch);
+          final QueryBatchResult queryBatchResult = contractMethods.getQueryBatch()
+              .invoke(parameters);
+          assertEquals(1, queryBatchResult.getResults().size());
+          assertEquals(anyHeight, queryBatchResult.getBlockNumber());
+          assertEquals(1, queryBatchResult.getAttempts());
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          ContextHolder.remove();
+        }
+      }
+    });
+  }
+
   @Test
   public void testListEvent() {
     runOnOtherThread(new Runnable() {
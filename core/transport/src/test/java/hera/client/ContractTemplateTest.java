@@ -6,7 +6,10 @@ package hera.client;
 
 import static java.util.Collections.emptyList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import hera.AbstractTestCase;
@@ -24,12 +27,19 @@ import hera.api.model.ContractTxHash;
 import hera.api.model.ContractTxReceipt;
 import hera.api.model.Event;
 import hera.api.model.EventFilter;
+import hera.api.model.QueryBatch;
+import hera.api.model.QueryBatchResult;
 import hera.api.model.StreamObserver;
 import hera.api.model.Subscription;
+import hera.api.model.TxHash;
 import hera.key.AergoKeyGenerator;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 public class ContractTemplateTest extends AbstractTestCase {
 
@@ -101,6 +111,99 @@ public class ContractTemplateTest extends AbstractTestCase {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void testGetContractInterfaceWithRegistry() throws Exception {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    final ContractTemplate contractTemplate = new ContractTemplate(
+        new UnmodifiableContextStorage(EmptyContext.getInstance()
+            .withValue(ClientContextKeys.GRPC_VALUE_CONTRACT_INTERFACE_REGISTRY, registry)));
+    final Requester mockRequester = mock(Requester.class);
+    final ContractInterface expected = ContractInterface.newBuilder()
+        .address(anyContractAddress)
+        .build();
+    when(mockRequester.request(ArgumentMatchers.<Invocation<ContractInterface>>any()))
+        .thenReturn(expected);
+    contractTemplate.requester = mockRequester;
+
+    // then
+    assertEquals(expected, contractTemplate.getContractInterface(anyContractAddress));
+    assertEquals(expected, contractTemplate.getContractInterface(anyContractAddress));
+    verify(mockRequester, times(1))
+        .request(ArgumentMatchers.<Invocation<ContractInterface>>any());
+    registry.invalidate(anyContractAddress);
+    assertEquals(expected, contractTemplate.getContractInterface(anyContractAddress));
+    verify(mockRequester, times(2))
+        .request(ArgumentMatchers.<Invocation<ContractInterface>>any());
+  }
+
+  @Test
+  public void shouldInvalidateRegistryOnRedeploy() throws Exception {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    registry.register(ContractInterface.newBuilder().address(anyContractAddress).build());
+    final ContractTemplate contractTemplate = new ContractTemplate(
+        new UnmodifiableContextStorage(EmptyContext.getInstance()
+            .withValue(ClientContextKeys.GRPC_VALUE_CONTRACT_INTERFACE_REGISTRY, registry)));
+    final Requester mockRequester = mock(Requester.class);
+    when(mockRequester.request(ArgumentMatchers.<Invocation<TxHash>>any()))
+        .thenReturn(TxHash.of(BytesValue.EMPTY));
+    contractTemplate.requester = mockRequester;
+
+    // when
+    contractTemplate.redeployTx(anySigner, anyContractAddress, anyDefinition, anyNonce, anyFee);
+
+    // then
+    assertNull(registry.get(anyContractAddress));
+  }
+
+  @Test
+  public void shouldRegisterAfterRedeployConfirmed() throws Exception {
+    // given
+    final ContractInterfaceRegistry registry = new ContractInterfaceRegistry();
+    final ContractTemplate contractTemplate = new ContractTemplate(
+        new UnmodifiableContextStorage(EmptyContext.getInstance()
+            .withValue(ClientContextKeys.GRPC_VALUE_CONTRACT_INTERFACE_REGISTRY, registry)));
+    final TxHash redeploy = TxHash.of(BytesValue.of(new byte[] {1}));
+    final ContractInterface old = ContractInterface.newBuilder()
+        .address(anyContractAddress)
+        .version("old")
+        .build();
+    final ContractInterface redeployed = ContractInterface.newBuilder()
+        .address(anyContractAddress)
+        .version("new")
+        .build();
+    final AtomicBoolean mined = new AtomicBoolean(false);
+    final Requester mockRequester = mock(Requester.class);
+    when(mockRequester.request(ArgumentMatchers.<Invocation<Object>>any()))
+        .thenAnswer(new Answer<Object>() {
+          @Override
+          public Object answer(final InvocationOnMock invocation) {
+            final Invocation<?> request = (Invocation<?>) invocation.getArguments()[0];
+            final String name = request.getRequestMethod().getName();
+            if (Methods.CONTRACT_REDEPLOYTX.equals(name)) {
+              return redeploy;
+            } else if (Methods.CONTRACT_TXRECEIPT.equals(name)) {
+              return mined.get() ? ContractTxReceipt.newBuilder().build() : null;
+            }
+            return mined.get() ? redeployed : old;
+          }
+        });
+    contractTemplate.requester = mockRequester;
+
+    // when
+    contractTemplate.redeployTx(anySigner, anyContractAddress, anyDefinition, anyNonce, anyFee);
+
+    // then
+    // an old one fetched before confirmation isn't registered
+    assertEquals(old, contractTemplate.getContractInterface(anyContractAddress));
+    assertNull(registry.get(anyContractAddress));
+    mined.set(true);
+    assertEquals(redeployed, contractTemplate.getContractInterface(anyContractAddress));
+    assertNull(registry.getRedeploying(anyContractAddress));
+    assertEquals(redeployed, registry.get(anyContractAddress));
+  }
+
   @Test
   public void testExecuteTx() throws Exception {
     // given
@@ -135,6 +238,24 @@ public class ContractTemplateTest extends AbstractTestCase {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void testQueryBatch() throws Exception {
+    // given
+    final ContractTemplate contractTemplate = new ContractTemplate(contextStorage);
+    final Requester mockRequester = mock(Requester.class);
+    final QueryBatchResult expected = QueryBatchResult.newBuilder()
+        .results(Arrays.asList(ContractResult.EMPTY))
+        .build();
+    when(mockRequester.request(ArgumentMatchers.<Invocation<QueryBatchResult>>any()))
+        .thenReturn(expected);
+    contractTemplate.requester = mockRequester;
+
+    // then
+    final QueryBatch queryBatch = QueryBatch.newBuilder().add(anyInvocation).build();
+    final QueryBatchResult actual = contractTemplate.queryBatch(queryBatch);
+    assertEquals(expected, actual);
+  }
+
   @Test
   public void testListEvents() throws Exception {
     // given
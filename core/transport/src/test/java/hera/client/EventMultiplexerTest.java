@@ -0,0 +1,282 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import hera.AbstractTestCase;
+import hera.api.ContractOperation;
+import hera.api.model.ContractAddress;
+import hera.api.model.Event;
+import hera.api.model.EventFilter;
+import hera.api.model.StreamObserver;
+import hera.api.model.Subscription;
+import hera.key.AergoKeyGenerator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class EventMultiplexerTest extends AbstractTestCase {
+
+  protected final Map<ContractAddress, StreamObserver<Event>> upstreams = new HashMap<>();
+
+  protected final List<Subscription<Event>> upstreamSubscriptions = new ArrayList<>();
+
+  // run while opening an upstream. null if none
+  protected volatile Runnable onOpen;
+
+  // sent to an observer synchronously on the next open. null if none
+  protected volatile Throwable failOnOpen;
+
+  @SuppressWarnings("unchecked")
+  protected ContractOperation mockOperation() {
+    final ContractOperation mockOperation = mock(ContractOperation.class);
+    when(mockOperation.subscribeEvent(any(EventFilter.class), any(StreamObserver.class)))
+        .thenAnswer(new Answer<Subscription<Event>>() {
+          @Override
+          public Subscription<Event> answer(final InvocationOnMock invocation) {
+            final EventFilter filter = (EventFilter) invocation.getArguments()[0];
+            final StreamObserver<Event> observer =
+                (StreamObserver<Event>) invocation.getArguments()[1];
+            upstreams.put(filter.getContractAddress(), observer);
+            final Subscription<Event> subscription = mock(Subscription.class);
+            upstreamSubscriptions.add(subscription);
+            if (null != onOpen) {
+              onOpen.run();
+            }
+            final Throwable failure = failOnOpen;
+            if (null != failure) {
+              failOnOpen = null;
+              observer.onError(failure);
+            }
+            return subscription;
+          }
+        });
+    return mockOperation;
+  }
+
+  protected Event event(final String name, final Object... args) {
+    return Event.newBuilder().from(anyContractAddress).name(name).args(Arrays.asList(args))
+        .build();
+  }
+
+  protected static class Collector implements StreamObserver<Event> {
+
+    protected final List<Event> events = new ArrayList<>();
+
+    protected int errorCount = 0;
+
+    protected int completedCount = 0;
+
+    @Override
+    public void onNext(final Event value) {
+      events.add(value);
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      ++errorCount;
+    }
+
+    @Override
+    public void onCompleted() {
+      ++completedCount;
+    }
+  }
+
+  @Test
+  public void shouldShareUpstreamPerContract() {
+    // given
+    final ContractOperation mockOperation = mockOperation();
+    final EventMultiplexer multiplexer = new EventMultiplexer(mockOperation);
+    final ContractAddress other = new AergoKeyGenerator().create().getAddress()
+        .adapt(ContractAddress.class);
+
+    // when
+    for (int i = 0; i < 10; ++i) {
+      multiplexer.subscribe(EventFilter.newBuilder(anyContractAddress).eventName("e" + i).build(),
+          new Collector());
+    }
+    multiplexer.subscribe(EventFilter.newBuilder(other).build(), new Collector());
+
+    // then
+    verify(mockOperation, times(2)).subscribeEvent(any(EventFilter.class),
+        any(StreamObserver.class));
+    assertEquals(2, multiplexer.getUpstreamCount());
+    assertEquals(11, multiplexer.getSubscriberCount());
+  }
+
+  @Test
+  public void shouldMatchByNameAndArgs() {
+    // given
+    final EventMultiplexer multiplexer = new EventMultiplexer(mockOperation());
+    final Collector byName = new Collector();
+    final Collector byFirstArg = new Collector();
+    final Collector byAllArgs = new Collector();
+    final Collector anyEvent = new Collector();
+    multiplexer.subscribe(EventFilter.newBuilder(anyContractAddress).eventName("transfer")
+        .build(), byName);
+    multiplexer.subscribe(EventFilter.newBuilder(anyContractAddress).eventName("transfer")
+        .args("alice").build(), byFirstArg);
+    multiplexer.subscribe(EventFilter.newBuilder(anyContractAddress).eventName("transfer")
+        .args("alice", 10).build(), byAllArgs);
+    multiplexer.subscribe(EventFilter.newBuilder(anyContractAddress).build(), anyEvent);
+
+    // when
+    final StreamObserver<Event> upstream = upstreams.get(anyContractAddress);
+    upstream.onNext(event("transfer", "alice", 10L));
+    upstream.onNext(event("transfer", "alice", 11.0d));
+    upstream.onNext(event("transfer", "bob", 10));
+    upstream.onNext(event("mint", "alice", 10));
+
+    // then
+    assertEquals(3, byName.events.size());
+    assertEquals(2, byFirstArg.events.size());
+    assertEquals(1, byAllArgs.events.size());
+    assertEquals(4, anyEvent.events.size());
+  }
+
+  @Test
+  public void shouldCloseUpstreamOnLastLeave() {
+    // given
+    final EventMultiplexer multiplexer = new EventMultiplexer(mockOperation());
+    final Collector first = new Collector();
+    final Subscription<Event> firstSubscription = multiplexer.subscribe(
+        EventFilter.newBuilder(anyContractAddress).eventName("e").args(1).build(), first);
+    final Subscription<Event> secondSubscription = multiplexer.subscribe(
+        EventFilter.newBuilder(anyContractAddress).build(), new Collector());
+
+    // when
+    firstSubscription.unsubscribe();
+    upstreams.get(anyContractAddress).onNext(event("e", 1));
+
+    // then
+    assertTrue(firstSubscription.isUnsubscribed());
+    assertEquals(0, first.events.size());
+    verify(upstreamSubscriptions.get(0), times(0)).unsubscribe();
+
+    // when
+    secondSubscription.unsubscribe();
+
+    // then
+    verify(upstreamSubscriptions.get(0), times(1)).unsubscribe();
+    assertEquals(0, multiplexer.getUpstreamCount());
+  }
+
+  @Test
+  public void shouldEndSubscribersOnUpstreamError() {
+    // given
+    final EventMultiplexer multiplexer = new EventMultiplexer(mockOperation());
+    final Collector first = new Collector();
+    final Collector second = new Collector();
+    final Subscription<Event> subscription = multiplexer.subscribe(
+        EventFilter.newBuilder(anyContractAddress).eventName("e").build(), first);
+    multiplexer.subscribe(EventFilter.newBuilder(anyContractAddress).args("x").build(), second);
+
+    // when
+    upstreams.get(anyContractAddress).onError(new IllegalStateException());
+
+    // then
+    assertEquals(1, first.errorCount);
+    assertEquals(1, second.errorCount);
+    assertTrue(subscription.isUnsubscribed());
+    assertEquals(0, multiplexer.getUpstreamCount());
+
+    // when
+    multiplexer.subscribe(EventFilter.newBuilder(anyContractAddress).build(), new Collector());
+
+    // then
+    assertEquals(2, upstreamSubscriptions.size());
+  }
+
+  @Test
+  public void shouldEndSubscriberOnSynchronousUpstreamError() {
+    // given
+    final EventMultiplexer multiplexer = new EventMultiplexer(mockOperation());
+    final Collector collector = new Collector();
+    failOnOpen = new IllegalStateException();
+
+    // when
+    final Subscription<Event> subscription = multiplexer.subscribe(
+        EventFilter.newBuilder(anyContractAddress).build(), collector);
+
+    // then
+    assertEquals(1, collector.errorCount);
+    assertTrue(subscription.isUnsubscribed());
+    verify(upstreamSubscriptions.get(0), times(1)).unsubscribe();
+    assertEquals(0, multiplexer.getUpstreamCount());
+    assertEquals(0, multiplexer.getSubscriberCount());
+
+    // when
+    final Collector next = new Collector();
+    multiplexer.subscribe(EventFilter.newBuilder(anyContractAddress).build(), next);
+    upstreams.get(anyContractAddress).onNext(event("e"));
+
+    // then
+    assertEquals(1, next.events.size());
+    assertEquals(1, multiplexer.getUpstreamCount());
+  }
+
+  @Test
+  public void shouldOpenUpstreamWithoutLock() throws Exception {
+    // given
+    final EventMultiplexer multiplexer = new EventMultiplexer(mockOperation());
+    final AtomicInteger seen = new AtomicInteger(-1);
+    onOpen = new Runnable() {
+      @Override
+      public void run() {
+        // blocks forever if an upstream is opened with a lock held
+        final Thread other = new Thread(new Runnable() {
+          @Override
+          public void run() {
+            seen.set(multiplexer.getUpstreamCount());
+          }
+        });
+        other.start();
+        try {
+          other.join(5000L);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+
+    // when
+    multiplexer.subscribe(EventFilter.newBuilder(anyContractAddress).build(), new Collector());
+
+    // then
+    assertEquals(0, seen.get());
+    assertEquals(1, multiplexer.getUpstreamCount());
+  }
+
+  @Test
+  public void testClose() {
+    // given
+    final EventMultiplexer multiplexer = new EventMultiplexer(mockOperation());
+    final Collector collector = new Collector();
+    multiplexer.subscribe(EventFilter.newBuilder(anyContractAddress).build(), collector);
+
+    // when
+    multiplexer.close();
+
+    // then
+    assertEquals(1, collector.completedCount);
+    verify(upstreamSubscriptions.get(0), times(1)).unsubscribe();
+    assertEquals(0, multiplexer.getUpstreamCount());
+  }
+
+}
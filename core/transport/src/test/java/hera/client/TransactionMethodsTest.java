@@ -6,14 +6,17 @@ package hera.client;
 
 import static hera.client.ClientContextKeys.GRPC_CLIENT;
 import static hera.client.ClientContextKeys.GRPC_VALUE_CHAIN_ID_HASH_HOLDER;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import hera.*;
 import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
 import hera.exception.CommitException;
@@ -299,6 +302,48 @@ public class TransactionMethodsTest extends AbstractTestCase {
     });
   }
 
+  @Test
+  public void testCommitBatch() {
+    runOnOtherThread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          // given
+          final AergoRPCServiceBlockingStub mockBlockingStub = mock(
+              AergoRPCServiceBlockingStub.class);
+          when(mockBlockingStub.commitTX(any(Blockchain.TxList.class)))
+              .thenReturn(Rpc.CommitResultList.newBuilder()
+                  .addResults(Rpc.CommitResult.newBuilder()
+                      .setError(CommitStatus.TX_OK)
+                      .build())
+                  .addResults(Rpc.CommitResult.newBuilder()
+                      .setError(CommitStatus.TX_NONCE_TOO_LOW)
+                      .build())
+                  .build());
+          final GrpcClientImpl mockClient = mock(GrpcClientImpl.class);
+          when(mockClient.getBlockingStub()).thenReturn(mockBlockingStub);
+          final Context context = EmptyContext.getInstance().withValue(GRPC_CLIENT, mockClient);
+          ContextHolder.attach(context);
+
+          // then
+          final TransactionMethods transactionMethods = new TransactionMethods();
+          final List<Object> parameters = Arrays.<Object>asList(
+              Arrays.asList(anyTransaction, anyTransaction));
+          final List<TxCommitResult> results = transactionMethods.getCommitBatch()
+              .invoke(parameters);
+          assertEquals(2, results.size());
+          assertTrue(results.get(0).isSuccess());
+          assertEquals(CommitException.CommitStatus.NONCE_TOO_LOW,
+              ((CommitException) results.get(1).getError()).getCommitStatus());
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        } finally {
+          ContextHolder.remove();
+        }
+      }
+    });
+  }
+
   @Test
   public void testSendTxByAddress() {
     runOnOtherThread(new Runnable() {
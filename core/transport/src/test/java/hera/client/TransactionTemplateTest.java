@@ -17,8 +17,11 @@ import hera.Requester;
 import hera.api.model.BytesValue;
 import hera.api.model.Name;
 import hera.api.model.Transaction;
+import hera.api.model.TxCommitResult;
 import hera.api.model.TxHash;
 import hera.api.model.TxReceipt;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
 
@@ -72,6 +75,21 @@ public class TransactionTemplateTest extends AbstractTestCase {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void testCommitBatch() throws Exception {
+    // given
+    final TransactionTemplate transactionTemplate = new TransactionTemplate(contextStorage);
+    final Requester mockRequester = mock(Requester.class);
+    final List<TxCommitResult> expected = Arrays.asList(TxCommitResult.newBuilder().build());
+    when(mockRequester.request(ArgumentMatchers.<Invocation<List<TxCommitResult>>>any()))
+        .thenReturn(expected);
+    transactionTemplate.requester = mockRequester;
+
+    // then
+    final List<TxCommitResult> actual = transactionTemplate.commit(Arrays.asList(anyTransaction));
+    assertEquals(expected, actual);
+  }
+
   @Test
   public void testSendTxByAddress() throws Exception {
     // given
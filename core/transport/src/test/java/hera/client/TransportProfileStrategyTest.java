@@ -0,0 +1,66 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.api.model.HostnameAndPort;
+import hera.strategy.NettyConnectStrategy;
+import hera.strategy.OkHttpConnectStrategy;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.junit.Test;
+
+public class TransportProfileStrategyTest extends AbstractTestCase {
+
+  @Test
+  public void testPresets() {
+    assertEquals(TransportProfile.DEFAULT, TransportProfile.newBuilder().build());
+    assertEquals(0L, TransportProfile.DEFAULT.getKeepAliveTime());
+    for (final TransportProfile profile : new TransportProfile[] {TransportProfile.DEFAULT,
+        TransportProfile.LOW_LATENCY, TransportProfile.BULK_STREAMING}) {
+      assertFalse(profile.isKeepAliveWithoutCalls());
+    }
+    assertTrue(TransportProfile.IDLE_KEEPALIVE.isKeepAliveWithoutCalls());
+    assertTrue(300L * 1000L <= TransportProfile.LOW_LATENCY.getKeepAliveTime());
+    assertTrue(300L * 1000L <= TransportProfile.IDLE_KEEPALIVE.getKeepAliveTime());
+    assertTrue(TransportProfile.LOW_LATENCY.isDirectExecutor());
+    assertEquals("gzip", TransportProfile.BULK_STREAMING.getCompression());
+    assertTrue(TransportProfile.DEFAULT.getMaxInboundMessageSize()
+        < TransportProfile.BULK_STREAMING.getMaxInboundMessageSize());
+
+    final TransportProfile overridden = TransportProfile.BULK_STREAMING.toBuilder()
+        .compression(null)
+        .build();
+    assertEquals(TransportProfile.BULK_STREAMING.getFlowControlWindow(),
+        overridden.getFlowControlWindow());
+  }
+
+  @Test
+  public void testConfigure() throws InterruptedException {
+    final HostnameAndPort endpoint = HostnameAndPort.of("localhost:9999");
+    final ManagedChannelBuilder<?>[] builders = new ManagedChannelBuilder<?>[] {
+        new NettyConnectStrategy().connect(endpoint),
+        new OkHttpConnectStrategy().connect(endpoint)
+    };
+    for (final TransportProfile profile : new TransportProfile[] {TransportProfile.DEFAULT,
+        TransportProfile.LOW_LATENCY, TransportProfile.BULK_STREAMING,
+        TransportProfile.IDLE_KEEPALIVE}) {
+      for (final ManagedChannelBuilder<?> builder : builders) {
+        new TransportProfileStrategy(profile).configure(builder);
+        builder.usePlaintext();
+        final ManagedChannel channel = builder.build();
+        assertNotNull(channel);
+        channel.shutdown().awaitTermination(1, SECONDS);
+      }
+    }
+  }
+
+}
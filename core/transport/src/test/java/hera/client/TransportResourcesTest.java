@@ -0,0 +1,120 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_ENDPOINT;
+import static hera.client.ClientContextKeys.GRPC_CONNECTION_RESOURCES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.Context;
+import hera.ContextHolder;
+import hera.EmptyContext;
+import hera.api.model.HostnameAndPort;
+import org.junit.Test;
+
+public class TransportResourcesTest extends AbstractTestCase {
+
+  @Test
+  public void testReferenceCount() {
+    // given
+    final TransportResources resources = new TransportResources(1, 1, false);
+
+    // when
+    resources.retain();
+    resources.close();
+    resources.close();
+
+    // then
+    assertEquals(1, resources.getReferenceCount());
+    assertFalse(resources.getExecutor().isShutdown());
+    resources.release();
+    assertEquals(0, resources.getReferenceCount());
+    assertTrue(resources.getExecutor().isShutdown());
+    assertTrue(resources.getEventLoopGroup().isShuttingDown());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldFailToRetainReleased() {
+    final TransportResources resources = new TransportResources(1, 1, false);
+    resources.close();
+    resources.retain();
+  }
+
+  @Test
+  public void shouldKeepSharedOnClientClose() {
+    // given
+    final TransportResources resources = new TransportResources(1, 1, true);
+    final Context context = EmptyContext.getInstance()
+        .withValue(GRPC_CONNECTION_ENDPOINT, HostnameAndPort.of("localhost:9999"))
+        .withValue(GRPC_CONNECTION_RESOURCES, resources);
+    final GrpcClientImpl first = new GrpcClientImpl();
+    final GrpcClientImpl second = new GrpcClientImpl();
+    ContextHolder.attach(context);
+    try {
+      first.getBlockingStub();
+      second.getBlockingStub();
+    } finally {
+      ContextHolder.remove();
+    }
+    assertEquals(3, resources.getReferenceCount());
+
+    // when
+    first.close();
+    first.close();
+
+    // then
+    assertEquals(2, resources.getReferenceCount());
+    assertFalse(resources.getEventLoopGroup().isShuttingDown());
+    resources.close();
+    second.close();
+    assertTrue(resources.getEventLoopGroup().isShuttingDown());
+  }
+
+  @Test
+  public void shouldKeepWorkingWhenCreatorClosesBeforeFirstCall() {
+    // given
+    final TransportResources resources = new TransportResources(1, 1, true);
+    final Context context = EmptyContext.getInstance()
+        .withValue(GRPC_CONNECTION_ENDPOINT, HostnameAndPort.of("localhost:9999"))
+        .withValue(GRPC_CONNECTION_RESOURCES, resources);
+    final GrpcClientImpl client = new GrpcClientImpl(resources);
+    assertEquals(2, resources.getReferenceCount());
+
+    // when
+    resources.close();
+    ContextHolder.attach(context);
+    try {
+      client.getBlockingStub();
+    } finally {
+      ContextHolder.remove();
+    }
+
+    // then
+    assertEquals(1, resources.getReferenceCount());
+    assertFalse(resources.getExecutor().isShutdown());
+    client.close();
+    assertEquals(0, resources.getReferenceCount());
+    assertTrue(resources.getExecutor().isShutdown());
+  }
+
+  @Test
+  public void shouldReleaseOnCloseWithoutCall() {
+    // given
+    final TransportResources resources = new TransportResources(1, 1, false);
+    final GrpcClientImpl client = new GrpcClientImpl(resources);
+
+    // when
+    client.close();
+
+    // then
+    assertEquals(1, resources.getReferenceCount());
+    resources.close();
+    assertTrue(resources.getExecutor().isShutdown());
+  }
+
+}
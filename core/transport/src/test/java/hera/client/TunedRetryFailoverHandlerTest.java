@@ -0,0 +1,57 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.client;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import hera.AbstractTestCase;
+import hera.RequestMethod;
+import hera.Response;
+import hera.util.conf.InMemoryConfiguration;
+import hera.util.conf.ReloadableConfiguration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import org.junit.Test;
+
+public class TunedRetryFailoverHandlerTest extends AbstractTestCase {
+
+  @Test
+  public void shouldFollowReload() {
+    // given
+    final InMemoryConfiguration configuration = new InMemoryConfiguration();
+    configuration.define(ClientTuning.RETRY_COUNT, "1");
+    configuration.define(ClientTuning.RETRY_INTERVAL, "1");
+    final ReloadableConfiguration<ClientTuning> tuning =
+        new ReloadableConfiguration<>(ClientTuning.BINDER, configuration);
+    final TunedRetryFailoverHandler handler = new TunedRetryFailoverHandler(tuning);
+    final AtomicInteger count = new AtomicInteger(0);
+    final RequestMethod<Object> requestMethod = new RequestMethod<Object>() {
+
+      @Getter
+      protected final String name = randomUUID().toString();
+
+      @Override
+      protected Object runInternal(List<Object> parameters) throws Exception {
+        count.incrementAndGet();
+        throw new UnsupportedOperationException();
+      }
+    };
+    final Response<Object> response = Response.fail(new UnsupportedOperationException());
+
+    // when
+    handler.handle(new TestInvocation<>(requestMethod), response);
+    configuration.define(ClientTuning.RETRY_COUNT, "3");
+    tuning.reload();
+    final Response<Object> handled = handler.handle(new TestInvocation<>(requestMethod), response);
+
+    // then
+    assertNotNull(handled.getError());
+    assertEquals(1 + 3, count.get());
+  }
+
+}
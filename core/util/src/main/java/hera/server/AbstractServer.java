@@ -8,7 +8,8 @@ import static hera.server.ServerStatus.TERMINATED;
 import static hera.util.ValidationUtils.assertNotNull;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import lombok.Getter;
 import org.slf4j.Logger;
 
@@ -24,7 +25,7 @@ public abstract class AbstractServer implements Server, StateChangeListener<Serv
   /**
    * server listeners.
    */
-  protected ArrayList<ServerListener> listeners = new ArrayList<ServerListener>();
+  protected List<ServerListener> listeners = new CopyOnWriteArrayList<ServerListener>();
 
   /**
    * Latest exception.
@@ -39,6 +40,11 @@ public abstract class AbstractServer implements Server, StateChangeListener<Serv
   @Getter
   protected String name = getClass().getSimpleName();
 
+  /**
+   * Flag if the latest {@link #process()} found nothing to do.
+   */
+  protected boolean idle = false;
+
   public AbstractServer() {
     state.addListener(this);
   }
@@ -140,6 +146,14 @@ public abstract class AbstractServer implements Server, StateChangeListener<Serv
   protected void process() throws Exception {
   }
 
+  /**
+   * Mark that the current {@link #process()} call has found nothing to do. The runtime backs off
+   * before the next call instead of calling it back-to-back.
+   */
+  protected void idle() {
+    this.idle = true;
+  }
+
   /**
    * Exception handling part in process.
    *
@@ -0,0 +1,65 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.server;
+
+import static hera.util.ValidationUtils.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+
+/**
+ * An exponential backoff for a server with nothing to do. The delay starts at a minimum, doubles on
+ * every consecutive idle round up to a maximum and drops back on {@link #reset()}. Not thread
+ * safe; a server owns its own.
+ */
+public class IdleBackoff {
+
+  public static final long DEFAULT_MIN_DELAY = TimeUnit.MILLISECONDS.toNanos(1L);
+
+  public static final long DEFAULT_MAX_DELAY = TimeUnit.MILLISECONDS.toNanos(100L);
+
+  @Getter
+  protected final long minDelay;
+
+  @Getter
+  protected final long maxDelay;
+
+  protected long delay = 0L;
+
+  public IdleBackoff() {
+    this(DEFAULT_MIN_DELAY, DEFAULT_MAX_DELAY);
+  }
+
+  /**
+   * IdleBackoff constructor.
+   *
+   * @param minDelay a first delay in nanoseconds
+   * @param maxDelay a maximum delay in nanoseconds
+   */
+  public IdleBackoff(final long minDelay, final long maxDelay) {
+    assertTrue(0L < minDelay, "Minimum delay must be positive");
+    assertTrue(minDelay <= maxDelay, "Maximum delay must not be less than minimum");
+    this.minDelay = minDelay;
+    this.maxDelay = maxDelay;
+  }
+
+  /**
+   * Get a delay for the next idle round.
+   *
+   * @return a delay in nanoseconds
+   */
+  public long next() {
+    delay = (0L == delay) ? minDelay : Math.min(maxDelay, delay * 2L);
+    return delay;
+  }
+
+  /**
+   * Drop back to the minimum delay after some work is done.
+   */
+  public void reset() {
+    delay = 0L;
+  }
+
+}
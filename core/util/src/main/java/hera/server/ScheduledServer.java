@@ -0,0 +1,312 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.server;
+
+import static hera.server.ServerStatus.BOOTING;
+import static hera.server.ServerStatus.DOWNING;
+import static hera.server.ServerStatus.INITIALIZING;
+import static hera.server.ServerStatus.PROCESSING;
+import static hera.server.ServerStatus.SKIP;
+import static hera.server.ServerStatus.TERMINATED;
+import static hera.server.ServerStatus.TERMINATING;
+import static hera.server.StateConditionFactory.not;
+import static hera.server.StateConditionFactory.when;
+import static hera.util.ValidationUtils.assertNotNull;
+import static hera.util.ValidationUtils.assertTrue;
+
+import hera.util.StringUtils;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+/**
+ * A server running its {@link #process()} on a shared {@link ServerPool} instead of its own
+ * thread.
+ * <p>
+ * After a round which did some work, the next round runs after {@code period}. A round calling
+ * {@link #idle()} or skipping backs off with {@link IdleBackoff}, but never faster than
+ * {@code period}. {@link #trigger()} runs the next round at once. Rounds of one server never
+ * overlap.
+ * </p>
+ */
+public class ScheduledServer extends AbstractServer {
+
+  // ticket values other than these are the sequence of a scheduled round
+  protected static final long STOPPED = -1L;
+  protected static final long RUNNING = -2L;
+  protected static final long RUN_AGAIN = -3L;
+
+  @Getter
+  protected final ServerPool pool;
+
+  /**
+   * A delay between busy rounds in nanoseconds.
+   */
+  @Getter
+  protected final long period;
+
+  /**
+   * Backoff when {@link #process()} reports {@link #idle()} or the server skips.
+   */
+  protected IdleBackoff backoff = new IdleBackoff();
+
+  protected final AtomicLong ticket = new AtomicLong(STOPPED);
+
+  protected final AtomicLong sequence = new AtomicLong(0L);
+
+  protected volatile ScheduledFuture<?> pending = null;
+
+  protected boolean initialized = false;
+
+  protected final Runnable round = new Runnable() {
+    @Override
+    public void run() {
+      runRound();
+    }
+  };
+
+  public ScheduledServer(final ServerPool pool) {
+    this(pool, 0L, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * ScheduledServer constructor.
+   *
+   * @param pool a pool to run on
+   * @param period a delay between busy rounds. 0 runs them back-to-back
+   * @param unit a unit of {@code period}
+   */
+  public ScheduledServer(final ServerPool pool, final long period, final TimeUnit unit) {
+    assertNotNull(pool, "Pool must not null");
+    assertTrue(0L <= period, "Period must not be negative");
+    this.pool = pool;
+    this.period = unit.toNanos(period);
+  }
+
+  /* (non-Javadoc)
+   * @see Server#boot()
+   */
+  @Override
+  public void boot() {
+    this.boot(false);
+  }
+
+  /**
+   * Start server.
+   * <p>
+   * Wait for server to be start if {@code isBlock} is {@code true}
+   * </p>
+   *
+   * @param isBlock wait flag
+   */
+  public void boot(final boolean isBlock) {
+    if (!state.changeState(BOOTING, when(TERMINATED))) {
+      logger.error("{} is not terminated status. status: {}", this, state);
+      throw new IllegalStateException();
+    }
+
+    logger.debug("Starting {}...", this);
+    initialized = false;
+    pool.register(this);
+    ticket.set(RUNNING);
+    pending = pool.schedule(round, 0L);
+
+    logger.trace("Staring post-process for boot.");
+    postBoot();
+    if (isBlock) {
+      waitStatus(PROCESSING, TERMINATED);
+    }
+  }
+
+  protected void postBoot() {
+  }
+
+  @Override
+  public void down() {
+    down(false);
+  }
+
+  /**
+   * Down server.
+   *
+   * @param isBlock flag if wait to be done
+   */
+  public void down(final boolean isBlock) {
+    if (!state.changeState(DOWNING, when(not(DOWNING, TERMINATING, TERMINATED)))) {
+      logger.error("{} is already stopped.", this);
+      return;
+    }
+
+    logger.trace("Staring pre-process for down...");
+    preDown();
+
+    trigger();
+    if (isBlock) {
+      logger.debug("Wait for {} to be stopped.", this);
+      waitStatus(TERMINATED);
+    }
+    logger.info("{} stopped.", this);
+  }
+
+  /**
+   * Pre-process for down.
+   */
+  protected void preDown() {
+  }
+
+  /**
+   * Run the next round at once. If a round is running, the next one starts right after it.
+   */
+  public void trigger() {
+    while (true) {
+      final long current = ticket.get();
+      if (RUNNING == current) {
+        if (ticket.compareAndSet(RUNNING, RUN_AGAIN)) {
+          return;
+        }
+      } else if (RUN_AGAIN == current || STOPPED == current) {
+        return;
+      } else {
+        final ScheduledFuture<?> delayed = pending;
+        if (ticket.compareAndSet(current, RUNNING)) {
+          if (null != delayed) {
+            delayed.cancel(false);
+          }
+          pending = pool.schedule(round, 0L);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Method for task.
+   * <p>
+   * Runs on a pool thread; a blocking call holds the thread from other servers. Call
+   * {@link #idle()} when there is nothing to do.
+   * </p>
+   *
+   * @throws Exception If exception in process
+   */
+  @Override
+  protected void process() throws Exception {
+    // Not implemented
+    idle();
+  }
+
+  protected void runRound() {
+    final long delay;
+    try {
+      delay = step();
+    } catch (final Throwable th) {
+      // handleError decided to stop
+      shutdown();
+      return;
+    }
+    if (delay < 0L) {
+      return;
+    }
+
+    final long next = sequence.incrementAndGet();
+    long actual = delay;
+    if (!ticket.compareAndSet(RUNNING, next)) {
+      // triggered while running
+      ticket.set(next);
+      actual = 0L;
+    }
+    pending = pool.schedule(new Runnable() {
+      @Override
+      public void run() {
+        if (ticket.compareAndSet(next, RUNNING)) {
+          runRound();
+        }
+      }
+    }, actual);
+  }
+
+  /**
+   * Run one round.
+   *
+   * @return a delay to the next round in nanoseconds. negative if terminated
+   *
+   * @throws Throwable if {@link #handleError(Throwable)} throws
+   */
+  protected long step() throws Throwable {
+    switch (getStatus()) {
+      case BOOTING:
+        return start();
+      case PROCESSING:
+        idle = false;
+        try {
+          logger.trace("{}'s task started.", this);
+          process();
+          logger.trace("{}'s task done.", this);
+        } catch (final Throwable e) {
+          exception = e;
+          logger.error("Error :{}", StringUtils.nvl(e.getLocalizedMessage(), e.getMessage()), e);
+          handleError(e);
+        }
+        if (idle) {
+          return Math.max(period, backoff.next());
+        }
+        backoff.reset();
+        return period;
+      case SKIP:
+        return Math.max(period, backoff.next());
+      default:
+        return shutdown();
+    }
+  }
+
+  protected long start() {
+    // only down() can change BOOTING
+    if (!state.compareAndChange(BOOTING, INITIALIZING)) {
+      logger.info("Starting is cancelled.");
+      return shutdown();
+    }
+
+    clearException();
+    try {
+      initialize();
+      logger.info("Pre-process done.");
+    } catch (final Throwable e) {
+      this.exception = e;
+      logger.error("Exception occurred in pre-process.", e);
+      return shutdown();
+    }
+    initialized = true;
+    backoff.reset();
+
+    if (state.compareAndChange(INITIALIZING, PROCESSING)) {
+      logger.info("{} started.", this);
+    }
+    return 0L;
+  }
+
+  protected long shutdown() {
+    if (initialized) {
+      changeStatus(TERMINATING);
+      logger.debug("Doing post-process...");
+      try {
+        terminate();
+        logger.info("Post-process done.");
+      } catch (final Throwable th) {
+        logger.error("Exception occurred in post-process.", th);
+      }
+      initialized = false;
+    }
+    ticket.set(STOPPED);
+    pending = null;
+    pool.unregister(this);
+    changeStatus(TERMINATED);
+    return -1L;
+  }
+
+  @Override
+  public String toString() {
+    return "Server[" + getName() + "]";
+  }
+}
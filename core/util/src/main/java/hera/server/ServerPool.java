@@ -0,0 +1,103 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.server;
+
+import static hera.util.ValidationUtils.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import org.slf4j.Logger;
+
+/**
+ * A small set of threads hosting many {@link ScheduledServer}s. A hosted server holds a thread
+ * only while it processes, so servers which mostly wait cost nothing.
+ */
+public class ServerPool implements Closeable {
+
+  protected final Logger logger = getLogger(getClass());
+
+  @Getter
+  protected final String name;
+
+  protected final ScheduledThreadPoolExecutor executor;
+
+  protected final Set<ScheduledServer> servers = new CopyOnWriteArraySet<ScheduledServer>();
+
+  public ServerPool(final int threadCount) {
+    this(threadCount, "server-pool");
+  }
+
+  /**
+   * ServerPool constructor.
+   *
+   * @param threadCount the number of threads
+   * @param name a pool name used as a prefix of thread names
+   */
+  public ServerPool(final int threadCount, final String name) {
+    assertTrue(0 < threadCount, "Thread count must be positive");
+    this.name = name;
+    final AtomicInteger threadId = new AtomicInteger(0);
+    this.executor = new ScheduledThreadPoolExecutor(threadCount, new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, name + "-" + threadId.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    // triggered servers cancel their delayed run
+    this.executor.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * Get servers booted on this pool and not terminated yet.
+   *
+   * @return the number of servers
+   */
+  public int getServerCount() {
+    return servers.size();
+  }
+
+  protected void register(final ScheduledServer server) {
+    servers.add(server);
+  }
+
+  protected void unregister(final ScheduledServer server) {
+    servers.remove(server);
+  }
+
+  protected ScheduledFuture<?> schedule(final Runnable task, final long delay) {
+    return executor.schedule(task, delay, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Down all the servers, wait for them to be terminated and release threads.
+   */
+  @Override
+  public void close() {
+    for (final ScheduledServer server : servers) {
+      server.down();
+    }
+    for (final ScheduledServer server : servers) {
+      server.waitStatus(ServerStatus.TERMINATED);
+    }
+    executor.shutdown();
+    logger.info("{} closed", this);
+  }
+
+  @Override
+  public String toString() {
+    return "ServerPool[" + name + "]";
+  }
+
+}
@@ -7,12 +7,22 @@ package hera.server;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.util.Collection;
-import java.util.LinkedHashSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 
+/**
+ * A state holder. Reads are plain volatile reads and transitions are compare-and-set, so checking
+ * a state in a hot loop costs nothing. Listeners are called in the thread changing the state.
+ *
+ * @param <StateT> a state type
+ */
 public class StateMachine<StateT> {
 
   protected final Logger logger = getLogger(getClass());
@@ -20,17 +30,35 @@ public class StateMachine<StateT> {
   protected ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
   protected Collection<StateChangeListener<StateT>> listeners =
-      new LinkedHashSet<StateChangeListener<StateT>>();
+      new CopyOnWriteArraySet<StateChangeListener<StateT>>();
+
+  protected final AtomicReference<Snapshot<StateT>> current;
 
-  protected StateT state;
+  // monitor for waiters only. transitions don't touch it unless someone is waiting
+  protected final Object monitor = new Object();
 
-  protected Object[] args;
+  protected final AtomicInteger waiterCount = new AtomicInteger(0);
 
+  /**
+   * StateMachine constructor.
+   *
+   * @param initialState an initial state
+   */
   public StateMachine(final StateT initialState) {
     super();
-    this.state = initialState;
+    this.current = new AtomicReference<Snapshot<StateT>>(
+        new Snapshot<StateT>(initialState, new Object[0]));
   }
 
+  /**
+   * Get a lock.
+   *
+   * @return a lock
+   *
+   * @deprecated state transitions don't take this lock any more. Use
+   *     {@link #compareAndChange(Object, Object, Object...)} for an atomic check and change.
+   */
+  @Deprecated
   public ReadWriteLock getLock() {
     return lock;
   }
@@ -52,21 +80,15 @@ public class StateMachine<StateT> {
    */
   @SuppressWarnings("unchecked")
   public boolean isState(final StateT... states) {
-    StateT temp = null;
-    lock.readLock().lock();
-    try {
-      temp = this.state;
-    } finally {
-      lock.readLock().unlock();
-    }
+    return contains(states, current.get().state);
+  }
 
+  protected boolean contains(final StateT[] states, final StateT target) {
     for (final StateT st : states) {
-
-      if (temp == st) {
+      if (target == st) {
         return true;
       }
     }
-
     return false;
   }
 
@@ -77,29 +99,56 @@ public class StateMachine<StateT> {
    */
   @SuppressWarnings("unchecked")
   public void waitState(final StateT... states) {
-    while (true) {
-      boolean isLocked = false;
-      lock.readLock().lock();
-      try {
-        isLocked = true;
-
-        if (isState(states)) {
-          return;
-        }
-        synchronized (this) {
-          lock.readLock().unlock();
-          isLocked = false;
+    boolean interrupted = false;
+    waiterCount.incrementAndGet();
+    try {
+      synchronized (monitor) {
+        while (!isState(states)) {
           try {
-            wait();
+            monitor.wait();
           } catch (final InterruptedException e) {
             logger.warn("Interrupt waiting");
+            interrupted = true;
           }
         }
-      } finally {
-        if (isLocked) {
-          lock.readLock().unlock();
+      }
+    } finally {
+      waiterCount.decrementAndGet();
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Wait that current state is one of {@code states} for at most {@code timeout}.
+   *
+   * @param timeout a maximum time to wait
+   * @param unit a unit of {@code timeout}
+   * @param states states to wait for
+   *
+   * @return if current state is one of {@code states}
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @SuppressWarnings("unchecked")
+  public boolean waitState(final long timeout, final TimeUnit unit, final StateT... states)
+      throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    waiterCount.incrementAndGet();
+    try {
+      synchronized (monitor) {
+        while (!isState(states)) {
+          final long remaining = deadline - System.nanoTime();
+          if (remaining <= 0L) {
+            return false;
+          }
+          TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
         }
+        return true;
       }
+    } finally {
+      waiterCount.decrementAndGet();
     }
   }
 
@@ -109,12 +158,7 @@ public class StateMachine<StateT> {
    * @return current state
    */
   public StateT getState() {
-    lock.readLock().lock();
-    try {
-      return this.state;
-    } finally {
-      lock.readLock().unlock();
-    }
+    return current.get().state;
   }
 
   /**
@@ -123,45 +167,23 @@ public class StateMachine<StateT> {
    * @return current state's arguments
    */
   public Object[] getArguments() {
-    lock.readLock().lock();
-
-    try {
-      return this.args;
-    } finally {
-      lock.readLock().unlock();
-    }
+    return current.get().args;
   }
 
   /**
    * Change current status to {@code state}.
-   * <p>
-   * Use lock for write.
-   * </p>
    *
    * @param state state to change
    * @param args arguments which next state have
    */
   public void changeState(final StateT state, final Object... args) {
-    lock.writeLock().lock();
-    try {
-      final StateT old = this.state;
-      this.state = state;
-      this.args = args;
-      logger.info("Status: {} -> {}", old, this.state);
-      synchronized (this) {
-        notifyAll();
-      }
-      fireChangeEvent(old, this.state, args);
-    } finally {
-      lock.writeLock().unlock();
-    }
+    final Snapshot<StateT> old = current.getAndSet(new Snapshot<StateT>(state, args));
+    changed(old.state, state, args);
   }
 
   /**
-   * Change current state to {@code state} if condition is true.
-   * <p>
-   * Use lock for write
-   * </p>
+   * Change current state to {@code state} if condition is true. The condition is evaluated again
+   * if other thread changes the state meanwhile.
    *
    * @param state state to change
    * @param condition condition to check
@@ -171,18 +193,54 @@ public class StateMachine<StateT> {
    */
   public boolean changeState(final StateT state, final StateCondition<StateT> condition,
       final Object... args) {
-    lock.writeLock().lock();
-    try {
+    final Snapshot<StateT> next = new Snapshot<StateT>(state, args);
+    while (true) {
+      final Snapshot<StateT> old = current.get();
       if (!condition.evaluate(this)) {
+        if (old == current.get()) {
+          return false;
+        }
+        continue;
+      }
+      if (current.compareAndSet(old, next)) {
+        changed(old.state, state, args);
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Change current state to {@code state} only if current state is {@code expect}.
+   *
+   * @param expect an expected current state
+   * @param state state to change
+   * @param args arguments which next state have
+   *
+   * @return if state is changed
+   */
+  public boolean compareAndChange(final StateT expect, final StateT state, final Object... args) {
+    final Snapshot<StateT> next = new Snapshot<StateT>(state, args);
+    while (true) {
+      final Snapshot<StateT> old = current.get();
+      if (old.state != expect) {
         return false;
       }
-      changeState(state);
-      return true;
-    } finally {
-      lock.writeLock().unlock();
+      if (current.compareAndSet(old, next)) {
+        changed(old.state, state, args);
+        return true;
+      }
     }
   }
 
+  protected void changed(final StateT from, final StateT to, final Object... args) {
+    logger.info("Status: {} -> {}", from, to);
+    if (0 < waiterCount.get()) {
+      synchronized (monitor) {
+        monitor.notifyAll();
+      }
+    }
+    fireChangeEvent(from, to, args);
+  }
 
   /**
    * Execute and change state as the result.
@@ -192,7 +250,6 @@ public class StateMachine<StateT> {
    * @param fail state to transit when fail
    */
   public void execute(final Callable<Void> process, final StateT success, final StateT fail) {
-    lock.writeLock().lock();
     try {
       process.call();
       logger.trace("Success to execute {}", process);
@@ -204,8 +261,6 @@ public class StateMachine<StateT> {
         logger.trace("Fail to execute {}", process);
         changeState(fail);
       }
-    } finally {
-      lock.writeLock().unlock();
     }
   }
 
@@ -223,4 +278,12 @@ public class StateMachine<StateT> {
   public String toString() {
     return super.toString() + "[" + getState() + "]";
   }
+
+  @RequiredArgsConstructor
+  protected static class Snapshot<StateT> {
+
+    protected final StateT state;
+
+    protected final Object[] args;
+  }
 }
@@ -15,13 +15,14 @@ import static hera.server.StateConditionFactory.not;
 import static hera.server.StateConditionFactory.when;
 
 import hera.util.StringUtils;
+import java.util.concurrent.locks.LockSupport;
 
 public class ThreadServer extends AbstractServer implements Runnable {
 
   /**
    * Thread for current server.
    */
-  protected Thread thread = null;
+  protected volatile Thread thread = null;
 
   /**
    * Template method for execution.
@@ -35,21 +36,13 @@ public class ThreadServer extends AbstractServer implements Runnable {
   public void run() {
     logger.trace("Starting {} server...", getName());
 
-    // Prevent halt.
-    state.getLock().writeLock().lock();
-    try {
-      if (isStatus(DOWNING)) {
-        logger.info("Starting is cancelled.");
-        changeStatus(TERMINATED);
-        return;
-      }
-      logger.debug("Doing pre-process...");
-      changeStatus(INITIALIZING);
-    } catch (final Throwable e) {
-      logger.error("Server got unexpected exception:", e);
-    } finally {
-      state.getLock().writeLock().unlock();
+    // only down() can change BOOTING
+    if (!state.compareAndChange(BOOTING, INITIALIZING)) {
+      logger.info("Starting is cancelled.");
+      changeStatus(TERMINATED);
+      return;
     }
+    logger.debug("Doing pre-process...");
 
     clearException();
     try {
@@ -62,16 +55,10 @@ public class ThreadServer extends AbstractServer implements Runnable {
       return;
     }
 
-    state.getLock().writeLock().lock();
-    try {
-      if (isStatus(DOWNING)) {
-        changeStatus(TERMINATING);
-      } else {
-        changeStatus(PROCESSING);
-        logger.info("{} started.", this);
-      }
-    } finally {
-      state.getLock().writeLock().unlock();
+    if (state.compareAndChange(INITIALIZING, PROCESSING)) {
+      logger.info("{} started.", this);
+    } else {
+      changeStatus(TERMINATING);
     }
 
     try {
@@ -96,12 +83,18 @@ public class ThreadServer extends AbstractServer implements Runnable {
   protected final ServerStatus[] loopCondition = new ServerStatus[]{PROCESSING, SKIP};
   protected final ServerStatus[] processingCondition = new ServerStatus[]{PROCESSING};
 
+  /**
+   * Backoff when {@link #process()} reports {@link #idle()} or the server skips.
+   */
+  protected IdleBackoff backoff = new IdleBackoff();
+
   /**
    * Loop for task.
    */
   protected void loop() {
     while (isStatus(loopCondition)) {
       if (isStatus(processingCondition)) {
+        idle = false;
         try {
           logger.trace("{}'s task started.", this);
           process();
@@ -112,21 +105,40 @@ public class ThreadServer extends AbstractServer implements Runnable {
           logger.error("Error :{}", StringUtils.nvl(e.getLocalizedMessage(), e.getMessage()), e);
           handleError(e);
         }
+      } else {
+        idle = true;
       }
 
+      if (idle) {
+        LockSupport.parkNanos(this, backoff.next());
+      } else {
+        backoff.reset();
+      }
+    }
+  }
+
+  /**
+   * Wake the server up from an idle backoff to process at once.
+   */
+  public void trigger() {
+    final Thread target = this.thread;
+    if (null != target) {
+      LockSupport.unpark(target);
     }
   }
 
   /**
    * Method for task.
    * <p>
-   * Must be implemented under performance consideration.
+   * Must be implemented under performance consideration. Call {@link #idle()} when there is nothing
+   * to do.
    * </p>
    *
    * @throws Exception If exception in process
    */
   protected void process() throws Exception {
     // Not implemented
+    idle();
   }
 
   /* (non-Javadoc)
@@ -184,6 +196,7 @@ public class ThreadServer extends AbstractServer implements Runnable {
     logger.trace("Staring pre-process for down...");
     preDown();
 
+    trigger();
     this.thread = null;
     if (isBlock) {
       logger.debug("Wait for {} to be stopped.", this);
@@ -0,0 +1,57 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Merkle tree utils compatible with a transaction root hash of aergo.
+ */
+public class MerkleUtils {
+
+  /**
+   * Calculate a sha256 merkle root of {@code leaves}. A pair of nodes is hashed as
+   * {@code sha256(left || right)} and a node without a sibling is paired with itself. A root of a
+   * single leaf is the leaf itself.
+   *
+   * @param leaves a leaf hashes in order
+   * @return a merkle root. empty array if {@code leaves} is empty
+   */
+  public static byte[] calculateRoot(final List<byte[]> leaves) {
+    assertNotNull(leaves, "Leaves must not null");
+    if (leaves.isEmpty()) {
+      return new byte[0];
+    }
+
+    final MessageDigest digest = createDigest();
+    byte[][] level = leaves.toArray(new byte[leaves.size()][]);
+    int count = level.length;
+    while (1 < count) {
+      int next = 0;
+      for (int i = 0; i < count; i += 2) {
+        final byte[] left = level[i];
+        final byte[] right = (i + 1 < count) ? level[i + 1] : left;
+        digest.update(left);
+        digest.update(right);
+        level[next++] = digest.digest();
+      }
+      count = next;
+    }
+    return level[0];
+  }
+
+  protected static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
@@ -0,0 +1,25 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util.conf;
+
+import hera.util.Configuration;
+
+/**
+ * A binder making a typed immutable value from a configuration.
+ *
+ * @param <T> a bound type
+ */
+public interface ConfigurationBinder<T> {
+
+  /**
+   * Bind {@code configuration} to a value.
+   *
+   * @param configuration a configuration to read
+   *
+   * @return a bound value
+   */
+  T bind(Configuration configuration);
+
+}
@@ -0,0 +1,16 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util.conf;
+
+/**
+ * A listener notified when a reloaded configuration differs from the previous one.
+ *
+ * @param <T> a bound type
+ */
+public interface ConfigurationListener<T> {
+
+  void changed(T from, T to);
+
+}
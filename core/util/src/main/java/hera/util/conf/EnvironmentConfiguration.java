@@ -9,7 +9,9 @@ import static java.util.Collections.unmodifiableMap;
 
 import hera.util.Configuration;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 
 public class EnvironmentConfiguration extends AbstractConfiguration implements Configuration {
 
@@ -23,6 +25,33 @@ public class EnvironmentConfiguration extends AbstractConfiguration implements C
     throw new UnsupportedOperationException("OS Environment could NOT be changed");
   }
 
+  /**
+   * Get a subconfiguration of variables prefixed with {@code key} in upper case and '_'. The rest
+   * of a name is lowered and its '_'s become '.'s. eg. {@code HERAJ_CLIENT_TIMEOUT} is
+   * {@code client.timeout} in a subconfiguration for {@code heraj}.
+   *
+   * @param key a subconfiguration name
+   *
+   * @return a subconfiguration
+   */
+  @Override
+  public Configuration getSubconfiguration(final String key) {
+    final String prefix = key.toUpperCase(Locale.ENGLISH) + "_";
+    final InMemoryConfiguration subconfiguration = new InMemoryConfiguration();
+    for (final Entry<String, String> entry : getenv().entrySet()) {
+      final String name = entry.getKey();
+      if (name.startsWith(prefix) && prefix.length() < name.length()) {
+        final String subname = name.substring(prefix.length()).toLowerCase(Locale.ENGLISH)
+            .replace('_', '.');
+        if (subname.startsWith(".") || subname.endsWith(".") || subname.contains("..")) {
+          continue;
+        }
+        subconfiguration.define(subname, entry.getValue());
+      }
+    }
+    return subconfiguration;
+  }
+
   @Override
   public Object getValue(final String key) {
     return getenv(key);
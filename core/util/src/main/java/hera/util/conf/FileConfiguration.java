@@ -0,0 +1,93 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util.conf;
+
+import static hera.util.ValidationUtils.assertNotNull;
+
+import hera.util.Configuration;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A read-only configuration from a properties file. The file is read again on a lookup after its
+ * modified time changes, so it's for occasional lookups like binding, not for a hot path. A missing
+ * file is an empty configuration.
+ */
+public class FileConfiguration extends AbstractConfiguration {
+
+  protected final File file;
+
+  protected volatile long lastModified = -1L;
+
+  protected volatile Configuration delegate = DummyConfiguration.getInstance();
+
+  /**
+   * FileConfiguration constructor.
+   *
+   * @param file a properties file
+   */
+  public FileConfiguration(final File file) {
+    assertNotNull(file, "File must not null");
+    this.file = file;
+  }
+
+  protected synchronized Configuration load() {
+    final long modified = file.lastModified();
+    if (modified == lastModified) {
+      return delegate;
+    }
+    final InMemoryConfiguration configuration = new InMemoryConfiguration();
+    if (file.isFile()) {
+      final Properties properties = new Properties();
+      try (final InputStream in = new FileInputStream(file)) {
+        properties.load(in);
+      } catch (final IOException e) {
+        throw new IllegalStateException("Fail to read " + file, e);
+      }
+      for (final String name : properties.stringPropertyNames()) {
+        configuration.define(name, properties.getProperty(name));
+      }
+    }
+    logger.debug("Load {} modified at {}", file, modified);
+    this.delegate = configuration;
+    this.lastModified = modified;
+    return configuration;
+  }
+
+  @Override
+  public Map<String, Object> asMap() {
+    return load().asMap();
+  }
+
+  @Override
+  public Configuration getSubconfiguration(final String key) {
+    return load().getSubconfiguration(key);
+  }
+
+  @Override
+  protected Object getValue(final String key) {
+    return load().get(key);
+  }
+
+  @Override
+  public void define(final String key, final Object value) {
+    throw new UnsupportedOperationException("File configuration could NOT be changed");
+  }
+
+  @Override
+  public void remove(final String key) {
+    throw new UnsupportedOperationException("File configuration could NOT be changed");
+  }
+
+  @Override
+  public String toString() {
+    return "FileConfiguration(" + file + ")";
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util.conf;
+
+import static hera.util.ValidationUtils.assertNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import hera.server.ScheduledServer;
+import hera.server.ServerPool;
+import hera.util.Configuration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+
+/**
+ * An immutable typed snapshot of configuration sources, which can be replaced by a reload.
+ * <p>
+ * Sources are read and bound only on a reload; {@link #get()} is a plain volatile read, so a hot
+ * path can call it on every use and see a new value without rebuilding anything. A later source
+ * overrides an earlier one. A reload failing to read or bind keeps the current snapshot.
+ * </p>
+ *
+ * @param <T> a bound type. Must be immutable and implement {@code equals}
+ */
+public class ReloadableConfiguration<T> {
+
+  protected final transient Logger logger = getLogger(getClass());
+
+  protected final ConfigurationBinder<T> binder;
+
+  protected final List<Configuration> sources;
+
+  protected final Collection<ConfigurationListener<T>> listeners =
+      new CopyOnWriteArraySet<ConfigurationListener<T>>();
+
+  protected volatile T current;
+
+  /**
+   * ReloadableConfiguration constructor. Sources are bound at once.
+   *
+   * @param binder a binder
+   * @param sources configuration sources in an ascending order of priority
+   *
+   * @throws RuntimeException if the first bind fails
+   */
+  public ReloadableConfiguration(final ConfigurationBinder<T> binder,
+      final Configuration... sources) {
+    assertNotNull(binder, "Binder must not null");
+    this.binder = binder;
+    this.sources = Arrays.asList(sources.clone());
+    this.current = bind();
+  }
+
+  /**
+   * Get a current snapshot.
+   *
+   * @return a current snapshot
+   */
+  public T get() {
+    return current;
+  }
+
+  public void addListener(final ConfigurationListener<T> listener) {
+    this.listeners.add(listener);
+  }
+
+  public void removeListener(final ConfigurationListener<T> listener) {
+    this.listeners.remove(listener);
+  }
+
+  protected T bind() {
+    final Configuration merged =
+        HierachicalConfiguration.create(sources.toArray(new Configuration[0]));
+    final T bound = binder.bind(merged);
+    assertNotNull(bound, "Bound value must not null");
+    return bound;
+  }
+
+  /**
+   * Read sources again and replace a snapshot if it's changed. Listeners are called in this thread.
+   *
+   * @return if a snapshot is replaced
+   */
+  public synchronized boolean reload() {
+    final T next;
+    try {
+      next = bind();
+    } catch (final Throwable e) {
+      logger.warn("Keep {} on reload failure: {}", current, e.toString());
+      return false;
+    }
+
+    final T previous = this.current;
+    if (previous.equals(next)) {
+      return false;
+    }
+    this.current = next;
+    logger.info("Configuration changed: {} -> {}", previous, next);
+    for (final ConfigurationListener<T> listener : listeners) {
+      try {
+        listener.changed(previous, next);
+      } catch (final Throwable e) {
+        logger.debug("Unexpected exception in listener", e);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Make a server reloading this every {@code period} on {@code pool}. It's not booted.
+   *
+   * @param pool a pool to run on
+   * @param period a reload period
+   * @param unit a unit of {@code period}
+   *
+   * @return a server reloading this
+   */
+  public ScheduledServer newWatcher(final ServerPool pool, final long period,
+      final TimeUnit unit) {
+    final ScheduledServer watcher = new ScheduledServer(pool, period, unit) {
+      {
+        name = "ConfigurationWatcher";
+      }
+
+      @Override
+      protected void process() throws Exception {
+        reload();
+      }
+    };
+    return watcher;
+  }
+
+  @Override
+  public String toString() {
+    return "ReloadableConfiguration(" + current + ")";
+  }
+
+}
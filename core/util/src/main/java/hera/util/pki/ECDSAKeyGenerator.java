@@ -43,6 +43,9 @@ public class ECDSAKeyGenerator implements KeyGenerator<ECDSAKey> {
 
   public static final ECDomainParameters ecParams;
 
+  // KeyPairGenerator is not thread-safe; keep an initialized one with its own random per thread
+  private static final ThreadLocal<KeyPairGenerator> localGenerator = new ThreadLocal<>();
+
   static {
     java.security.Provider provider = getProvider(PROVIDER_NAME);
     if (provider != null) {
@@ -58,7 +61,10 @@ public class ECDSAKeyGenerator implements KeyGenerator<ECDSAKey> {
 
   protected ECDSAKey generateKey(final SecureRandom secureRandom)
       throws NoSuchProviderException, NoSuchAlgorithmException, InvalidAlgorithmParameterException {
-    final KeyPairGenerator generator = getKeyPairGenerator(secureRandom);
+    return generateKey(getKeyPairGenerator(secureRandom));
+  }
+
+  protected ECDSAKey generateKey(final KeyPairGenerator generator) {
     final KeyPair pair = generator.generateKeyPair();
     final PrivateKey privateKey = pair.getPrivate();
     final PublicKey publicKey = pair.getPublic();
@@ -75,9 +81,19 @@ public class ECDSAKeyGenerator implements KeyGenerator<ECDSAKey> {
     return keyPairGenerator;
   }
 
+  protected KeyPairGenerator getLocalKeyPairGenerator()
+      throws NoSuchProviderException, NoSuchAlgorithmException, InvalidAlgorithmParameterException {
+    KeyPairGenerator generator = localGenerator.get();
+    if (null == generator) {
+      generator = getKeyPairGenerator(new SecureRandom());
+      localGenerator.set(generator);
+    }
+    return generator;
+  }
+
   @Override
   public ECDSAKey create() throws Exception {
-    return generateKey(new SecureRandom());
+    return generateKey(getLocalKeyPairGenerator());
   }
 
   /**
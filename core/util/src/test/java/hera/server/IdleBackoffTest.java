@@ -0,0 +1,30 @@
+package hera.server;
+
+import static org.junit.Assert.assertEquals;
+
+import hera.AbstractTestCase;
+import org.junit.Test;
+
+public class IdleBackoffTest extends AbstractTestCase {
+
+  @Test
+  public void testNext() {
+    // given
+    final IdleBackoff backoff = new IdleBackoff(10L, 50L);
+
+    // when, then
+    assertEquals(10L, backoff.next());
+    assertEquals(20L, backoff.next());
+    assertEquals(40L, backoff.next());
+    assertEquals(50L, backoff.next());
+    assertEquals(50L, backoff.next());
+    backoff.reset();
+    assertEquals(10L, backoff.next());
+  }
+
+  @Test(expected = AssertionError.class)
+  public void shouldFailOnInvalidRange() {
+    new IdleBackoff(10L, 5L);
+  }
+
+}
@@ -0,0 +1,185 @@
+package hera.server;
+
+import static hera.util.ThreadUtils.trySleep;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScheduledServerTest extends AbstractTestCase {
+
+  protected ServerPool pool;
+
+  @Before
+  public void setUp() {
+    pool = new ServerPool(2, "test-pool");
+  }
+
+  @After
+  public void tearDown() {
+    pool.close();
+  }
+
+  @Test
+  public void testBootAndDown() {
+    // given
+    final AtomicBoolean initializeCalled = new AtomicBoolean(false);
+    final AtomicBoolean terminateCalled = new AtomicBoolean(false);
+    final ScheduledServer server = new ScheduledServer(pool) {
+      @Override
+      protected void initialize() throws Exception {
+        initializeCalled.set(true);
+      }
+
+      @Override
+      protected void terminate() {
+        terminateCalled.set(true);
+      }
+    };
+
+    // when
+    server.boot(true);
+    assertEquals(ServerStatus.PROCESSING, server.getStatus());
+    assertEquals(1, pool.getServerCount());
+    server.down(true);
+
+    // then
+    assertTrue(initializeCalled.get());
+    assertTrue(terminateCalled.get());
+    assertNull(server.getException());
+    assertEquals(ServerStatus.TERMINATED, server.getStatus());
+    assertEquals(0, pool.getServerCount());
+  }
+
+  @Test
+  public void testPeriodic() {
+    // given
+    final AtomicInteger count = new AtomicInteger(0);
+    final ScheduledServer server = new ScheduledServer(pool, 50L, TimeUnit.MILLISECONDS) {
+      @Override
+      protected void process() throws Exception {
+        count.incrementAndGet();
+      }
+    };
+
+    // when
+    server.boot(true);
+    trySleep(500);
+    server.down(true);
+
+    // then
+    assertTrue(5 <= count.get() && count.get() <= 12);
+  }
+
+  @Test
+  public void testTrigger() {
+    // given
+    final AtomicInteger count = new AtomicInteger(0);
+    final ScheduledServer server = new ScheduledServer(pool) {
+      @Override
+      protected void process() throws Exception {
+        count.incrementAndGet();
+        idle();
+      }
+    };
+    server.backoff = new IdleBackoff(1000000000L, 1000000000L);
+    server.boot(true);
+    trySleep(100);
+    final int before = count.get();
+
+    // when
+    for (int i = 0; i < 10; ++i) {
+      server.trigger();
+      trySleep(20);
+    }
+
+    // then
+    assertEquals(before + 10, count.get());
+    server.down(true);
+  }
+
+  @Test
+  public void shouldNotOverlapRounds() {
+    // given
+    final AtomicInteger running = new AtomicInteger(0);
+    final AtomicBoolean overlapped = new AtomicBoolean(false);
+    final ScheduledServer server = new ScheduledServer(pool) {
+      @Override
+      protected void process() throws Exception {
+        if (1 < running.incrementAndGet()) {
+          overlapped.set(true);
+        }
+        trySleep(1);
+        running.decrementAndGet();
+      }
+    };
+    server.boot(true);
+
+    // when
+    for (int i = 0; i < 1000; ++i) {
+      server.trigger();
+    }
+    server.down(true);
+
+    // then
+    assertTrue(!overlapped.get());
+  }
+
+  @Test
+  public void shouldHostManyServers() {
+    // given
+    final int serverCount = 100;
+    final AtomicInteger count = new AtomicInteger(0);
+    for (int i = 0; i < serverCount; ++i) {
+      new ScheduledServer(pool, 10L, TimeUnit.MILLISECONDS) {
+        @Override
+        protected void process() throws Exception {
+          count.incrementAndGet();
+        }
+      }.boot();
+    }
+
+    // when
+    trySleep(200);
+
+    // then
+    assertEquals(serverCount, pool.getServerCount());
+    assertTrue(serverCount <= count.get());
+  }
+
+  @Test
+  public void shouldFailOnInitializationError() {
+    final ScheduledServer server = new ScheduledServer(pool) {
+      @Override
+      protected void initialize() throws Exception {
+        throw new IllegalArgumentException();
+      }
+    };
+    server.boot(true);
+    server.waitStatus(ServerStatus.TERMINATED);
+    assertNotNull(server.getException());
+  }
+
+  @Test
+  public void shouldFailOnProcessError() {
+    final ScheduledServer server = new ScheduledServer(pool) {
+      @Override
+      protected void process() throws Exception {
+        throw new IllegalArgumentException();
+      }
+    };
+    server.boot(true);
+    server.waitStatus(ServerStatus.TERMINATED);
+    assertNotNull(server.getException());
+    assertEquals(ServerStatus.TERMINATED, server.getStatus());
+  }
+
+}
@@ -2,11 +2,14 @@ package hera.server;
 
 import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.powermock.api.mockito.PowerMockito.mock;
 
 import hera.AbstractTestCase;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 
 public class StateMachineTest extends AbstractTestCase {
@@ -40,6 +43,80 @@ public class StateMachineTest extends AbstractTestCase {
     stateMachine.removeListener(listener);
   }
 
+  @Test
+  public void testCompareAndChange() {
+    // given
+    final StateMachine<ServerStatus> stateMachine =
+        new StateMachine<ServerStatus>(ServerStatus.BOOTING);
+
+    // when
+    final boolean changed = stateMachine.compareAndChange(ServerStatus.BOOTING,
+        ServerStatus.PROCESSING);
+    final boolean unchanged = stateMachine.compareAndChange(ServerStatus.BOOTING,
+        ServerStatus.DOWNING);
+
+    // then
+    assertTrue(changed);
+    assertFalse(unchanged);
+    assertEquals(ServerStatus.PROCESSING, stateMachine.getState());
+  }
+
+  @Test
+  public void testConcurrentConditionalChange() throws Exception {
+    // given
+    final StateMachine<ServerStatus> stateMachine =
+        new StateMachine<ServerStatus>(ServerStatus.TERMINATED);
+    final AtomicInteger winners = new AtomicInteger(0);
+    final Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; ++i) {
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          if (stateMachine.changeState(ServerStatus.BOOTING,
+              StateConditionFactory.when(ServerStatus.TERMINATED))) {
+            winners.incrementAndGet();
+          }
+        }
+      };
+    }
+
+    // when
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    // then
+    assertEquals(1, winners.get());
+    assertEquals(ServerStatus.BOOTING, stateMachine.getState());
+  }
+
+  @Test
+  public void testWaitState() throws Exception {
+    // given
+    final StateMachine<ServerStatus> stateMachine =
+        new StateMachine<ServerStatus>(ServerStatus.BOOTING);
+    final Thread changer = new Thread() {
+      @Override
+      public void run() {
+        stateMachine.changeState(ServerStatus.PROCESSING);
+      }
+    };
+
+    // when
+    final boolean timeout = stateMachine.waitState(10L, TimeUnit.MILLISECONDS,
+        ServerStatus.PROCESSING);
+    changer.start();
+    final boolean reached = stateMachine.waitState(5L, TimeUnit.SECONDS,
+        ServerStatus.PROCESSING);
+
+    // then
+    assertFalse(timeout);
+    assertTrue(reached);
+  }
+
   @Test
   public void testToString() {
     final String s1 = randomUUID().toString();
@@ -4,11 +4,13 @@ import static hera.util.ThreadUtils.trySleep;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.mock;
 
 import hera.AbstractTestCase;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.mockito.internal.verification.AtLeast;
 
@@ -61,4 +63,51 @@ public class ThreadServerTest extends AbstractTestCase {
     assertEquals(ServerStatus.TERMINATED, server.getStatus());
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldBackOffWhenIdle() {
+    // given
+    final AtomicInteger count = new AtomicInteger(0);
+    final ThreadServer server = new ThreadServer() {
+      @Override
+      protected void process() throws Exception {
+        count.incrementAndGet();
+        idle();
+      }
+    };
+
+    // when
+    server.boot(true);
+    trySleep(500);
+    server.down(true);
+
+    // then
+    // a busy loop calls it millions of times
+    assertTrue(count.get() < 100);
+  }
+
+  @Test
+  public void shouldWakeUpOnTrigger() {
+    // given
+    final AtomicInteger count = new AtomicInteger(0);
+    final ThreadServer server = new ThreadServer() {
+      @Override
+      protected void process() throws Exception {
+        count.incrementAndGet();
+        idle();
+      }
+    };
+    server.backoff = new IdleBackoff(1000000000L, 1000000000L);
+    server.boot(true);
+    trySleep(100);
+    final int before = count.get();
+
+    // when
+    server.trigger();
+    trySleep(100);
+
+    // then
+    assertEquals(before + 1, count.get());
+    server.down(true);
+  }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import org.junit.Test;
+
+public class MerkleUtilsTest {
+
+  protected final byte[] leaf1 = Sha256Utils.digest("1".getBytes());
+  protected final byte[] leaf2 = Sha256Utils.digest("2".getBytes());
+  protected final byte[] leaf3 = Sha256Utils.digest("3".getBytes());
+
+  @Test
+  public void testEmpty() {
+    assertEquals(0, MerkleUtils.calculateRoot(Collections.<byte[]>emptyList()).length);
+  }
+
+  @Test
+  public void testSingleLeaf() {
+    assertArrayEquals(leaf1, MerkleUtils.calculateRoot(asList(leaf1)));
+  }
+
+  @Test
+  public void testEvenLeaves() {
+    final byte[] expected = Sha256Utils.digest(leaf1, leaf2);
+    assertArrayEquals(expected, MerkleUtils.calculateRoot(asList(leaf1, leaf2)));
+  }
+
+  @Test
+  public void testOddLeaves() {
+    final byte[] expected =
+        Sha256Utils.digest(Sha256Utils.digest(leaf1, leaf2), Sha256Utils.digest(leaf3, leaf3));
+    assertArrayEquals(expected, MerkleUtils.calculateRoot(asList(leaf1, leaf2, leaf3)));
+  }
+
+}
@@ -6,8 +6,10 @@ package hera.util.conf;
 
 import static java.util.UUID.randomUUID;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import hera.AbstractTestCase;
+import hera.util.Configuration;
 import org.junit.Test;
 
 public class EnvironmentConfigurationTest extends AbstractTestCase {
@@ -25,6 +27,15 @@ public class EnvironmentConfigurationTest extends AbstractTestCase {
     configuration.define(randomUUID().toString(), randomUUID().toString());
   }
 
+  @Test
+  public void testGetSubconfiguration() {
+    final EnvironmentConfiguration configuration = new EnvironmentConfiguration();
+    final Configuration subconfiguration =
+        configuration.getSubconfiguration(randomUUID().toString());
+    assertNotNull(subconfiguration);
+    assertTrue(subconfiguration.asMap().isEmpty());
+  }
+
   @Test
   public void testGetValue() {
     final EnvironmentConfiguration configuration = new EnvironmentConfiguration();
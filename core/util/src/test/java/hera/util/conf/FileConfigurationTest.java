@@ -0,0 +1,52 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util.conf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import hera.AbstractTestCase;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.junit.Test;
+
+public class FileConfigurationTest extends AbstractTestCase {
+
+  protected void write(final File file, final String content) throws IOException {
+    try (final OutputStream out = new FileOutputStream(file)) {
+      out.write(content.getBytes("UTF-8"));
+    }
+  }
+
+  @Test
+  public void testGet() throws Exception {
+    // given
+    final File file = File.createTempFile("heraj", ".properties");
+    file.deleteOnExit();
+    write(file, "heraj.client.timeout=3000\nname=test\n");
+    final FileConfiguration configuration = new FileConfiguration(file);
+
+    // when
+    final String name = configuration.getAsString("name", null);
+    final long timeout = configuration.getAsLong("heraj.client.timeout", 0L);
+    write(file, "name=changed\n");
+    file.setLastModified(file.lastModified() + 1000L);
+
+    // then
+    assertEquals("test", name);
+    assertEquals(3000L, timeout);
+    assertEquals("changed", configuration.getAsString("name", null));
+  }
+
+  @Test
+  public void shouldBeEmptyWithoutFile() {
+    final FileConfiguration configuration =
+        new FileConfiguration(new File("not-exists-" + System.nanoTime()));
+    assertNull(configuration.get("name"));
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * @copyright defined in LICENSE.txt
+ */
+
+package hera.util.conf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import hera.AbstractTestCase;
+import hera.server.ScheduledServer;
+import hera.server.ServerPool;
+import hera.util.Configuration;
+import hera.util.ThreadUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ReloadableConfigurationTest extends AbstractTestCase {
+
+  protected final ConfigurationBinder<Integer> binder = new ConfigurationBinder<Integer>() {
+    @Override
+    public Integer bind(final Configuration configuration) {
+      final int size = configuration.getAsInt("pool.size", 1);
+      if (size <= 0) {
+        throw new IllegalArgumentException("Pool size must be positive");
+      }
+      return size;
+    }
+  };
+
+  @Test
+  public void testReload() {
+    // given
+    final InMemoryConfiguration base = new InMemoryConfiguration();
+    base.define("pool.size", "4");
+    final InMemoryConfiguration override = new InMemoryConfiguration();
+    final ReloadableConfiguration<Integer> configuration =
+        new ReloadableConfiguration<Integer>(binder, base, override);
+    final List<Integer> changes = new ArrayList<Integer>();
+    configuration.addListener(new ConfigurationListener<Integer>() {
+      @Override
+      public void changed(final Integer from, final Integer to) {
+        changes.add(from);
+        changes.add(to);
+      }
+    });
+
+    // when
+    final boolean unchanged = configuration.reload();
+    override.define("pool.size", "8");
+    final boolean changed = configuration.reload();
+
+    // then
+    assertFalse(unchanged);
+    assertTrue(changed);
+    assertEquals(8, configuration.get().intValue());
+    assertEquals(2, changes.size());
+    assertEquals(4, changes.get(0).intValue());
+    assertEquals(8, changes.get(1).intValue());
+  }
+
+  @Test
+  public void shouldKeepOnBindFailure() {
+    // given
+    final InMemoryConfiguration source = new InMemoryConfiguration();
+    source.define("pool.size", "4");
+    final ReloadableConfiguration<Integer> configuration =
+        new ReloadableConfiguration<Integer>(binder, source);
+
+    // when
+    source.define("pool.size", "0");
+
+    // then
+    assertFalse(configuration.reload());
+    assertEquals(4, configuration.get().intValue());
+  }
+
+  @Test
+  public void testWatcher() {
+    // given
+    final InMemoryConfiguration source = new InMemoryConfiguration();
+    final ReloadableConfiguration<Integer> configuration =
+        new ReloadableConfiguration<Integer>(binder, source);
+    final ServerPool pool = new ServerPool(1);
+    final ScheduledServer watcher = configuration.newWatcher(pool, 10L, TimeUnit.MILLISECONDS);
+    watcher.boot(true);
+
+    // when
+    source.define("pool.size", "16");
+    ThreadUtils.trySleep(200L);
+
+    // then
+    assertEquals(16, configuration.get().intValue());
+    pool.close();
+  }
+
+}